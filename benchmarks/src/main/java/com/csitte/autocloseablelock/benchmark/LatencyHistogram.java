@@ -0,0 +1,112 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock.benchmark;
+
+/**
+ *  Histogram of latencies in nanoseconds with a relative error of at most 12.5%.
+ *
+ *  Each power of two is split into eight linear sub-buckets.
+ *  Recording does not allocate; one histogram is used per thread and merged afterwards.
+ */
+final class LatencyHistogram
+{
+    /** Number of sub-buckets per power of two (log2) */
+    private static final int SUB_BITS = 3;
+
+    /** Number of sub-buckets per power of two */
+    private static final int SUB_BUCKETS = 1 << SUB_BITS;
+
+    /** Bucket counts */
+    private final long[] counts = new long[64 * SUB_BUCKETS];
+
+    /** Number of recorded values */
+    private long totalCount;
+
+    /** Largest recorded value */
+    private long max;
+
+
+    /**
+     *  @param  nanos   latency in nanoseconds
+     */
+    void record(final long nanos)
+    {
+        final long value = Math.max(nanos, 0L);
+        counts[index(value)]++;
+        totalCount++;
+        if (value > max)
+        {
+            max = value;
+        }
+    }
+
+    /** Add the values of another histogram */
+    void add(final LatencyHistogram other)
+    {
+        for (int i = 0; i < counts.length; i++)
+        {
+            counts[i] += other.counts[i];
+        }
+        totalCount += other.totalCount;
+        max = Math.max(max, other.max);
+    }
+
+    /** @return number of recorded values */
+    long getTotalCount()
+    {
+        return totalCount;
+    }
+
+    /** @return largest recorded value */
+    long getMax()
+    {
+        return max;
+    }
+
+    /**
+     *  @param  percentile  0 to 100
+     *
+     *  @return upper bound of the bucket containing the percentile; 0 if empty
+     */
+    long getValueAtPercentile(final double percentile)
+    {
+        final long rank = (long) Math.ceil(percentile / 100.0 * totalCount);
+        long count = 0L;
+        for (int i = 0; i < counts.length; i++)
+        {
+            count += counts[i];
+            if (count >= rank && count > 0L)
+            {
+                return Math.min(upperBound(i), max);
+            }
+        }
+        return 0L;
+    }
+
+    /** @return bucket index of the value */
+    private static int index(final long value)
+    {
+        if (value < SUB_BUCKETS)
+        {
+            return (int) value; // exact
+        }
+        final int exponent = 63 - Long.numberOfLeadingZeros(value);
+        final int sub = (int) (value >>> (exponent - SUB_BITS)) & (SUB_BUCKETS - 1);
+        return (exponent - SUB_BITS + 1) * SUB_BUCKETS + sub;
+    }
+
+    /** @return largest value of the bucket */
+    private static long upperBound(final int index)
+    {
+        if (index < SUB_BUCKETS)
+        {
+            return index;
+        }
+        final int exponent = index / SUB_BUCKETS + SUB_BITS - 1;
+        final long sub = index % SUB_BUCKETS;
+        final long width = 1L << (exponent - SUB_BITS);
+        return (1L << exponent) + (sub + 1) * width - 1;
+    }
+}
@@ -0,0 +1,96 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.LockListener;
+
+/**
+ *  Cost of the {@link LockListener} hooks.
+ *
+ *  {@link #closeableLock()} runs without a listener and should cost the same as
+ *  {@link #reentrantLock()}, since the hooks are removed by the JIT compiler.
+ *  {@link #closeableLockWithListener()} runs in a JVM with a {@link CountingListener} installed.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ListenerOverheadBenchmark
+{
+    /** plain lock */
+    private final ReentrantLock reentrantLock = new ReentrantLock();
+
+    /** lock under test */
+    private final CloseableLock closeableLock = new CloseableLock();
+
+    /** counter protected by the lock */
+    private long counter;
+
+
+    /** Listener counting the acquisitions */
+    public static class CountingListener implements LockListener
+    {
+        /** number of acquisitions */
+        static final LongAdder ACQUIRED = new LongAdder();
+
+        @Override
+        public void onAcquired(final CloseableLock lock)
+        {
+            ACQUIRED.increment();
+        }
+    }
+
+    /** @return counter value */
+    @Benchmark
+    public long reentrantLock()
+    {
+        reentrantLock.lock();
+        try
+        {
+            return ++counter;
+        }
+        finally
+        {
+            reentrantLock.unlock();
+        }
+    }
+
+    /** @return counter value */
+    @Benchmark
+    public long closeableLock()
+    {
+        try (AutoCloseableLock lock = closeableLock.lock())
+        {
+            return ++counter;
+        }
+    }
+
+    /** @return counter value */
+    @Benchmark
+    @Fork(value = 2, jvmArgsAppend = "-D" + LockListener.LISTENER_PROPERTY
+                    + "=com.csitte.autocloseablelock.benchmark.ListenerOverheadBenchmark$CountingListener")
+    public long closeableLockWithListener()
+    {
+        return closeableLock();
+    }
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock.benchmark;
+
+import java.io.FileOutputStream;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ *  Macro benchmark: drives the lock variants with a configurable mix of reads and writes,
+ *  hold time and thread count, and writes throughput and latency percentiles as CSV
+ *  (one line per measurement point, so the lines of a variant form a scalability curve).
+ *
+ *  By default every thread runs a closed loop: the next operation starts when the previous one
+ *  (and the think time) is done, and each operation is timed from its own start.
+ *  A stalled operation then delays the operations behind it instead of recording them as slow
+ *  (coordinated omission), so the percentiles are service times ({@code timing=service}).
+ *  With {@code --rate} every thread starts its operations on a fixed schedule and each operation
+ *  is timed from its intended start, so the percentiles include the time spent waiting
+ *  behind a stall ({@code timing=response}).
+ *
+ *  <pre>
+ *  java -cp benchmarks/target/benchmarks.jar com.csitte.autocloseablelock.benchmark.LoadGenerator \
+ *       --workloads=lock,rwlock --readPercent=50,90 --output=curves.csv
+ *  </pre>
+ *
+ *  Options (comma separated lists):
+ *  <ul>
+ *  <li>{@code --workloads}   lock, rwlock, condition, activity (default: all)</li>
+ *  <li>{@code --threads}     thread counts (default: 1, 2, 4, ... up to 4x the number of cores)</li>
+ *  <li>{@code --threadTypes} platform, virtual (default: both; virtual requires Java 21)</li>
+ *  <li>{@code --readPercent} percentage of read operations (default: 0,50,90; not used by lock)</li>
+ *  <li>{@code --holdNanos}   busy time inside the lock (default: 100,1000)</li>
+ *  <li>{@code --thinkNanos}  busy time between operations (default: 1000; not used with rate)</li>
+ *  <li>{@code --rate}        operations per second and thread (default: 0, closed loop)</li>
+ *  <li>{@code --warmup}      warmup per point in milliseconds (default: 1000)</li>
+ *  <li>{@code --duration}    measurement per point in milliseconds (default: 2000)</li>
+ *  <li>{@code --output}      CSV file (default: standard output)</li>
+ *  </ul>
+ */
+public final class LoadGenerator
+{
+    /** CSV header */
+    private static final String HEADER = "workload,variant,threadType,threads,readPercent,holdNanos,thinkNanos,"
+                    + "ratePerThread,timing,opsPerSec,p50Nanos,p90Nanos,p99Nanos,p999Nanos,maxNanos";
+
+    /** Phase: warmup, operations are not recorded */
+    private static final int WARMUP = 0;
+
+    /** Phase: measurement */
+    private static final int MEASURE = 1;
+
+    /** Phase: stop */
+    private static final int STOP = 2;
+
+    /** Current phase */
+    private static volatile int phase;
+
+
+    /** Utility class */
+    private LoadGenerator()
+    {
+        // not used
+    }
+
+    /**
+     *  @param  args    options, see class documentation
+     *
+     *  @throws Exception on failure
+     */
+    public static void main(final String[] args) throws Exception
+    {
+        final Map<String, String> options = parseOptions(args);
+        final int cores = Runtime.getRuntime().availableProcessors();
+        final List<String> workloads = list(options, "workloads", "lock,rwlock,condition,activity");
+        final List<Long> threadCounts = numbers(options, "threads", defaultThreadCounts(cores));
+        final List<String> threadTypes = list(options, "threadTypes", "platform,virtual");
+        final List<Long> readPercents = numbers(options, "readPercent", "0,50,90");
+        final List<Long> holdNanos = numbers(options, "holdNanos", "100,1000");
+        final long thinkNanos = Long.parseLong(options.getOrDefault("thinkNanos", "1000"));
+        final long rate = Long.parseLong(options.getOrDefault("rate", "0"));
+        final String timing = rate > 0L? "response": "service";
+        final long warmupMillis = Long.parseLong(options.getOrDefault("warmup", "1000"));
+        final long durationMillis = Long.parseLong(options.getOrDefault("duration", "2000"));
+        final String output = options.get("output");
+
+        try (PrintWriter out = output == null
+                        ? new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), true)
+                        : new PrintWriter(new OutputStreamWriter(new FileOutputStream(output), StandardCharsets.UTF_8)))
+        {
+            out.println(HEADER);
+            for (final String threadType : threadTypes)
+            {
+                final ThreadFactory threadFactory = threadFactory(threadType);
+                if (threadFactory == null)
+                {
+                    System.err.println("skipped: " + threadType + " threads are not supported by this JVM");
+                    continue;
+                }
+                for (final String name : workloads)
+                {
+                    for (final long hold : holdNanos)
+                    {
+                        for (final Workload workload : Workload.create(name, hold))
+                        {
+                            final List<Long> mixes = "lock".equals(name)? readPercents.subList(0, 1): readPercents;
+                            for (final long readPercent : mixes)
+                            {
+                                for (final long threads : threadCounts)
+                                {
+                                    final LatencyHistogram histogram = new LatencyHistogram();
+                                    final double opsPerSec = run(workload, threadFactory, (int) threads,
+                                                    (int) readPercent, thinkNanos, rate, warmupMillis, durationMillis,
+                                                    histogram);
+                                    final String line = String.join(",", workload.name, workload.variant, threadType,
+                                                    String.valueOf(threads), String.valueOf(readPercent),
+                                                    String.valueOf(hold), String.valueOf(thinkNanos),
+                                                    String.valueOf(rate), timing,
+                                                    String.format("%.0f", opsPerSec),
+                                                    String.valueOf(histogram.getValueAtPercentile(50)),
+                                                    String.valueOf(histogram.getValueAtPercentile(90)),
+                                                    String.valueOf(histogram.getValueAtPercentile(99)),
+                                                    String.valueOf(histogram.getValueAtPercentile(99.9)),
+                                                    String.valueOf(histogram.getMax()));
+                                    out.println(line);
+                                    out.flush();
+                                    if (output != null)
+                                    {
+                                        System.err.println(line); // progress
+                                    }
+                                }
+                            }
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     *  Measure one point.
+     *
+     *  @return operations per second
+     */
+    private static double run(final Workload workload, final ThreadFactory threadFactory, final int threads,
+                              final int readPercent, final long thinkNanos, final long rate,
+                              final long warmupMillis, final long durationMillis, final LatencyHistogram result)
+                    throws InterruptedException
+    {
+        final LatencyHistogram[] histograms = new LatencyHistogram[threads];
+        final Thread[] workers = new Thread[threads];
+        final AtomicReference<Throwable> failure = new AtomicReference<>();
+        phase = WARMUP;
+        workload.start();
+        for (int i = 0; i < threads; i++)
+        {
+            final LatencyHistogram histogram = new LatencyHistogram();
+            histograms[i] = histogram;
+            workers[i] = threadFactory.newThread(() ->
+            {
+                try
+                {
+                    if (rate > 0L)
+                    {
+                        workAtRate(workload, readPercent, rate, histogram);
+                    }
+                    else
+                    {
+                        work(workload, readPercent, thinkNanos, histogram);
+                    }
+                }
+                catch (RuntimeException | Error x)
+                {
+                    failure.compareAndSet(null, x);
+                }
+            });
+            workers[i].start();
+        }
+        Thread.sleep(warmupMillis);
+        phase = MEASURE;
+        final long start = System.nanoTime();
+        Thread.sleep(durationMillis);
+        phase = STOP;
+        final long elapsedNanos = System.nanoTime() - start;
+        for (final Thread worker : workers)
+        {
+            worker.join();
+        }
+        workload.stop();
+        if (failure.get() != null)
+        {
+            throw new IllegalStateException("worker failed", failure.get());
+        }
+        for (final LatencyHistogram histogram : histograms)
+        {
+            result.add(histogram);
+        }
+        return result.getTotalCount() * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    /** Closed loop of a worker thread: each operation is timed from its actual start (service time) */
+    private static void work(final Workload workload, final int readPercent, final long thinkNanos,
+                             final LatencyHistogram histogram)
+    {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        int currentPhase;
+        while ((currentPhase = phase) != STOP)
+        {
+            final boolean read = random.nextInt(100) < readPercent;
+            final long start = System.nanoTime();
+            if (read)
+            {
+                workload.read();
+            }
+            else
+            {
+                workload.write();
+            }
+            final long latency = System.nanoTime() - start;
+            if (currentPhase == MEASURE)
+            {
+                histogram.record(latency);
+            }
+            Workload.spin(thinkNanos);
+        }
+    }
+
+    /**
+     *  Open loop of a worker thread: operations are scheduled at the given rate and each operation
+     *  is timed from its intended start (response time), so a stall is recorded for every operation
+     *  it delayed. If the thread falls behind, it starts the due operations without pause.
+     */
+    private static void workAtRate(final Workload workload, final int readPercent, final long rate,
+                                   final LatencyHistogram histogram)
+    {
+        final ThreadLocalRandom random = ThreadLocalRandom.current();
+        final long intervalNanos = Math.max(1L, TimeUnit.SECONDS.toNanos(1) / rate);
+        long intendedStart = System.nanoTime();
+        int currentPhase;
+        while ((currentPhase = phase) != STOP)
+        {
+            final long delay = intendedStart - System.nanoTime();
+            if (delay > 0L)
+            {
+                Workload.spin(delay);
+            }
+            final boolean read = random.nextInt(100) < readPercent;
+            if (read)
+            {
+                workload.read();
+            }
+            else
+            {
+                workload.write();
+            }
+            final long latency = System.nanoTime() - intendedStart;
+            if (currentPhase == MEASURE)
+            {
+                histogram.record(latency);
+            }
+            intendedStart += intervalNanos;
+        }
+    }
+
+    /**
+     *  @param  threadType  platform or virtual
+     *
+     *  @return thread factory; {@code null} if not supported
+     */
+    private static ThreadFactory threadFactory(final String threadType)
+    {
+        switch (threadType)
+        {
+            case "platform":
+                return Thread::new;
+            case "virtual":
+                try
+                {
+                    // Thread.ofVirtual().factory(), by reflection to run on Java 8
+                    final Object builder = Thread.class.getMethod("ofVirtual").invoke(null);
+                    return (ThreadFactory) Class.forName("java.lang.Thread$Builder").getMethod("factory").invoke(builder);
+                }
+                catch (ReflectiveOperationException x)
+                {
+                    return null; // before Java 21
+                }
+            default:
+                throw new IllegalArgumentException("unknown thread type: " + threadType);
+        }
+    }
+
+    /** @return 1, 2, 4, ... up to 4x the number of cores */
+    private static String defaultThreadCounts(final int cores)
+    {
+        final StringBuilder counts = new StringBuilder();
+        for (int threads = 1; threads < 4 * cores; threads *= 2)
+        {
+            counts.append(threads).append(',');
+        }
+        return counts.append(4 * cores).toString();
+    }
+
+    /** @return options of the form {@code --name=value} */
+    private static Map<String, String> parseOptions(final String... args)
+    {
+        final Map<String, String> options = new HashMap<>();
+        for (final String arg : args)
+        {
+            final int separator = arg.indexOf('=');
+            if (!arg.startsWith("--") || separator < 0)
+            {
+                throw new IllegalArgumentException("invalid option: " + arg + " (expected --name=value)");
+            }
+            options.put(arg.substring(2, separator), arg.substring(separator + 1));
+        }
+        return options;
+    }
+
+    /** @return comma separated values of the option */
+    private static List<String> list(final Map<String, String> options, final String name, final String defaultValue)
+    {
+        final List<String> values = new ArrayList<>();
+        for (final String value : options.getOrDefault(name, defaultValue).split(","))
+        {
+            if (!value.trim().isEmpty())
+            {
+                values.add(value.trim());
+            }
+        }
+        return values;
+    }
+
+    /** @return comma separated numbers of the option */
+    private static List<Long> numbers(final Map<String, String> options, final String name, final String defaultValue)
+    {
+        final List<Long> values = new ArrayList<>();
+        for (final String value : list(options, name, defaultValue))
+        {
+            values.add(Long.valueOf(value));
+        }
+        return values;
+    }
+}
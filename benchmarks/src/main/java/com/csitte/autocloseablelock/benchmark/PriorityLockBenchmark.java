@@ -0,0 +1,86 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.PriorityLock;
+
+/**
+ *  Latency of high priority requests under mixed load:
+ *  one interactive thread (priority 1) competes with three batch threads (priority 0).
+ *
+ *  Compare the p0.99 of {@code mixed:interactive} between the variants;
+ *  {@code ReentrantLock} ignores the priority.
+ */
+@BenchmarkMode(Mode.SampleTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Group)
+public class PriorityLockBenchmark
+{
+    /** lock implementation */
+    @Param({"ReentrantLock", "PriorityLock"})
+    public String variant;
+
+    /** work inside the lock (in {@link Blackhole#consumeCPU(long)} tokens) */
+    @Param({"1000"})
+    public long work;
+
+    /** lock under test */
+    private CloseableLock closeableLock;
+
+
+    /** Create lock */
+    @Setup
+    public void setup()
+    {
+        closeableLock = new CloseableLock("PriorityLock".equals(variant)? new PriorityLock(2): new ReentrantLock());
+    }
+
+    /** High priority request */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(1)
+    public void interactive()
+    {
+        try (AutoCloseableLock lock = closeableLock.lock(1))
+        {
+            Blackhole.consumeCPU(work);
+        }
+    }
+
+    /** Low priority request */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(3)
+    public void batch()
+    {
+        try (AutoCloseableLock lock = closeableLock.lock(0))
+        {
+            Blackhole.consumeCPU(work);
+        }
+    }
+}
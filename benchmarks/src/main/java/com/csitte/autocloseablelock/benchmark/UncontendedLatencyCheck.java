@@ -0,0 +1,84 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock.benchmark;
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import org.openjdk.jmh.results.RunResult;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ *  Regression check of the uncontended latency of {@code CloseableLock}.
+ *
+ *  Runs {@link UncontendedLockBenchmark#lockAndClose()} and {@link UncontendedLockBenchmark#plainLockAndUnlock()}
+ *  for each lock variant and exits with status 1 if the wrapper adds more than the allowed overhead
+ *  (default 15 ns per lock/unlock), e.g. a clock read or a volatile store on every acquisition.
+ *
+ *  java -cp benchmarks/target/benchmarks.jar com.csitte.autocloseablelock.benchmark.UncontendedLatencyCheck [maxOverheadNanos]
+ */
+public final class UncontendedLatencyCheck
+{
+    /** Default of the allowed overhead in nanoseconds */
+    private static final double DEFAULT_MAX_OVERHEAD_NANOS = 15.0;
+
+    /** Utility class */
+    private UncontendedLatencyCheck()
+    {
+        // not used
+    }
+
+    /**
+     *  @param  args    optional: allowed overhead in nanoseconds
+     *
+     *  @throws RunnerException if the benchmark fails
+     */
+    public static void main(final String[] args) throws RunnerException
+    {
+        final double maxOverheadNanos = args.length > 0? Double.parseDouble(args[0]): DEFAULT_MAX_OVERHEAD_NANOS;
+        final Options options = new OptionsBuilder()
+                        .include(UncontendedLockBenchmark.class.getName() + "\\.(lockAndClose|plainLockAndUnlock)$")
+                        .param("ownerTracking", "false")
+                        .forks(1)
+                        .warmupIterations(3)
+                        .measurementIterations(3)
+                        .build();
+        final Collection<RunResult> results = new Runner(options).run();
+
+        final Map<String, Double> plain = new HashMap<>();
+        final Map<String, Double> closeable = new HashMap<>();
+        for (final RunResult result : results)
+        {
+            final String variant = result.getParams().getParam("variant");
+            final double score = result.getPrimaryResult().getScore();
+            if (result.getParams().getBenchmark().endsWith("plainLockAndUnlock"))
+            {
+                plain.put(variant, score);
+            }
+            else
+            {
+                closeable.put(variant, score);
+            }
+        }
+        boolean failed = false;
+        for (final Map.Entry<String, Double> entry : closeable.entrySet())
+        {
+            final double overhead = entry.getValue() - plain.get(entry.getKey());
+            final boolean tooSlow = overhead > maxOverheadNanos;
+            System.out.printf("%-14s plain %7.1f ns, CloseableLock %7.1f ns, overhead %6.1f ns%s%n",
+                              entry.getKey(), plain.get(entry.getKey()), entry.getValue(), overhead,
+                              tooSlow? " > " + maxOverheadNanos + " ns: REGRESSION": "");
+            failed |= tooSlow;
+        }
+        if (failed)
+        {
+            System.exit(1);
+        }
+    }
+}
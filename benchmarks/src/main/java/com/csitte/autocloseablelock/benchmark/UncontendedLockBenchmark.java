@@ -0,0 +1,126 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock.benchmark;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.BiasedLock;
+import com.csitte.autocloseablelock.ClhLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.CompactLock;
+import com.csitte.autocloseablelock.McsLock;
+
+/**
+ *  Uncontended lock/unlock cost of the lock variants, acquired by a single thread.
+ *
+ *  {@link #plainLockAndUnlock()} is the cost of the underlying lock without the wrapper;
+ *  {@link UncontendedLatencyCheck} compares both to catch a regression of the wrapper overhead.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class UncontendedLockBenchmark
+{
+    /** lock implementation */
+    @Param({"ReentrantLock", "BiasedLock", "CompactLock", "McsLock", "ClhLock"})
+    public String variant;
+
+    /** true: owner tracking enabled (as while registered with the LockRegistry) */
+    @Param({"false"})
+    public boolean ownerTracking;
+
+    /** underlying lock */
+    private Lock plainLock;
+
+    /** lock under test */
+    private CloseableLock closeableLock;
+
+    /** counter protected by the lock */
+    private long counter;
+
+
+    /** @return a new lock of the given variant */
+    static Lock newLock(final String variant)
+    {
+        switch (variant)
+        {
+            case "BiasedLock":
+                return new BiasedLock();
+            case "CompactLock":
+                return new CompactLock();
+            case "McsLock":
+                return new McsLock();
+            case "ClhLock":
+                return new ClhLock();
+            default:
+                return new ReentrantLock();
+        }
+    }
+
+    /** Create lock */
+    @Setup
+    public void setup()
+    {
+        plainLock = newLock(variant);
+        closeableLock = new CloseableLock(newLock(variant));
+        closeableLock.setOwnerTracking(ownerTracking);
+    }
+
+    /** @return counter value */
+    @Benchmark
+    public long plainLockAndUnlock()
+    {
+        plainLock.lock();
+        try
+        {
+            return ++counter;
+        }
+        finally
+        {
+            plainLock.unlock();
+        }
+    }
+
+    /** @return counter value */
+    @Benchmark
+    public long lockAndClose()
+    {
+        try (AutoCloseableLock lock = closeableLock.lock())
+        {
+            return ++counter;
+        }
+    }
+
+    /** @return counter value */
+    @Benchmark
+    public long reentrantLockAndClose()
+    {
+        try (AutoCloseableLock outer = closeableLock.lock())
+        {
+            try (AutoCloseableLock inner = closeableLock.lock())
+            {
+                return ++counter;
+            }
+        }
+    }
+}
@@ -0,0 +1,261 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock.benchmark;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import com.csitte.activity.ActivityImpl;
+import com.csitte.activity.CloseableActivity;
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.AutoCloseableWriteLock;
+import com.csitte.autocloseablelock.BiasedLock;
+import com.csitte.autocloseablelock.ClhLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.CloseableReadWriteLock;
+import com.csitte.autocloseablelock.CompactLock;
+import com.csitte.autocloseablelock.LockCondition;
+import com.csitte.autocloseablelock.McsLock;
+import com.csitte.autocloseablelock.PriorityLock;
+import com.csitte.autocloseablelock.PriorityReadWriteLock;
+
+/**
+ *  An operation driven by the {@link LoadGenerator}, with a read and a write variant.
+ */
+abstract class Workload
+{
+    /** Maximum wait of a condition waiter */
+    private static final Duration CONDITION_TIMEOUT = Duration.ofMillis(10);
+
+    /** Name of the workload */
+    final String name;
+
+    /** Name of the lock variant */
+    final String variant;
+
+    /** Busy time inside the lock in nanoseconds */
+    private final long holdNanos;
+
+
+    /** Constructor */
+    Workload(final String name, final String variant, final long holdNanos)
+    {
+        this.name = name;
+        this.variant = variant;
+        this.holdNanos = holdNanos;
+    }
+
+    /**
+     *  @param  name        workload name: lock, rwlock, condition or activity
+     *  @param  holdNanos   busy time inside the lock in nanoseconds
+     *
+     *  @return the workloads with all lock variants
+     */
+    static List<Workload> create(final String name, final long holdNanos)
+    {
+        switch (name)
+        {
+            case "lock":
+                return Arrays.asList(
+                    new LockWorkload("ReentrantLock", new ReentrantLock(), holdNanos),
+                    new LockWorkload("ReentrantLock-fair", new ReentrantLock(true), holdNanos),
+                    new LockWorkload("CompactLock", new CompactLock(), holdNanos),
+                    new LockWorkload("McsLock", new McsLock(), holdNanos),
+                    new LockWorkload("ClhLock", new ClhLock(), holdNanos),
+                    new LockWorkload("BiasedLock", new BiasedLock(), holdNanos),
+                    new LockWorkload("PriorityLock", new PriorityLock(2), holdNanos));
+            case "rwlock":
+                return Arrays.asList(
+                    new ReadWriteLockWorkload("ReentrantReadWriteLock", new ReentrantReadWriteLock(), holdNanos),
+                    new ReadWriteLockWorkload("PriorityReadWriteLock", new PriorityReadWriteLock(2), holdNanos));
+            case "condition":
+                return Arrays.asList(new ConditionWorkload(holdNanos));
+            case "activity":
+                return Arrays.asList(new ActivityWorkload(holdNanos));
+            default:
+                throw new IllegalArgumentException("unknown workload: " + name);
+        }
+    }
+
+    /** Prepare a measurement */
+    void start()
+    {
+        // nothing to prepare
+    }
+
+    /** Clean up after a measurement */
+    void stop()
+    {
+        // nothing to clean up
+    }
+
+    /** Shared operation */
+    abstract void read();
+
+    /** Exclusive operation */
+    abstract void write();
+
+    /** Keep the lock busy for the hold time */
+    final void hold()
+    {
+        spin(holdNanos);
+    }
+
+    /** Busy wait (does not yield the CPU like a real critical section) */
+    static void spin(final long nanos)
+    {
+        if (nanos > 0L)
+        {
+            final long start = System.nanoTime();
+            while (System.nanoTime() - start < nanos)
+            {
+                // busy
+            }
+        }
+    }
+
+    /** Exclusive lock: reads and writes both lock */
+    private static final class LockWorkload extends Workload
+    {
+        /** lock under test */
+        private final CloseableLock closeableLock;
+
+        /** Constructor */
+        LockWorkload(final String variant, final Lock lock, final long holdNanos)
+        {
+            super("lock", variant, holdNanos);
+            this.closeableLock = new CloseableLock(lock);
+        }
+
+        @Override
+        void read()
+        {
+            write();
+        }
+
+        @Override
+        void write()
+        {
+            try (AutoCloseableLock lock = closeableLock.lock())
+            {
+                hold();
+            }
+        }
+    }
+
+    /** Read/write lock */
+    private static final class ReadWriteLockWorkload extends Workload
+    {
+        /** lock under test */
+        private final CloseableReadWriteLock closeableLock;
+
+        /** Constructor */
+        ReadWriteLockWorkload(final String variant, final ReadWriteLock lock, final long holdNanos)
+        {
+            super("rwlock", variant, holdNanos);
+            this.closeableLock = new CloseableReadWriteLock(lock);
+        }
+
+        @Override
+        void read()
+        {
+            try (AutoCloseableLock lock = closeableLock.readLock())
+            {
+                hold();
+            }
+        }
+
+        @Override
+        void write()
+        {
+            try (AutoCloseableWriteLock lock = closeableLock.writeLock())
+            {
+                hold();
+            }
+        }
+    }
+
+    /** LockCondition: writers advance the state, readers wait for the next state */
+    private static final class ConditionWorkload extends Workload
+    {
+        /** lock of the condition */
+        private final CloseableLock closeableLock = new CloseableLock();
+
+        /** condition under test */
+        private final LockCondition<Long> condition = new LockCondition<>(closeableLock, 0L);
+
+        /** Constructor */
+        ConditionWorkload(final long holdNanos)
+        {
+            super("condition", "LockCondition", holdNanos);
+        }
+
+        @Override
+        void read()
+        {
+            final long seen = condition.getState();
+            condition.waitForState(state -> state > seen, CONDITION_TIMEOUT);
+        }
+
+        @Override
+        void write()
+        {
+            try (AutoCloseableLock lock = closeableLock.lock())
+            {
+                hold();
+                condition.setState(condition.getState() + 1);
+            }
+        }
+    }
+
+    /** ActivityImpl: readers get the status, writers update it */
+    private static final class ActivityWorkload extends Workload
+    {
+        /** activity under test */
+        private final ActivityImpl<Long> activity = new ActivityImpl<>();
+
+        /** the started activity */
+        private CloseableActivity closeableActivity;
+
+        /** Constructor */
+        ActivityWorkload(final long holdNanos)
+        {
+            super("activity", "ActivityImpl", holdNanos);
+        }
+
+        @Override
+        void start()
+        {
+            closeableActivity = activity.startActivity();
+        }
+
+        @Override
+        void stop()
+        {
+            closeableActivity.close();
+        }
+
+        @Override
+        void read()
+        {
+            activity.getStatus();
+        }
+
+        @Override
+        void write()
+        {
+            try (AutoCloseableLock lock = activity.getLock().lock())
+            {
+                hold();
+                activity.updateStatus(System.nanoTime());
+            }
+        }
+    }
+}
@@ -0,0 +1,43 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.activity;
+
+/**
+ *  Hooks for activity events.
+ *
+ *  This Java 8 version does nothing. On Java 11 and later the version in
+ *  {@code META-INF/versions/11} of the multi-release jar is used instead,
+ *  which emits JDK Flight Recorder events.
+ */
+final class ActivityEvents
+{
+    /** Utility class */
+    private ActivityEvents()
+    {
+        // not used
+    }
+
+    /**
+     *  Called when an activity is started.
+     *
+     *  @return handle of the activity event; {@code null} if disabled
+     */
+    static Object begin()
+    {
+        return null;
+    }
+
+    /**
+     *  Called when an activity is closed.
+     *
+     *  @param  event       handle returned by {@link #begin()}
+     *  @param  activity    the activity
+     *  @param  status      the activity status
+     */
+    static void end(final Object event, final Activity<?> activity, final Object status)
+    {
+        // disabled
+    }
+}
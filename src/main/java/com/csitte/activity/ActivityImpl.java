@@ -5,9 +5,14 @@
 package com.csitte.activity;
 
 import java.time.Instant;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
 
 import com.csitte.autocloseablelock.AutoCloseableLock;
 import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.LeakDetector;
 import com.csitte.autocloseablelock.LockCondition;
 
 
@@ -17,14 +22,53 @@ import com.csitte.autocloseablelock.LockCondition;
  *  <p>Use the {@link #startActivity()} method to access the resources of an activity
  *  and {@link #getCondition()} to synchronize with any activity condition.</p>
  *
+ *  <p>Activities can be composed with {@link #addChild(ActivityImpl)}. The parent keeps aggregates
+ *  of its children (active and completed children, latest activity), which are updated incrementally
+ *  by the children, so reading them does not iterate the children. Waiters on the parent lock are
+ *  signalled when the number of active or completed children changes.
+ *  Lock order: a child activity is locked before its parent.</p>
+ *
  *  @param <T> type used for activity status
  */
-@SuppressWarnings("PMD.AtLeastOneConstructor")
+@SuppressWarnings({"PMD.AtLeastOneConstructor", "PMD.AvoidUsingVolatile"})
 public class ActivityImpl<T> implements Activity<T>
 {
-    /** Default constructor */
+    /** Default constructor: without status history */
     public ActivityImpl() {
-        // nothing to initialize
+        this(null);
+    }
+
+    /**
+     *  Constructor.
+     *
+     *  @param  historyCapacity number of status transitions to keep in the status history
+     */
+    public ActivityImpl(final int historyCapacity) {
+        this(null, historyCapacity);
+    }
+
+    /**
+     *  Constructor.
+     *  The activity-lock gets the name, so it can be published with
+     *  {@code LockRegistry.register(activity.getLock())}.
+     *  A registered activity stays reachable until {@code LockRegistry.unregister(activity.getLock())}.
+     *
+     *  @param  name    name of the activity; {@code null} if unnamed
+     */
+    public ActivityImpl(final String name) {
+        this.activityLock = new CloseableLock(name, new ReentrantLock());
+        this.history = null;
+    }
+
+    /**
+     *  Constructor.
+     *
+     *  @param  name            name of the activity; {@code null} if unnamed
+     *  @param  historyCapacity number of status transitions to keep in the status history
+     */
+    public ActivityImpl(final String name, final int historyCapacity) {
+        this.activityLock = new CloseableLock(name, new ReentrantLock());
+        this.history = new StatusHistory<>(historyCapacity);
     }
 
     //- Activity timestamps
@@ -38,11 +82,49 @@ public class ActivityImpl<T> implements Activity<T>
     /** End-Of-Activity Timestamp */
     private Instant endOfActivity = Instant.MAX; // unknown end
 
+    /** Flight recorder event of the current activity; {@code null} if disabled */
+    private Object activityEvent;
+
+    /** Leak detector token of the current activity; {@code null} if not sampled */
+    private Object leakToken;
+
     /** Activity-Condition */
     private LockCondition<T> condition;
 
     /** Lock to support multi-threaded access */
-    private final CloseableLock activityLock = new CloseableLock();
+    private final CloseableLock activityLock;
+
+    /** Status history; {@code null} if disabled */
+    private final StatusHistory<T> history;
+
+    /** Publisher of status changes; {@code null} until the first subscription (guarded by the activity lock) */
+    private StatusPublisher<T> publisher;
+
+    /** Lifecycle statistics of the activity type; {@code null} if not reported (guarded by the activity lock) */
+    private ActivityStats statistics;
+
+    /** Journal of the lifecycle; {@code null} if not journaled (guarded by the activity lock) */
+    private ActivityJournal<T> journal;
+
+    /** Id of the activity in the journal (guarded by the activity lock) */
+    private long journalId;
+
+    //- Hierarchy
+
+    /** Parent activity; {@code null} if none (written once by the parent) */
+    private volatile ActivityImpl<?> parent;
+
+    /** Number of child activities (guarded by the activity lock) */
+    private int childCount;
+
+    /** Number of active child activities (guarded by the activity lock) */
+    private int activeChildCount;
+
+    /** Number of completed child activities (guarded by the activity lock) */
+    private int completedChildCount;
+
+    /** Latest last-activity timestamp of all descendants */
+    private final AtomicReference<Instant> lastChildActivity = new AtomicReference<>(Instant.EPOCH);
 
 
     /** @return  activity-lock */
@@ -109,11 +191,149 @@ public class ActivityImpl<T> implements Activity<T>
         try (AutoCloseableLock lock = activityLock.lock())
         {
             assert lock != null; // ignored on runtime
+            final Instant now = Instant.now();
+            journal(ActivityJournal.STATUS, now, status);
             getCondition().setState(status);
-            lastActivity = Instant.now();
+            touched(now);
+            if (history != null)
+            {
+                history.record(lastActivity, status);
+            }
+            if (publisher != null)
+            {
+                publisher.submit(status);
+            }
+            notifyParentActivity(lastActivity);
+        }
+    }
+
+    /** Set the last-activity timestamp; reports the interval to the statistics if active (caller holds the lock) */
+    private void touched(final Instant now)
+    {
+        if (statistics != null && isActive())
+        {
+            statistics.touched(lastActivity, now);
+        }
+        lastActivity = now;
+    }
+
+    /**
+     *  Report the lifecycle of this activity into the statistics of its type,
+     *  e.g. {@code activity.setStatistics(ActivityStats.of("download"))}.
+     *
+     *  @param  statistics  statistics of the activity type; {@code null} to stop reporting
+     *
+     *  @throws ActivityRuntimeException if the activity is active
+     */
+    public void setStatistics(final ActivityStats statistics)
+    {
+        try (AutoCloseableLock lock = activityLock.lock())
+        {
+            assert lock != null; // ignored on runtime
+            if (isActive())
+            {
+                throw new ActivityRuntimeException("active");
+            }
+            this.statistics = statistics;
         }
     }
 
+    /**
+     *  @return lifecycle statistics of the activity type; {@code null} if not reported
+     */
+    public ActivityStats getStatistics()
+    {
+        try (AutoCloseableLock lock = activityLock.lock())
+        {
+            assert lock != null; // ignored on runtime
+            return statistics;
+        }
+    }
+
+    /**
+     *  Append the lifecycle of this activity (start, touch, status update and close) to a journal,
+     *  to recover it with {@link ActivityJournal#recover}.
+     *
+     *  @param  journal the journal; {@code null} to stop journaling
+     *  @param  id      id of the activity in the journal
+     */
+    public void setJournal(final ActivityJournal<T> journal, final long id)
+    {
+        try (AutoCloseableLock lock = activityLock.lock())
+        {
+            assert lock != null; // ignored on runtime
+            this.journal = journal;
+            this.journalId = id;
+        }
+    }
+
+    /** Append a record to the journal, if any, before the state changes (caller holds the lock) */
+    private void journal(final byte type, final Instant timestamp, final T status)
+    {
+        if (journal != null)
+        {
+            journal.append(journalId, type, timestamp, status);
+        }
+    }
+
+    /**
+     *  Restore the recovered state of a new activity (see {@link ActivityJournal#recover}).
+     *  An activity which was not closed in the journal is restored active, so it can be closed.
+     *
+     *  @param  start   start-of-activity timestamp
+     *  @param  last    timestamp of last activity
+     *  @param  end     end-of-activity timestamp
+     *  @param  status  activity status
+     */
+    void restore(final Instant start, final Instant last, final Instant end, final T status)
+    {
+        try (AutoCloseableLock lock = activityLock.lock())
+        {
+            assert lock != null; // ignored on runtime
+            startOfActivity = start;
+            lastActivity = last;
+            endOfActivity = end;
+            if (status != null)
+            {
+                getCondition().setState(status);
+            }
+        }
+    }
+
+    /**
+     *  Subscribe to the status changes of this activity.
+     *
+     *  The subscriber receives the current status first, then the status changes as requested.
+     *  A slow subscriber receives the latest status (see {@link StatusPublisher}).
+     *  The subscription lasts until the activity is closed: then the subscriber is completed
+     *  ({@code onComplete}) and removed. A later subscription lasts until the next close.
+     *
+     *  @param  subscriber  the subscriber
+     */
+    public void subscribe(final StatusPublisher.Subscriber<? super T> subscriber)
+    {
+        try (AutoCloseableLock lock = activityLock.lock())
+        {
+            assert lock != null; // ignored on runtime
+            if (publisher == null)
+            {
+                publisher = new StatusPublisher<>();
+                publisher.submit(getStatus());
+            }
+            publisher.subscribe(subscriber);
+        }
+    }
+
+    /**
+     *  Returns the last status transitions without locking the activity.
+     *
+     *  @return status transitions, oldest first; empty if the status history is disabled
+     */
+    public List<StatusHistory.Transition<T>> getStatusHistory()
+    {
+        return history == null? Collections.emptyList(): history.snapshot();
+    }
+
     /** @return activity-status condition */
     @Override
     public T getStatus()
@@ -135,10 +355,24 @@ public class ActivityImpl<T> implements Activity<T>
             {
                 throw new ActivityRuntimeException("already active");
             }
+            final boolean restart = endOfActivity != Instant.MAX;
+            final Instant now = Instant.now();
+            journal(ActivityJournal.START, now, null);
             //- setup timestamps
-            startOfActivity = Instant.now();
+            startOfActivity = now;
             lastActivity = startOfActivity;
             endOfActivity = Instant.MAX; // unknown end-of-activity
+            activityEvent = ActivityEvents.begin();
+            leakToken = LeakDetector.track(this);
+            if (statistics != null)
+            {
+                statistics.started();
+            }
+            final ActivityImpl<?> parentActivity = parent;
+            if (parentActivity != null)
+            {
+                parentActivity.childChanged(0, 1, restart? -1: 0, startOfActivity);
+            }
             return this::close;
         }
     }
@@ -154,7 +388,10 @@ public class ActivityImpl<T> implements Activity<T>
             {
                 throw new ActivityRuntimeException("not active");
             }
-            lastActivity = Instant.now();
+            final Instant now = Instant.now();
+            journal(ActivityJournal.TOUCH, now, null);
+            touched(now);
+            notifyParentActivity(lastActivity);
             return lastActivity;
         }
     }
@@ -172,11 +409,172 @@ public class ActivityImpl<T> implements Activity<T>
             {
                 throw new ActivityRuntimeException("not active");
             }
-            lastActivity = Instant.now();
+            final Instant now = Instant.now();
+            journal(ActivityJournal.CLOSE, now, null);
+            lastActivity = now;
             endOfActivity = lastActivity;   // set end-of-activity (= last activity)
+            ActivityEvents.end(activityEvent, this, condition);
+            activityEvent = null;
+            LeakDetector.untrack(leakToken);
+            leakToken = null;
+            if (statistics != null)
+            {
+                statistics.completed(startOfActivity, endOfActivity);
+            }
+            if (publisher != null)
+            {
+                publisher.close(); // complete the subscribers
+                publisher = null;
+            }
+            final ActivityImpl<?> parentActivity = parent;
+            if (parentActivity != null)
+            {
+                parentActivity.childChanged(0, -1, 1, endOfActivity);
+            }
         }
     }
 
+    /**
+     *  Add a child activity.
+     *
+     *  The child updates the aggregates of this activity when it is started, touched,
+     *  updated or closed.
+     *
+     *  @param  child   the child activity; must not have a parent yet
+     *
+     *  @throws ActivityRuntimeException if the child has a parent or is an ancestor of this activity
+     */
+    public void addChild(final ActivityImpl<?> child)
+    {
+        try (AutoCloseableLock lock = child.activityLock.lock())
+        {
+            assert lock != null; // ignored on runtime
+            if (child.parent != null)
+            {
+                throw new ActivityRuntimeException("already a child activity");
+            }
+            for (ActivityImpl<?> ancestor = this; ancestor != null; ancestor = ancestor.parent)
+            {
+                if (ancestor == child)
+                {
+                    throw new ActivityRuntimeException("cyclic activity hierarchy");
+                }
+            }
+            child.parent = this;
+            final boolean active = child.isActive();
+            final boolean completed = !active && child.endOfActivity != Instant.MAX;
+            childChanged(1, active? 1: 0, completed? 1: 0, latest(child.lastActivity, child.lastChildActivity.get()));
+        }
+    }
+
+    /**
+     *  Update the aggregates after a child has been added, started or closed.
+     *
+     *  @param  childDelta      change of the child count
+     *  @param  activeDelta     change of the active child count
+     *  @param  completedDelta  change of the completed child count
+     *  @param  timestamp       last activity of the child
+     */
+    private void childChanged(final int childDelta, final int activeDelta, final int completedDelta,
+                              final Instant timestamp)
+    {
+        try (AutoCloseableLock lock = activityLock.lock())
+        {
+            assert lock != null; // ignored on runtime
+            childCount += childDelta;
+            activeChildCount += activeDelta;
+            completedChildCount += completedDelta;
+            activityLock.signalAll(); // each call changes a count
+        }
+        childActivity(timestamp);
+    }
+
+    /** Propagate the last activity of this activity to its ancestors */
+    private void notifyParentActivity(final Instant timestamp)
+    {
+        final ActivityImpl<?> parentActivity = parent;
+        if (parentActivity != null)
+        {
+            parentActivity.childActivity(timestamp);
+        }
+    }
+
+    /**
+     *  Update the latest activity of the descendants of this activity and its ancestors (lock-free).
+     *  The waiters on an ancestor lock are signalled if its value advances.
+     */
+    private void childActivity(final Instant timestamp)
+    {
+        for (ActivityImpl<?> ancestor = this; ancestor != null; ancestor = ancestor.parent)
+        {
+            final Instant previous = ancestor.lastChildActivity.getAndAccumulate(timestamp, ActivityImpl::latest);
+            if (!previous.isBefore(timestamp))
+            {
+                break; // ancestors are already up to date
+            }
+            ancestor.activityLock.signalAll(); // the aggregate has changed
+        }
+    }
+
+    /** @return the later of both timestamps */
+    private static Instant latest(final Instant timestamp1, final Instant timestamp2)
+    {
+        return timestamp1.isBefore(timestamp2)? timestamp2: timestamp1;
+    }
+
+    /** @return parent activity; {@code null} if none */
+    public ActivityImpl<?> getParent()
+    {
+        return parent;
+    }
+
+    /** @return number of child activities */
+    public int getChildCount()
+    {
+        try (AutoCloseableLock lock = activityLock.lock())
+        {
+            assert lock != null; // ignored on runtime
+            return childCount;
+        }
+    }
+
+    /** @return number of active child activities */
+    public int getActiveChildCount()
+    {
+        try (AutoCloseableLock lock = activityLock.lock())
+        {
+            assert lock != null; // ignored on runtime
+            return activeChildCount;
+        }
+    }
+
+    /** @return number of completed (closed and not restarted) child activities */
+    public int getCompletedChildCount()
+    {
+        try (AutoCloseableLock lock = activityLock.lock())
+        {
+            assert lock != null; // ignored on runtime
+            return completedChildCount;
+        }
+    }
+
+    /** @return true if there are child activities and all of them are completed */
+    public boolean isChildrenCompleted()
+    {
+        try (AutoCloseableLock lock = activityLock.lock())
+        {
+            assert lock != null; // ignored on runtime
+            return childCount > 0 && completedChildCount == childCount;
+        }
+    }
+
+    /** @return latest last-activity timestamp of all descendants; null if none */
+    public Instant getLastChildActivity()
+    {
+        final Instant timestamp = lastChildActivity.get();
+        return timestamp == Instant.EPOCH? null: timestamp;
+    }
+
     @Override
     public String toString()
     {
@@ -0,0 +1,595 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.activity;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.LongFunction;
+import java.util.zip.CRC32;
+
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.CloseableLock;
+
+/**
+ *  Append-only journal of the activity lifecycle, to recover the state of the activities
+ *  (start, last activity, end and status) after a restart.
+ *
+ *  Activities attached with {@link ActivityImpl#setJournal(ActivityJournal, long)} append a fixed-size
+ *  record on {@code startActivity}, {@code touch}, {@code updateStatus} and {@code close}.
+ *  The records are written to memory-mapped segment files ({@code activity-<first sequence>.journal}),
+ *  so an append is a memory copy. A commit thread forces the written records to disk in batches,
+ *  at most once per commit interval (group commit); {@link #commit()} waits until the records
+ *  appended before are on disk.
+ *  Records which are not yet forced survive a crash of the process, but not of the machine.
+ *
+ *  {@link #recover} rebuilds the activities in a single sequential scan of the segments.
+ *  Each record carries its sequence number and a CRC, so a torn record at the end of the journal is ignored.
+ *  The status is encoded by a {@link StatusCodec}.
+ *
+ *  <pre>
+ *  Map&lt;Long, ActivityImpl&lt;String&gt;&gt; activities = ActivityJournal.recover(dir, codec);
+ *  ActivityJournal&lt;String&gt; journal = new ActivityJournal&lt;&gt;(dir, codec);
+ *  activities.forEach((id, activity) -&gt; activity.setJournal(journal, id));
+ *  </pre>
+ *
+ *  The segments are not compacted: opening a journal continues in a new segment after the existing ones.
+ *
+ *  @param <T> type used for activity status
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads", "PMD.TooManyMethods", "PMD.AvoidUsingVolatile"})
+public final class ActivityJournal<T> implements Closeable
+{
+    /** Default size of a segment file in bytes */
+    public static final int DEFAULT_SEGMENT_SIZE = 16 << 20;
+
+    /** Default interval of the group commit */
+    public static final Duration DEFAULT_COMMIT_INTERVAL = Duration.ofMillis(10);
+
+    /** Record type: activity started */
+    static final byte START = 1;
+    /** Record type: activity touched */
+    static final byte TOUCH = 2;
+    /** Record type: status updated */
+    static final byte STATUS = 3;
+    /** Record type: activity closed */
+    static final byte CLOSE = 4;
+
+    /** Magic number of a segment: "ACTJ" */
+    private static final int MAGIC = 0x41435441;
+    /** Version of the segment format */
+    private static final int VERSION = 1;
+    /** Segment header: magic, version, record size, reserved */
+    private static final int HEADER_SIZE = 16;
+
+    //- Record layout
+    /** Offset of the sequence number (long) */
+    private static final int SEQUENCE = 0;
+    /** Offset of the activity id (long) */
+    private static final int ACTIVITY_ID = 8;
+    /** Offset of the seconds of the timestamp (long) */
+    private static final int SECONDS = 16;
+    /** Offset of the nanoseconds of the timestamp (int) */
+    private static final int NANOS = 24;
+    /** Offset of the record type (byte) */
+    private static final int TYPE = 28;
+    /** Offset of the length of the encoded status (int); {@link #NO_STATUS} if none */
+    private static final int STATUS_LENGTH = 32;
+    /** Offset of the encoded status */
+    private static final int STATUS_BYTES = 36;
+    /** Status length of a record without status */
+    private static final int NO_STATUS = -1;
+
+    /** File name prefix of a segment */
+    private static final String PREFIX = "activity-";
+    /** File name suffix of a segment */
+    private static final String SUFFIX = ".journal";
+
+    /** Journal directory */
+    private final Path directory;
+
+    /** Status codec */
+    private final StatusCodec<T> codec;
+
+    /** Size of a record in bytes (multiple of 8) */
+    private final int recordSize;
+
+    /** Size of a segment file in bytes */
+    private final int segmentSize;
+
+    /** Interval of the group commit in nanoseconds */
+    private final long commitIntervalNanos;
+
+    /** Lock of the appends */
+    private final CloseableLock journalLock = new CloseableLock();
+
+    /** Lock to wait for a commit */
+    private final CloseableLock commitLock = new CloseableLock();
+
+    /** Record being written (guarded by the journal lock) */
+    private final ByteBuffer record;
+
+    /** Encoded status (guarded by the journal lock) */
+    private final ByteBuffer statusBuffer;
+
+    /** Checksum of the record (guarded by the journal lock) */
+    private final CRC32 crc = new CRC32();
+
+    /** Current segment (guarded by the journal lock) */
+    private MappedByteBuffer segment;
+
+    /** Write position in the current segment (guarded by the journal lock) */
+    private int position;
+
+    /** Sequence number of the last appended record */
+    private final AtomicLong appended = new AtomicLong();
+
+    /** Sequence number of the last record forced to disk */
+    private final AtomicLong committed = new AtomicLong();
+
+    /** The commit thread */
+    private final Thread committer;
+
+    /** A commit is requested by {@link #commit()} */
+    private volatile boolean commitRequested;
+
+    /** Failure of the commit thread; {@code null} if none */
+    private volatile RuntimeException failure;
+
+    /** true after {@link #close()} */
+    private volatile boolean closed;
+
+
+    /**
+     *  Open a journal with the default segment size and commit interval.
+     *
+     *  @param  directory   journal directory; created if it does not exist
+     *  @param  codec       status codec
+     *
+     *  @throws IOException if the journal cannot be opened
+     */
+    public ActivityJournal(final Path directory, final StatusCodec<T> codec) throws IOException
+    {
+        this(directory, codec, DEFAULT_SEGMENT_SIZE, DEFAULT_COMMIT_INTERVAL);
+    }
+
+    /**
+     *  Open a journal. The records are appended to a new segment after the existing segments;
+     *  a last segment without valid records is reused.
+     *
+     *  @param  directory       journal directory; created if it does not exist
+     *  @param  codec           status codec
+     *  @param  segmentSize     size of a segment file in bytes
+     *  @param  commitInterval  maximum delay of the group commit
+     *
+     *  @throws IOException if the journal cannot be opened
+     */
+    public ActivityJournal(final Path directory, final StatusCodec<T> codec, final int segmentSize,
+                           final Duration commitInterval) throws IOException
+    {
+        this.directory = directory;
+        this.codec = codec;
+        this.recordSize = recordSize(codec);
+        if (segmentSize < HEADER_SIZE + recordSize)
+        {
+            throw new IllegalArgumentException("segment size too small: " + segmentSize);
+        }
+        this.segmentSize = segmentSize;
+        this.commitIntervalNanos = commitInterval.toNanos();
+        this.record = ByteBuffer.allocate(recordSize);
+        this.statusBuffer = ByteBuffer.allocate(codec.getMaxSize());
+        Files.createDirectories(directory);
+        final long last = lastSequence(directory, recordSize);
+        appended.set(last);
+        committed.set(last);
+        this.segment = newSegment(last + 1);
+        this.committer = new Thread(this::commitLoop, "activity-journal-commit");
+        committer.setDaemon(true);
+        committer.start();
+    }
+
+    /** @return size of a record with the status of the codec */
+    private static int recordSize(final StatusCodec<?> codec)
+    {
+        return (STATUS_BYTES + codec.getMaxSize() + Integer.BYTES + 7) & ~7;
+    }
+
+    /**
+     *  @return new mapped segment, starting with the sequence number.
+     *          An existing segment with the same first sequence number has no valid record
+     *          (e.g. the journal was reopened without appends, or crashed after a rollover),
+     *          so it is truncated and reused.
+     */
+    private MappedByteBuffer newSegment(final long firstSequence) throws IOException
+    {
+        final Path file = directory.resolve(String.format("%s%019d%s", PREFIX, firstSequence, SUFFIX));
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.TRUNCATE_EXISTING,
+                                                    StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0L, segmentSize);
+            buffer.putInt(0, MAGIC);
+            buffer.putInt(4, VERSION);
+            buffer.putInt(8, recordSize);
+            position = HEADER_SIZE;
+            return buffer;
+        }
+    }
+
+    /**
+     *  Append a record.
+     *
+     *  @param  activityId  id of the activity
+     *  @param  type        record type
+     *  @param  timestamp   timestamp of the activity
+     *  @param  status      status; only for {@link #STATUS}
+     *
+     *  @throws ActivityRuntimeException if the journal is closed, has failed or cannot be written
+     */
+    void append(final long activityId, final byte type, final Instant timestamp, final T status)
+    {
+        try (AutoCloseableLock lock = journalLock.lock())
+        {
+            assert lock != null; // ignored on runtime
+            checkFailure();
+            if (closed)
+            {
+                throw new ActivityRuntimeException("journal closed");
+            }
+            final long sequence = appended.get() + 1;
+            if (position + recordSize > segmentSize)
+            {
+                segment.force();
+                committed(sequence - 1);
+                segment = newSegment(sequence);
+            }
+            int statusLength = NO_STATUS;
+            statusBuffer.clear();
+            if (type == STATUS && status != null)
+            {
+                codec.encode(status, statusBuffer);
+                statusLength = statusBuffer.position();
+            }
+            final byte[] bytes = record.array();
+            Arrays.fill(bytes, (byte) 0);
+            record.putLong(SEQUENCE, sequence);
+            record.putLong(ACTIVITY_ID, activityId);
+            record.putLong(SECONDS, timestamp.getEpochSecond());
+            record.putInt(NANOS, timestamp.getNano());
+            record.put(TYPE, type);
+            record.putInt(STATUS_LENGTH, statusLength);
+            System.arraycopy(statusBuffer.array(), 0, bytes, STATUS_BYTES, Math.max(statusLength, 0));
+            crc.reset();
+            crc.update(bytes, 0, recordSize - Integer.BYTES);
+            record.putInt(recordSize - Integer.BYTES, (int) crc.getValue());
+
+            segment.position(position);
+            segment.put(bytes);
+            position += recordSize;
+            appended.set(sequence);
+        }
+        catch (IOException x)
+        {
+            throw new ActivityRuntimeException("cannot write journal " + directory, x);
+        }
+    }
+
+    /**
+     *  Wait until the records appended before are forced to disk.
+     *  Concurrent callers are served by one force (group commit).
+     *
+     *  @throws ActivityRuntimeException if the records cannot be forced to disk
+     */
+    public void commit()
+    {
+        final long target = appended.get();
+        if (committed.get() < target)
+        {
+            commitRequested = true;
+            LockSupport.unpark(committer);
+            try (AutoCloseableLock lock = commitLock.lock()) // test the condition under the lock of the signal
+            {
+                assert lock != null; // ignored on runtime
+                commitLock.waitForCondition(() -> committed.get() >= target || closed || failure != null);
+            }
+        }
+        checkFailure();
+    }
+
+    /** @throws ActivityRuntimeException if the commit thread has failed */
+    private void checkFailure()
+    {
+        final RuntimeException x = failure;
+        if (x != null)
+        {
+            throw new ActivityRuntimeException("journal commit failed: " + directory, x);
+        }
+    }
+
+    /** Loop of the commit thread; a failure stops the thread and is reported to the callers */
+    @SuppressWarnings("PMD.AvoidCatchingGenericException")
+    private void commitLoop()
+    {
+        try
+        {
+            while (!closed)
+            {
+                if (!commitRequested) // the permit of unpark may be consumed by the locks of the commit thread
+                {
+                    LockSupport.parkNanos(this, commitIntervalNanos);
+                }
+                commitRequested = false;
+                force();
+            }
+        }
+        catch (RuntimeException x) // e.g. UncheckedIOException of MappedByteBuffer.force()
+        {
+            failure = x;
+            commitLock.signalAll();
+        }
+    }
+
+    /** Force the appended records to disk */
+    private void force()
+    {
+        final MappedByteBuffer current;
+        final long target;
+        try (AutoCloseableLock lock = journalLock.lock())
+        {
+            assert lock != null; // ignored on runtime
+            current = segment;
+            target = appended.get();
+        }
+        if (target > committed.get())
+        {
+            current.force(); // the previous segments have been forced when the segment was changed
+            committed(target);
+        }
+    }
+
+    /** Records up to the sequence number are on disk */
+    private void committed(final long sequence)
+    {
+        committed.accumulateAndGet(sequence, Math::max);
+        commitLock.signalAll();
+    }
+
+    /**
+     *  @return sequence number of the last record forced to disk
+     */
+    public long getCommittedSequence()
+    {
+        return committed.get();
+    }
+
+    /**
+     *  @return sequence number of the last appended record
+     */
+    public long getAppendedSequence()
+    {
+        return appended.get();
+    }
+
+    /**
+     *  Force the appended records to disk and stop the commit thread.
+     */
+    @Override
+    public void close()
+    {
+        try (AutoCloseableLock lock = journalLock.lock())
+        {
+            assert lock != null; // ignored on runtime
+            if (closed)
+            {
+                return;
+            }
+            closed = true;
+            segment.force();
+            committed(appended.get());
+        }
+        LockSupport.unpark(committer);
+    }
+
+    //- Recovery
+
+    /**
+     *  Rebuild the activities from the journal.
+     *
+     *  @param  <T>         type used for activity status
+     *  @param  directory   journal directory
+     *  @param  codec       status codec used to write the journal
+     *
+     *  @return the activities by id, in the order of their first record
+     *
+     *  @throws IOException if the journal cannot be read
+     */
+    public static <T> Map<Long, ActivityImpl<T>> recover(final Path directory, final StatusCodec<T> codec)
+                    throws IOException
+    {
+        return recover(directory, codec, id -> new ActivityImpl<>());
+    }
+
+    /**
+     *  Rebuild the activities from the journal in a single sequential scan.
+     *
+     *  @param  <T>         type used for activity status
+     *  @param  directory   journal directory
+     *  @param  codec       status codec used to write the journal
+     *  @param  factory     creates a new activity for an id
+     *
+     *  @return the activities by id, in the order of their first record
+     *
+     *  @throws IOException if the journal cannot be read
+     */
+    public static <T> Map<Long, ActivityImpl<T>> recover(final Path directory, final StatusCodec<T> codec,
+                                                         final LongFunction<ActivityImpl<T>> factory)
+                    throws IOException
+    {
+        final int recordSize = recordSize(codec);
+        final Map<Long, State<T>> states = new LinkedHashMap<>();
+        for (final Path file : segments(directory))
+        {
+            final ByteBuffer buffer = map(file, recordSize);
+            final long first = firstSequence(file);
+            for (int offset = HEADER_SIZE; isValid(buffer, offset, recordSize, first + (offset - HEADER_SIZE) / recordSize);
+                 offset += recordSize)
+            {
+                final long activityId = buffer.getLong(offset + ACTIVITY_ID);
+                final State<T> state = states.computeIfAbsent(activityId, id -> new State<>());
+                state.apply(buffer, offset, codec);
+            }
+        }
+        final Map<Long, ActivityImpl<T>> activities = new LinkedHashMap<>();
+        for (final Map.Entry<Long, State<T>> entry : states.entrySet())
+        {
+            final State<T> state = entry.getValue();
+            final ActivityImpl<T> activity = factory.apply(entry.getKey());
+            activity.restore(state.start, state.last, state.end, state.status);
+            activities.put(entry.getKey(), activity);
+        }
+        return activities;
+    }
+
+    /** @return sequence number of the last valid record; 0 if the journal is empty */
+    private static long lastSequence(final Path directory, final int recordSize) throws IOException
+    {
+        final List<Path> files = segments(directory);
+        if (files.isEmpty())
+        {
+            return 0L;
+        }
+        final Path file = files.get(files.size() - 1);
+        final ByteBuffer buffer = map(file, recordSize);
+        long sequence = firstSequence(file);
+        int offset = HEADER_SIZE;
+        while (isValid(buffer, offset, recordSize, sequence))
+        {
+            offset += recordSize;
+            sequence++;
+        }
+        return sequence - 1;
+    }
+
+    /** @return segment files, ordered by their first sequence number */
+    private static List<Path> segments(final Path directory) throws IOException
+    {
+        final List<Path> files = new ArrayList<>();
+        if (Files.isDirectory(directory))
+        {
+            try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, PREFIX + "*" + SUFFIX))
+            {
+                for (final Path file : stream)
+                {
+                    files.add(file);
+                }
+            }
+        }
+        Collections.sort(files); // fixed-width sequence numbers
+        return files;
+    }
+
+    /** @return first sequence number of the segment */
+    private static long firstSequence(final Path file)
+    {
+        final String name = file.getFileName().toString();
+        return Long.parseLong(name.substring(PREFIX.length(), name.length() - SUFFIX.length()));
+    }
+
+    /** @return read-only mapping of the segment */
+    private static ByteBuffer map(final Path file, final int recordSize) throws IOException
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ))
+        {
+            final ByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0L, channel.size());
+            if (buffer.capacity() < HEADER_SIZE || buffer.getInt(0) != MAGIC || buffer.getInt(4) != VERSION)
+            {
+                throw new IOException("not an activity journal segment: " + file);
+            }
+            if (buffer.getInt(8) != recordSize)
+            {
+                throw new IOException("record size " + buffer.getInt(8) + " of " + file
+                                      + " does not match the status codec (" + recordSize + ")");
+            }
+            return buffer;
+        }
+    }
+
+    /** @return true if the record at the offset has the sequence number and a valid checksum */
+    private static boolean isValid(final ByteBuffer buffer, final int offset, final int recordSize, final long sequence)
+    {
+        if (offset + recordSize > buffer.capacity() || buffer.getLong(offset + SEQUENCE) != sequence)
+        {
+            return false; // end of segment, or not written
+        }
+        final CRC32 checksum = new CRC32();
+        final ByteBuffer bytes = buffer.duplicate();
+        bytes.position(offset);
+        bytes.limit(offset + recordSize - Integer.BYTES);
+        checksum.update(bytes);
+        return (int) checksum.getValue() == buffer.getInt(offset + recordSize - Integer.BYTES);
+    }
+
+    /** Recovered state of an activity */
+    private static final class State<T>
+    {
+        /** Start-Of-Activity timestamp */
+        Instant start = Instant.EPOCH;
+        /** Timestamp of last activity */
+        Instant last = Instant.EPOCH;
+        /** End-Of-Activity timestamp */
+        Instant end = Instant.MAX;
+        /** Activity status */
+        T status;
+
+        /** Apply a record */
+        void apply(final ByteBuffer buffer, final int offset, final StatusCodec<T> codec)
+        {
+            final Instant timestamp = Instant.ofEpochSecond(buffer.getLong(offset + SECONDS), buffer.getInt(offset + NANOS));
+            switch (buffer.get(offset + TYPE))
+            {
+                case START:
+                    start = timestamp;
+                    end = Instant.MAX;
+                    break;
+                case STATUS:
+                    final int length = buffer.getInt(offset + STATUS_LENGTH);
+                    if (length == NO_STATUS)
+                    {
+                        status = null;
+                    }
+                    else
+                    {
+                        final ByteBuffer bytes = buffer.duplicate();
+                        bytes.position(offset + STATUS_BYTES);
+                        bytes.limit(offset + STATUS_BYTES + length);
+                        status = codec.decode(bytes.slice());
+                    }
+                    break;
+                case CLOSE:
+                    end = timestamp;
+                    break;
+                default: // TOUCH
+                    break;
+            }
+            last = timestamp;
+        }
+    }
+}
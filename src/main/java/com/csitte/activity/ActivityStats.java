@@ -0,0 +1,158 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.activity;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *  Lifecycle statistics of the activities of one type: started, completed and active activities,
+ *  a histogram of the activity durations (from {@link ActivityImpl#startActivity()} to
+ *  {@link ActivityImpl#close()}) and a histogram of the intervals between touches
+ *  ({@link ActivityImpl#touch()} and {@link ActivityImpl#updateStatus(Object)}).
+ *
+ *  The activities report into the statistics when they change (see {@link ActivityImpl#setStatistics}),
+ *  so reading the statistics does not scan the activities.
+ *  All counters are striped ({@link LongAdder}), so activity churn on many threads does not contend.
+ */
+@SuppressWarnings("PMD.CommentSize")
+public final class ActivityStats
+{
+    /** Statistics by type */
+    private static final ConcurrentMap<String, ActivityStats> TYPES = new ConcurrentHashMap<>();
+
+    /** Activity type */
+    private final String type;
+
+    /** Number of started activities */
+    private final LongAdder started = new LongAdder();
+
+    /** Number of completed activities */
+    private final LongAdder completed = new LongAdder();
+
+    /** Number of active activities */
+    private final LongAdder active = new LongAdder();
+
+    /** Activity durations */
+    private final DurationHistogram durations = new DurationHistogram();
+
+    /** Intervals between touches */
+    private final DurationHistogram touchIntervals = new DurationHistogram();
+
+
+    /**
+     *  Constructor.
+     *
+     *  @param  type    activity type
+     */
+    public ActivityStats(final String type)
+    {
+        this.type = type;
+    }
+
+    /**
+     *  @param  type    activity type
+     *
+     *  @return the shared statistics of the type; created on first call
+     */
+    public static ActivityStats of(final String type)
+    {
+        return TYPES.computeIfAbsent(type, ActivityStats::new);
+    }
+
+    /**
+     *  @return the shared statistics of all types created by {@link #of(String)}
+     */
+    public static Collection<ActivityStats> getAll()
+    {
+        return Collections.unmodifiableCollection(TYPES.values());
+    }
+
+    /** An activity has been started */
+    void started()
+    {
+        started.increment();
+        active.increment();
+    }
+
+    /** An activity has been completed */
+    void completed(final Instant start, final Instant end)
+    {
+        active.decrement();
+        completed.increment();
+        durations.record(nanosBetween(start, end));
+    }
+
+    /** An active activity has been touched */
+    void touched(final Instant previous, final Instant now)
+    {
+        touchIntervals.record(nanosBetween(previous, now));
+    }
+
+    /** @return nanoseconds between the timestamps (without allocation) */
+    private static long nanosBetween(final Instant start, final Instant end)
+    {
+        return (end.getEpochSecond() - start.getEpochSecond()) * 1_000_000_000L + end.getNano() - start.getNano();
+    }
+
+    /**
+     *  @return activity type
+     */
+    public String getType()
+    {
+        return type;
+    }
+
+    /**
+     *  @return number of started activities
+     */
+    public long getStartedCount()
+    {
+        return started.sum();
+    }
+
+    /**
+     *  @return number of completed activities
+     */
+    public long getCompletedCount()
+    {
+        return completed.sum();
+    }
+
+    /**
+     *  @return number of active activities
+     */
+    public long getActiveCount()
+    {
+        return active.sum();
+    }
+
+    /**
+     *  @return histogram of the activity durations
+     */
+    public DurationHistogram getDurations()
+    {
+        return durations;
+    }
+
+    /**
+     *  @return histogram of the intervals between touches of an active activity
+     */
+    public DurationHistogram getTouchIntervals()
+    {
+        return touchIntervals;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "ActivityStats[" + type + ": active=" + getActiveCount() + ", completed=" + getCompletedCount()
+             + ", durations=" + durations + "]";
+    }
+}
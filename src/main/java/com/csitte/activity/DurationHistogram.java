@@ -0,0 +1,154 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.activity;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *  Histogram of durations in nanoseconds with fixed power-of-two buckets.
+ *
+ *  Bucket {@code i} counts the durations from {@code 2^(i-1)} to {@code 2^i - 1} nanoseconds
+ *  (bucket 0: zero). The bucket counters are striped ({@link LongAdder}), so concurrent
+ *  recording does not contend; the counts are summed when read.
+ *  A percentile is the upper bound of its bucket, i.e. it may be up to twice the exact value.
+ */
+@SuppressWarnings("PMD.CommentSize")
+public final class DurationHistogram
+{
+    /** Number of buckets */
+    public static final int BUCKETS = 64;
+
+    /** Bucket counters */
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+
+    /** Sum of the durations */
+    private final LongAdder totalNanos = new LongAdder();
+
+    /** Largest duration */
+    private final LongAccumulator maxNanos = new LongAccumulator(Math::max, 0L);
+
+
+    /** Constructor */
+    DurationHistogram()
+    {
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            counts[i] = new LongAdder();
+        }
+    }
+
+    /**
+     *  @param  nanos   duration in nanoseconds (negative values are recorded as 0)
+     */
+    void record(final long nanos)
+    {
+        final long value = Math.max(nanos, 0L);
+        counts[bucket(value)].increment();
+        totalNanos.add(value);
+        maxNanos.accumulate(value);
+    }
+
+    /** @return bucket index of the duration */
+    static int bucket(final long nanos)
+    {
+        return Long.SIZE - Long.numberOfLeadingZeros(nanos);
+    }
+
+    /**
+     *  @param  bucket  bucket index
+     *
+     *  @return largest duration of the bucket in nanoseconds
+     */
+    public static long getBucketUpperBoundNanos(final int bucket)
+    {
+        return bucket >= BUCKETS - 1? Long.MAX_VALUE: (1L << bucket) - 1;
+    }
+
+    /**
+     *  @return number of durations per bucket
+     */
+    public long[] getBucketCounts()
+    {
+        final long[] result = new long[BUCKETS];
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            result[i] = counts[i].sum();
+        }
+        return result;
+    }
+
+    /**
+     *  @return number of recorded durations
+     */
+    public long getCount()
+    {
+        long count = 0L;
+        for (final LongAdder bucket : counts)
+        {
+            count += bucket.sum();
+        }
+        return count;
+    }
+
+    /**
+     *  @return sum of the recorded durations in nanoseconds
+     */
+    public long getTotalNanos()
+    {
+        return totalNanos.sum();
+    }
+
+    /**
+     *  @return mean duration in nanoseconds; 0 if empty
+     */
+    public long getMeanNanos()
+    {
+        final long count = getCount();
+        return count == 0L? 0L: getTotalNanos() / count;
+    }
+
+    /**
+     *  @return largest recorded duration in nanoseconds; 0 if empty
+     */
+    public long getMaxNanos()
+    {
+        return maxNanos.get();
+    }
+
+    /**
+     *  @param  percentile  0 to 100
+     *
+     *  @return upper bound of the bucket containing the percentile in nanoseconds
+     *          (at most the largest duration); 0 if empty
+     */
+    public long getPercentileNanos(final double percentile)
+    {
+        final long[] bucketCounts = getBucketCounts();
+        long total = 0L;
+        for (final long count : bucketCounts)
+        {
+            total += count;
+        }
+        final long rank = (long) Math.ceil(percentile / 100.0 * total);
+        long count = 0L;
+        for (int i = 0; i < BUCKETS; i++)
+        {
+            count += bucketCounts[i];
+            if (count >= rank && count > 0L)
+            {
+                return Math.min(getBucketUpperBoundNanos(i), getMaxNanos());
+            }
+        }
+        return 0L;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "DurationHistogram[count=" + getCount() + ", meanNanos=" + getMeanNanos()
+             + ", maxNanos=" + getMaxNanos() + "]";
+    }
+}
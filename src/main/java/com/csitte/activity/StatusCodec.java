@@ -0,0 +1,108 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.activity;
+
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+
+/**
+ *  Binary encoding of an activity status for the {@link ActivityJournal}.
+ *
+ *  The journal has fixed-size records, so the encoded status has a maximum size.
+ *  {@code null} is handled by the journal and is never passed to the codec.
+ *
+ *  @param <T> type used for activity status
+ */
+@SuppressWarnings("PMD.CommentSize")
+public interface StatusCodec<T>
+{
+    /**
+     *  @return maximum number of bytes of an encoded status
+     */
+    int getMaxSize();
+
+    /**
+     *  Encode the status at the position of the buffer.
+     *
+     *  @param  status  the status (not null)
+     *  @param  target  buffer with {@link #getMaxSize()} bytes remaining
+     */
+    void encode(T status, ByteBuffer target);
+
+    /**
+     *  Decode a status.
+     *
+     *  @param  source  buffer with the bytes written by {@link #encode}
+     *
+     *  @return the status
+     */
+    T decode(ByteBuffer source);
+
+    /**
+     *  @param  maxBytes    maximum number of bytes of a status
+     *
+     *  @return codec for {@link String} status in UTF-8; longer status texts are truncated
+     */
+    static StatusCodec<String> utf8(final int maxBytes)
+    {
+        return new StatusCodec<String>()
+        {
+            @Override
+            public int getMaxSize()
+            {
+                return maxBytes;
+            }
+
+            @Override
+            public void encode(final String status, final ByteBuffer target)
+            {
+                final CharsetEncoder encoder = StandardCharsets.UTF_8.newEncoder()
+                                .onMalformedInput(CodingErrorAction.REPLACE)
+                                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+                encoder.encode(CharBuffer.wrap(status), target, true); // stops at a character boundary
+            }
+
+            @Override
+            public String decode(final ByteBuffer source)
+            {
+                return StandardCharsets.UTF_8.decode(source).toString();
+            }
+        };
+    }
+
+    /**
+     *  @param  <E>     enum type
+     *  @param  type    enum class
+     *
+     *  @return codec for enum status, encoded by the ordinal
+     */
+    static <E extends Enum<E>> StatusCodec<E> ofEnum(final Class<E> type)
+    {
+        final E[] values = type.getEnumConstants();
+        return new StatusCodec<E>()
+        {
+            @Override
+            public int getMaxSize()
+            {
+                return Integer.BYTES;
+            }
+
+            @Override
+            public void encode(final E status, final ByteBuffer target)
+            {
+                target.putInt(status.ordinal());
+            }
+
+            @Override
+            public E decode(final ByteBuffer source)
+            {
+                return values[source.getInt()];
+            }
+        };
+    }
+}
@@ -0,0 +1,156 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.activity;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ *  Fixed-capacity ring buffer of the last status transitions of an activity.
+ *
+ *  Recording a transition does not allocate: the timestamps are kept in a primitive array
+ *  and the oldest transition is overwritten when the buffer is full.
+ *
+ *  Transitions are recorded by one writer at a time (the holder of the activity lock).
+ *  {@link #snapshot()} does not lock: each slot carries its sequence number, so a slot
+ *  which is overwritten while it is read is detected and skipped.
+ *
+ *  @param <T> type used for activity status
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.AvoidUsingVolatile"})
+public final class StatusHistory<T>
+{
+    /** Number of slots */
+    private final int capacity;
+
+    /** Sequence number + 1 of the transition in each slot; 0: empty or being written */
+    private final AtomicLongArray sequences;
+
+    /** Timestamp of the transition in each slot in nanoseconds since the epoch */
+    private final AtomicLongArray timestamps;
+
+    /** Status of the transition in each slot */
+    private final AtomicReferenceArray<T> statuses;
+
+    /** Sequence number of the next transition = number of recorded transitions (written by the writer) */
+    private volatile long next;
+
+
+    /**
+     *  Constructor.
+     *
+     *  @param  capacity    number of transitions to keep
+     */
+    public StatusHistory(final int capacity)
+    {
+        if (capacity <= 0)
+        {
+            throw new IllegalArgumentException("invalid capacity: " + capacity);
+        }
+        this.capacity = capacity;
+        this.sequences = new AtomicLongArray(capacity);
+        this.timestamps = new AtomicLongArray(capacity);
+        this.statuses = new AtomicReferenceArray<>(capacity);
+    }
+
+    /**
+     *  Record a status transition.
+     *
+     *  Must not be called concurrently (called by the holder of the activity lock).
+     *
+     *  @param  timestamp   time of the transition
+     *  @param  status      the new status
+     */
+    void record(final Instant timestamp, final T status)
+    {
+        final long sequence = next;
+        final int slot = (int) (sequence % capacity);
+        sequences.set(slot, 0L); // invalidate the slot for concurrent readers
+        timestamps.set(slot, timestamp.getEpochSecond() * 1_000_000_000L + timestamp.getNano());
+        statuses.set(slot, status);
+        sequences.set(slot, sequence + 1);
+        next = sequence + 1;
+    }
+
+    /**
+     *  @return the recorded transitions, oldest first; without transitions overwritten while reading
+     */
+    public List<Transition<T>> snapshot()
+    {
+        final long end = next;
+        final long start = Math.max(0L, end - capacity);
+        final List<Transition<T>> transitions = new ArrayList<>((int) (end - start));
+        for (long sequence = start; sequence < end; sequence++)
+        {
+            final int slot = (int) (sequence % capacity);
+            final long before = sequences.get(slot);
+            final long timestamp = timestamps.get(slot);
+            final T status = statuses.get(slot);
+            if (before == sequence + 1 && sequences.get(slot) == before)
+            {
+                transitions.add(new Transition<>(Instant.ofEpochSecond(0L, timestamp), status));
+            }
+        }
+        return transitions;
+    }
+
+    /**
+     *  @return number of transitions to keep
+     */
+    public int getCapacity()
+    {
+        return capacity;
+    }
+
+    /**
+     *  @return total number of recorded transitions, including overwritten ones
+     */
+    public long getRecordCount()
+    {
+        return next;
+    }
+
+    /**
+     *  A recorded status transition.
+     *
+     *  @param <T> type used for activity status
+     */
+    public static final class Transition<T>
+    {
+        /** Time of the transition */
+        private final Instant timestamp;
+
+        /** The new status */
+        private final T status;
+
+        /** Constructor */
+        Transition(final Instant timestamp, final T status)
+        {
+            this.timestamp = timestamp;
+            this.status = status;
+        }
+
+        /** @return time of the transition */
+        public Instant getTimestamp()
+        {
+            return timestamp;
+        }
+
+        /** @return the new status */
+        public T getStatus()
+        {
+            return status;
+        }
+
+        @Override
+        public String toString()
+        {
+            return timestamp + " " + status;
+        }
+    }
+}
@@ -0,0 +1,392 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.activity;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ *  Publishes status changes to subscribers with backpressure.
+ *
+ *  The interfaces follow {@code java.util.concurrent.Flow} (which is not available on Java 8):
+ *  a subscriber receives status values only as requested by {@link Subscription#request(long)}.
+ *  A slow subscriber does not queue values: pending values are conflated to the latest status,
+ *  so the latest status is never missed, but intermediate values may be skipped.
+ *
+ *  A new subscriber receives the latest submitted status first (if any).
+ *  The signals of a subscriber are delivered one at a time by the executor.
+ *  Submitting a status does not block and does not allocate per subscriber.
+ *
+ *  Usage example:
+ *  {@code
+ *  activity.subscribe(new StatusPublisher.Subscriber<String>() {
+ *      Subscription subscription;
+ *      public void onSubscribe(Subscription s) { subscription = s; s.request(16); }
+ *      public void onNext(String status) { dashboard.show(status); ... subscription.request(16); }
+ *  });
+ *  }
+ *
+ *  @param <T> type used for activity status
+ */
+@SuppressWarnings("PMD.CommentSize")
+public class StatusPublisher<T>
+{
+    /** Marker for 'no pending status' (a status may be {@code null}) */
+    private static final Object NONE = new Object();
+
+    /** Executor delivering the signals */
+    private final Executor executor;
+
+    /** The active subscriptions */
+    private final List<StatusSubscription<T>> subscriptions = new CopyOnWriteArrayList<>();
+
+    /** Latest submitted status; {@link #NONE} if none */
+    private final AtomicReference<Object> latest = new AtomicReference<>(NONE);
+
+    /** true if closed */
+    private volatile boolean closed;
+
+
+    /**
+     *  Constructor.
+     *
+     *  Uses {@link ForkJoinPool#commonPool()} for delivery.
+     */
+    public StatusPublisher()
+    {
+        this(ForkJoinPool.commonPool());
+    }
+
+    /**
+     *  Constructor.
+     *
+     *  @param  executor    executor delivering the signals
+     */
+    public StatusPublisher(final Executor executor)
+    {
+        if (executor == null)
+        {
+            throw new IllegalArgumentException("executor is null");
+        }
+        this.executor = executor;
+    }
+
+    /**
+     *  Add a subscriber.
+     *
+     *  If the publisher is closed, the subscriber is completed.
+     *
+     *  @param  subscriber  the subscriber
+     */
+    public void subscribe(final Subscriber<? super T> subscriber)
+    {
+        if (subscriber == null)
+        {
+            throw new IllegalArgumentException("subscriber is null");
+        }
+        final StatusSubscription<T> subscription = new StatusSubscription<>(this, subscriber);
+        subscriptions.add(subscription);
+        subscription.seed(latest.get()); // after add: a concurrent submit is not missed
+        if (closed)
+        {
+            subscription.complete();
+        }
+        subscription.schedule(); // onSubscribe
+    }
+
+    /**
+     *  Publish a new status to all subscribers.
+     *
+     *  @param  status      the new status
+     *
+     *  @throws IllegalStateException if closed
+     */
+    public void submit(final T status)
+    {
+        if (closed)
+        {
+            throw new IllegalStateException("closed");
+        }
+        latest.set(status);
+        for (final StatusSubscription<T> subscription : subscriptions)
+        {
+            subscription.offer(status);
+        }
+    }
+
+    /**
+     *  Complete all subscribers. A pending status is delivered first if it is requested,
+     *  otherwise it is dropped: completion does not wait for demand.
+     */
+    public void close()
+    {
+        closed = true;
+        for (final StatusSubscription<T> subscription : subscriptions)
+        {
+            subscription.complete();
+        }
+    }
+
+    /**
+     *  @return true if closed
+     */
+    public boolean isClosed()
+    {
+        return closed;
+    }
+
+    /**
+     *  @return number of active subscribers
+     */
+    public int getSubscriberCount()
+    {
+        return subscriptions.size();
+    }
+
+    /** Remove a cancelled or completed subscription */
+    private void remove(final StatusSubscription<T> subscription)
+    {
+        subscriptions.remove(subscription);
+    }
+
+    /**
+     *  Receiver of status values (like {@code java.util.concurrent.Flow.Subscriber}).
+     *
+     *  @param <T> type used for activity status
+     */
+    public interface Subscriber<T>
+    {
+        /**
+         *  Called first, before any other signal.
+         *
+         *  @param  subscription    used to request status values or to cancel
+         */
+        void onSubscribe(Subscription subscription);
+
+        /**
+         *  Called with the latest status, once per requested value.
+         *
+         *  @param  status  the status; may be {@code null} if the activity status is {@code null}
+         */
+        void onNext(T status);
+
+        /**
+         *  Called if the subscription failed, e.g. if {@link #onNext(Object)} has thrown an exception.
+         *  No further signals follow.
+         *
+         *  @param  throwable   the cause
+         */
+        default void onError(final Throwable throwable)
+        {
+            // no-op
+        }
+
+        /**
+         *  Called when the publisher is closed. No further signals follow.
+         */
+        default void onComplete()
+        {
+            // no-op
+        }
+    }
+
+    /**
+     *  Link between publisher and subscriber (like {@code java.util.concurrent.Flow.Subscription}).
+     */
+    public interface Subscription
+    {
+        /**
+         *  Request more status values.
+         *
+         *  Requesting values in batches (e.g. 16 at a time) saves a call per value.
+         *  A value of {@link Long#MAX_VALUE} means unbounded.
+         *
+         *  @param  n   number of additional status values; a value &lt;= 0 fails the subscription
+         */
+        void request(long n);
+
+        /**
+         *  Stop receiving signals.
+         */
+        void cancel();
+    }
+
+    /**
+     *  State of a subscriber.
+     *
+     *  All signals are delivered by {@link #run()}, which is scheduled at most once at a time.
+     */
+    private static final class StatusSubscription<T> implements Subscription, Runnable
+    {
+        /** The publisher */
+        private final StatusPublisher<T> publisher;
+
+        /** The subscriber */
+        private final Subscriber<? super T> subscriber;
+
+        /** Pending status; {@link #NONE} if none */
+        private final AtomicReference<Object> pending = new AtomicReference<>(NONE);
+
+        /** Requested and not yet delivered values */
+        private final AtomicLong demand = new AtomicLong();
+
+        /** Number of schedule requests not yet processed by {@link #run()} */
+        private final AtomicInteger work = new AtomicInteger();
+
+        /** true if {@link Subscriber#onSubscribe(Subscription)} has been called (confined to {@link #run()}) */
+        private boolean subscribed;
+
+        /** true if cancelled, completed or failed */
+        private volatile boolean done;
+
+        /** true if to be completed */
+        private volatile boolean completing;
+
+        /** Failure to be signalled; {@code null} if none */
+        private volatile Throwable failure;
+
+        /** Constructor */
+        StatusSubscription(final StatusPublisher<T> publisher, final Subscriber<? super T> subscriber)
+        {
+            this.publisher = publisher;
+            this.subscriber = subscriber;
+        }
+
+        /** Set the initial status, unless a status has been offered already */
+        void seed(final Object status)
+        {
+            if (status != NONE)
+            {
+                pending.compareAndSet(NONE, status);
+            }
+        }
+
+        /** Conflate a new status with the pending one */
+        void offer(final T status)
+        {
+            pending.set(status);
+            if (demand.get() > 0L)
+            {
+                schedule();
+            }
+        }
+
+        /** Complete after the pending status, if requested */
+        void complete()
+        {
+            completing = true;
+            schedule();
+        }
+
+        @Override
+        public void request(final long n)
+        {
+            if (n <= 0L)
+            {
+                failure = new IllegalArgumentException("non-positive request: " + n);
+            }
+            else
+            {
+                demand.accumulateAndGet(n, (current, add) ->
+                                current + add < 0L? Long.MAX_VALUE: current + add); // cap on overflow
+            }
+            schedule();
+        }
+
+        @Override
+        public void cancel()
+        {
+            done = true;
+            publisher.remove(this);
+        }
+
+        /**
+         *  Run {@link #run()} unless it is already scheduled.
+         *  If the executor rejects it, the subscription fails on the calling thread.
+         */
+        void schedule()
+        {
+            if (work.getAndIncrement() == 0)
+            {
+                try
+                {
+                    publisher.executor.execute(this);
+                }
+                catch (RejectedExecutionException x)
+                {
+                    failure = x;
+                    run(); // not running elsewhere: signals onError and resets the work count
+                }
+            }
+        }
+
+        @Override
+        public void run()
+        {
+            int missed = 1;
+            do
+            {
+                deliver();
+                missed = work.addAndGet(-missed);
+            }
+            while (missed != 0);
+        }
+
+        /** Deliver the signals */
+        @SuppressWarnings({"unchecked", "PMD.AvoidCatchingGenericException"})
+        private void deliver()
+        {
+            try
+            {
+                if (!subscribed)
+                {
+                    subscribed = true;
+                    subscriber.onSubscribe(this);
+                }
+                while (!done && failure == null && demand.get() > 0L)
+                {
+                    final Object status = pending.getAndSet(NONE);
+                    if (status == NONE)
+                    {
+                        break;
+                    }
+                    if (demand.get() != Long.MAX_VALUE)
+                    {
+                        demand.decrementAndGet();
+                    }
+                    subscriber.onNext((T) status);
+                }
+                if (done)
+                {
+                    return;
+                }
+                if (failure != null)
+                {
+                    cancel();
+                    subscriber.onError(failure);
+                }
+                else if (completing) // without demand, the pending status is dropped
+                {
+                    cancel();
+                    subscriber.onComplete();
+                }
+            }
+            catch (RuntimeException x)
+            {
+                if (!done)
+                {
+                    cancel();
+                    subscriber.onError(x);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ *  Base class of the {@link PrioritizedLock} views on a {@link PrioritySync}.
+ *
+ *  It handles priority checks, interrupts and timeouts, so that a subclass only has to implement
+ *  {@link #acquire(int, long, boolean)}, {@link #unlock()} and {@link #newCondition()}.
+ */
+@SuppressWarnings("PMD.CommentSize")
+abstract class AbstractPriorityLock implements PrioritizedLock
+{
+    /** The synchronizer */
+    protected final PrioritySync sync;
+
+
+    /**
+     *  Constructor.
+     *
+     *  @param  sync    the synchronizer
+     */
+    AbstractPriorityLock(final PrioritySync sync)
+    {
+        this.sync = sync;
+    }
+
+    /**
+     *  Acquire the lock for the current thread.
+     *
+     *  @param  priority        valid priority of the request
+     *  @param  deadline        {@link System#nanoTime()} based deadline; {@link Long#MAX_VALUE} for no timeout
+     *  @param  interruptible   give up if the thread is interrupted (the interrupt status stays set)
+     *
+     *  @return true if acquired; false on timeout or interrupt
+     */
+    protected abstract boolean acquire(int priority, long deadline, boolean interruptible);
+
+    @Override
+    public int getPriorities()
+    {
+        return sync.getPriorities();
+    }
+
+    @Override
+    public void lock()
+    {
+        acquire(0, Long.MAX_VALUE, false);
+    }
+
+    @Override
+    public void lock(final int priority)
+    {
+        sync.checkPriority(priority);
+        acquire(priority, Long.MAX_VALUE, false);
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException
+    {
+        lockInterruptibly(0);
+    }
+
+    @Override
+    public void lockInterruptibly(final int priority) throws InterruptedException
+    {
+        sync.checkPriority(priority);
+        if (Thread.interrupted() || !acquire(priority, Long.MAX_VALUE, true))
+        {
+            Thread.interrupted(); // clear
+            throw new InterruptedException();
+        }
+    }
+
+    @Override
+    public boolean tryLock()
+    {
+        return acquire(0, System.nanoTime(), false);
+    }
+
+    @Override
+    public boolean tryLock(final int priority)
+    {
+        sync.checkPriority(priority);
+        return acquire(priority, System.nanoTime(), false);
+    }
+
+    @Override
+    public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException
+    {
+        return tryLock(0, time, unit);
+    }
+
+    @Override
+    public boolean tryLock(final int priority, final long time, final TimeUnit unit) throws InterruptedException
+    {
+        sync.checkPriority(priority);
+        if (Thread.interrupted())
+        {
+            throw new InterruptedException();
+        }
+        if (!acquire(priority, PrioritySync.deadline(unit.toNanos(time)), true))
+        {
+            if (Thread.interrupted())
+            {
+                throw new InterruptedException();
+            }
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     *  @return number of threads waiting for the lock
+     */
+    public int getQueueLength()
+    {
+        return sync.getQueueLength();
+    }
+}
@@ -0,0 +1,241 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *  Base class for the queue lock implementations of this package.
+ *
+ *  It handles reentrancy, interrupts and timeouts and provides {@link Condition} support,
+ *  so that a subclass only has to implement the queue specific
+ *  {@link #acquire(boolean, long, boolean)} and {@link #release()}.
+ *
+ *  Waiting threads spin for a short time before they park.
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads"})
+abstract class AbstractQueueLock implements ConditionOwner
+{
+    /** Number of spins before a waiting thread parks */
+    static final int SPINS = Runtime.getRuntime().availableProcessors() > 1 ? 128 : 0;
+
+    /** Thread holding the lock (only written by the owner) */
+    private Thread owner;
+
+    /** Hold count of the owner */
+    private int holds;
+
+
+    /**
+     *  Acquire the lock for the current thread.
+     *
+     *  In uninterruptible mode an implementation has to preserve the interrupt status.
+     *  In interruptible mode it has to leave the interrupt status set when it gives up.
+     *
+     *  @param  timed           true if {@code deadline} is valid
+     *  @param  deadline        {@link System#nanoTime()} based deadline
+     *  @param  interruptible   give up if the thread is interrupted
+     *
+     *  @return true if acquired; false on timeout or interrupt
+     */
+    protected abstract boolean acquire(boolean timed, long deadline, boolean interruptible);
+
+    /**
+     *  Acquire the lock only if it is free.
+     *
+     *  @return true if acquired
+     */
+    protected boolean tryAcquire()
+    {
+        return acquire(true, System.nanoTime(), false);
+    }
+
+    /**
+     *  Release the lock held by the current thread.
+     */
+    protected abstract void release();
+
+    /**
+     *  Park the current thread while waiting for the lock.
+     *
+     *  @param  blocker     the object the thread is waiting for
+     *  @param  timed       true if {@code deadline} is valid
+     *  @param  deadline    {@link System#nanoTime()} based deadline
+     *
+     *  @return false if the deadline has passed
+     */
+    static boolean park(final Object blocker, final boolean timed, final long deadline)
+    {
+        if (timed)
+        {
+            final long remaining = deadline - System.nanoTime();
+            if (remaining <= 0L)
+            {
+                return false;
+            }
+            LockSupport.parkNanos(blocker, remaining);
+        }
+        else
+        {
+            LockSupport.park(blocker);
+        }
+        return true;
+    }
+
+    /** Take ownership after acquiring the lock */
+    private void setOwner(final Thread thread, final int holdCount)
+    {
+        owner = thread;
+        holds = holdCount;
+    }
+
+    @Override
+    public void lock()
+    {
+        final Thread current = Thread.currentThread();
+        if (owner == current)
+        {
+            holds++;
+            return;
+        }
+        acquire(false, 0L, false);
+        setOwner(current, 1);
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException
+    {
+        if (Thread.interrupted())
+        {
+            throw new InterruptedException();
+        }
+        final Thread current = Thread.currentThread();
+        if (owner == current)
+        {
+            holds++;
+            return;
+        }
+        if (!acquire(false, 0L, true))
+        {
+            Thread.interrupted(); // clear
+            throw new InterruptedException();
+        }
+        setOwner(current, 1);
+    }
+
+    @Override
+    public boolean tryLock()
+    {
+        final Thread current = Thread.currentThread();
+        if (owner == current)
+        {
+            holds++;
+            return true;
+        }
+        if (!tryAcquire())
+        {
+            return false;
+        }
+        setOwner(current, 1);
+        return true;
+    }
+
+    @Override
+    public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException
+    {
+        if (Thread.interrupted())
+        {
+            throw new InterruptedException();
+        }
+        final Thread current = Thread.currentThread();
+        if (owner == current)
+        {
+            holds++;
+            return true;
+        }
+        if (!acquire(true, System.nanoTime() + unit.toNanos(time), true))
+        {
+            if (Thread.interrupted())
+            {
+                throw new InterruptedException();
+            }
+            return false;
+        }
+        setOwner(current, 1);
+        return true;
+    }
+
+    @Override
+    public void unlock()
+    {
+        if (owner != Thread.currentThread())
+        {
+            throw new IllegalMonitorStateException();
+        }
+        if (--holds == 0)
+        {
+            owner = null;
+            release();
+        }
+    }
+
+    @Override
+    public Condition newCondition()
+    {
+        return new ParkingCondition(this);
+    }
+
+    @Override
+    public boolean isHeldByCurrentThread()
+    {
+        return owner == Thread.currentThread();
+    }
+
+    /**
+     *  @return true if the lock is held by any thread (estimate)
+     */
+    public boolean isLocked()
+    {
+        return owner != null;
+    }
+
+    /**
+     *  @return number of holds on this lock by the current thread
+     */
+    public int getHoldCount()
+    {
+        return isHeldByCurrentThread()? holds: 0;
+    }
+
+    @Override
+    public int fullyRelease()
+    {
+        if (owner != Thread.currentThread())
+        {
+            throw new IllegalMonitorStateException();
+        }
+        final int holdCount = holds;
+        holds = 0;
+        owner = null;
+        release();
+        return holdCount;
+    }
+
+    @Override
+    public void reacquire(final int holdCount)
+    {
+        acquire(false, 0L, false);
+        setOwner(Thread.currentThread(), holdCount);
+    }
+
+    @Override
+    public String toString()
+    {
+        final Thread thread = owner;
+        return super.toString() + (thread == null? "[Unlocked]": "[Locked by thread " + thread.getName() + "]");
+    }
+}
@@ -0,0 +1,319 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Lock;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * A {@link CloseableLock} with admission control (bulkhead) for {@link #tryLock(Duration)}.
+ *
+ * A request is rejected immediately, if
+ * <ul>
+ * <li>the number of threads waiting for the lock has reached the maximum queue length, or</li>
+ * <li>the estimated wait exceeds the timeout of the request or the maximum estimated wait.</li>
+ * </ul>
+ * The estimated wait is the remaining hold time of the current owner plus one hold time per waiting thread,
+ * based on an exponentially weighted moving average of the observed hold times.
+ * A rejected request throws the preallocated {@link LockRejectedException}, so shedding load does not allocate.
+ *
+ * {@link #lock()} and {@link #lockInterruptibly()} are never rejected, but their waiting threads count
+ * for the queue length. A try without wait (zero timeout) is not rejected either; it does not queue
+ * and fails with the usual {@link LockNotAcquiredException} if the lock is held.
+ *
+ * The hold times are measured per exclusive hold, so the underlying lock must be exclusive.
+ * They are based on the owner tracking of {@link CloseableLock}, which is enabled by the constructor
+ * and must not be disabled. While the owner waits for a condition the lock is not held,
+ * so requests are admitted; the time waiting does not count as hold time.
+ *
+ * Usage example:
+ * try (AutoCloseableLock lock = admissionControlledLock.tryLock(timeout)) {
+ *      // protected code
+ * }
+ * catch (LockRejectedException x) {
+ *      // overloaded: fail fast
+ * }
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads", "PMD.AvoidUsingVolatile"})
+public class AdmissionControlledCloseableLock extends CloseableLock
+{
+    /** Weight of a new hold time sample in the moving average (1/8) */
+    private static final int EWMA_SHIFT = 3;
+
+    /** Maximum number of waiting threads */
+    private final int maxQueueLength;
+
+    /** Maximum estimated wait in nanoseconds; {@link Long#MAX_VALUE} if unlimited */
+    private final long maxEstimatedWaitNanos;
+
+    /** Number of threads waiting for or acquiring the lock */
+    private final AtomicInteger waiters = new AtomicInteger();
+
+    /** Number of rejected requests */
+    private final LongAdder rejected = new LongAdder();
+
+    /** Moving average of the hold time in nanoseconds (written by the owner) */
+    private volatile long averageHoldNanos;
+
+
+    /**
+     *  Constructor.
+     *
+     *  Uses {@link ReentrantLock}.
+     *
+     *  @param  maxQueueLength      maximum number of waiting threads
+     */
+    public AdmissionControlledCloseableLock(final int maxQueueLength)
+    {
+        this(new ReentrantLock(), maxQueueLength, null);
+    }
+
+    /**
+     *  Constructor.
+     *
+     *  @param  lock                the exclusive lock to use
+     *  @param  maxQueueLength      maximum number of waiting threads
+     *  @param  maxEstimatedWait    maximum estimated wait; null: unlimited
+     */
+    public AdmissionControlledCloseableLock(final Lock lock, final int maxQueueLength, final Duration maxEstimatedWait)
+    {
+        super(lock);
+        if (maxQueueLength < 0)
+        {
+            throw new IllegalArgumentException("invalid maxQueueLength: " + maxQueueLength);
+        }
+        this.maxQueueLength = maxQueueLength;
+        setOwnerTracking(true); // owner and hold start for the estimated wait
+        this.maxEstimatedWaitNanos = maxEstimatedWait == null? Long.MAX_VALUE: toNanos(maxEstimatedWait);
+    }
+
+    @Override
+    public AutoCloseableLock lock()
+    {
+        final AutoCloseableLock handle;
+        waiters.incrementAndGet();
+        try
+        {
+            handle = super.lock();
+        }
+        finally
+        {
+            waiters.decrementAndGet();
+        }
+        return handle;
+    }
+
+    @Override
+    public AutoCloseableLock lock(final int priority)
+    {
+        final AutoCloseableLock handle;
+        waiters.incrementAndGet();
+        try
+        {
+            handle = super.lock(priority);
+        }
+        finally
+        {
+            waiters.decrementAndGet();
+        }
+        return handle;
+    }
+
+    @Override
+    public AutoCloseableLock lockInterruptibly()
+    {
+        final AutoCloseableLock handle;
+        waiters.incrementAndGet();
+        try
+        {
+            handle = super.lockInterruptibly();
+        }
+        finally
+        {
+            waiters.decrementAndGet();
+        }
+        return handle;
+    }
+
+    /**
+     *  Acquires the lock if it is free within the given waiting time,
+     *  unless the request is rejected by admission control.
+     *
+     *  @param timeout  null or 0 means: Return immediately or throw LockException if locked.
+     *                  A negative timeout value means to wait without timeout.
+     *
+     *  @return an {@link AutoCloseableLock} once the lock has been acquired.
+     *
+     *  @throws LockRejectedException if rejected by admission control (preallocated, without stack trace)
+     *  @throws LockTimeoutException on timeout.
+     */
+    @Override
+    public AutoCloseableLock tryLock(final Duration timeout)
+    {
+        checkAdmission(timeoutNanos(timeout));
+        final AutoCloseableLock handle;
+        waiters.incrementAndGet();
+        try
+        {
+            handle = super.tryLock(timeout);
+        }
+        finally
+        {
+            waiters.decrementAndGet();
+        }
+        return handle;
+    }
+
+    /**
+     *  Acquires the lock with the given priority if it is free within the given waiting time,
+     *  unless the request is rejected by admission control.
+     *
+     *  @throws LockRejectedException if rejected by admission control (preallocated, without stack trace)
+     *  @throws LockTimeoutException on timeout.
+     *
+     *  @see CloseableLock#tryLock(int, Duration)
+     */
+    @Override
+    public AutoCloseableLock tryLock(final int priority, final Duration timeout)
+    {
+        checkAdmission(timeoutNanos(timeout));
+        final AutoCloseableLock handle;
+        waiters.incrementAndGet();
+        try
+        {
+            handle = super.tryLock(priority, timeout);
+        }
+        finally
+        {
+            waiters.decrementAndGet();
+        }
+        return handle;
+    }
+
+    /**
+     *  Acquires the lock if it is free before the deadline,
+     *  unless the request is rejected by admission control.
+     *
+     *  @param deadline null or {@link Deadline#NONE} means to wait without timeout.
+     *
+     *  @return an {@link AutoCloseableLock} once the lock has been acquired.
+     *
+     *  @throws LockRejectedException if rejected by admission control (preallocated, without stack trace)
+     *  @throws LockTimeoutException on timeout.
+     */
+    @Override
+    public AutoCloseableLock tryLockUntil(final Deadline deadline)
+    {
+        checkAdmission(deadline == null? Long.MAX_VALUE: deadline.remainingNanos());
+        final AutoCloseableLock handle;
+        waiters.incrementAndGet();
+        try
+        {
+            handle = super.tryLockUntil(deadline);
+        }
+        finally
+        {
+            waiters.decrementAndGet();
+        }
+        return handle;
+    }
+
+    /** @return timeout in nanoseconds; zero: no wait; {@link Long#MAX_VALUE}: no timeout */
+    private static long timeoutNanos(final Duration timeout)
+    {
+        if (timeout == null || timeout.isZero())
+        {
+            return 0L; // no wait
+        }
+        return timeout.isNegative()? Long.MAX_VALUE: toNanos(timeout);
+    }
+
+    /**
+     *  @param  timeoutNanos    zero or negative: no wait; {@link Long#MAX_VALUE}: no timeout
+     *
+     *  @throws LockRejectedException if rejected by admission control
+     */
+    private void checkAdmission(final long timeoutNanos)
+    {
+        if (!admit(timeoutNanos))
+        {
+            rejected.increment();
+            throw LockRejectedException.INSTANCE;
+        }
+    }
+
+    /**
+     *  @param  timeoutNanos    zero or negative: no wait; {@link Long#MAX_VALUE}: no timeout
+     *
+     *  @return true if the request can be served in time
+     */
+    private boolean admit(final long timeoutNanos)
+    {
+        final Thread owner = getOwnerThread();
+        if (owner == null || owner == Thread.currentThread())
+        {
+            return true; // free or reentrant
+        }
+        if (timeoutNanos <= 0L)
+        {
+            return true; // no wait: does not queue, fails as an ordinary try if locked
+        }
+        final int queued = waiters.get();
+        if (queued >= maxQueueLength)
+        {
+            return false;
+        }
+        return estimatedWaitNanos(queued) <= Math.min(maxEstimatedWaitNanos, timeoutNanos);
+    }
+
+    /** @return estimated wait for a new request in nanoseconds */
+    private long estimatedWaitNanos(final int queued)
+    {
+        final long average = averageHoldNanos;
+        final long remaining = Math.max(0L, average - (System.nanoTime() - getHeldSinceNanos()));
+        return remaining + queued * average;
+    }
+
+    /**
+     *  Release the lock.
+     */
+    @Override
+    public void close()
+    {
+        if (getOwnerThread() == Thread.currentThread() && getOwnerHoldCount() == 1) // last hold
+        {
+            final long average = averageHoldNanos;
+            averageHoldNanos = average + (System.nanoTime() - getHeldSinceNanos() - average >> EWMA_SHIFT);
+        }
+        super.close();
+    }
+
+    /**
+     *  @return number of threads waiting for or acquiring the lock (estimate)
+     */
+    public int getQueueLength()
+    {
+        return waiters.get();
+    }
+
+    /**
+     *  @return moving average of the hold time
+     */
+    public Duration getAverageHoldTime()
+    {
+        return Duration.ofNanos(averageHoldNanos);
+    }
+
+    /**
+     *  @return number of requests rejected by admission control
+     */
+    public long getRejectedCount()
+    {
+        return rejected.sum();
+    }
+}
@@ -0,0 +1,36 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+/**
+ * Permits acquired from a {@link CloseableSemaphore}, which are released
+ * when the try-with-resources block is exited.
+ *
+ * Usage example:
+ * try (AutoCloseablePermits permits = closeableSemaphore.acquire(3)) {
+ *      // protected code
+ * }
+ */
+@SuppressWarnings("PMD.CommentSize")
+public interface AutoCloseablePermits extends AutoCloseable
+{
+    /**
+     * Releases the acquired permits.
+     *
+     * Must be called once; a repeated call has no effect.
+     * The handle must not be used after this call, since it may be reused by a later acquisition
+     * of the same thread.
+     * Releasing doesn't throw any checked exception.
+     *
+     * @see AutoCloseable#close()
+     */
+    @Override
+    void close();
+
+    /**
+     * @return number of permits released by {@link #close()}
+     */
+    int getPermits();
+}
@@ -38,6 +38,28 @@ public interface AutoCloseableWriteLock extends AutoCloseableLock
      */
     boolean waitForCondition(BooleanSupplier fCondition, Duration timeout);
 
+    /**
+     *  Allows a thread to wait for a specified condition to be met before a deadline.
+     *
+     *  @param  fCondition  Represents a supplier of {@code boolean}-valued condition results.
+     *  @param  deadline    {@code null} or {@link Deadline#NONE} means to wait without timeout
+     *
+     *  @return true == condition met; false == deadline passed
+     */
+    default boolean waitForConditionUntil(final BooleanSupplier fCondition, final Deadline deadline)
+    {
+        if (deadline == null || deadline.isInfinite())
+        {
+            return waitForCondition(fCondition, null);
+        }
+        final long remainingNanos = deadline.remainingNanos();
+        if (remainingNanos <= 0L) // expired (a zero timeout would mean: no timeout)
+        {
+            return fCondition.getAsBoolean();
+        }
+        return waitForCondition(fCondition, Duration.ofNanos(remainingNanos));
+    }
+
     /**
      *  Allows a thread to wake up all waiting threads waiting on the lock.
      */
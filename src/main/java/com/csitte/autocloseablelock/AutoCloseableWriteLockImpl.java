@@ -51,6 +51,18 @@ public class AutoCloseableWriteLockImpl implements AutoCloseableWriteLock
         this.readWriteLock = readWriteLock;
     }
 
+    /**
+     *  Constructor for a write-lock which has already been acquired.
+     *
+     *  @param  readWriteLock   use this ReadWriteLock as basis
+     *  @param  writeLock       the acquired write-lock of readWriteLock
+     */
+    AutoCloseableWriteLockImpl(final CloseableReadWriteLock readWriteLock, final AutoCloseableLock writeLock)
+    {
+        this.readWriteLock = readWriteLock;
+        this.autoWriteLock = writeLock;
+    }
+
     /**
      * Obtain an exclusive write lock on the associated readWriteLock instance.
      */
@@ -63,6 +75,20 @@ public class AutoCloseableWriteLockImpl implements AutoCloseableWriteLock
         autoWriteLock = readWriteLock.lockWriteLock();
     }
 
+    /**
+     * Obtain an exclusive write lock with the given priority.
+     *
+     * @param priority  used if the underlying lock is a {@link PriorityReadWriteLock}
+     */
+    protected void writeLock(final int priority)
+    {
+        if (autoWriteLock != NullAutoCloseableLock.INSTANCE || autoReadLock != NullAutoCloseableLock.INSTANCE)
+        {
+            throw new LockException(TXT_INVALID_STATE);
+        }
+        autoWriteLock = readWriteLock.lockWriteLock(priority);
+    }
+
     /**
      *  Lock write-lock (interruptibly)
      */
@@ -89,6 +115,35 @@ public class AutoCloseableWriteLockImpl implements AutoCloseableWriteLock
         autoWriteLock = readWriteLock.tryLockWriteLock(timeout);
     }
 
+    /**
+     * Try write-lock (with priority and timeout).
+     *
+     * @param priority  used if the underlying lock is a {@link PriorityReadWriteLock}
+     * @param timeout   duration to wait for the lock
+     */
+    protected void tryWriteLock(final int priority, final Duration timeout)
+    {
+        if (autoWriteLock != NullAutoCloseableLock.INSTANCE || autoReadLock != NullAutoCloseableLock.INSTANCE)
+        {
+            throw new LockException(TXT_INVALID_STATE);
+        }
+        autoWriteLock = readWriteLock.tryLockWriteLock(priority, timeout);
+    }
+
+    /**
+     * Try write-lock (with deadline).
+     *
+     * @param deadline deadline to wait for the lock
+     */
+    protected void tryWriteLockUntil(final Deadline deadline)
+    {
+        if (autoWriteLock != NullAutoCloseableLock.INSTANCE || autoReadLock != NullAutoCloseableLock.INSTANCE)
+        {
+            throw new LockException(TXT_INVALID_STATE);
+        }
+        autoWriteLock = readWriteLock.tryLockWriteLockUntil(deadline);
+    }
+
     /**
      *  Wait for timeout.
      */
@@ -140,6 +195,16 @@ public class AutoCloseableWriteLockImpl implements AutoCloseableWriteLock
         return readWriteLock.waitForWriteLockCondition(fCondition, timeout);
     }
 
+    @Override
+    public boolean waitForConditionUntil(final BooleanSupplier fCondition, final Deadline deadline)
+    {
+        if (autoWriteLock == NullAutoCloseableLock.INSTANCE) // only usable with write-lock
+        {
+            throw new LockException(TXT_INVALID_STATE);
+        }
+        return readWriteLock.waitForWriteLockConditionUntil(fCondition, deadline);
+    }
+
     @Override
     public void signalAll()
     {
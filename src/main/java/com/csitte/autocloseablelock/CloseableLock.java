@@ -5,12 +5,11 @@
 package com.csitte.autocloseablelock;
 
 import java.time.Duration;
-import java.time.Instant;
-import java.time.temporal.ChronoUnit;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.function.BooleanSupplier;
 
 /**
@@ -31,7 +30,7 @@ import java.util.function.BooleanSupplier;
  *      // protected code
  * }
 */
-@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads", "PMD.TooManyMethods"})
+@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads", "PMD.TooManyMethods", "PMD.AvoidUsingVolatile"})
 public class CloseableLock
 {
     /**
@@ -45,6 +44,30 @@ public class CloseableLock
      */
     private Condition condition;
 
+    /** true if the lock is shared (a read lock), so it has no owner */
+    private final boolean shared;
+
+    /** Name of the lock; {@code null} if unnamed */
+    private final String name;
+
+    /** Contention counters; {@code null} if not registered with {@link LockRegistry} */
+    private volatile LockMetrics metrics;
+
+    /** Enclosing read/write lock, which provides the snapshot on timeout; {@code null} if none */
+    private final CloseableReadWriteLock readWriteLock;
+
+    /** Owner and hold time; {@code null} if not tracked (or shared) */
+    private volatile OwnerTracker tracker;
+
+    /** true if owner tracking has been enabled by {@link #setOwnerTracking(boolean)} */
+    private boolean ownerTracking;
+
+    /** Id of the lock in a lock trace; 0 until assigned by {@link TraceBuffer} */
+    volatile int traceId;
+
+    /** Priority of requests without priority */
+    private static final int NO_PRIORITY = -1;
+
     /** One Second Constant */
     private static final long SECOND_IN_NANOS = 1_000_000_000L;
 
@@ -66,7 +89,105 @@ public class CloseableLock
      */
     public CloseableLock(final Lock lock)
     {
+        this(null, lock);
+    }
+
+    /**
+     *  Constructor.
+     *
+     *  @param  name    name of the lock, e.g. for {@link LockRegistry} and {@link LockTimeoutException}
+     *  @param  lock    the lock object to use
+     */
+    public CloseableLock(final String name, final Lock lock)
+    {
+        this(name, lock, lock instanceof ReentrantReadWriteLock.ReadLock, null);
+    }
+
+    /**
+     *  Constructor.
+     *
+     *  @param  name    name of the lock; {@code null} if unnamed
+     *  @param  lock    the lock object to use
+     *  @param  shared  true if the lock is shared (a read lock)
+     *  @param  readWriteLock   enclosing read/write lock; {@code null} if none
+     */
+    CloseableLock(final String name, final Lock lock, final boolean shared, final CloseableReadWriteLock readWriteLock)
+    {
+        this.name = name;
         this.myLock = lock;
+        this.shared = shared;
+        this.readWriteLock = readWriteLock;
+    }
+
+    /**
+     *  @return name of the lock; {@code null} if unnamed
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /** Enable ({@link LockRegistry}) or disable ({@code null}) the contention counters and owner tracking */
+    void setMetrics(final LockMetrics metrics)
+    {
+        this.metrics = metrics;
+        updateTracker();
+    }
+
+    /**
+     *  Enables or disables tracking of the owner and hold time for {@link #getSnapshot()}
+     *  and {@link LockTimeoutException#getContention()}.
+     *
+     *  Tracking is disabled by default, since it costs a clock read and two stores per acquisition.
+     *  It is also enabled while the lock is registered with {@link LockRegistry}.
+     *  A hold which started before tracking was enabled is not tracked. Not supported for a shared lock.
+     *
+     *  @param  enabled true: track the owner
+     */
+    public final void setOwnerTracking(final boolean enabled)
+    {
+        ownerTracking = enabled;
+        updateTracker();
+    }
+
+    /** @return owner thread; {@code null} if not held, not tracked or shared */
+    protected final Thread getOwnerThread()
+    {
+        final OwnerTracker ownerTracker = tracker;
+        return ownerTracker == null? null: ownerTracker.getOwner();
+    }
+
+    /** @return {@link System#nanoTime()} when the owner acquired the lock; only valid if {@link #getOwnerThread()} is set */
+    protected final long getHeldSinceNanos()
+    {
+        final OwnerTracker ownerTracker = tracker;
+        return ownerTracker == null? 0L: ownerTracker.getHeldSinceNanos();
+    }
+
+    /** @return hold count of the owner; only valid if called by the owner */
+    protected final int getOwnerHoldCount()
+    {
+        final OwnerTracker ownerTracker = tracker;
+        return ownerTracker == null? 0: ownerTracker.getHolds();
+    }
+
+    /** Create or drop the owner tracker */
+    private void updateTracker()
+    {
+        if (shared || !ownerTracking && metrics == null)
+        {
+            tracker = null;
+        }
+        else if (tracker == null)
+        {
+            tracker = new OwnerTracker();
+        }
+    }
+
+    /** @return start of an acquisition; {@link LockMetrics#NOT_MEASURED} if not registered */
+    private long startOfAcquire()
+    {
+        return metrics == null? LockMetrics.NOT_MEASURED: System.nanoTime();
     }
 
     /**
@@ -83,8 +204,91 @@ public class CloseableLock
      */
     public AutoCloseableLock lock()
     {
+        LockListeners.acquire(this);
+        final Object event = LockEvents.beginAcquire();
+        final long start = startOfAcquire();
         myLock.lock();
-        return this::close;
+        return acquired(event, "lock", start);
+    }
+
+    /**
+     * Called after the lock has been acquired.
+     *
+     * @param event     handle of the acquire event
+     * @param operation name of the acquire operation
+     * @param start     start of the acquisition; {@link LockMetrics#NOT_MEASURED} if not measured
+     *
+     * @return handle that releases the lock
+     */
+    private AutoCloseableLock acquired(final Object event, final String operation, final long start)
+    {
+        final OwnerTracker ownerTracker = tracker;
+        if (ownerTracker != null)
+        {
+            ownerTracker.acquired();
+        }
+        final LockMetrics lockMetrics = metrics;
+        if (lockMetrics != null && start != LockMetrics.NOT_MEASURED)
+        {
+            lockMetrics.acquired(System.nanoTime() - start);
+        }
+        LockListeners.acquired(this);
+        LeakDetector.trackHold(this);
+        return LockEvents.acquired(event, this, operation);
+    }
+
+    /**
+     * Acquires the lock with the given priority.
+     *
+     * The priority is used if the underlying lock is a {@link PrioritizedLock}, otherwise it is ignored.
+     *
+     * @param priority  0 (lowest) to {@link PrioritizedLock#getPriorities()} - 1 (highest)
+     *
+     * @return an {@link AutoCloseableLock} once the lock has been acquired
+     *
+     * @throws IllegalArgumentException on invalid priority
+     *
+     * @see PrioritizedLock#lock(int)
+     */
+    public AutoCloseableLock lock(final int priority)
+    {
+        final int validPriority = checkPriority(priority);
+        LockListeners.acquire(this);
+        final Object event = LockEvents.beginAcquire();
+        final long start = startOfAcquire();
+        lockWithPriority(validPriority);
+        return acquired(event, "lock", start);
+    }
+
+    /**
+     * @return the priority if the lock is a {@link PrioritizedLock}; {@link #NO_PRIORITY} otherwise
+     *
+     * @throws IllegalArgumentException on invalid priority
+     */
+    private int checkPriority(final int priority)
+    {
+        if (!(myLock instanceof PrioritizedLock))
+        {
+            return NO_PRIORITY;
+        }
+        if (priority < 0 || priority >= ((PrioritizedLock) myLock).getPriorities())
+        {
+            throw new IllegalArgumentException("invalid priority: " + priority);
+        }
+        return priority;
+    }
+
+    /** Lock without timeout */
+    private void lockWithPriority(final int priority)
+    {
+        if (priority == NO_PRIORITY)
+        {
+            myLock.lock();
+        }
+        else
+        {
+            ((PrioritizedLock) myLock).lock(priority);
+        }
     }
 
     /**
@@ -98,8 +302,11 @@ public class CloseableLock
     {
         try
         {
+            LockListeners.acquire(this);
+            final Object event = LockEvents.beginAcquire();
+            final long start = startOfAcquire();
             myLock.lockInterruptibly();
-            return this::close;
+            return acquired(event, "lockInterruptibly", start);
         }
         catch (InterruptedException x)
         {
@@ -112,12 +319,10 @@ public class CloseableLock
      *  Acquires the lock if it is free within the given waiting time and the
      *  current thread has not been {@linkplain Thread#interrupt interrupted}.
      *
-     *  It uses a timeout loop that re-evaluates the remaining wait time
-     *  and it uses ChronoUnit.NANOS to get the remaining wait time in nanoseconds.
-     *
-     *  @param timeout  null or 0 means: Return immediately or throw LockException if locked.
+     *  @param timeout  null or 0 means: Return immediately or throw {@link LockNotAcquiredException} if locked.
      *                  A negative timeout value means to wait without timeout.
      *
+     *  @see #tryLockOrNull()
      *  @see Lock#tryLock()
      *  @see Lock#lock()
      *  @see Lock#tryLock(long, TimeUnit)
@@ -128,46 +333,165 @@ public class CloseableLock
      */
     public AutoCloseableLock tryLock(final Duration timeout)
     {
+        return tryLockWithPriority(NO_PRIORITY, timeout);
+    }
+
+    /**
+     *  Acquires the lock with the given priority if it is free within the given waiting time and the
+     *  current thread has not been {@linkplain Thread#interrupt interrupted}.
+     *
+     *  The priority is used if the underlying lock is a {@link PrioritizedLock}, otherwise it is ignored.
+     *
+     *  @param priority 0 (lowest) to {@link PrioritizedLock#getPriorities()} - 1 (highest)
+     *  @param timeout  null or 0 means: Return immediately or throw {@link LockNotAcquiredException} if locked.
+     *                  A negative timeout value means to wait without timeout.
+     *
+     *  @return an {@link AutoCloseableLock} once the lock has been acquired.
+     *
+     *  @throws LockTimeoutException on timeout.
+     *  @throws IllegalArgumentException on invalid priority
+     *
+     *  @see PrioritizedLock#tryLock(int, long, TimeUnit)
+     */
+    public AutoCloseableLock tryLock(final int priority, final Duration timeout)
+    {
+        return tryLockWithPriority(checkPriority(priority), timeout);
+    }
+
+    /** @see #tryLock(int, Duration) */
+    private AutoCloseableLock tryLockWithPriority(final int priority, final Duration timeout)
+    {
+        LockListeners.acquire(this);
+        final Object event = LockEvents.beginAcquire();
+        final long start = startOfAcquire();
         if (timeout == null || timeout.isZero())
         {
-            if (!myLock.tryLock()) // is locked?
-            {
-                throw new LockException("not acquired"); // no wait
-            }
+            tryLockNow(priority);
         }
         else if (timeout.isNegative())
+        {
+            lockWithPriority(priority);  // wait without timeout
+        }
+        else
+        {
+            tryLockNanos(priority, toNanos(timeout));
+        }
+        return acquired(event, "tryLock", start);
+    }
+
+    /**
+     *  Acquires the lock only if it is free at the time of invocation.
+     *
+     *  Unlike {@code tryLock(Duration.ZERO)} no exception is thrown if the lock is not free,
+     *  which makes it suitable for try-or-skip loops.
+     *  A {@code null} resource is allowed in try-with-resources and is not closed.
+     *
+     *  @return an {@link AutoCloseableLock} if the lock has been acquired; {@code null} otherwise
+     *
+     *  @see Lock#tryLock()
+     */
+    public AutoCloseableLock tryLockOrNull()
+    {
+        LockListeners.acquire(this);
+        final Object event = LockEvents.beginAcquire();
+        final long start = startOfAcquire();
+        if (!myLock.tryLock()) // is locked?
+        {
+            notAcquired(0L);
+            return null;
+        }
+        return acquired(event, "tryLockOrNull", start);
+    }
+
+    /**
+     *  Acquires the lock if it is free before the deadline and the
+     *  current thread has not been {@linkplain Thread#interrupt interrupted}.
+     *
+     *  @param deadline null or {@link Deadline#NONE} means to wait without timeout.
+     *                  An expired deadline means: Return immediately or throw LockTimeoutException if locked.
+     *
+     *  @return an {@link AutoCloseableLock} once the lock has been acquired.
+     *
+     *  @throws LockTimeoutException on timeout.
+     */
+    public AutoCloseableLock tryLockUntil(final Deadline deadline)
+    {
+        LockListeners.acquire(this);
+        final Object event = LockEvents.beginAcquire();
+        final long start = startOfAcquire();
+        if (deadline == null || deadline.isInfinite())
         {
             myLock.lock();  // wait without timeout
         }
         else
         {
-            tryLockWithTimeout(timeout);
+            tryLockNanos(NO_PRIORITY, Math.max(deadline.remainingNanos(), 0L));
+        }
+        return acquired(event, "tryLock", start);
+    }
+
+    /**
+     *  @param  duration    positive duration
+     *
+     *  @return duration in nanoseconds; {@link Long#MAX_VALUE} on overflow
+     */
+    static long toNanos(final Duration duration)
+    {
+        return duration.getSeconds() >= Long.MAX_VALUE / SECOND_IN_NANOS? Long.MAX_VALUE: duration.toNanos();
+    }
+
+    /**
+     *  @return snapshot of the lock state on timeout (of the enclosing read/write lock, which knows
+     *          the writer and the readers)
+     */
+    private LockSnapshot contention()
+    {
+        return readWriteLock == null? getSnapshot(): readWriteLock.getSnapshot();
+    }
+
+    /** Called if the lock was not acquired */
+    private void notAcquired(final long timeoutNanos)
+    {
+        LockListeners.timeout(this, timeoutNanos);
+        final LockMetrics lockMetrics = metrics;
+        if (lockMetrics != null)
+        {
+            lockMetrics.timeout();
+        }
+    }
+
+    /** tryLock without wait */
+    private void tryLockNow(final int priority)
+    {
+        final boolean acquired = priority == NO_PRIORITY? myLock.tryLock(): ((PrioritizedLock) myLock).tryLock(priority);
+        if (!acquired) // is locked?
+        {
+            notAcquired(0L);
+            throw LockNotAcquiredException.INSTANCE; // no wait
         }
-        return this::close;
     }
 
     /** tryLock with timeout */
-    private void tryLockWithTimeout(final Duration timeout)
+    private void tryLockNanos(final int priority, final long timeoutNanos)
     {
         try
         {
-            final Instant startOfWait = Instant.now();
-            Duration remainingWaitTime = timeout;
-            while (!myLock.tryLock(remainingWaitTime.get(ChronoUnit.NANOS), TimeUnit.NANOSECONDS))
+            final long startOfWait = System.nanoTime();
+            final boolean acquired = priority == NO_PRIORITY? myLock.tryLock(timeoutNanos, TimeUnit.NANOSECONDS)
+                            : ((PrioritizedLock) myLock).tryLock(priority, timeoutNanos, TimeUnit.NANOSECONDS);
+            if (!acquired)
             {
-                final Duration elapsedTime = Duration.between(startOfWait, Instant.now());
-                remainingWaitTime = timeout.minus(elapsedTime);
-                if (remainingWaitTime.isZero() || remainingWaitTime.isNegative())
-                {
-                    throw new LockTimeoutException(elapsedTime);
-                }
+                final long elapsedNanos = System.nanoTime() - startOfWait;
+                LockEvents.timeout(this, timeoutNanos);
+                notAcquired(timeoutNanos);
+                throw new LockTimeoutException(name, Duration.ofNanos(elapsedNanos), contention());
             }
-          }
-          catch (InterruptedException x)
-          {
-              Thread.currentThread().interrupt();
-              throw new LockException(x);
-          }
+        }
+        catch (InterruptedException x)
+        {
+            Thread.currentThread().interrupt();
+            throw new LockException(x);
+        }
     }
 
     /**
@@ -217,6 +541,7 @@ public class CloseableLock
             if (condition != null)
             {
                 //- only if condition is in use
+                LockListeners.signal(this, true);
                 condition.signalAll();
             }
         }
@@ -238,19 +563,62 @@ public class CloseableLock
             if (condition != null)
             {
                 //- only if condition is in use
+                LockListeners.signal(this, false);
                 condition.signal();
             }
         }
     }
 
+    /**
+     *  @return class of the underlying lock
+     */
+    Class<?> getLockClass()
+    {
+        return myLock.getClass();
+    }
+
     /**
      *  Release the lock.
      */
     public void close()
     {
+        LockListeners.release(this);
+        LeakDetector.releaseHold(this);
+        final OwnerTracker ownerTracker = tracker;
+        if (ownerTracker != null)
+        {
+            ownerTracker.released();
+        }
         myLock.unlock();
     }
 
+    /**
+     *  Returns the state of the lock without acquiring it.
+     *
+     *  The owner and hold time are tracked by this class, if enabled ({@link #setOwnerTracking(boolean)}
+     *  or {@link LockRegistry}); otherwise the snapshot has no owner. The queue length is supported
+     *  for {@link ReentrantLock}. The read holder count is 0 for an exclusive lock.
+     *
+     *  @return snapshot of the lock state
+     */
+    public LockSnapshot getSnapshot()
+    {
+        return snapshot(LockSnapshot.queueLength(myLock), shared? LockSnapshot.UNKNOWN: 0);
+    }
+
+    /**
+     *  @param  queueLength     estimated number of waiting threads
+     *  @param  readHolderCount number of read holds
+     *
+     *  @return snapshot with the owner of this lock; without owner if not tracked
+     */
+    LockSnapshot snapshot(final int queueLength, final int readHolderCount)
+    {
+        final OwnerTracker ownerTracker = tracker;
+        return ownerTracker == null? new LockSnapshot(null, 0L, queueLength, readHolderCount)
+                        : ownerTracker.snapshot(queueLength, readHolderCount);
+    }
+
     /**
      *  Wait for condition to become true or timeout.
      *
@@ -273,52 +641,102 @@ public class CloseableLock
             {
                 assert autoCloseableLock != null; // ignored on runtime
                 //- calculate end of wait if valid timeout parameter is available
-                final Instant startOfWait = Instant.now();
-                Instant endOfWait = null;
+                Deadline deadline = Deadline.NONE;
                 if (timeout != null && !timeout.isZero() && !timeout.isNegative())
                 {
-                    endOfWait = startOfWait.plus(timeout);
-                }
-                try
-                {
-                    result = waitForCondition(fCondition, endOfWait);
-                }
-                catch (InterruptedException x)
-                {
-                    Thread.currentThread().interrupt();
-                    throw new LockException("interrupted", x);
+                    deadline = Deadline.after(timeout);
                 }
+                result = waitLocked(fCondition, deadline);
             }
         }
         return result;
     }
 
-    private boolean waitForCondition(final BooleanSupplier fCondition, final Instant endOfWait) throws InterruptedException
+    /**
+     *  Wait for condition to become true or the deadline to pass.
+     *
+     *  Returns immediately if condition is met.
+     *
+     *  @param  fCondition  Represents a supplier of {@code boolean}-valued condition results
+     *  @param  deadline    null or {@link Deadline#NONE} means: no timeout
+     *
+     *  @return true == condition met; false == deadline passed
+     *
+     *  @throws LockException if interrupted
+     */
+    public boolean waitForConditionUntil(final BooleanSupplier fCondition, final Deadline deadline)
     {
         boolean result = true;
-        do
+        if (!fCondition.getAsBoolean()) // test condition
         {
-            long nanos = SECOND_IN_NANOS; // default wait-interval
-            if (endOfWait != null)
+            try (AutoCloseableLock autoCloseableLock = lock())
             {
-                final Instant now = Instant.now();
-                final long remainingWaitTime = Duration.between(now, endOfWait).toNanos();
-                if (remainingWaitTime <= 0) // timeout
-                {
-                    result = false;
-                    break; // return;
-                }
-                if (remainingWaitTime < SECOND_IN_NANOS) // wait less than default interval?
-                {
-                    nanos = remainingWaitTime;
-                }
+                assert autoCloseableLock != null; // ignored on runtime
+                result = waitLocked(fCondition, deadline == null? Deadline.NONE: deadline);
             }
-            getOrCreateCondition().awaitNanos(nanos);
         }
-        while (!fCondition.getAsBoolean()); // test condition
         return result;
     }
 
+    /** Wait for condition while holding the lock */
+    private boolean waitLocked(final BooleanSupplier fCondition, final Deadline deadline)
+    {
+        LockListeners.waiting(this);
+        LeakDetector.waiting(this, true);
+        final Object event = LockEvents.beginConditionWait();
+        final OwnerTracker ownerTracker = tracker;
+        final int holds = ownerTracker == null? 0: ownerTracker.suspend(); // released while waiting
+        try
+        {
+            final boolean result = awaitCondition(fCondition, deadline);
+            LockEvents.conditionWaited(event, this, result);
+            return result;
+        }
+        catch (InterruptedException x)
+        {
+            Thread.currentThread().interrupt();
+            throw new LockException("interrupted", x);
+        }
+        finally
+        {
+            if (ownerTracker != null)
+            {
+                ownerTracker.resume(holds);
+            }
+            LeakDetector.waiting(this, false);
+        }
+    }
+
+    /**
+     *  The condition is tested again under the lock before the first wait,
+     *  so a signal between the first test (without the lock) and the wait is not lost.
+     */
+    private boolean awaitCondition(final BooleanSupplier fCondition, final Deadline deadline) throws InterruptedException
+    {
+        final long pollNanos = VirtualThreads.pollIntervalNanos(); // default wait-interval
+        while (!fCondition.getAsBoolean()) // test condition
+        {
+            long nanos = pollNanos;
+            final long remainingWaitTime = deadline.remainingNanos();
+            if (remainingWaitTime <= 0) // timeout
+            {
+                return false;
+            }
+            if (remainingWaitTime < pollNanos) // wait less than default interval?
+            {
+                nanos = remainingWaitTime;
+            }
+            if (nanos == Long.MAX_VALUE)
+            {
+                getOrCreateCondition().await(); // no timeout and no polling
+            }
+            else
+            {
+                getOrCreateCondition().awaitNanos(nanos);
+            }
+        }
+        return true;
+    }
 
     /**
      *  Wait for condition to become true.
@@ -34,6 +34,10 @@ public class CloseableReadWriteLock
     private final CloseableLock closeReadLock;
     /** used to lock write-lock */
     private final CloseableLock closeWriteLock;
+    /** the underlying lock */
+    private final ReadWriteLock readWriteLock;
+    /** name of the lock; null if unnamed */
+    private final String name;
 
     /**
      *  Default Constructor.
@@ -52,8 +56,63 @@ public class CloseableReadWriteLock
      */
     public CloseableReadWriteLock(final ReadWriteLock readWriteLock)
     {
-        this.closeReadLock  = new CloseableLock(readWriteLock.readLock());
-        this.closeWriteLock = new CloseableLock(readWriteLock.writeLock());
+        this(null, readWriteLock);
+    }
+
+    /**
+     *  Constructor.
+     *
+     *  @param  name            name of the lock, e.g. for {@link LockRegistry} and {@link LockTimeoutException}
+     *  @param  readWriteLock   use this {@link ReadWriteLock} as underlying lock
+     */
+    public CloseableReadWriteLock(final String name, final ReadWriteLock readWriteLock)
+    {
+        this.closeReadLock  = new CloseableLock(name, readWriteLock.readLock(), true, this);
+        this.closeWriteLock = new CloseableLock(name, readWriteLock.writeLock(), false, this);
+        this.readWriteLock  = readWriteLock;
+        this.name           = name;
+    }
+
+    /**
+     *  @return name of the lock; {@code null} if unnamed
+     */
+    public String getName()
+    {
+        return name;
+    }
+
+    /** Enable ({@link LockRegistry}) or disable ({@code null}) the contention counters */
+    void setMetrics(final LockMetrics metrics)
+    {
+        closeReadLock.setMetrics(metrics);
+        closeWriteLock.setMetrics(metrics);
+    }
+
+    /**
+     *  Enables or disables tracking of the write lock owner for {@link #getSnapshot()}.
+     *
+     *  @param  enabled true: track the owner
+     *
+     *  @see CloseableLock#setOwnerTracking(boolean)
+     */
+    public void setOwnerTracking(final boolean enabled)
+    {
+        closeWriteLock.setOwnerTracking(enabled);
+    }
+
+    /**
+     *  Returns the state of the lock without acquiring it.
+     *
+     *  The owner is the holder of the write lock, if tracked. The queue length and the read holder count
+     *  are supported for {@link ReentrantReadWriteLock}.
+     *
+     *  @return snapshot of the lock state
+     */
+    public LockSnapshot getSnapshot()
+    {
+        final int readHolderCount = readWriteLock instanceof ReentrantReadWriteLock
+                        ? ((ReentrantReadWriteLock) readWriteLock).getReadLockCount(): LockSnapshot.UNKNOWN;
+        return closeWriteLock.snapshot(LockSnapshot.queueLength(readWriteLock), readHolderCount);
     }
 
     /**
@@ -90,6 +149,12 @@ public class CloseableReadWriteLock
         return closeWriteLock.lock();
     }
 
+    /** direct write-lock lock (with priority) */
+    protected AutoCloseableLock lockWriteLock(final int priority)
+    {
+        return closeWriteLock.lock(priority);
+    }
+
     /** direct write-lock lock (interruptibly) */
     protected AutoCloseableLock lockWriteLockInterruptibly()
     {
@@ -106,6 +171,18 @@ public class CloseableReadWriteLock
         return closeReadLock.lock();
     }
 
+    /**
+     * @param priority  used if the underlying lock is a {@link PriorityReadWriteLock}
+     *
+     * @return an {@link AutoCloseableLock} once the read-lock has been acquired
+     *
+     * @see CloseableLock#lock(int)
+     */
+    public AutoCloseableLock readLock(final int priority)
+    {
+        return closeReadLock.lock(priority);
+    }
+
     /**
      * @return an {@link AutoCloseableLock} once the read-lock has been acquired (interruptibly)
      */
@@ -126,6 +203,20 @@ public class CloseableReadWriteLock
         return lock;
     }
 
+    /**
+     * @param priority  used if the underlying lock is a {@link PriorityReadWriteLock}
+     *
+     * @return an {@link AutoCloseableLock} once the write-lock has been acquired.
+     *
+     * @see CloseableLock#lock(int)
+     */
+    public AutoCloseableWriteLock writeLock(final int priority)
+    {
+        final AutoCloseableWriteLockImpl lock = new AutoCloseableWriteLockImpl(this);
+        lock.writeLock(priority);
+        return lock;
+    }
+
     /**
      * @return an {@link AutoCloseableLock} once the write-lock has been acquired.
      *
@@ -148,11 +239,65 @@ public class CloseableReadWriteLock
         return closeReadLock.tryLock(timeout);
     }
 
+    /**
+     *  @param priority used if the underlying lock is a {@link PriorityReadWriteLock}
+     *  @param timeout  0==return immediately or throw LockException if locked
+     *
+     *  @return an {@link AutoCloseableLock} once the read-lock has been acquired.
+     *
+     *  @see CloseableLock#tryLock(int, Duration)
+     */
+    public AutoCloseableLock tryReadLock(final int priority, final Duration timeout)
+    {
+        return closeReadLock.tryLock(priority, timeout);
+    }
+
+    /**
+     *  @return an {@link AutoCloseableLock} if the read-lock has been acquired without wait; {@code null} otherwise
+     *
+     *  @see CloseableLock#tryLockOrNull()
+     */
+    public AutoCloseableLock tryReadLockOrNull()
+    {
+        return closeReadLock.tryLockOrNull();
+    }
+
+    /**
+     *  @param deadline null or {@link Deadline#NONE} means to wait without timeout
+     *
+     *  @return an {@link AutoCloseableLock} once the read-lock has been acquired.
+     *
+     *  @see CloseableLock#tryLockUntil(Deadline)
+     */
+    public AutoCloseableLock tryReadLockUntil(final Deadline deadline)
+    {
+        return closeReadLock.tryLockUntil(deadline);
+    }
+
     /** try write-lock (with timeout) */
     protected AutoCloseableLock tryLockWriteLock(final Duration timeout)
     {
         return closeWriteLock.tryLock(timeout);
     }
+
+    /** try write-lock (with priority and timeout) */
+    protected AutoCloseableLock tryLockWriteLock(final int priority, final Duration timeout)
+    {
+        return closeWriteLock.tryLock(priority, timeout);
+    }
+
+    /** try write-lock (with deadline) */
+    protected AutoCloseableLock tryLockWriteLockUntil(final Deadline deadline)
+    {
+        return closeWriteLock.tryLockUntil(deadline);
+    }
+
+    /** try write-lock (without wait); null if not acquired */
+    protected AutoCloseableLock tryLockWriteLockOrNull()
+    {
+        return closeWriteLock.tryLockOrNull();
+    }
+
     /**
      *  @param timeout  0==return immediately or throw LockException if locked
      *
@@ -165,12 +310,58 @@ public class CloseableReadWriteLock
         return lock;
     }
 
+    /**
+     *  @param priority used if the underlying lock is a {@link PriorityReadWriteLock}
+     *  @param timeout  0==return immediately or throw LockException if locked
+     *
+     *  @return an {@link AutoCloseableWriteLock} once the write-lock has been acquired.
+     *
+     *  @see CloseableLock#tryLock(int, Duration)
+     */
+    public AutoCloseableWriteLock tryWriteLock(final int priority, final Duration timeout)
+    {
+        final AutoCloseableWriteLockImpl lock = new AutoCloseableWriteLockImpl(this);
+        lock.tryWriteLock(priority, timeout);
+        return lock;
+    }
+
+    /**
+     *  @param deadline null or {@link Deadline#NONE} means to wait without timeout
+     *
+     *  @return an {@link AutoCloseableWriteLock} once the write-lock has been acquired.
+     *
+     *  @see CloseableLock#tryLockUntil(Deadline)
+     */
+    public AutoCloseableWriteLock tryWriteLockUntil(final Deadline deadline)
+    {
+        final AutoCloseableWriteLockImpl lock = new AutoCloseableWriteLockImpl(this);
+        lock.tryWriteLockUntil(deadline);
+        return lock;
+    }
+
+    /**
+     *  @return an {@link AutoCloseableWriteLock} if the write-lock has been acquired without wait; {@code null} otherwise
+     *
+     *  @see CloseableLock#tryLockOrNull()
+     */
+    public AutoCloseableWriteLock tryWriteLockOrNull()
+    {
+        final AutoCloseableLock writeLock = tryLockWriteLockOrNull(); // allocate the handle only on success
+        return writeLock == null? null: new AutoCloseableWriteLockImpl(this, writeLock);
+    }
+
     /** Wait for write-lock condition (with timeout) */
     protected boolean waitForWriteLockCondition(final BooleanSupplier fCondition, final Duration timeout)
     {
         return closeWriteLock.waitForCondition(fCondition, timeout);
     }
 
+    /** Wait for write-lock condition (with deadline) */
+    protected boolean waitForWriteLockConditionUntil(final BooleanSupplier fCondition, final Deadline deadline)
+    {
+        return closeWriteLock.waitForConditionUntil(fCondition, deadline);
+    }
+
     /** Signal all write-lock clients */
     protected void signalAllWriteLock()
     {
@@ -0,0 +1,272 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * The CloseableSemaphore class provides a wrapper for a {@link Semaphore}
+ * that can be used with the Java try-with-resources functionality.
+ *
+ * The permits are acquired by {@link #acquire(int)}, {@link #acquireInterruptibly(int)}
+ * or {@link #tryAcquire(int, Duration)}. The returned {@link AutoCloseablePermits} handle
+ * releases exactly the acquired number of permits, also if the block is left by an exception.
+ *
+ * Permits are taken by a CAS on the semaphore state if they are available.
+ * In fair mode waiting threads acquire permits in FIFO order;
+ * in non-fair mode an arriving thread may take permits before waiting threads (barging).
+ * Each acquisition gets its own handle, so a repeated {@code close()} has no effect and
+ * never releases the permits of another acquisition.
+ * Closed handles are pooled per thread and only reused by the thread which acquired them,
+ * so acquiring permits does not allocate in steady state. The least recently closed handle is reused first;
+ * a handle must not be used after {@code close()}, since it may belong to a later acquisition of the same thread.
+ *
+ * Usage example:
+ * try (AutoCloseablePermits permits = closeableSemaphore.acquire(3)) {
+ *      // protected code
+ * }
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads"})
+public class CloseableSemaphore
+{
+    /** Maximum number of closed handles per thread */
+    private static final int MAX_POOLED_HANDLES = 8;
+
+    /** The semaphore to use */
+    private final Semaphore semaphore;
+
+    /** Closed handles of the current thread */
+    private final ThreadLocal<ArrayDeque<Permits>> pools = ThreadLocal.withInitial(ArrayDeque::new);
+
+
+    /**
+     *  Constructor (non-fair).
+     *
+     *  @param  permits     initial number of permits
+     */
+    public CloseableSemaphore(final int permits)
+    {
+        this(permits, false);
+    }
+
+    /**
+     *  Constructor.
+     *
+     *  @param  permits     initial number of permits
+     *  @param  fair        true: FIFO order; false: barging
+     */
+    public CloseableSemaphore(final int permits, final boolean fair)
+    {
+        this.semaphore = new Semaphore(permits, fair);
+    }
+
+    /** @return new handle releasing the given number of permits, which have been acquired */
+    private AutoCloseablePermits handle(final int permits)
+    {
+        final ArrayDeque<Permits> pool = pools.get();
+        final Permits handle = pool.pollFirst();
+        return (handle == null? new Permits(semaphore, pool): handle).acquired(permits);
+    }
+
+    /** @throws IllegalArgumentException if permits is not positive */
+    private static void checkPermits(final int permits)
+    {
+        if (permits < 1)
+        {
+            throw new IllegalArgumentException("invalid number of permits: " + permits);
+        }
+    }
+
+    /**
+     *  Acquires one permit.
+     *
+     *  @return an {@link AutoCloseablePermits} once the permit has been acquired
+     */
+    public AutoCloseablePermits acquire()
+    {
+        return acquire(1);
+    }
+
+    /**
+     *  Acquires the given number of permits.
+     *
+     *  If the permits are not available then the current thread becomes disabled
+     *  for thread scheduling purposes and lies dormant until they have been acquired.
+     *
+     *  @param  permits the number of permits to acquire
+     *
+     *  @return an {@link AutoCloseablePermits} once the permits have been acquired
+     *
+     *  @see Semaphore#acquireUninterruptibly(int)
+     */
+    public AutoCloseablePermits acquire(final int permits)
+    {
+        checkPermits(permits);
+        semaphore.acquireUninterruptibly(permits);
+        return handle(permits);
+    }
+
+    /**
+     *  Acquires the given number of permits unless the current thread is
+     *  {@linkplain Thread#interrupt interrupted}.
+     *
+     *  @param  permits the number of permits to acquire
+     *
+     *  @return an {@link AutoCloseablePermits} once the permits have been acquired
+     *
+     *  @throws LockException if interrupted
+     *
+     *  @see Semaphore#acquire(int)
+     */
+    public AutoCloseablePermits acquireInterruptibly(final int permits)
+    {
+        checkPermits(permits);
+        try
+        {
+            semaphore.acquire(permits);
+            return handle(permits);
+        }
+        catch (InterruptedException x)
+        {
+            Thread.currentThread().interrupt();
+            throw new LockException(x);
+        }
+    }
+
+    /**
+     *  Acquires the given number of permits if they become available within the given waiting time
+     *  and the current thread has not been {@linkplain Thread#interrupt interrupted}.
+     *
+     *  @param  permits the number of permits to acquire
+     *  @param  timeout null or 0 means: Return immediately or throw {@link LockNotAcquiredException} if not available.
+     *                  A negative timeout value means to wait without timeout.
+     *
+     *  @return an {@link AutoCloseablePermits} once the permits have been acquired
+     *
+     *  @throws LockTimeoutException on timeout
+     *  @throws LockException if not available (no timeout) or interrupted
+     *
+     *  @see Semaphore#tryAcquire(int, long, TimeUnit)
+     */
+    public AutoCloseablePermits tryAcquire(final int permits, final Duration timeout)
+    {
+        checkPermits(permits);
+        try
+        {
+            if (timeout == null || timeout.isZero())
+            {
+                //- a timed try honors the FIFO order in fair mode
+                if (!semaphore.tryAcquire(permits, 0L, TimeUnit.NANOSECONDS))
+                {
+                    throw LockNotAcquiredException.INSTANCE; // no wait
+                }
+            }
+            else if (timeout.isNegative())
+            {
+                semaphore.acquire(permits); // wait without timeout
+            }
+            else
+            {
+                final long startOfWait = System.nanoTime();
+                if (!semaphore.tryAcquire(permits, CloseableLock.toNanos(timeout), TimeUnit.NANOSECONDS))
+                {
+                    throw new LockTimeoutException(Duration.ofNanos(System.nanoTime() - startOfWait));
+                }
+            }
+            return handle(permits);
+        }
+        catch (InterruptedException x)
+        {
+            Thread.currentThread().interrupt();
+            throw new LockException(x);
+        }
+    }
+
+    /**
+     *  @return the current number of available permits
+     */
+    public int availablePermits()
+    {
+        return semaphore.availablePermits();
+    }
+
+    /**
+     *  @return true if permits are granted in FIFO order
+     */
+    public boolean isFair()
+    {
+        return semaphore.isFair();
+    }
+
+    @Override
+    public String toString()
+    {
+        return super.toString() + "[" + semaphore + "]";
+    }
+
+    /** Handle releasing the permits of one acquisition */
+    private static final class Permits implements AutoCloseablePermits
+    {
+        /** Update of {@link #held} */
+        private static final AtomicIntegerFieldUpdater<Permits> HELD =
+                        AtomicIntegerFieldUpdater.newUpdater(Permits.class, "held");
+
+        /** the semaphore */
+        private final Semaphore semaphore;
+
+        /** closed handles of the owner */
+        private final ArrayDeque<Permits> pool;
+
+        /** thread which reuses this handle */
+        private final Thread owner;
+
+        /** number of permits (written by the owner before {@link #held}) */
+        private int count;
+
+        /** 1: the permits are held; 0: released */
+        private volatile int held;
+
+        /** Constructor */
+        Permits(final Semaphore semaphore, final ArrayDeque<Permits> pool)
+        {
+            this.semaphore = semaphore;
+            this.pool = pool;
+            this.owner = Thread.currentThread();
+        }
+
+        /** @return this handle, after the permits have been acquired */
+        Permits acquired(final int permits)
+        {
+            count = permits;
+            HELD.lazySet(this, 1);
+            return this;
+        }
+
+        /** Release the permits; no effect if already released */
+        @Override
+        public void close()
+        {
+            if (held == 0 || !HELD.compareAndSet(this, 1, 0))
+            {
+                return; // already released
+            }
+            semaphore.release(count);
+            if (owner == Thread.currentThread() && pool.size() < MAX_POOLED_HANDLES)
+            {
+                pool.addLast(this); // reused after the handles closed before
+            }
+        }
+
+        @Override
+        public int getPermits()
+        {
+            return count;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+/**
+ *  Maps a thread to a cluster (e.g. a CPU socket) for a {@link CohortLock}.
+ *
+ *  The mapping has to be stable for a thread while it holds or waits for the lock.
+ *  A typical mapping is based on thread pool membership: each pool is pinned to one socket
+ *  and creates its threads in its own {@link ThreadGroup}.
+ */
+@FunctionalInterface
+public interface ClusterMapper
+{
+    /**
+     *  @param  thread  the thread
+     *
+     *  @return cluster index of the thread; taken modulo the number of clusters of the lock
+     */
+    int getCluster(Thread thread);
+
+    /**
+     *  Map threads by thread group.
+     *
+     *  A thread belongs to cluster {@code i} if it is a member of {@code groups[i]} or one of its subgroups.
+     *  Threads not belonging to any of the groups are mapped to cluster 0.
+     *
+     *  @param  groups  one thread group per cluster
+     *
+     *  @return the mapper
+     */
+    @SuppressWarnings("PMD.AvoidThreadGroup")
+    static ClusterMapper byThreadGroup(final ThreadGroup... groups)
+    {
+        final ThreadGroup[] clusterGroups = groups.clone();
+        return thread ->
+        {
+            final ThreadGroup group = thread.getThreadGroup();
+            if (group != null)
+            {
+                for (int idx = 0; idx < clusterGroups.length; idx++)
+                {
+                    if (clusterGroups[idx].parentOf(group))
+                    {
+                        return idx;
+                    }
+                }
+            }
+            return 0;
+        };
+    }
+}
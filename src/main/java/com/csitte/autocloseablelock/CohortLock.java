@@ -0,0 +1,296 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *  Hierarchical cohort lock for NUMA machines.
+ *
+ *  Threads are assigned to clusters (e.g. CPU sockets) by a {@link ClusterMapper}.
+ *  Each cluster has a local lock; the clusters compete for a global lock.
+ *  A thread first acquires the local lock of its cluster and then the global lock,
+ *  unless the global lock was passed on within the cluster.
+ *
+ *  On release the global lock is kept in the cluster, if another thread of the cluster
+ *  is waiting for the local lock, so that the lock moves between clusters less often.
+ *  After {@code maxLocalHandoffs} consecutive local handoffs the global lock is released,
+ *  so that other clusters do not starve.
+ *
+ *  The global lock is a fair {@link Semaphore}, as it may be released by another thread than the one
+ *  which acquired it. A waiting thread which gives up releases the global lock, if it had been kept
+ *  for it and no other thread of the cluster is waiting.
+ *
+ *  Usage example:
+ *  {@code
+ *  CloseableLock lock = new CloseableLock(new CohortLock(2, ClusterMapper.byThreadGroup(socket0, socket1)));
+ *  }
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads"})
+public class CohortLock extends AbstractQueueLock
+{
+    /** Default for the maximum number of consecutive local handoffs */
+    public static final int DEFAULT_MAX_LOCAL_HANDOFFS = 64;
+
+    /** Global lock; held by at most one cluster, granted in FIFO order */
+    private final Semaphore global = new Semaphore(1, true);
+
+    /** Clusters */
+    private final Cluster[] clusters;
+
+    /** Thread-to-cluster mapping */
+    private final ClusterMapper mapper;
+
+    /** Maximum number of consecutive local handoffs */
+    private final int maxLocalHandoffs;
+
+    /** Cluster of the lock holder (only accessed by the owner) */
+    private Cluster heldCluster;
+
+
+    /**
+     *  Constructor.
+     *
+     *  @param  clusterCount    number of clusters
+     *  @param  mapper          thread-to-cluster mapping
+     */
+    public CohortLock(final int clusterCount, final ClusterMapper mapper)
+    {
+        this(clusterCount, mapper, DEFAULT_MAX_LOCAL_HANDOFFS);
+    }
+
+    /**
+     *  Constructor.
+     *
+     *  @param  clusterCount        number of clusters
+     *  @param  mapper              thread-to-cluster mapping
+     *  @param  maxLocalHandoffs    maximum number of consecutive local handoffs (fairness bound)
+     */
+    public CohortLock(final int clusterCount, final ClusterMapper mapper, final int maxLocalHandoffs)
+    {
+        super();
+        if (clusterCount < 1 || maxLocalHandoffs < 0)
+        {
+            throw new IllegalArgumentException("invalid argument");
+        }
+        if (mapper == null)
+        {
+            throw new IllegalArgumentException("mapper is null");
+        }
+        this.mapper = mapper;
+        this.maxLocalHandoffs = maxLocalHandoffs;
+        this.clusters = new Cluster[clusterCount];
+        for (int idx = 0; idx < clusterCount; idx++)
+        {
+            clusters[idx] = new Cluster();
+        }
+    }
+
+    /** @return cluster of the current thread */
+    private Cluster myCluster()
+    {
+        return clusters[Math.floorMod(mapper.getCluster(Thread.currentThread()), clusters.length)];
+    }
+
+    @Override
+    protected boolean acquire(final boolean timed, final long deadline, final boolean interruptible)
+    {
+        final Cluster cluster = myCluster();
+        if (!acquireLocal(cluster, timed, deadline, interruptible))
+        {
+            cluster.releaseOrphan(global);
+            return false;
+        }
+        if (!cluster.globalHeld && !acquireGlobal(timed, deadline, interruptible))
+        {
+            cluster.local.unlock();
+            return false;
+        }
+        takeGlobal(cluster);
+        return true;
+    }
+
+    @Override
+    protected boolean tryAcquire()
+    {
+        final Cluster cluster = myCluster();
+        if (!cluster.local.tryLock())
+        {
+            return false;
+        }
+        if (!cluster.globalHeld && !global.tryAcquire())
+        {
+            cluster.local.unlock();
+            return false;
+        }
+        takeGlobal(cluster);
+        return true;
+    }
+
+    /** Bookkeeping after the current thread holds both, local and global lock */
+    private void takeGlobal(final Cluster cluster)
+    {
+        if (cluster.globalHeld)
+        {
+            cluster.localHandoffs++;
+        }
+        else
+        {
+            cluster.globalHeld = true;
+            cluster.passes = 0;
+            cluster.globalAcquires++;
+        }
+        heldCluster = cluster;
+    }
+
+    /** @return false on timeout or interrupt */
+    private static boolean acquireLocal(final Cluster cluster,
+                                        final boolean timed, final long deadline, final boolean interruptible)
+    {
+        final ReentrantLock local = cluster.local;
+        try
+        {
+            if (timed)
+            {
+                return local.tryLock(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+            if (interruptible)
+            {
+                local.lockInterruptibly();
+            }
+            else
+            {
+                local.lock();
+            }
+            return true;
+        }
+        catch (InterruptedException x)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    /** @return false on timeout or interrupt */
+    private boolean acquireGlobal(final boolean timed, final long deadline, final boolean interruptible)
+    {
+        try
+        {
+            if (timed)
+            {
+                return global.tryAcquire(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+            }
+            if (interruptible)
+            {
+                global.acquire();
+            }
+            else
+            {
+                global.acquireUninterruptibly();
+            }
+            return true;
+        }
+        catch (InterruptedException x)
+        {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+
+    @Override
+    protected void release()
+    {
+        final Cluster cluster = heldCluster;
+        heldCluster = null;
+        if (cluster.passes < maxLocalHandoffs && cluster.local.hasQueuedThreads())
+        {
+            cluster.passes++; // keep the global lock in the cluster
+        }
+        else
+        {
+            cluster.globalHeld = false;
+            global.release();
+        }
+        cluster.local.unlock();
+    }
+
+    /**
+     *  @return number of clusters
+     */
+    public int getClusterCount()
+    {
+        return clusters.length;
+    }
+
+    /**
+     *  @return number of acquisitions which got the global lock passed on within the cluster (estimate)
+     */
+    public long getLocalHandoffCount()
+    {
+        long count = 0L;
+        for (final Cluster cluster : clusters)
+        {
+            count += cluster.localHandoffs;
+        }
+        return count;
+    }
+
+    /**
+     *  @return number of acquisitions of the global lock (estimate)
+     */
+    public long getGlobalAcquireCount()
+    {
+        long count = 0L;
+        for (final Cluster cluster : clusters)
+        {
+            count += cluster.globalAcquires;
+        }
+        return count;
+    }
+
+    /** Per-cluster state; all fields except the local lock are guarded by the local lock */
+    private static final class Cluster
+    {
+        /** Local lock of the cluster */
+        final ReentrantLock local = new ReentrantLock(true);
+
+        /** true: the cluster holds the global lock */
+        boolean globalHeld;
+
+        /** Consecutive local handoffs since the global lock was acquired */
+        int passes;
+
+        /** Statistics: local handoffs */
+        long localHandoffs;
+
+        /** Statistics: global lock acquisitions */
+        long globalAcquires;
+
+        /**
+         *  A waiter gave up: if the global lock was kept for it and no other thread
+         *  of the cluster is waiting, then release the global lock.
+         */
+        void releaseOrphan(final Semaphore global)
+        {
+            if (local.tryLock())
+            {
+                try
+                {
+                    if (globalHeld && !local.hasQueuedThreads())
+                    {
+                        globalHeld = false;
+                        global.release();
+                    }
+                }
+                finally
+                {
+                    local.unlock();
+                }
+            }
+        }
+    }
+}
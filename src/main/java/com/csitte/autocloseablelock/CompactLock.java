@@ -0,0 +1,343 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *  Reentrant lock with a small memory footprint, intended for applications
+ *  which guard millions of objects with individual locks.
+ *
+ *  The owner thread-id and the hold count are kept in a single {@code long} state word,
+ *  which is updated by CAS. The lock inflates to a queue of waiting threads only when
+ *  a thread has to wait for the lock or a {@link Condition} is created.
+ *  Once inflated, the lock stays inflated.
+ *
+ *  The lock is not fair: an arriving thread may acquire the lock before a queued thread.
+ *
+ *  Usage example:
+ *  {@code
+ *  CloseableLock lock = new CloseableLock(new CompactLock());
+ *  }
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads", "PMD.AvoidUsingVolatile", "PMD.TooManyMethods"})
+public class CompactLock implements ConditionOwner
+{
+    /** Flag: waiter queue exists */
+    private static final long INFLATED = 1L;
+    /** Hold count increment */
+    private static final long HOLD_UNIT = 2L;
+    /** Hold count bits */
+    private static final long HOLD_MASK = 0xFFFEL;
+    /** Position of the owner thread-id */
+    private static final int OWNER_SHIFT = 16;
+    /** Owner thread-id bits */
+    private static final long OWNER_MASK = -1L << OWNER_SHIFT;
+
+    /** State word: owner thread-id | hold count | inflated-flag */
+    private volatile long state;
+
+    /** Waiting threads; {@code null} until inflated */
+    private volatile Queue<Thread> waiters;
+
+    /** CAS access to {@link #state} */
+    private static final AtomicLongFieldUpdater<CompactLock> STATE =
+                    AtomicLongFieldUpdater.newUpdater(CompactLock.class, "state");
+
+    /** CAS access to {@link #waiters} */
+    @SuppressWarnings("rawtypes")
+    private static final AtomicReferenceFieldUpdater<CompactLock, Queue> WAITERS =
+                    AtomicReferenceFieldUpdater.newUpdater(CompactLock.class, Queue.class, "waiters");
+
+
+    /** Default constructor */
+    public CompactLock()
+    {
+        super();
+    }
+
+    /** @return owner bits of the current thread */
+    private static long ownerBits()
+    {
+        return Thread.currentThread().getId() << OWNER_SHIFT;
+    }
+
+    /**
+     *  Acquire the lock if it is free or held by the current thread.
+     *
+     *  @param  holds   number of holds to add
+     *
+     *  @return true if acquired
+     */
+    private boolean tryAcquire(final long me, final long holds)
+    {
+        for (;;)
+        {
+            final long s = state;
+            final long owner = s & OWNER_MASK;
+            if (owner == 0L)
+            {
+                if (STATE.compareAndSet(this, s, s | me | holds * HOLD_UNIT))
+                {
+                    return true;
+                }
+            }
+            else if (owner == me)
+            {
+                if ((s & HOLD_MASK) + holds * HOLD_UNIT > HOLD_MASK)
+                {
+                    throw new IllegalMonitorStateException("Maximum lock count exceeded");
+                }
+                if (STATE.compareAndSet(this, s, s + holds * HOLD_UNIT))
+                {
+                    return true;
+                }
+            }
+            else
+            {
+                return false;
+            }
+        }
+    }
+
+    /** @return waiter queue; created on first call */
+    @SuppressWarnings("unchecked")
+    private Queue<Thread> inflate()
+    {
+        Queue<Thread> queue = waiters;
+        if (queue == null)
+        {
+            WAITERS.compareAndSet(this, null, new ConcurrentLinkedQueue<Thread>());
+            queue = waiters;
+        }
+        long s;
+        do
+        {
+            s = state;
+        }
+        while ((s & INFLATED) == 0L && !STATE.compareAndSet(this, s, s | INFLATED));
+        return queue;
+    }
+
+    /**
+     *  Wait for the lock in the waiter queue.
+     *
+     *  @return true if acquired; false on timeout or interrupt
+     */
+    private boolean acquireQueued(final long me, final long holds,
+                                  final boolean timed, final long deadline, final boolean interruptible)
+    {
+        final Queue<Thread> queue = inflate();
+        final Thread current = Thread.currentThread();
+        queue.add(current);
+        boolean acquired = false;
+        boolean interrupted = false;
+        int spins = AbstractQueueLock.SPINS;
+        for (;;)
+        {
+            if (tryAcquire(me, holds))
+            {
+                acquired = true;
+                break;
+            }
+            if (spins > 0)
+            {
+                spins--;
+                continue;
+            }
+            if (!AbstractQueueLock.park(this, timed, deadline) || interruptible && current.isInterrupted())
+            {
+                break;
+            }
+            if (!interruptible && Thread.interrupted())
+            {
+                interrupted = true;
+            }
+        }
+        queue.remove(current);
+        if (!acquired && (state & OWNER_MASK) == 0L)
+        {
+            unparkFirst(queue); // pass on a wakeup which may have been meant for this thread
+        }
+        if (interrupted)
+        {
+            current.interrupt();
+        }
+        return acquired;
+    }
+
+    /** Wake up the first waiting thread */
+    private static void unparkFirst(final Queue<Thread> queue)
+    {
+        final Thread first = queue.peek();
+        if (first != null)
+        {
+            LockSupport.unpark(first);
+        }
+    }
+
+    /**
+     *  Release holds of the current thread.
+     *
+     *  @param  all     release all holds
+     *
+     *  @return number of holds released
+     */
+    private int release(final boolean all)
+    {
+        final long me = ownerBits();
+        for (;;)
+        {
+            final long s = state;
+            if ((s & OWNER_MASK) != me)
+            {
+                throw new IllegalMonitorStateException();
+            }
+            final long holds = s & HOLD_MASK;
+            if (!all && holds > HOLD_UNIT)
+            {
+                if (STATE.compareAndSet(this, s, s - HOLD_UNIT))
+                {
+                    return 1;
+                }
+            }
+            else if (STATE.compareAndSet(this, s, s & INFLATED))
+            {
+                if ((s & INFLATED) != 0L)
+                {
+                    unparkFirst(waiters);
+                }
+                return (int) (holds / HOLD_UNIT);
+            }
+        }
+    }
+
+    @Override
+    public void lock()
+    {
+        final long me = ownerBits();
+        if (!tryAcquire(me, 1L))
+        {
+            acquireQueued(me, 1L, false, 0L, false);
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException
+    {
+        if (Thread.interrupted())
+        {
+            throw new InterruptedException();
+        }
+        final long me = ownerBits();
+        if (!tryAcquire(me, 1L) && !acquireQueued(me, 1L, false, 0L, true))
+        {
+            Thread.interrupted(); // clear
+            throw new InterruptedException();
+        }
+    }
+
+    @Override
+    public boolean tryLock()
+    {
+        return tryAcquire(ownerBits(), 1L);
+    }
+
+    @Override
+    public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException
+    {
+        if (Thread.interrupted())
+        {
+            throw new InterruptedException();
+        }
+        final long me = ownerBits();
+        if (tryAcquire(me, 1L))
+        {
+            return true;
+        }
+        if (acquireQueued(me, 1L, true, System.nanoTime() + unit.toNanos(time), true))
+        {
+            return true;
+        }
+        if (Thread.interrupted())
+        {
+            throw new InterruptedException();
+        }
+        return false;
+    }
+
+    @Override
+    public void unlock()
+    {
+        release(false);
+    }
+
+    @Override
+    public Condition newCondition()
+    {
+        inflate();
+        return new ParkingCondition(this);
+    }
+
+    @Override
+    public boolean isHeldByCurrentThread()
+    {
+        return (state & OWNER_MASK) == ownerBits();
+    }
+
+    /**
+     *  @return true if the lock is held by any thread
+     */
+    public boolean isLocked()
+    {
+        return (state & OWNER_MASK) != 0L;
+    }
+
+    /**
+     *  @return true if the lock has inflated to a waiter queue
+     */
+    public boolean isInflated()
+    {
+        return (state & INFLATED) != 0L;
+    }
+
+    /**
+     *  @return number of holds on this lock by the current thread
+     */
+    public int getHoldCount()
+    {
+        final long s = state;
+        return (s & OWNER_MASK) == ownerBits()? (int) ((s & HOLD_MASK) / HOLD_UNIT): 0;
+    }
+
+    @Override
+    public int fullyRelease()
+    {
+        return release(true);
+    }
+
+    @Override
+    public void reacquire(final int holds)
+    {
+        final long me = ownerBits();
+        if (!tryAcquire(me, holds))
+        {
+            acquireQueued(me, holds, false, 0L, false);
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        final long owner = state >>> OWNER_SHIFT;
+        return super.toString() + (owner == 0L? "[Unlocked]": "[Locked by thread-id " + owner + "]");
+    }
+}
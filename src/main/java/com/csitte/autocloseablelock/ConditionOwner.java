@@ -0,0 +1,35 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.util.concurrent.locks.Lock;
+
+/**
+ *  A reentrant {@link Lock} which can be fully released and reacquired
+ *  by its owner, as required to wait on a {@link ParkingCondition}.
+ */
+interface ConditionOwner extends Lock
+{
+    /**
+     *  @return true if the current thread holds the lock
+     */
+    boolean isHeldByCurrentThread();
+
+    /**
+     *  Releases all holds of the current thread.
+     *
+     *  @return the number of holds released
+     *
+     *  @throws IllegalMonitorStateException if the current thread does not hold the lock
+     */
+    int fullyRelease();
+
+    /**
+     *  Reacquires the lock (uninterruptibly) with the given number of holds.
+     *
+     *  @param holds    the value returned by {@link #fullyRelease()}
+     */
+    void reacquire(int holds);
+}
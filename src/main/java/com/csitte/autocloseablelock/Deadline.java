@@ -0,0 +1,124 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.time.Duration;
+
+/**
+ * A point in time based on the monotonic clock {@link System#nanoTime()},
+ * used as one end-to-end time budget for several lock acquisitions and waits.
+ *
+ * Each wait with a deadline respects the remaining budget, so the total wait
+ * cannot exceed the budget. Checking a deadline does not allocate.
+ * Wherever a deadline is expected, {@code null} means the same as {@link #NONE}.
+ *
+ * Usage example:
+ * {@code
+ * Deadline deadline = Deadline.after(Duration.ofMillis(200));
+ * try (AutoCloseableLock lock1 = closeableLock1.tryLockUntil(deadline);
+ *      AutoCloseableLock lock2 = closeableLock2.tryLockUntil(deadline)) {
+ *      // protected code
+ * }
+ * }
+ */
+@SuppressWarnings("PMD.CommentSize")
+public final class Deadline
+{
+    /** Deadline which never expires */
+    public static final Deadline NONE = new Deadline(0L, true);
+
+    /** Timeouts beyond this value never expire (avoids overflow) */
+    private static final long MAX_TIMEOUT_NANOS = Long.MAX_VALUE / 2;
+
+    /** {@link System#nanoTime()} value of the deadline */
+    private final long deadlineNanos;
+
+    /** true: never expires */
+    private final boolean infinite;
+
+
+    /** Constructor */
+    private Deadline(final long deadlineNanos, final boolean infinite)
+    {
+        this.deadlineNanos = deadlineNanos;
+        this.infinite = infinite;
+    }
+
+    /**
+     *  @param  timeout time budget; zero or negative means: already expired;
+     *                  {@code null} means: no budget ({@link #NONE})
+     *
+     *  @return deadline after the given time budget from now
+     */
+    public static Deadline after(final Duration timeout)
+    {
+        if (timeout == null)
+        {
+            return NONE;
+        }
+        if (timeout.isZero() || timeout.isNegative())
+        {
+            return afterNanos(0L);
+        }
+        if (timeout.getSeconds() >= MAX_TIMEOUT_NANOS / 1_000_000_000L)
+        {
+            return NONE;
+        }
+        return afterNanos(timeout.toNanos());
+    }
+
+    /**
+     *  @param  timeoutNanos    time budget in nanoseconds; zero or negative means: already expired
+     *
+     *  @return deadline after the given time budget from now
+     */
+    public static Deadline afterNanos(final long timeoutNanos)
+    {
+        if (timeoutNanos >= MAX_TIMEOUT_NANOS)
+        {
+            return NONE;
+        }
+        return new Deadline(System.nanoTime() + Math.max(timeoutNanos, 0L), false);
+    }
+
+    /**
+     *  @return remaining time in nanoseconds; zero or negative if expired;
+     *          {@link Long#MAX_VALUE} if the deadline never expires
+     */
+    public long remainingNanos()
+    {
+        return infinite? Long.MAX_VALUE: deadlineNanos - System.nanoTime();
+    }
+
+    /**
+     *  @return remaining time; {@link Duration#ZERO} if expired
+     */
+    public Duration remaining()
+    {
+        return Duration.ofNanos(Math.max(remainingNanos(), 0L));
+    }
+
+    /**
+     *  @return true if the deadline has passed
+     */
+    public boolean isExpired()
+    {
+        return remainingNanos() <= 0L;
+    }
+
+    /**
+     *  @return true if the deadline never expires
+     */
+    public boolean isInfinite()
+    {
+        return infinite;
+    }
+
+    @Override
+    public String toString()
+    {
+        return infinite? "Deadline[none]": "Deadline[remaining=" + remaining() + "]";
+    }
+}
@@ -0,0 +1,208 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.time.Duration;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.function.BooleanSupplier;
+
+/**
+ * An event count: a lock-free counterpart of {@link LockCondition} for producers
+ * which publish with lock-free data structures.
+ *
+ * A consumer calls {@link #prepareWait()} to get the current epoch, re-checks its condition
+ * and then calls {@link #await(long, Duration)} with the epoch, which returns as soon as the epoch has changed.
+ * A producer publishes its data and then calls {@link #signalAll()}, which increments the epoch.
+ * If no thread waits, {@code signalAll()} costs one volatile read and no lock is taken.
+ *
+ * The data has to be published by a volatile write or an atomic operation before {@code signalAll()},
+ * so that a consumer calling {@code prepareWait()} afterwards sees the data when it re-checks its condition.
+ *
+ * Usage example:
+ * {@code
+ * // consumer
+ * while (queue.isEmpty()) {
+ *      long epoch = eventCount.prepareWait();
+ *      if (!queue.isEmpty()) {
+ *          eventCount.cancelWait();
+ *          break;
+ *      }
+ *      eventCount.await(epoch, timeout);
+ * }
+ * // producer
+ * queue.offer(item);
+ * eventCount.signalAll();
+ * }
+ * {@link #waitForCondition(BooleanSupplier, Duration)} implements this loop.
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads"})
+public class EventCount
+{
+    /** Increment of the epoch (upper 32 bits of the state) */
+    private static final long EPOCH_UNIT = 1L << 32;
+
+    /** Waiter count bits (lower 32 bits of the state) */
+    private static final long WAITER_MASK = EPOCH_UNIT - 1;
+
+    /** State: epoch | number of waiters */
+    private final AtomicLong state = new AtomicLong();
+
+    /** Parked waiters */
+    private final Queue<Thread> parked = new ConcurrentLinkedQueue<>();
+
+
+    /** Default constructor */
+    public EventCount()
+    {
+        super();
+    }
+
+    /**
+     *  Register the current thread as waiter.
+     *
+     *  Has to be followed by {@link #await(long, Duration)}, {@link #awaitUntil(long, Deadline)}
+     *  or {@link #cancelWait()}.
+     *
+     *  @return the current epoch
+     */
+    public long prepareWait()
+    {
+        return state.incrementAndGet() >>> 32;
+    }
+
+    /**
+     *  Unregister the current thread as waiter, if the condition is met after {@link #prepareWait()}.
+     */
+    public void cancelWait()
+    {
+        state.decrementAndGet();
+    }
+
+    /**
+     *  Wait until the epoch changes.
+     *
+     *  Unregisters the current thread as waiter.
+     *
+     *  @param  epoch       the value returned by {@link #prepareWait()}
+     *  @param  timeout     {@code null} or {@link Duration#isZero() zero} means to wait without timeout
+     *
+     *  @return true == signalled; false == timeout
+     *
+     *  @throws LockException if interrupted
+     */
+    public boolean await(final long epoch, final Duration timeout)
+    {
+        final boolean timed = timeout != null && !timeout.isZero();
+        return awaitEpoch(epoch, timed, timed? System.nanoTime() + Math.min(CloseableLock.toNanos(timeout), Long.MAX_VALUE / 2): 0L);
+    }
+
+    /**
+     *  Wait until the epoch changes or the deadline passes.
+     *
+     *  Unregisters the current thread as waiter.
+     *
+     *  @param  epoch       the value returned by {@link #prepareWait()}
+     *  @param  deadline    {@code null} or {@link Deadline#NONE} means to wait without timeout
+     *
+     *  @return true == signalled; false == deadline passed
+     *
+     *  @throws LockException if interrupted
+     */
+    public boolean awaitUntil(final long epoch, final Deadline deadline)
+    {
+        final boolean timed = deadline != null && !deadline.isInfinite();
+        return awaitEpoch(epoch, timed, timed? System.nanoTime() + deadline.remainingNanos(): 0L);
+    }
+
+    /** Park until the epoch changes */
+    private boolean awaitEpoch(final long epoch, final boolean timed, final long deadline)
+    {
+        final Thread current = Thread.currentThread();
+        parked.add(current);
+        try
+        {
+            while (state.get() >>> 32 == epoch)
+            {
+                if (!AbstractQueueLock.park(this, timed, deadline))
+                {
+                    return state.get() >>> 32 != epoch; // timeout
+                }
+                if (Thread.interrupted())
+                {
+                    current.interrupt();
+                    throw new LockException("interrupted");
+                }
+            }
+            return true;
+        }
+        finally
+        {
+            parked.remove(current);
+            state.decrementAndGet();
+        }
+    }
+
+    /**
+     *  Wake up all waiting threads by incrementing the epoch.
+     *
+     *  Costs one volatile read if no thread waits.
+     */
+    public void signalAll()
+    {
+        if ((state.get() & WAITER_MASK) == 0)
+        {
+            return; // no waiters
+        }
+        state.addAndGet(EPOCH_UNIT);
+        Thread thread;
+        while ((thread = parked.poll()) != null)
+        {
+            LockSupport.unpark(thread);
+        }
+    }
+
+    /**
+     *  Wait for a condition to become true or timeout.
+     *
+     *  Returns immediately if the condition is met.
+     *  The condition is re-checked after each {@link #signalAll()}.
+     *
+     *  @param  fCondition  condition, which becomes true by a producer calling {@link #signalAll()}
+     *  @param  timeout     {@code null} or {@link Duration#isZero() zero} means to wait without timeout
+     *
+     *  @return true == condition met; false == timeout
+     *
+     *  @throws LockException if interrupted
+     */
+    public boolean waitForCondition(final BooleanSupplier fCondition, final Duration timeout)
+    {
+        final Deadline deadline = timeout == null || timeout.isZero()? Deadline.NONE: Deadline.after(timeout);
+        while (!fCondition.getAsBoolean())
+        {
+            final long epoch = prepareWait();
+            if (fCondition.getAsBoolean())
+            {
+                cancelWait();
+                return true;
+            }
+            if (!awaitUntil(epoch, deadline))
+            {
+                return fCondition.getAsBoolean();
+            }
+        }
+        return true;
+    }
+
+    /**
+     *  @return number of registered waiters (estimate)
+     */
+    public int getWaiterCount()
+    {
+        return (int) (state.get() & WAITER_MASK);
+    }
+}
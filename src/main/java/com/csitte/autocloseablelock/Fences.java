@@ -0,0 +1,60 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+
+/**
+ *  Memory fences for plain accesses which are validated by a later volatile read.
+ *
+ *  This Java 8 version uses a method handle of {@code sun.misc.Unsafe.loadFence()}
+ *  (it is not visible when compiling for release 8).
+ *  The Java 11 version in the multi-release jar uses {@code VarHandle.acquireFence()}.
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.AvoidCatchingThrowable", "PMD.AvoidAccessibilityAlteration"})
+final class Fences
+{
+    /** {@code Unsafe.loadFence()} */
+    private static final MethodHandle LOAD_FENCE;
+
+    static
+    {
+        try
+        {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            LOAD_FENCE = MethodHandles.lookup().findVirtual(unsafeClass, "loadFence", MethodType.methodType(void.class))
+                            .bindTo(theUnsafe.get(null));
+        }
+        catch (Throwable x)
+        {
+            throw new ExceptionInInitializerError(x);
+        }
+    }
+
+
+    /** Utility class */
+    private Fences()
+    {
+        // not used
+    }
+
+    /** Loads before the fence are not reordered with loads and stores after the fence */
+    static void loadFence()
+    {
+        try
+        {
+            LOAD_FENCE.invokeExact();
+        }
+        catch (Throwable x)
+        {
+            throw new IllegalStateException(x); // not thrown by Unsafe
+        }
+    }
+}
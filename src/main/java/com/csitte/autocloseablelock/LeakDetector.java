@@ -0,0 +1,303 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ *  Sampled detection of leaked lock handles and activities.
+ *
+ *  One in {@code sampling} acquisitions records its acquisition site (a stack trace).
+ *  A background thread reports a tracked handle, which is
+ *  <ul>
+ *  <li>held longer than the threshold (reported once), or</li>
+ *  <li>still held when its thread has terminated (abandoned).</li>
+ *  </ul>
+ *  Reports are logged as warnings to the logger {@code com.csitte.autocloseablelock.LeakDetector}
+ *  with the acquisition site attached.
+ *
+ *  Detection is disabled by default. It is configured by the system properties
+ *  {@value #SAMPLING_PROPERTY} (0: disabled, 1: every acquisition, N: one in N acquisitions) and
+ *  {@value #THRESHOLD_PROPERTY} (in milliseconds, default 60000), or by {@link #configure(int, Duration)}.
+ *  If disabled, the cost per acquisition is a volatile read; at a low sampling rate it is a random number.
+ *
+ *  Lock holds are tracked per thread. A hold released by {@link CloseableLock#close()} ends the
+ *  latest tracked hold of the lock by the current thread. The time waiting for a condition does not count.
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads", "PMD.AvoidUsingVolatile"})
+public final class LeakDetector
+{
+    /** System property with the sampling rate */
+    public static final String SAMPLING_PROPERTY = "com.csitte.autocloseablelock.LeakDetector.sampling";
+
+    /** System property with the threshold in milliseconds */
+    public static final String THRESHOLD_PROPERTY = "com.csitte.autocloseablelock.LeakDetector.threshold";
+
+    /** Logger for the reports */
+    private static final Logger LOGGER = Logger.getLogger(LeakDetector.class.getName());
+
+    /** Maximum interval between two scans */
+    private static final long MAX_SCAN_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** One in {@code sampling} acquisitions is tracked; 0: disabled */
+    private static volatile int sampling = Integer.getInteger(SAMPLING_PROPERTY, 0);
+
+    /** Threshold for the hold time in nanoseconds */
+    private static volatile long thresholdNanos =
+                    TimeUnit.MILLISECONDS.toNanos(Long.getLong(THRESHOLD_PROPERTY, 60_000L));
+
+    /** All tracked handles */
+    private static final Set<Token> TOKENS = ConcurrentHashMap.newKeySet();
+
+    /** Number of tracked handles */
+    private static final AtomicInteger LIVE = new AtomicInteger();
+
+    /** Tracked lock holds of the current thread */
+    private static final ThreadLocal<List<Token>> THREAD_TOKENS = new ThreadLocal<>();
+
+    /** Number of reported handles */
+    private static final LongAdder REPORTS = new LongAdder();
+
+    /** true when the scanner thread has been started */
+    private static final AtomicBoolean SCANNING = new AtomicBoolean();
+
+
+    /** Utility class */
+    private LeakDetector()
+    {
+        // not used
+    }
+
+    /**
+     *  Configure the detection; handles tracked before are not affected.
+     *
+     *  @param  samplingRate    0: disabled, 1: every acquisition, N: one in N acquisitions
+     *  @param  threshold       report handles held longer than this
+     *
+     *  @throws IllegalArgumentException on negative sampling rate or a threshold which is not positive
+     */
+    public static void configure(final int samplingRate, final Duration threshold)
+    {
+        if (samplingRate < 0)
+        {
+            throw new IllegalArgumentException("invalid sampling: " + samplingRate);
+        }
+        if (threshold == null || threshold.isZero() || threshold.isNegative())
+        {
+            throw new IllegalArgumentException("invalid threshold: " + threshold);
+        }
+        thresholdNanos = CloseableLock.toNanos(threshold);
+        sampling = samplingRate;
+    }
+
+    /**
+     *  @return number of handles reported as leaked since start
+     */
+    public static long getReportCount()
+    {
+        return REPORTS.sum();
+    }
+
+    /**
+     *  Track a handle of the resource, if sampled.
+     *
+     *  Called by the implementations after a resource has been acquired.
+     *
+     *  @param  resource    the acquired resource
+     *
+     *  @return token to pass to {@link #untrack(Object)}; {@code null} if not sampled
+     */
+    public static Object track(final Object resource)
+    {
+        final int rate = sampling;
+        if (rate == 0 || rate > 1 && ThreadLocalRandom.current().nextInt(rate) != 0)
+        {
+            return null;
+        }
+        final Token token = new Token(resource);
+        TOKENS.add(token);
+        LIVE.incrementAndGet();
+        if (!SCANNING.get() && SCANNING.compareAndSet(false, true))
+        {
+            startScanner();
+        }
+        return token;
+    }
+
+    /**
+     *  End the tracking of a handle.
+     *
+     *  @param  token   the value returned by {@link #track(Object)}; may be {@code null}
+     */
+    public static void untrack(final Object token)
+    {
+        if (token != null && TOKENS.remove(token))
+        {
+            LIVE.decrementAndGet();
+        }
+    }
+
+    /** Track a lock hold of the current thread */
+    static void trackHold(final Object lock)
+    {
+        final Token token = (Token) track(lock);
+        if (token != null)
+        {
+            List<Token> tokens = THREAD_TOKENS.get();
+            if (tokens == null)
+            {
+                tokens = new ArrayList<>();
+                THREAD_TOKENS.set(tokens);
+            }
+            tokens.add(token);
+        }
+    }
+
+    /** End the tracking of the latest hold of the lock by the current thread */
+    static void releaseHold(final Object lock)
+    {
+        final Token token = findHold(lock);
+        if (token != null)
+        {
+            THREAD_TOKENS.get().remove(token);
+            untrack(token);
+        }
+    }
+
+    /**
+     *  Pause or resume the hold times of the lock held by the current thread, during a condition wait.
+     *
+     *  @param  lock        the lock
+     *  @param  waiting     true: wait starts; false: wait ended, the hold time restarts
+     */
+    static void waiting(final Object lock, final boolean waiting)
+    {
+        if (LIVE.get() == 0)
+        {
+            return;
+        }
+        final List<Token> tokens = THREAD_TOKENS.get();
+        if (tokens != null)
+        {
+            for (final Token token : tokens) // all reentrant holds
+            {
+                if (token.resource == lock)
+                {
+                    token.since = System.nanoTime();
+                    token.waiting = waiting;
+                }
+            }
+        }
+    }
+
+    /** @return latest tracked hold of the lock by the current thread; {@code null} if none */
+    private static Token findHold(final Object lock)
+    {
+        if (LIVE.get() == 0)
+        {
+            return null;
+        }
+        final List<Token> tokens = THREAD_TOKENS.get();
+        if (tokens != null)
+        {
+            for (int i = tokens.size() - 1; i >= 0; i--)
+            {
+                if (tokens.get(i).resource == lock)
+                {
+                    return tokens.get(i);
+                }
+            }
+        }
+        return null;
+    }
+
+    /** Start the daemon thread scanning the tracked handles */
+    private static void startScanner()
+    {
+        final Thread scanner = new Thread(LeakDetector::scanLoop, "autocloseablelock-leak-detector");
+        scanner.setDaemon(true);
+        scanner.start();
+    }
+
+    /** Scan the tracked handles periodically */
+    private static void scanLoop()
+    {
+        for (;;)
+        {
+            final long threshold = thresholdNanos;
+            try
+            {
+                TimeUnit.NANOSECONDS.sleep(Math.max(1L, Math.min(threshold / 2, MAX_SCAN_INTERVAL_NANOS)));
+            }
+            catch (InterruptedException x)
+            {
+                return;
+            }
+            scan(threshold);
+        }
+    }
+
+    /** Report leaked handles */
+    private static void scan(final long threshold)
+    {
+        final long now = System.nanoTime();
+        for (final Token token : TOKENS)
+        {
+            if (!token.thread.isAlive())
+            {
+                untrack(token);
+                report(token, "abandoned by terminated thread " + token.thread.getName());
+            }
+            else if (!token.reported && !token.waiting && now - token.since > threshold)
+            {
+                token.reported = true;
+                report(token, "held for " + Duration.ofNanos(now - token.since) + " by thread " + token.thread.getName());
+            }
+        }
+    }
+
+    /** Log a report */
+    private static void report(final Token token, final String text)
+    {
+        REPORTS.increment();
+        //- not toString(), which may need the leaked lock
+        final String name = token.resource.getClass().getName() + '@' + Integer.toHexString(System.identityHashCode(token.resource));
+        LOGGER.log(Level.WARNING, "leak of " + name + ": " + text, token.site);
+    }
+
+    /** A tracked handle */
+    private static final class Token
+    {
+        /** the acquired resource */
+        final Object resource;
+        /** the acquiring thread */
+        final Thread thread = Thread.currentThread();
+        /** acquisition site */
+        final Throwable site = new Throwable("acquisition site");
+        /** {@link System#nanoTime()} of the acquisition or of the end of the last condition wait */
+        volatile long since = System.nanoTime();
+        /** true while waiting for a condition */
+        volatile boolean waiting;
+        /** true when reported as held too long */
+        volatile boolean reported;
+
+        /** Constructor */
+        Token(final Object resource)
+        {
+            this.resource = resource;
+        }
+    }
+}
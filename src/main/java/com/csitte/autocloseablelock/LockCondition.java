@@ -4,6 +4,8 @@
  */
 package com.csitte.autocloseablelock;
 
+import java.time.Duration;
+import java.util.function.Predicate;
 
 /**
  * The LockCondition class provides a way to associate a state with a lock,
@@ -54,6 +56,7 @@ public class LockCondition<T>
             assert autoCloseableLock != null; // ignored on runtime
             this.state = state;
             lock.signalAll();
+            LockEvents.stateChanged(lock, state);
         }
     }
 
@@ -69,6 +72,40 @@ public class LockCondition<T>
         }
     }
 
+    /**
+     *  Wait until the state matches the predicate or timeout.
+     *
+     *  Returns immediately if the state matches.
+     *
+     *  @param  predicate   test of the state
+     *  @param  timeout     null or 0 means: no timeout
+     *
+     *  @return true == state matches; false == timeout
+     *
+     *  @throws LockException if interrupted
+     */
+    public boolean waitForState(final Predicate<? super T> predicate, final Duration timeout)
+    {
+        return lock.waitForCondition(() -> predicate.test(getState()), timeout);
+    }
+
+    /**
+     *  Wait until the state matches the predicate or the deadline passes.
+     *
+     *  Returns immediately if the state matches.
+     *
+     *  @param  predicate   test of the state
+     *  @param  deadline    null or {@link Deadline#NONE} means: no timeout
+     *
+     *  @return true == state matches; false == deadline passed
+     *
+     *  @throws LockException if interrupted
+     */
+    public boolean waitForStateUntil(final Predicate<? super T> predicate, final Deadline deadline)
+    {
+        return lock.waitForConditionUntil(() -> predicate.test(getState()), deadline);
+    }
+
     /**
      * Convenience wrapper for a {@link LockCondition} with a {@link Boolean} state.
      *
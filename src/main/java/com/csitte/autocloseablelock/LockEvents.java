@@ -0,0 +1,92 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+/**
+ *  Hooks for lock events.
+ *
+ *  This Java 8 version does nothing. On Java 11 and later the version in
+ *  {@code META-INF/versions/11} of the multi-release jar is used instead,
+ *  which emits JDK Flight Recorder events.
+ *
+ *  An event handle is {@code null} if the event is not enabled.
+ */
+@SuppressWarnings("PMD.CommentSize")
+final class LockEvents
+{
+    /** Utility class */
+    private LockEvents()
+    {
+        // not used
+    }
+
+    /**
+     *  Called before the lock is acquired.
+     *
+     *  @return handle of the acquire event; {@code null} if disabled
+     */
+    static Object beginAcquire()
+    {
+        return null;
+    }
+
+    /**
+     *  Called after the lock has been acquired.
+     *
+     *  @param  event       handle returned by {@link #beginAcquire()}
+     *  @param  lock        the acquired lock
+     *  @param  operation   name of the acquire operation
+     *
+     *  @return handle that releases the lock
+     */
+    static AutoCloseableLock acquired(final Object event, final CloseableLock lock, final String operation)
+    {
+        return lock::close;
+    }
+
+    /**
+     *  Called when the lock was not acquired within the timeout.
+     *
+     *  @param  lock        the lock
+     *  @param  timeoutNanos the timeout in nanoseconds
+     */
+    static void timeout(final CloseableLock lock, final long timeoutNanos)
+    {
+        // disabled
+    }
+
+    /**
+     *  Called before waiting for a condition.
+     *
+     *  @return handle of the condition-wait event; {@code null} if disabled
+     */
+    static Object beginConditionWait()
+    {
+        return null;
+    }
+
+    /**
+     *  Called when the wait for a condition has completed.
+     *
+     *  @param  event       handle returned by {@link #beginConditionWait()}
+     *  @param  lock        the lock
+     *  @param  satisfied   true if the condition is met; false on timeout
+     */
+    static void conditionWaited(final Object event, final CloseableLock lock, final boolean satisfied)
+    {
+        // disabled
+    }
+
+    /**
+     *  Called when the state of a {@link LockCondition} is changed.
+     *
+     *  @param  lock        the lock of the condition
+     *  @param  state       the new state
+     */
+    static void stateChanged(final CloseableLock lock, final Object state)
+    {
+        // disabled
+    }
+}
@@ -51,4 +51,21 @@ public class LockException extends RuntimeException
     {
         super(message, throwable);
     }
+
+    /**
+     * Constructs a new {@code LockException} with the specified detail message,
+     * cause, suppression enabled or disabled, and writable stack trace enabled or disabled.
+     *
+     * Used for preallocated exceptions without stack trace.
+     *
+     * @param message               the detail message describing the error
+     * @param throwable             the cause of the exception
+     * @param enableSuppression     whether or not suppression is enabled
+     * @param writableStackTrace    whether or not the stack trace should be writable
+     */
+    protected LockException(final String message, final Throwable throwable,
+                            final boolean enableSuppression, final boolean writableStackTrace)
+    {
+        super(message, throwable, enableSuppression, writableStackTrace);
+    }
 }
@@ -0,0 +1,95 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.time.Duration;
+
+/**
+ *  Listener for the operations on {@link CloseableLock} and {@link CloseableReadWriteLock},
+ *  e.g. for tracing, metrics or leak detection.
+ *
+ *  Listeners are installed once per class loader, when {@link CloseableLock} is initialized:
+ *  <ul>
+ *  <li>by the system property {@value #LISTENER_PROPERTY} (comma separated class names), or</li>
+ *  <li>as a {@link java.util.ServiceLoader} provider in
+ *      {@code META-INF/services/com.csitte.autocloseablelock.LockListener}.</li>
+ *  </ul>
+ *  A listener class needs a public no-arg constructor.
+ *  If no listener is installed, the hooks are removed by the JIT compiler.
+ *
+ *  The callbacks are called by the thread performing the operation.
+ *  They must be fast and must not throw exceptions.
+ *  All methods have empty default implementations.
+ */
+@SuppressWarnings("PMD.CommentSize")
+public interface LockListener
+{
+    /** System property with the class names of the listeners to install */
+    String LISTENER_PROPERTY = "com.csitte.autocloseablelock.LockListener";
+
+    /**
+     *  Called before the lock is acquired.
+     *
+     *  Not followed by {@link #onAcquired(CloseableLock)} if the thread is interrupted.
+     *
+     *  @param  lock    the lock
+     */
+    default void onAcquire(final CloseableLock lock)
+    {
+        // no-op
+    }
+
+    /**
+     *  Called after the lock has been acquired.
+     *
+     *  @param  lock    the lock
+     */
+    default void onAcquired(final CloseableLock lock)
+    {
+        // no-op
+    }
+
+    /**
+     *  Called before the lock is released.
+     *
+     *  @param  lock    the lock
+     */
+    default void onRelease(final CloseableLock lock)
+    {
+        // no-op
+    }
+
+    /**
+     *  Called if the lock could not be acquired within the timeout.
+     *
+     *  @param  lock    the lock
+     *  @param  timeout the timeout; {@link Duration#ZERO} for an immediate try
+     */
+    default void onTimeout(final CloseableLock lock, final Duration timeout)
+    {
+        // no-op
+    }
+
+    /**
+     *  Called before a thread waits for a condition of the lock.
+     *
+     *  @param  lock    the lock
+     */
+    default void onWait(final CloseableLock lock)
+    {
+        // no-op
+    }
+
+    /**
+     *  Called when threads waiting for a condition of the lock are signalled.
+     *
+     *  @param  lock    the lock
+     *  @param  all     true: all waiting threads are signalled
+     */
+    default void onSignal(final CloseableLock lock, final boolean all)
+    {
+        // no-op
+    }
+}
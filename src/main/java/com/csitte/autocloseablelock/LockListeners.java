@@ -0,0 +1,200 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.ServiceLoader;
+
+/**
+ *  The installed {@link LockListener}s.
+ *
+ *  {@link #ENABLED} and {@link #LISTENER} are static final, so that the JIT compiler
+ *  removes the guarded hooks if no listener is installed.
+ */
+@SuppressWarnings("PMD.CommentSize")
+final class LockListeners
+{
+    /** The installed listener; a no-op listener if none is installed */
+    static final LockListener LISTENER;
+
+    /** true if a listener is installed */
+    static final boolean ENABLED;
+
+    static
+    {
+        final List<LockListener> listeners = load();
+        ENABLED = !listeners.isEmpty();
+        if (listeners.size() == 1)
+        {
+            LISTENER = listeners.get(0);
+        }
+        else
+        {
+            LISTENER = new Composite(listeners.toArray(new LockListener[0]));
+        }
+    }
+
+    /** Utility class */
+    private LockListeners()
+    {
+        // not used
+    }
+
+    /** @see LockListener#onAcquire(CloseableLock) */
+    static void acquire(final CloseableLock lock)
+    {
+        if (ENABLED)
+        {
+            LISTENER.onAcquire(lock);
+        }
+    }
+
+    /** @see LockListener#onAcquired(CloseableLock) */
+    static void acquired(final CloseableLock lock)
+    {
+        if (ENABLED)
+        {
+            LISTENER.onAcquired(lock);
+        }
+    }
+
+    /** @see LockListener#onRelease(CloseableLock) */
+    static void release(final CloseableLock lock)
+    {
+        if (ENABLED)
+        {
+            LISTENER.onRelease(lock);
+        }
+    }
+
+    /** @see LockListener#onTimeout(CloseableLock, Duration) */
+    static void timeout(final CloseableLock lock, final long timeoutNanos)
+    {
+        if (ENABLED)
+        {
+            LISTENER.onTimeout(lock, Duration.ofNanos(timeoutNanos));
+        }
+    }
+
+    /** @see LockListener#onWait(CloseableLock) */
+    static void waiting(final CloseableLock lock)
+    {
+        if (ENABLED)
+        {
+            LISTENER.onWait(lock);
+        }
+    }
+
+    /** @see LockListener#onSignal(CloseableLock, boolean) */
+    static void signal(final CloseableLock lock, final boolean all)
+    {
+        if (ENABLED)
+        {
+            LISTENER.onSignal(lock, all);
+        }
+    }
+
+    /** @return listeners from system property and service loader */
+    private static List<LockListener> load()
+    {
+        final List<LockListener> listeners = new ArrayList<>();
+        final String classNames = System.getProperty(LockListener.LISTENER_PROPERTY, "");
+        for (final String className : classNames.split(","))
+        {
+            if (!className.trim().isEmpty())
+            {
+                listeners.add(newListener(className.trim()));
+            }
+        }
+        for (final LockListener listener : ServiceLoader.load(LockListener.class, LockListener.class.getClassLoader()))
+        {
+            listeners.add(listener);
+        }
+        return listeners;
+    }
+
+    /** @return new listener instance */
+    private static LockListener newListener(final String className)
+    {
+        try
+        {
+            return (LockListener) Class.forName(className, true, LockListener.class.getClassLoader())
+                            .getConstructor().newInstance();
+        }
+        catch (ReflectiveOperationException | ClassCastException x)
+        {
+            throw new IllegalArgumentException("invalid " + LockListener.LISTENER_PROPERTY + ": " + className, x);
+        }
+    }
+
+    /** Forwards the callbacks to several listeners */
+    private static final class Composite implements LockListener
+    {
+        /** the listeners */
+        private final LockListener[] listeners;
+
+        /** Constructor */
+        Composite(final LockListener... listeners)
+        {
+            this.listeners = listeners;
+        }
+
+        @Override
+        public void onAcquire(final CloseableLock lock)
+        {
+            for (final LockListener listener : listeners)
+            {
+                listener.onAcquire(lock);
+            }
+        }
+
+        @Override
+        public void onAcquired(final CloseableLock lock)
+        {
+            for (final LockListener listener : listeners)
+            {
+                listener.onAcquired(lock);
+            }
+        }
+
+        @Override
+        public void onRelease(final CloseableLock lock)
+        {
+            for (final LockListener listener : listeners)
+            {
+                listener.onRelease(lock);
+            }
+        }
+
+        @Override
+        public void onTimeout(final CloseableLock lock, final Duration timeout)
+        {
+            for (final LockListener listener : listeners)
+            {
+                listener.onTimeout(lock, timeout);
+            }
+        }
+
+        @Override
+        public void onWait(final CloseableLock lock)
+        {
+            for (final LockListener listener : listeners)
+            {
+                listener.onWait(lock);
+            }
+        }
+
+        @Override
+        public void onSignal(final CloseableLock lock, final boolean all)
+        {
+            for (final LockListener listener : listeners)
+            {
+                listener.onSignal(lock, all);
+            }
+        }
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+/**
+ *  JMX view of a named lock registered with {@link LockRegistry}.
+ *
+ *  The counters cover the acquisitions since the registration.
+ */
+public interface LockMXBean
+{
+    /** @return name of the lock */
+    String getName();
+
+    /** @return class of the lock: {@code CloseableLock} or {@code CloseableReadWriteLock} */
+    String getType();
+
+    /** @return number of acquisitions */
+    long getAcquisitionCount();
+
+    /**
+     *  @return acquisitions per second in the last completed window of at least one second
+     *          (since the registration during the first window); reading it does not change the value
+     */
+    double getAcquisitionsPerSecond();
+
+    /** @return number of acquisitions which had to wait */
+    long getContendedCount();
+
+    /** @return contended acquisitions / acquisitions; 0 without acquisitions */
+    double getContentionRatio();
+
+    /** @return average wait of an acquisition in nanoseconds */
+    long getAverageWaitNanos();
+
+    /** @return longest wait of an acquisition in nanoseconds since the registration or {@link #resetMaxWait()} */
+    long getMaxWaitNanos();
+
+    /** @return number of acquisitions which failed on timeout or on an immediate try */
+    long getTimeoutCount();
+
+    /** @return name and id of the thread holding the lock exclusively; empty if none */
+    String getOwnerThread();
+
+    /** @return how long the owner has held the lock in nanoseconds; 0 if not exclusively held */
+    long getHeldNanos();
+
+    /** @return estimated number of waiting threads; -1 if not supported by the underlying lock */
+    int getQueueLength();
+
+    /** @return number of read holds; -1 if not supported by the underlying lock */
+    int getReadHolderCount();
+
+    /** Reset the longest wait */
+    void resetMaxWait();
+}
@@ -0,0 +1,97 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.util.concurrent.atomic.LongAccumulator;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ *  Contention counters of a registered lock.
+ *
+ *  The counters are striped ({@link LongAdder}), so recording does not contend between threads.
+ *  They are aggregated only when they are read.
+ */
+final class LockMetrics
+{
+    /** Start of an acquisition which is not measured */
+    static final long NOT_MEASURED = Long.MIN_VALUE;
+
+    /** An acquisition which waits longer is counted as contended */
+    static final long CONTENDED_NANOS = 1_000L;
+
+    /** Number of acquisitions */
+    private final LongAdder acquisitions = new LongAdder();
+
+    /** Number of acquisitions which waited longer than {@link #CONTENDED_NANOS} */
+    private final LongAdder contended = new LongAdder();
+
+    /** Total wait of all acquisitions in nanoseconds */
+    private final LongAdder waitNanos = new LongAdder();
+
+    /** Longest wait in nanoseconds */
+    private final LongAccumulator maxWaitNanos = new LongAccumulator(Math::max, 0L);
+
+    /** Number of acquisitions which failed on timeout or on an immediate try */
+    private final LongAdder timeouts = new LongAdder();
+
+
+    /**
+     *  Record an acquisition.
+     *
+     *  @param  nanos   wait for the lock in nanoseconds
+     */
+    void acquired(final long nanos)
+    {
+        acquisitions.increment();
+        waitNanos.add(nanos);
+        if (nanos > CONTENDED_NANOS)
+        {
+            contended.increment();
+            maxWaitNanos.accumulate(nanos);
+        }
+    }
+
+    /** Record a failed acquisition */
+    void timeout()
+    {
+        timeouts.increment();
+    }
+
+    /** @return number of acquisitions */
+    long getAcquisitionCount()
+    {
+        return acquisitions.sum();
+    }
+
+    /** @return number of contended acquisitions */
+    long getContendedCount()
+    {
+        return contended.sum();
+    }
+
+    /** @return total wait in nanoseconds */
+    long getWaitNanos()
+    {
+        return waitNanos.sum();
+    }
+
+    /** @return longest wait in nanoseconds */
+    long getMaxWaitNanos()
+    {
+        return maxWaitNanos.get();
+    }
+
+    /** @return number of failed acquisitions */
+    long getTimeoutCount()
+    {
+        return timeouts.sum();
+    }
+
+    /** Reset the longest wait */
+    void resetMaxWait()
+    {
+        maxWaitNanos.reset();
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+/**
+ * Runtime Exception for a lock which is not free on a try without wait,
+ * e.g. {@code tryLock(Duration.ZERO)}.
+ *
+ * A single preallocated instance without stack trace is thrown,
+ * so that a failed try does not allocate.
+ * Use {@link CloseableLock#tryLockOrNull()} to avoid the exception altogether.
+ */
+public final class LockNotAcquiredException extends LockException
+{
+    private static final long serialVersionUID = 1;
+
+    /** The preallocated instance */
+    static final LockNotAcquiredException INSTANCE = new LockNotAcquiredException();
+
+    /** Constructor */
+    private LockNotAcquiredException()
+    {
+        super("not acquired", null, false, false);
+    }
+
+    /** @return the preallocated instance when deserialized */
+    private Object readResolve()
+    {
+        return INSTANCE;
+    }
+}
@@ -0,0 +1,181 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+/**
+ *  The MBean of a registered lock.
+ */
+final class LockRegistration implements LockMXBean
+{
+    /** Name of the lock */
+    private final String name;
+
+    /** Class of the lock */
+    private final String type;
+
+    /** Counters of the lock */
+    private final LockMetrics metrics;
+
+    /** Takes a snapshot of the lock */
+    private final Supplier<LockSnapshot> snapshot;
+
+    /** Length of a rate window */
+    private static final long RATE_WINDOW_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    /** Current rate window */
+    private final AtomicReference<RateWindow> rateWindow;
+
+
+    /** Constructor */
+    LockRegistration(final String name, final String type, final LockMetrics metrics,
+                     final Supplier<LockSnapshot> snapshot)
+    {
+        this.name = name;
+        this.type = type;
+        this.metrics = metrics;
+        this.snapshot = snapshot;
+        this.rateWindow = new AtomicReference<>(new RateWindow(System.nanoTime(), 0L, Double.NaN));
+    }
+
+    /** @return counters of the lock */
+    LockMetrics getMetrics()
+    {
+        return metrics;
+    }
+
+    @Override
+    public String getName()
+    {
+        return name;
+    }
+
+    @Override
+    public String getType()
+    {
+        return type;
+    }
+
+    @Override
+    public long getAcquisitionCount()
+    {
+        return metrics.getAcquisitionCount();
+    }
+
+    @Override
+    public double getAcquisitionsPerSecond()
+    {
+        final long now = System.nanoTime();
+        RateWindow window = rateWindow.get();
+        while (now - window.startNanos >= RATE_WINDOW_NANOS)
+        {
+            // the window is complete: the first reader starts the next one, the others use its rate
+            final long count = metrics.getAcquisitionCount();
+            final RateWindow next = new RateWindow(now, count, rate(count - window.startCount, now - window.startNanos));
+            if (rateWindow.compareAndSet(window, next))
+            {
+                return next.completedRate;
+            }
+            window = rateWindow.get();
+        }
+        return Double.isNaN(window.completedRate)
+                        ? rate(metrics.getAcquisitionCount() - window.startCount, now - window.startNanos)
+                        : window.completedRate;
+    }
+
+    /** @return events per second */
+    private static double rate(final long events, final long elapsedNanos)
+    {
+        return elapsedNanos <= 0L? 0.0: events * (double) TimeUnit.SECONDS.toNanos(1) / elapsedNanos;
+    }
+
+    @Override
+    public long getContendedCount()
+    {
+        return metrics.getContendedCount();
+    }
+
+    @Override
+    public double getContentionRatio()
+    {
+        final long acquisitions = metrics.getAcquisitionCount();
+        return acquisitions == 0L? 0.0: (double) metrics.getContendedCount() / acquisitions;
+    }
+
+    @Override
+    public long getAverageWaitNanos()
+    {
+        final long acquisitions = metrics.getAcquisitionCount();
+        return acquisitions == 0L? 0L: metrics.getWaitNanos() / acquisitions;
+    }
+
+    @Override
+    public long getMaxWaitNanos()
+    {
+        return metrics.getMaxWaitNanos();
+    }
+
+    @Override
+    public long getTimeoutCount()
+    {
+        return metrics.getTimeoutCount();
+    }
+
+    @Override
+    public String getOwnerThread()
+    {
+        final LockSnapshot lockSnapshot = snapshot.get();
+        return lockSnapshot.isOwned()
+                        ? lockSnapshot.getOwnerThreadName() + " (" + lockSnapshot.getOwnerThreadId() + ")": "";
+    }
+
+    @Override
+    public long getHeldNanos()
+    {
+        return snapshot.get().getHeldNanos();
+    }
+
+    @Override
+    public int getQueueLength()
+    {
+        return snapshot.get().getQueueLength();
+    }
+
+    @Override
+    public int getReadHolderCount()
+    {
+        return snapshot.get().getReadHolderCount();
+    }
+
+    @Override
+    public void resetMaxWait()
+    {
+        metrics.resetMaxWait();
+    }
+
+    /** Start of a rate window and the rate of the window before */
+    private static final class RateWindow
+    {
+        /** {@link System#nanoTime()} at the start of the window */
+        final long startNanos;
+
+        /** Acquisition count at the start of the window */
+        final long startCount;
+
+        /** Acquisitions per second of the previous window; {@code NaN} for the first window */
+        final double completedRate;
+
+        /** Constructor */
+        RateWindow(final long startNanos, final long startCount, final double completedRate)
+        {
+            this.startNanos = startNanos;
+            this.startCount = startCount;
+            this.completedRate = completedRate;
+        }
+    }
+}
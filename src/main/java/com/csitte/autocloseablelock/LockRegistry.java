@@ -0,0 +1,191 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.lang.management.ManagementFactory;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import javax.management.InstanceAlreadyExistsException;
+import javax.management.InstanceNotFoundException;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ *  Publishes named locks as JMX MBeans ({@link LockMXBean}) in the platform MBean server.
+ *
+ *  The object name is {@code com.csitte.autocloseablelock:type=Lock,name="<name>"}.
+ *  A lock collects contention counters only while it is registered.
+ *  The registry and the MBean server hold the registered lock strongly, so a lock which is
+ *  never unregistered is never garbage collected (including the lock of a named {@code ActivityImpl},
+ *  and everything reachable from it): unregister it when it is no longer used.
+ *
+ *  Usage example:
+ *  {@code
+ *  CloseableLock lock = new CloseableLock("orders", new ReentrantLock());
+ *  LockRegistry.register(lock);
+ *  }
+ */
+@SuppressWarnings("PMD.CommentSize")
+public final class LockRegistry
+{
+    /** JMX domain of the MBeans */
+    public static final String DOMAIN = "com.csitte.autocloseablelock";
+
+    /** The registered locks by name */
+    private static final ConcurrentMap<String, Object> LOCKS = new ConcurrentHashMap<>();
+
+    /** Utility class */
+    private LockRegistry()
+    {
+        // not used
+    }
+
+    /**
+     *  Publish a lock.
+     *
+     *  @param  lock    a named lock
+     *
+     *  @return object name of the MBean
+     *
+     *  @throws IllegalArgumentException if the lock has no name or the name is already registered
+     */
+    public static ObjectName register(final CloseableLock lock)
+    {
+        final LockRegistration registration = new LockRegistration(checkName(lock.getName()),
+                        "CloseableLock", new LockMetrics(), lock::getSnapshot);
+        final ObjectName objectName = register(registration, lock);
+        lock.setMetrics(registration.getMetrics());
+        return objectName;
+    }
+
+    /**
+     *  Publish a read/write lock; the counters cover read and write acquisitions.
+     *
+     *  @param  lock    a named lock
+     *
+     *  @return object name of the MBean
+     *
+     *  @throws IllegalArgumentException if the lock has no name or the name is already registered
+     */
+    public static ObjectName register(final CloseableReadWriteLock lock)
+    {
+        final LockRegistration registration = new LockRegistration(checkName(lock.getName()),
+                        "CloseableReadWriteLock", new LockMetrics(), lock::getSnapshot);
+        final ObjectName objectName = register(registration, lock);
+        lock.setMetrics(registration.getMetrics());
+        return objectName;
+    }
+
+    /**
+     *  Remove a lock published by {@link #register(CloseableLock)}.
+     *
+     *  @param  lock    the lock
+     *
+     *  @return false if not registered (another lock with the same name is not removed)
+     */
+    public static boolean unregister(final CloseableLock lock)
+    {
+        if (!unregister(lock.getName(), lock))
+        {
+            return false;
+        }
+        lock.setMetrics(null);
+        return true;
+    }
+
+    /**
+     *  Remove a lock published by {@link #register(CloseableReadWriteLock)}.
+     *
+     *  @param  lock    the lock
+     *
+     *  @return false if not registered (another lock with the same name is not removed)
+     */
+    public static boolean unregister(final CloseableReadWriteLock lock)
+    {
+        if (!unregister(lock.getName(), lock))
+        {
+            return false;
+        }
+        lock.setMetrics(null);
+        return true;
+    }
+
+    /**
+     *  @param  name    name of a lock
+     *
+     *  @return object name of the MBean of the lock
+     */
+    public static ObjectName objectName(final String name)
+    {
+        try
+        {
+            return new ObjectName(DOMAIN + ":type=Lock,name=" + ObjectName.quote(checkName(name)));
+        }
+        catch (JMException x)
+        {
+            throw new IllegalArgumentException("invalid name: " + name, x);
+        }
+    }
+
+    /** @return the name */
+    private static String checkName(final String name)
+    {
+        if (name == null || name.isEmpty())
+        {
+            throw new IllegalArgumentException("lock has no name");
+        }
+        return name;
+    }
+
+    /** @return object name of the registered MBean */
+    private static ObjectName register(final LockRegistration registration, final Object lock)
+    {
+        final ObjectName objectName = objectName(registration.getName());
+        if (LOCKS.putIfAbsent(registration.getName(), lock) != null)
+        {
+            throw new IllegalArgumentException("already registered: " + registration.getName());
+        }
+        try
+        {
+            ManagementFactory.getPlatformMBeanServer().registerMBean(registration, objectName);
+            return objectName;
+        }
+        catch (InstanceAlreadyExistsException x)
+        {
+            LOCKS.remove(registration.getName(), lock);
+            throw new IllegalArgumentException("already registered: " + registration.getName(), x);
+        }
+        catch (JMException x)
+        {
+            LOCKS.remove(registration.getName(), lock);
+            throw new IllegalStateException("registration failed: " + objectName, x);
+        }
+    }
+
+    /** @return false if the lock is not registered under the name */
+    private static boolean unregister(final String name, final Object lock)
+    {
+        if (name == null || !LOCKS.remove(name, lock))
+        {
+            return false;
+        }
+        final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try
+        {
+            server.unregisterMBean(objectName(name));
+            return true;
+        }
+        catch (InstanceNotFoundException x)
+        {
+            return false;
+        }
+        catch (JMException x)
+        {
+            throw new IllegalStateException("unregistration failed: " + name, x);
+        }
+    }
+}
@@ -0,0 +1,33 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+/**
+ * Runtime Exception for a lock request rejected by admission control.
+ *
+ * A single preallocated instance without stack trace is thrown,
+ * so that rejecting a request does not allocate.
+ *
+ * @see AdmissionControlledCloseableLock
+ */
+public final class LockRejectedException extends LockException
+{
+    private static final long serialVersionUID = 1;
+
+    /** The preallocated instance */
+    static final LockRejectedException INSTANCE = new LockRejectedException();
+
+    /** Constructor */
+    private LockRejectedException()
+    {
+        super("rejected", null, false, false);
+    }
+
+    /** @return the preallocated instance when deserialized */
+    private Object readResolve()
+    {
+        return INSTANCE;
+    }
+}
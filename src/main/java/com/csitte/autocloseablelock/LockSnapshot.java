@@ -0,0 +1,145 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.io.Serializable;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ *  Point-in-time view of the state of a lock, e.g. for load shedding or health checks.
+ *
+ *  A snapshot is taken without acquiring the lock, so the values are estimates
+ *  which may be outdated as soon as they are read.
+ *  Taking a snapshot allocates only the snapshot itself.
+ *  It is carried by {@link LockTimeoutException#getContention()}.
+ *
+ *  @see CloseableLock#getSnapshot()
+ *  @see CloseableReadWriteLock#getSnapshot()
+ */
+@SuppressWarnings("PMD.CommentSize")
+public final class LockSnapshot implements Serializable
+{
+    private static final long serialVersionUID = 1;
+
+    /** Value of a count which is not supported by the underlying lock */
+    public static final int UNKNOWN = -1;
+
+    /** Thread id of the exclusive owner; 0 if none */
+    private final long ownerThreadId;
+
+    /** Thread name of the exclusive owner; {@code null} if none */
+    private final String ownerThreadName;
+
+    /** {@link System#nanoTime()} when the owner acquired the lock; only valid if owned */
+    private final long heldSinceNanos;
+
+    /** {@link System#nanoTime()} when the snapshot was taken */
+    private final long snapshotNanos;
+
+    /** Estimated number of waiting threads; {@link #UNKNOWN} if not supported */
+    private final int queueLength;
+
+    /** Number of read holds; {@link #UNKNOWN} if not supported */
+    private final int readHolderCount;
+
+
+    /** Constructor */
+    LockSnapshot(final Thread owner, final long heldSinceNanos, final int queueLength, final int readHolderCount)
+    {
+        this.ownerThreadId = owner == null? 0L: owner.getId();
+        this.ownerThreadName = owner == null? null: owner.getName();
+        this.heldSinceNanos = heldSinceNanos;
+        this.snapshotNanos = System.nanoTime();
+        this.queueLength = queueLength;
+        this.readHolderCount = readHolderCount;
+    }
+
+    /**
+     *  @param  lock    the underlying lock
+     *
+     *  @return estimated number of threads waiting for the lock; {@link #UNKNOWN} if not supported
+     */
+    static int queueLength(final Object lock)
+    {
+        if (lock instanceof ReentrantLock)
+        {
+            return ((ReentrantLock) lock).getQueueLength();
+        }
+        if (lock instanceof ReentrantReadWriteLock)
+        {
+            return ((ReentrantReadWriteLock) lock).getQueueLength();
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     *  @return thread id of the exclusive owner; 0 if not exclusively held
+     */
+    public long getOwnerThreadId()
+    {
+        return ownerThreadId;
+    }
+
+    /**
+     *  @return thread name of the exclusive owner; {@code null} if not exclusively held
+     */
+    public String getOwnerThreadName()
+    {
+        return ownerThreadName;
+    }
+
+    /**
+     *  @return true if the lock is exclusively held
+     */
+    public boolean isOwned()
+    {
+        return ownerThreadId != 0L;
+    }
+
+    /**
+     *  @return {@link System#nanoTime()} when the owner acquired the lock; 0 if not exclusively held
+     */
+    public long getHeldSinceNanos()
+    {
+        return isOwned()? heldSinceNanos: 0L;
+    }
+
+    /**
+     *  @return how long the owner has held the lock at the time of the snapshot in nanoseconds;
+     *          0 if not exclusively held
+     */
+    public long getHeldNanos()
+    {
+        return isOwned()? snapshotNanos - heldSinceNanos: 0L;
+    }
+
+    /**
+     *  @return estimated number of threads waiting for the lock; {@link #UNKNOWN} if not supported
+     *          by the underlying lock
+     */
+    public int getQueueLength()
+    {
+        return queueLength;
+    }
+
+    /**
+     *  @return number of read holds; 0 for an exclusive lock; {@link #UNKNOWN} if not supported
+     *          by the underlying lock
+     */
+    public int getReadHolderCount()
+    {
+        return readHolderCount;
+    }
+
+    @Override
+    public String toString()
+    {
+        return "LockSnapshot[owner=" + (isOwned()? ownerThreadName + " (" + ownerThreadId + ")": "none")
+             + ", heldNanos=" + getHeldNanos()
+             + ", queueLength=" + queueLength
+             + ", readHolders=" + readHolderCount + "]";
+    }
+}
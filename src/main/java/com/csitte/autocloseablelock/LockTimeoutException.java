@@ -5,15 +5,30 @@
 package com.csitte.autocloseablelock;
 
 import java.time.Duration;
+import java.util.concurrent.TimeUnit;
 
-/** Runtime Exception for lock-timeout */
+/**
+ * Runtime Exception for lock-timeout.
+ *
+ * The message is built on demand, not when the exception is created.
+ *
+ * A timeout of a {@link CloseableLock} carries the state of the lock at the time of the timeout
+ * (owner thread, how long it has held the lock, queue length), see {@link #getContention()}.
+ * It is taken from the fields tracked by the lock, without a thread dump.
+ */
 public class LockTimeoutException extends LockException
 {
     private static final long serialVersionUID = 1;
 
+    /** Name of lock; null if unnamed */
+    private final String name;
+
     /** Elapsed time till timeout */
     private final Duration elapsedTime;
 
+    /** State of the lock at the time of the timeout; null if unknown */
+    private final LockSnapshot contention;
+
 
     /**
      *	Constructor.
@@ -23,8 +38,22 @@ public class LockTimeoutException extends LockException
      */
     public LockTimeoutException(final String name, final Duration elapsedTime)
     {
-        super(name + " - timeout after " + elapsedTime);
+        this(name, elapsedTime, null);
+    }
+
+    /**
+     *	Constructor.
+     *
+     *	@param	name			name of lock
+     *	@param	elapsedTime		elapsed time waiting for a lock
+     *	@param	contention		state of the lock at the time of the timeout
+     */
+    public LockTimeoutException(final String name, final Duration elapsedTime, final LockSnapshot contention)
+    {
+        super();
+        this.name = name;
         this.elapsedTime = elapsedTime;
+        this.contention = contention;
     }
 
     /**
@@ -34,8 +63,7 @@ public class LockTimeoutException extends LockException
      */
     public LockTimeoutException(final Duration elapsedTime)
     {
-        super("timeout after " + elapsedTime);
-        this.elapsedTime = elapsedTime;
+        this(null, elapsedTime);
     }
 
     /**
@@ -45,4 +73,42 @@ public class LockTimeoutException extends LockException
     {
         return elapsedTime;
     }
+
+    /**
+     *  @return state of the lock at the time of the timeout (owner thread, hold time, queue length);
+     *          {@code null} if unknown
+     */
+    public LockSnapshot getContention()
+    {
+        return contention;
+    }
+
+    @Override
+    public String getMessage()
+    {
+        final StringBuilder message = new StringBuilder(80);
+        if (name != null)
+        {
+            message.append(name).append(" - ");
+        }
+        message.append("timeout after ").append(elapsedTime);
+        if (contention != null)
+        {
+            if (contention.isOwned())
+            {
+                message.append(", held by ").append(contention.getOwnerThreadName())
+                       .append(" (").append(contention.getOwnerThreadId()).append(") for ")
+                       .append(TimeUnit.NANOSECONDS.toMillis(contention.getHeldNanos())).append(" ms");
+            }
+            if (contention.getReadHolderCount() > 0)
+            {
+                message.append(", read holders: ").append(contention.getReadHolderCount());
+            }
+            if (contention.getQueueLength() != LockSnapshot.UNKNOWN)
+            {
+                message.append(", queue length: ").append(contention.getQueueLength());
+            }
+        }
+        return message.toString();
+    }
 }
@@ -0,0 +1,177 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *  MCS queue lock (Mellor-Crummey and Scott).
+ *
+ *  Each waiting thread spins on its own queue node and the lock holder hands
+ *  the lock directly to its successor, so a handoff touches only two cache lines.
+ *  The lock is reentrant and grants the lock in FIFO order.
+ *
+ *  A thread that gives up waiting (timeout or interrupt) marks its node as abandoned;
+ *  the releasing thread skips abandoned nodes.
+ *  Queue nodes are recycled per thread, only an abandoned node has to be replaced.
+ *
+ *  Usage example:
+ *  {@code
+ *  CloseableLock lock = new CloseableLock(new McsLock());
+ *  }
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads", "PMD.AvoidUsingVolatile"})
+public class McsLock extends AbstractQueueLock
+{
+    /** Last node in queue; {@code null} if lock is free */
+    private volatile Node tail;
+
+    /** Queue node of the current thread */
+    private final ThreadLocal<Node> myNode = ThreadLocal.withInitial(Node::new);
+
+    /** Node of the lock holder (only accessed by the owner) */
+    private Node heldNode;
+
+    /** CAS access to {@link #tail} */
+    private static final AtomicReferenceFieldUpdater<McsLock, Node> TAIL =
+                    AtomicReferenceFieldUpdater.newUpdater(McsLock.class, Node.class, "tail");
+
+
+    /** Default constructor */
+    public McsLock()
+    {
+        super();
+    }
+
+    @Override
+    protected boolean acquire(final boolean timed, final long deadline, final boolean interruptible)
+    {
+        final Node node = myNode.get();
+        node.next = null;
+        node.state = Node.WAITING;
+        node.thread = Thread.currentThread();
+        final Node pred = TAIL.getAndSet(this, node);
+        if (pred != null)
+        {
+            pred.next = node;
+            if (!awaitGrant(node, timed, deadline, interruptible))
+            {
+                myNode.set(new Node()); // abandoned node may still be visited by the lock holder
+                return false;
+            }
+        }
+        heldNode = node;
+        return true;
+    }
+
+    @Override
+    protected boolean tryAcquire()
+    {
+        final Node node = myNode.get();
+        node.next = null;
+        node.state = Node.WAITING;
+        node.thread = Thread.currentThread();
+        if (TAIL.compareAndSet(this, null, node))
+        {
+            heldNode = node;
+            return true;
+        }
+        return false;
+    }
+
+    /** Wait until the lock is handed over to {@code node} */
+    private boolean awaitGrant(final Node node, final boolean timed, final long deadline, final boolean interruptible)
+    {
+        boolean interrupted = false;
+        int spins = SPINS;
+        boolean granted = true;
+        while (node.state != Node.GRANTED)
+        {
+            if (spins > 0)
+            {
+                spins--;
+                continue;
+            }
+            if (!park(this, timed, deadline) || interruptible && Thread.currentThread().isInterrupted())
+            {
+                if (Node.STATE.compareAndSet(node, Node.WAITING, Node.ABANDONED))
+                {
+                    granted = false;
+                    break;
+                }
+            }
+            else if (!interruptible && Thread.interrupted())
+            {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+        return granted;
+    }
+
+    @Override
+    protected void release()
+    {
+        Node node = heldNode;
+        heldNode = null;
+        for (;;)
+        {
+            Node succ = node.next;
+            if (succ == null)
+            {
+                if (TAIL.compareAndSet(this, node, null))
+                {
+                    return; // queue is empty
+                }
+                while ((succ = node.next) == null)
+                {
+                    Thread.yield(); // successor is linking itself into the queue
+                }
+            }
+            if (Node.STATE.compareAndSet(succ, Node.WAITING, Node.GRANTED))
+            {
+                LockSupport.unpark(succ.thread);
+                return;
+            }
+            node = succ; // skip abandoned node
+        }
+    }
+
+    /**
+     *  @return true if there are threads waiting for the lock (estimate)
+     */
+    public boolean hasQueuedThreads()
+    {
+        final Node last = tail;
+        return last != null && last != heldNode;
+    }
+
+    /** Queue node */
+    private static final class Node
+    {
+        /** waiting for the lock */
+        static final int WAITING = 0;
+        /** lock has been handed over */
+        static final int GRANTED = 1;
+        /** waiting thread gave up */
+        static final int ABANDONED = 2;
+
+        /** CAS access to {@link #state} */
+        static final AtomicIntegerFieldUpdater<Node> STATE =
+                        AtomicIntegerFieldUpdater.newUpdater(Node.class, "state");
+
+        /** successor in queue */
+        volatile Node next;
+        /** WAITING, GRANTED or ABANDONED */
+        volatile int state;
+        /** thread owning this node */
+        volatile Thread thread;
+    }
+}
@@ -0,0 +1,129 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
+
+/**
+ *  Owner and hold time of an exclusive {@link CloseableLock}, for {@link LockSnapshot}.
+ *
+ *  Only allocated while tracking is enabled, so an untracked lock pays one null check
+ *  per acquisition and release.
+ *  The owner publishes its state with an ordered store ({@code lazySet}) instead of a volatile store,
+ *  and reads the clock only on the first (not on a reentrant) hold.
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads", "PMD.AvoidUsingVolatile"})
+final class OwnerTracker
+{
+    /** Ordered store of {@link #owner} */
+    private static final AtomicReferenceFieldUpdater<OwnerTracker, Thread> OWNER =
+                    AtomicReferenceFieldUpdater.newUpdater(OwnerTracker.class, Thread.class, "owner");
+
+    /** Owner thread; {@code null} if not held (written by the owner) */
+    private volatile Thread owner;
+
+    /** {@link System#nanoTime()} when the owner acquired the lock (written by the owner before {@link #owner}) */
+    private long heldSinceNanos;
+
+    /** Hold count of the owner (only accessed by the owner) */
+    private int holds;
+
+
+    /** Record the current thread as owner; called after the lock has been acquired */
+    void acquired()
+    {
+        final Thread thread = Thread.currentThread();
+        if (owner == thread)
+        {
+            holds++;
+        }
+        else
+        {
+            hold(thread, 1);
+        }
+    }
+
+    /** Called before the lock is released */
+    void released()
+    {
+        if (owner == Thread.currentThread() && --holds == 0)
+        {
+            OWNER.lazySet(this, null);
+        }
+    }
+
+    /**
+     *  The owner releases the lock while waiting for a condition.
+     *
+     *  @return hold count to restore with {@link #resume(int)}; 0 if the current thread is not the owner
+     */
+    int suspend()
+    {
+        if (owner != Thread.currentThread())
+        {
+            return 0;
+        }
+        OWNER.lazySet(this, null);
+        return holds;
+    }
+
+    /**
+     *  The owner holds the lock again after waiting for a condition.
+     *
+     *  @param  holdCount   returned by {@link #suspend()}
+     */
+    void resume(final int holdCount)
+    {
+        if (holdCount > 0)
+        {
+            hold(Thread.currentThread(), holdCount);
+        }
+    }
+
+    /** Start of a hold */
+    private void hold(final Thread thread, final int holdCount)
+    {
+        holds = holdCount;
+        heldSinceNanos = System.nanoTime();
+        OWNER.lazySet(this, thread);
+    }
+
+    /** @return owner thread; {@code null} if not held */
+    Thread getOwner()
+    {
+        return owner;
+    }
+
+    /** @return hold count; only valid for the owner */
+    int getHolds()
+    {
+        return holds;
+    }
+
+    /** @return {@link System#nanoTime()} when the owner acquired the lock; only valid if held */
+    long getHeldSinceNanos()
+    {
+        return heldSinceNanos;
+    }
+
+    /**
+     *  @param  queueLength     estimated number of waiting threads
+     *  @param  readHolderCount number of read holds
+     *
+     *  @return snapshot with the owner; the hold time may belong to a hold that started while reading
+     */
+    LockSnapshot snapshot(final int queueLength, final int readHolderCount)
+    {
+        Thread thread;
+        long since;
+        do
+        {
+            thread = owner;
+            since = heldSinceNanos;
+        }
+        while (thread != owner); // owner changed while reading
+        return new LockSnapshot(thread, since, queueLength, readHolderCount);
+    }
+}
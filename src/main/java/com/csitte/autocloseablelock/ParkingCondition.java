@@ -0,0 +1,258 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.util.Date;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ *  {@link Condition} implementation for the lock implementations of this package.
+ *
+ *  The waiter queue is only modified while holding the lock.
+ *  A waiter which times out or is interrupted cancels itself,
+ *  so that a concurrent {@link #signal()} is passed on to the next waiter.
+ */
+@SuppressWarnings("PMD.CommentSize")
+final class ParkingCondition implements Condition
+{
+    /** Waiter is parked */
+    private static final int WAITING = 0;
+    /** Waiter has been signalled */
+    private static final int SIGNALLED = 1;
+    /** Waiter gave up (timeout or interrupt) */
+    private static final int CANCELLED = 2;
+
+    /** Lock this condition is bound to */
+    private final ConditionOwner lock;
+
+    /** First waiting thread (guarded by lock) */
+    private Waiter firstWaiter;
+    /** Last waiting thread (guarded by lock) */
+    private Waiter lastWaiter;
+
+
+    /**
+     *  Constructor.
+     *
+     *  @param  lock    the lock this condition is bound to
+     */
+    ParkingCondition(final ConditionOwner lock)
+    {
+        this.lock = lock;
+    }
+
+    @Override
+    public void await() throws InterruptedException
+    {
+        await(false, 0L, true);
+    }
+
+    @Override
+    public void awaitUninterruptibly()
+    {
+        try
+        {
+            await(false, 0L, false);
+        }
+        catch (InterruptedException x)
+        {
+            throw new IllegalStateException(x); // not thrown in uninterruptible mode
+        }
+    }
+
+    @Override
+    public long awaitNanos(final long nanosTimeout) throws InterruptedException
+    {
+        final long deadline = System.nanoTime() + nanosTimeout;
+        await(true, deadline, true);
+        return deadline - System.nanoTime();
+    }
+
+    @Override
+    public boolean await(final long time, final TimeUnit unit) throws InterruptedException
+    {
+        return awaitNanos(unit.toNanos(time)) > 0;
+    }
+
+    @Override
+    public boolean awaitUntil(final Date deadline) throws InterruptedException
+    {
+        return await(deadline.getTime() - System.currentTimeMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     *  Release the lock, park until signalled, timed out or interrupted and reacquire the lock.
+     *
+     *  @return true if signalled
+     */
+    private boolean await(final boolean timed, final long deadline, final boolean interruptible) throws InterruptedException
+    {
+        if (interruptible && Thread.interrupted())
+        {
+            throw new InterruptedException();
+        }
+        if (!lock.isHeldByCurrentThread())
+        {
+            throw new IllegalMonitorStateException();
+        }
+        final Waiter waiter = new Waiter();
+        if (lastWaiter == null)
+        {
+            firstWaiter = waiter;
+        }
+        else
+        {
+            lastWaiter.next = waiter;
+        }
+        lastWaiter = waiter;
+        final int holds = lock.fullyRelease();
+        boolean interrupted = false;
+        while (waiter.state == WAITING)
+        {
+            if (timed)
+            {
+                final long remaining = deadline - System.nanoTime();
+                if (remaining <= 0L)
+                {
+                    break;
+                }
+                LockSupport.parkNanos(this, remaining);
+            }
+            else
+            {
+                LockSupport.park(this);
+            }
+            if (Thread.interrupted())
+            {
+                interrupted = true;
+                if (interruptible)
+                {
+                    break;
+                }
+            }
+        }
+        final boolean signalled = !Waiter.STATE.compareAndSet(waiter, WAITING, CANCELLED);
+        lock.reacquire(holds);
+        if (!signalled)
+        {
+            unlink(waiter);
+        }
+        if (interrupted)
+        {
+            if (interruptible && !signalled)
+            {
+                throw new InterruptedException();
+            }
+            Thread.currentThread().interrupt();
+        }
+        return signalled;
+    }
+
+    /** Remove a cancelled waiter from the queue */
+    private void unlink(final Waiter waiter)
+    {
+        Waiter prev = null;
+        for (Waiter w = firstWaiter; w != null; prev = w, w = w.next)
+        {
+            if (w == waiter)
+            {
+                if (prev == null)
+                {
+                    firstWaiter = w.next;
+                }
+                else
+                {
+                    prev.next = w.next;
+                }
+                if (lastWaiter == w)
+                {
+                    lastWaiter = prev;
+                }
+                break;
+            }
+        }
+    }
+
+    /** @return first waiter removed from queue; {@code null} if empty */
+    private Waiter poll()
+    {
+        final Waiter waiter = firstWaiter;
+        if (waiter != null)
+        {
+            firstWaiter = waiter.next;
+            if (firstWaiter == null)
+            {
+                lastWaiter = null;
+            }
+            waiter.next = null;
+        }
+        return waiter;
+    }
+
+    @Override
+    public void signal()
+    {
+        checkHeld();
+        Waiter waiter;
+        while ((waiter = poll()) != null)
+        {
+            if (waiter.signal())
+            {
+                break;
+            }
+        }
+    }
+
+    @Override
+    public void signalAll()
+    {
+        checkHeld();
+        Waiter waiter;
+        while ((waiter = poll()) != null)
+        {
+            waiter.signal();
+        }
+    }
+
+    /** @throws IllegalMonitorStateException if the current thread does not hold the lock */
+    private void checkHeld()
+    {
+        if (!lock.isHeldByCurrentThread())
+        {
+            throw new IllegalMonitorStateException();
+        }
+    }
+
+    /** A thread waiting on this condition */
+    private static final class Waiter
+    {
+        /** CAS access to {@link #state} */
+        static final AtomicIntegerFieldUpdater<Waiter> STATE =
+                        AtomicIntegerFieldUpdater.newUpdater(Waiter.class, "state");
+
+        /** the waiting thread */
+        final Thread thread = Thread.currentThread();
+
+        /** WAITING, SIGNALLED or CANCELLED */
+        volatile int state;
+
+        /** next waiter in queue (guarded by lock) */
+        Waiter next;
+
+        /** @return true if the waiter was still waiting */
+        boolean signal()
+        {
+            if (STATE.compareAndSet(this, WAITING, SIGNALLED))
+            {
+                LockSupport.unpark(thread);
+                return true;
+            }
+            return false;
+        }
+    }
+}
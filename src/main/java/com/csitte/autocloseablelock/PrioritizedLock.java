@@ -0,0 +1,81 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Lock;
+
+/**
+ *  A {@link Lock} with priority classes for the waiting threads.
+ *
+ *  Priorities range from 0 (lowest) to {@link #getPriorities()} - 1 (highest).
+ *  The methods of {@link Lock} use the lowest priority.
+ *
+ *  {@link CloseableLock#lock(int)} and {@link CloseableLock#tryLock(int, java.time.Duration)}
+ *  use the priority, if the underlying lock is a {@code PrioritizedLock}.
+ *
+ *  @see PriorityLock
+ *  @see PriorityReadWriteLock
+ */
+@SuppressWarnings("PMD.CommentSize")
+public interface PrioritizedLock extends Lock
+{
+    /**
+     *  @return number of priority classes
+     */
+    int getPriorities();
+
+    /**
+     *  Acquires the lock with the given priority.
+     *
+     *  @param  priority    0 (lowest) to {@link #getPriorities()} - 1 (highest)
+     *
+     *  @throws IllegalArgumentException on invalid priority
+     *
+     *  @see Lock#lock()
+     */
+    void lock(int priority);
+
+    /**
+     *  Acquires the lock with the given priority unless the current thread is interrupted.
+     *
+     *  @param  priority    0 (lowest) to {@link #getPriorities()} - 1 (highest)
+     *
+     *  @throws InterruptedException if the current thread is interrupted
+     *  @throws IllegalArgumentException on invalid priority
+     *
+     *  @see Lock#lockInterruptibly()
+     */
+    void lockInterruptibly(int priority) throws InterruptedException;
+
+    /**
+     *  Acquires the lock with the given priority only if it can be granted without wait.
+     *
+     *  @param  priority    0 (lowest) to {@link #getPriorities()} - 1 (highest)
+     *
+     *  @return true if acquired
+     *
+     *  @throws IllegalArgumentException on invalid priority
+     *
+     *  @see Lock#tryLock()
+     */
+    boolean tryLock(int priority);
+
+    /**
+     *  Acquires the lock with the given priority if it is granted within the given waiting time.
+     *
+     *  @param  priority    0 (lowest) to {@link #getPriorities()} - 1 (highest)
+     *  @param  time        the maximum time to wait
+     *  @param  unit        the time unit of the {@code time} argument
+     *
+     *  @return true if acquired; false on timeout
+     *
+     *  @throws InterruptedException if the current thread is interrupted
+     *  @throws IllegalArgumentException on invalid priority
+     *
+     *  @see Lock#tryLock(long, TimeUnit)
+     */
+    boolean tryLock(int priority, long time, TimeUnit unit) throws InterruptedException;
+}
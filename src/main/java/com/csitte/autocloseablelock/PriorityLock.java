@@ -0,0 +1,131 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+
+/**
+ *  Reentrant lock with priority classes for the waiting threads,
+ *  e.g. to serve interactive requests before background jobs sharing the same lock.
+ *
+ *  On release the lock is handed over to the waiting thread with the highest priority;
+ *  threads with the same priority are served in FIFO order.
+ *  To prevent starvation, a waiting thread is promoted by one priority class per aging interval.
+ *  An arriving thread never overtakes a waiting thread.
+ *
+ *  The methods of {@link java.util.concurrent.locks.Lock} use the lowest priority.
+ *  After a {@link Condition} wait, the lock is reacquired with the priority used before.
+ *
+ *  Usage example:
+ *  {@code
+ *  CloseableLock lock = new CloseableLock(new PriorityLock(3));
+ *  try (AutoCloseableLock autoCloseableLock = lock.lock(2)) {
+ *       // protected code
+ *  }
+ *  }
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads"})
+public class PriorityLock extends AbstractPriorityLock implements ConditionOwner
+{
+    /** Default waiting time per promotion to the next priority class */
+    public static final Duration DEFAULT_AGING = Duration.ofMillis(50);
+
+
+    /**
+     *  Constructor.
+     *
+     *  @param  priorities  number of priority classes
+     *
+     *  @throws IllegalArgumentException if {@code priorities} is not between 1 and 256
+     */
+    public PriorityLock(final int priorities)
+    {
+        this(priorities, DEFAULT_AGING);
+    }
+
+    /**
+     *  Constructor.
+     *
+     *  @param  priorities  number of priority classes
+     *  @param  aging       waiting time per promotion to the next priority class
+     *
+     *  @throws IllegalArgumentException if {@code priorities} is not between 1 and 256
+     *                                   or {@code aging} is not positive
+     */
+    public PriorityLock(final int priorities, final Duration aging)
+    {
+        this(new PrioritySync(priorities, aging));
+    }
+
+    /**
+     *  Constructor for the write lock of a {@link PriorityReadWriteLock}.
+     *
+     *  @param  sync    the synchronizer
+     */
+    PriorityLock(final PrioritySync sync)
+    {
+        super(sync);
+    }
+
+    @Override
+    protected boolean acquire(final int priority, final long deadline, final boolean interruptible)
+    {
+        return sync.acquireExclusive(priority, deadline, interruptible);
+    }
+
+    @Override
+    public void unlock()
+    {
+        sync.releaseExclusive();
+    }
+
+    @Override
+    public Condition newCondition()
+    {
+        return new ParkingCondition(this);
+    }
+
+    @Override
+    public boolean isHeldByCurrentThread()
+    {
+        return sync.isHeldExclusively();
+    }
+
+    /**
+     *  @return true if the lock is held by any thread (estimate)
+     */
+    public boolean isLocked()
+    {
+        return sync.getOwner() != null;
+    }
+
+    /**
+     *  @return number of holds on this lock by the current thread
+     */
+    public int getHoldCount()
+    {
+        return sync.getHoldCount();
+    }
+
+    @Override
+    public int fullyRelease()
+    {
+        return sync.fullyRelease();
+    }
+
+    @Override
+    public void reacquire(final int holds)
+    {
+        sync.reacquire(holds);
+    }
+
+    @Override
+    public String toString()
+    {
+        final Thread thread = sync.getOwner();
+        return super.toString() + (thread == null? "[Unlocked]": "[Locked by thread " + thread.getName() + "]");
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.time.Duration;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReadWriteLock;
+
+/**
+ *  Reentrant {@link ReadWriteLock} with priority classes for the waiting threads.
+ *
+ *  Read and write requests share one set of priority queues, see {@link PriorityLock}.
+ *  An arriving reader joins the current readers only if no waiting request has the same or a higher
+ *  (effective) priority, so that readers cannot starve a waiting writer of the same priority.
+ *  The write lock can be downgraded to the read lock; the read lock supports no conditions.
+ *
+ *  Usage example:
+ *  {@code
+ *  CloseableReadWriteLock lock = new CloseableReadWriteLock(new PriorityReadWriteLock(3));
+ *  try (AutoCloseableLock readLock = lock.readLock(2)) {
+ *       // read operations
+ *  }
+ *  }
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads"})
+public class PriorityReadWriteLock implements ReadWriteLock
+{
+    /** The read lock */
+    private final ReadLock readLock;
+
+    /** The write lock */
+    private final PriorityLock writeLock;
+
+
+    /**
+     *  Constructor.
+     *
+     *  @param  priorities  number of priority classes
+     *
+     *  @throws IllegalArgumentException if {@code priorities} is not between 1 and 256
+     */
+    public PriorityReadWriteLock(final int priorities)
+    {
+        this(priorities, PriorityLock.DEFAULT_AGING);
+    }
+
+    /**
+     *  Constructor.
+     *
+     *  @param  priorities  number of priority classes
+     *  @param  aging       waiting time per promotion to the next priority class
+     *
+     *  @throws IllegalArgumentException if {@code priorities} is not between 1 and 256
+     *                                   or {@code aging} is not positive
+     */
+    public PriorityReadWriteLock(final int priorities, final Duration aging)
+    {
+        final PrioritySync sync = new PrioritySync(priorities, aging);
+        this.readLock = new ReadLock(sync);
+        this.writeLock = new PriorityLock(sync);
+    }
+
+    @Override
+    public PrioritizedLock readLock()
+    {
+        return readLock;
+    }
+
+    @Override
+    public PriorityLock writeLock()
+    {
+        return writeLock;
+    }
+
+    /** The read lock; hold counts are kept per thread */
+    private static final class ReadLock extends AbstractPriorityLock
+    {
+        /** Read hold count of the current thread (kept at 0 when released, so a reader allocates it once) */
+        private final ThreadLocal<int[]> readHolds = ThreadLocal.withInitial(() -> new int[1]);
+
+        /** Constructor */
+        ReadLock(final PrioritySync sync)
+        {
+            super(sync);
+        }
+
+        @Override
+        protected boolean acquire(final int priority, final long deadline, final boolean interruptible)
+        {
+            final int[] holds = readHolds.get();
+            if (holds[0] == 0 && !sync.acquireShared(priority, deadline, interruptible))
+            {
+                return false;
+            }
+            holds[0]++;
+            return true;
+        }
+
+        @Override
+        public void unlock()
+        {
+            final int[] holds = readHolds.get();
+            if (holds[0] == 0)
+            {
+                throw new IllegalMonitorStateException();
+            }
+            if (--holds[0] == 0)
+            {
+                sync.releaseShared();
+            }
+        }
+
+        @Override
+        public Condition newCondition()
+        {
+            throw new UnsupportedOperationException();
+        }
+    }
+}
@@ -0,0 +1,430 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *  Synchronizer of {@link PriorityLock} and {@link PriorityReadWriteLock}.
+ *
+ *  Waiting requests are queued per priority class (FIFO within a class).
+ *  On release the lock is handed over directly to the request with the highest effective priority,
+ *  which is its priority plus one class per aging interval of waiting time.
+ *  Among requests with the same effective priority the one waiting longest wins,
+ *  so that a low priority request cannot starve.
+ *
+ *  Exclusive holds are reentrant; the hold count of the exclusive owner is kept here.
+ *  The hold counts of shared holds are kept by the caller.
+ *  The queues are guarded by an internal mutex, which is held only briefly.
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads", "PMD.AvoidUsingVolatile", "PMD.TooManyMethods"})
+final class PrioritySync
+{
+    /** Maximum number of priority classes */
+    static final int MAX_PRIORITIES = 256;
+
+    /** Timeouts beyond this value are treated as no timeout (avoids overflow) */
+    private static final long MAX_TIMEOUT_NANOS = Long.MAX_VALUE / 2;
+
+    /** Guards the queues and the state */
+    private final ReentrantLock mutex = new ReentrantLock();
+
+    /** Waiting requests per priority class */
+    private final ArrayDeque<Waiter>[] queues;
+
+    /** Waiting time per promotion to the next priority class */
+    private final long agingNanos;
+
+    /** Number of waiting requests (guarded by mutex) */
+    private int waiting;
+
+    /** Number of threads holding the lock shared (guarded by mutex) */
+    private int sharedHolders;
+
+    /** Exclusive owner; {@code null} if not held exclusively */
+    private volatile Thread owner;
+
+    /** Hold count of the exclusive owner (only accessed by the owner) */
+    private int holds;
+
+    /** Priority of the exclusive owner (only accessed by the owner) */
+    private int ownerPriority;
+
+
+    /**
+     *  Constructor.
+     *
+     *  @param  priorities  number of priority classes
+     *  @param  aging       waiting time per promotion to the next priority class
+     */
+    PrioritySync(final int priorities, final Duration aging)
+    {
+        if (priorities < 1 || priorities > MAX_PRIORITIES)
+        {
+            throw new IllegalArgumentException("invalid priorities: " + priorities);
+        }
+        if (aging == null || aging.isZero() || aging.isNegative())
+        {
+            throw new IllegalArgumentException("invalid aging: " + aging);
+        }
+        @SuppressWarnings("unchecked") // generic array
+        final ArrayDeque<Waiter>[] array = (ArrayDeque<Waiter>[]) new ArrayDeque<?>[priorities];
+        this.queues = array;
+        for (int i = 0; i < priorities; i++)
+        {
+            queues[i] = new ArrayDeque<>();
+        }
+        this.agingNanos = CloseableLock.toNanos(aging);
+    }
+
+    /** @return number of priority classes */
+    int getPriorities()
+    {
+        return queues.length;
+    }
+
+    /** @throws IllegalArgumentException on invalid priority */
+    void checkPriority(final int priority)
+    {
+        if (priority < 0 || priority >= queues.length)
+        {
+            throw new IllegalArgumentException("invalid priority: " + priority);
+        }
+    }
+
+    /**
+     *  @param  timeoutNanos    timeout
+     *
+     *  @return {@link System#nanoTime()} based deadline; {@link Long#MAX_VALUE} for no timeout
+     */
+    static long deadline(final long timeoutNanos)
+    {
+        return timeoutNanos >= MAX_TIMEOUT_NANOS? Long.MAX_VALUE: System.nanoTime() + timeoutNanos;
+    }
+
+    /**
+     *  Acquire the lock exclusively.
+     *
+     *  @param  priority        priority of the request
+     *  @param  deadline        {@link System#nanoTime()} based deadline; {@link Long#MAX_VALUE} for no timeout
+     *  @param  interruptible   give up if the thread is interrupted (the interrupt status stays set)
+     *
+     *  @return true if acquired; false on timeout or interrupt
+     */
+    boolean acquireExclusive(final int priority, final long deadline, final boolean interruptible)
+    {
+        final Thread current = Thread.currentThread();
+        if (owner == current)
+        {
+            holds++;
+            return true;
+        }
+        return acquire(current, priority, false, 1, deadline, interruptible);
+    }
+
+    /**
+     *  Acquire the lock shared. Reentrant holds have to be handled by the caller.
+     *
+     *  A shared request joins the current shared holders, unless a waiting request
+     *  has the same or a higher effective priority.
+     *
+     *  @see #acquireExclusive(int, long, boolean)
+     */
+    boolean acquireShared(final int priority, final long deadline, final boolean interruptible)
+    {
+        return acquire(Thread.currentThread(), priority, true, 0, deadline, interruptible);
+    }
+
+    /** Acquire the lock or enqueue a request and wait */
+    private boolean acquire(final Thread thread, final int priority, final boolean shared, final int holdCount,
+                            final long deadline, final boolean interruptible)
+    {
+        final Waiter request;
+        mutex.lock();
+        try
+        {
+            if (isGrantable(thread, priority, shared))
+            {
+                take(thread, priority, shared, holdCount);
+                return true;
+            }
+            if (deadline - System.nanoTime() <= 0L)
+            {
+                return false; // no wait
+            }
+            request = new Waiter(thread, priority, shared, holdCount);
+            queues[priority].addLast(request);
+            waiting++;
+        }
+        finally
+        {
+            mutex.unlock();
+        }
+        return await(request, deadline, interruptible);
+    }
+
+    /** @return true if the request can be granted without wait (guarded by mutex) */
+    private boolean isGrantable(final Thread thread, final int priority, final boolean shared)
+    {
+        if (shared)
+        {
+            return owner == null && (waiting == 0 || effectivePriority(next(), System.nanoTime()) < priority)
+                            || owner == thread; // downgrade
+        }
+        return owner == null && sharedHolders == 0 && waiting == 0;
+    }
+
+    /** Grant the lock to a request (guarded by mutex) */
+    private void take(final Thread thread, final int priority, final boolean shared, final int holdCount)
+    {
+        if (shared)
+        {
+            sharedHolders++;
+        }
+        else
+        {
+            owner = thread;
+            holds = holdCount;
+            ownerPriority = priority;
+        }
+    }
+
+    /** Wait until the request is granted */
+    private boolean await(final Waiter request, final long deadline, final boolean interruptible)
+    {
+        final boolean timed = deadline != Long.MAX_VALUE;
+        boolean interrupted = false;
+        while (!request.granted)
+        {
+            if (!AbstractQueueLock.park(this, timed, deadline))
+            {
+                break; // timeout
+            }
+            if (Thread.interrupted())
+            {
+                interrupted = true;
+                if (interruptible)
+                {
+                    break;
+                }
+            }
+        }
+        final boolean acquired = request.granted || !cancel(request);
+        if (interrupted)
+        {
+            Thread.currentThread().interrupt();
+        }
+        return acquired;
+    }
+
+    /** @return true if cancelled; false if the request has been granted meanwhile */
+    private boolean cancel(final Waiter request)
+    {
+        mutex.lock();
+        try
+        {
+            if (request.granted)
+            {
+                return false;
+            }
+            queues[request.priority].remove(request);
+            waiting--;
+            grant(); // a cancelled exclusive request may have blocked shared requests
+            return true;
+        }
+        finally
+        {
+            mutex.unlock();
+        }
+    }
+
+    /**
+     *  Release an exclusive hold of the current thread.
+     *
+     *  @throws IllegalMonitorStateException if the current thread does not hold the lock exclusively
+     */
+    void releaseExclusive()
+    {
+        if (owner != Thread.currentThread())
+        {
+            throw new IllegalMonitorStateException();
+        }
+        if (--holds == 0)
+        {
+            releaseOwner();
+        }
+    }
+
+    /** Release the lock by the exclusive owner */
+    private void releaseOwner()
+    {
+        mutex.lock();
+        try
+        {
+            owner = null;
+            grant();
+        }
+        finally
+        {
+            mutex.unlock();
+        }
+    }
+
+    /**
+     *  Release a shared hold; the last hold of the current thread.
+     */
+    void releaseShared()
+    {
+        mutex.lock();
+        try
+        {
+            if (--sharedHolders == 0)
+            {
+                grant();
+            }
+        }
+        finally
+        {
+            mutex.unlock();
+        }
+    }
+
+    /**
+     *  Releases all exclusive holds of the current thread.
+     *
+     *  @return hold count and priority, to be passed to {@link #reacquire(int)}
+     *
+     *  @throws IllegalMonitorStateException if the current thread does not hold the lock exclusively
+     */
+    int fullyRelease()
+    {
+        if (owner != Thread.currentThread())
+        {
+            throw new IllegalMonitorStateException();
+        }
+        final int state = holds * MAX_PRIORITIES + ownerPriority;
+        holds = 0;
+        releaseOwner();
+        return state;
+    }
+
+    /**
+     *  Reacquires the lock exclusively (uninterruptibly) with the hold count and priority before {@link #fullyRelease()}.
+     *
+     *  @param  state   the value returned by {@link #fullyRelease()}
+     */
+    void reacquire(final int state)
+    {
+        acquire(Thread.currentThread(), state % MAX_PRIORITIES, false, state / MAX_PRIORITIES, Long.MAX_VALUE, false);
+    }
+
+    /** Hand over the lock to the waiting requests with the highest effective priority (guarded by mutex) */
+    private void grant()
+    {
+        while (waiting > 0 && owner == null)
+        {
+            final Waiter next = next();
+            if (!next.shared && sharedHolders > 0)
+            {
+                return; // wait for the shared holders
+            }
+            queues[next.priority].removeFirst();
+            waiting--;
+            take(next.thread, next.priority, next.shared, next.holds);
+            next.granted = true;
+            LockSupport.unpark(next.thread);
+        }
+    }
+
+    /** @return waiting request with the highest effective priority (guarded by mutex; waiting &gt; 0) */
+    private Waiter next()
+    {
+        final long now = System.nanoTime();
+        Waiter best = null;
+        int bestPriority = -1;
+        for (int i = queues.length - 1; i >= 0; i--)
+        {
+            final Waiter head = queues[i].peekFirst();
+            if (head != null)
+            {
+                final int priority = effectivePriority(head, now);
+                if (priority > bestPriority || priority == bestPriority && head.since - best.since < 0L)
+                {
+                    best = head;
+                    bestPriority = priority;
+                }
+            }
+        }
+        return best;
+    }
+
+    /** @return priority promoted by one class per aging interval, up to the highest class */
+    private int effectivePriority(final Waiter request, final long now)
+    {
+        final long promotions = (now - request.since) / agingNanos;
+        return (int) Math.min(request.priority + promotions, queues.length - 1);
+    }
+
+    /** @return true if the current thread holds the lock exclusively */
+    boolean isHeldExclusively()
+    {
+        return owner == Thread.currentThread();
+    }
+
+    /** @return number of exclusive holds of the current thread */
+    int getHoldCount()
+    {
+        return isHeldExclusively()? holds: 0;
+    }
+
+    /** @return thread holding the lock exclusively; {@code null} if none (estimate) */
+    Thread getOwner()
+    {
+        return owner;
+    }
+
+    /** @return number of waiting requests */
+    int getQueueLength()
+    {
+        mutex.lock();
+        try
+        {
+            return waiting;
+        }
+        finally
+        {
+            mutex.unlock();
+        }
+    }
+
+    /** A waiting request */
+    private static final class Waiter
+    {
+        /** requesting thread */
+        final Thread thread;
+        /** requested priority */
+        final int priority;
+        /** true: shared request */
+        final boolean shared;
+        /** exclusive hold count when granted */
+        final int holds;
+        /** {@link System#nanoTime()} of the request */
+        final long since = System.nanoTime();
+        /** set when the lock has been handed over */
+        volatile boolean granted;
+
+        /** Constructor */
+        Waiter(final Thread thread, final int priority, final boolean shared, final int holds)
+        {
+            this.thread = thread;
+            this.priority = priority;
+            this.shared = shared;
+            this.holds = holds;
+        }
+    }
+}
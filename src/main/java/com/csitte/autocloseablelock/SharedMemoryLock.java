@@ -0,0 +1,438 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ *  Reentrant lock shared by the processes on one machine, e.g. to coordinate JVMs
+ *  which access the same files.
+ *
+ *  The lock state is a {@code long} word in a small memory-mapped file, which is acquired by CAS,
+ *  so an uncontended acquisition is not a system call (unlike {@code FileChannel.lock()}).
+ *  The word holds the process id and the process start time of the owner.
+ *  Threads of the same process queue on a local {@link ReentrantLock}, so only one thread
+ *  per process competes for the word.
+ *  A waiting process spins, then backs off by parking (up to 1 ms), as processes cannot be signalled.
+ *  The lock is not fair between processes.
+ *
+ *  If the owner process has died, the lock is taken over by the next waiting process.
+ *  This is detected with {@code /proc/<pid>/stat}: the process is gone, a zombie, or the pid
+ *  has been reused by a process with another start time. Without {@code /proc} (not Linux),
+ *  dead owners are not detected.
+ *  Processes in different pid namespaces (e.g. containers sharing {@code /dev/shm}) cannot see each other
+ *  in {@code /proc}, so a live owner would look dead. The file records the pid namespace of its processes;
+ *  once processes of different (or unknown) pid namespaces have opened the file, dead owners are not taken over.
+ *
+ *  {@link Condition}s are signalled within the process only; waiters re-test their condition
+ *  periodically, see {@link CloseableLock#waitForCondition}.
+ *
+ *  Usage example:
+ *  {@code
+ *  CloseableLock lock = new CloseableLock(new SharedMemoryLock(Paths.get("/dev/shm/orders.lock")));
+ *  }
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads", "PMD.TooManyMethods"})
+public class SharedMemoryLock implements ConditionOwner
+{
+    /** Size of the mapped file */
+    private static final int FILE_SIZE = 64;
+
+    /** Maximum park time while waiting for another process */
+    private static final long MAX_BACKOFF_NANOS = 1_000_000L;
+
+    /** Interval to check the liveness of the owner process */
+    private static final long LIVENESS_CHECK_NANOS = 10_000_000L;
+
+    /** Value of the word of an unlocked lock */
+    private static final long UNLOCKED = 0L;
+
+    /** Value of the namespace word if the processes are in different or unknown pid namespaces */
+    private static final long MIXED_NAMESPACES = -1L;
+
+    /** Index of the state in the fields of {@code /proc/<pid>/stat} after the command */
+    private static final int STAT_STATE = 0;
+
+    /** Index of the start time in the fields of {@code /proc/<pid>/stat} after the command */
+    private static final int STAT_START_TIME = 19;
+
+    /** Value of the word when this process holds the lock: pid | start time */
+    private static final long PROCESS_TOKEN = processToken(processId());
+
+    /** Pid namespace of this process; {@link #MIXED_NAMESPACES} if unknown */
+    private static final long PID_NAMESPACE = pidNamespace();
+
+    /** The lock word in the mapped file */
+    private final SharedWord word;
+
+    /** Pid namespace of the processes which opened the file; 0 if none yet */
+    private final SharedWord namespace;
+
+    /** Lock of the threads of this process */
+    private final ReentrantLock local = new ReentrantLock();
+
+    /** The mapped file */
+    private final Path file;
+
+
+    /**
+     *  Constructor. The file is created if it does not exist.
+     *  A file on a memory file system (e.g. {@code /dev/shm}) avoids write-back to disk.
+     *
+     *  @param  file    lock file, shared by the processes
+     *
+     *  @throws LockException if the file cannot be mapped
+     */
+    public SharedMemoryLock(final Path file)
+    {
+        this.file = file;
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.CREATE,
+                                                    StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            final MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0L, FILE_SIZE);
+            this.word = new SharedWord(buffer, 0); // the mapping stays valid after closing the channel
+            this.namespace = new SharedWord(buffer, Long.BYTES);
+        }
+        catch (IOException x)
+        {
+            throw new LockException("cannot map " + file, x);
+        }
+        joinNamespace();
+    }
+
+    /** Record the pid namespace of this process in the file, before this process can own the lock */
+    private void joinNamespace()
+    {
+        for (;;)
+        {
+            final long current = namespace.get();
+            if (current == PID_NAMESPACE || current == MIXED_NAMESPACES
+                || namespace.compareAndSet(current, current == 0L? PID_NAMESPACE: MIXED_NAMESPACES))
+            {
+                return;
+            }
+        }
+    }
+
+    /**
+     *  Try to acquire the word, or take it over from a dead owner.
+     *
+     *  @param  checkOwner  check the liveness of the owner process
+     *
+     *  @return true if acquired
+     */
+    private boolean tryAcquireShared(final boolean checkOwner)
+    {
+        final long owner = word.get();
+        if (owner == UNLOCKED)
+        {
+            return word.compareAndSet(UNLOCKED, PROCESS_TOKEN);
+        }
+        return checkOwner && namespace.get() == PID_NAMESPACE && !isAlive(owner)
+               && word.compareAndSet(owner, PROCESS_TOKEN);
+    }
+
+    /**
+     *  Acquire the word: spin, then back off. The caller holds the local lock.
+     *
+     *  @return true if acquired; false on timeout or interrupt
+     */
+    private boolean acquireShared(final boolean timed, final long deadline, final boolean interruptible)
+    {
+        if (tryAcquireShared(true))
+        {
+            return true;
+        }
+        final Thread current = Thread.currentThread();
+        boolean interrupted = false;
+        int spins = AbstractQueueLock.SPINS;
+        long backoff = 1L;
+        long nextCheck = System.nanoTime() + LIVENESS_CHECK_NANOS;
+        for (;;)
+        {
+            final long now = System.nanoTime();
+            final boolean checkOwner = now - nextCheck >= 0L;
+            if (checkOwner)
+            {
+                nextCheck = now + LIVENESS_CHECK_NANOS;
+            }
+            if (tryAcquireShared(checkOwner))
+            {
+                break;
+            }
+            if (spins > 0)
+            {
+                spins--;
+                continue;
+            }
+            if (timed && deadline - now <= 0L || interruptible && current.isInterrupted())
+            {
+                return false;
+            }
+            LockSupport.parkNanos(this, timed? Math.min(backoff, deadline - now): backoff);
+            backoff = Math.min(backoff * 2, MAX_BACKOFF_NANOS);
+            if (!interruptible && Thread.interrupted())
+            {
+                interrupted = true;
+            }
+        }
+        if (interrupted)
+        {
+            current.interrupt();
+        }
+        return true;
+    }
+
+    /** Release the word */
+    private void releaseShared()
+    {
+        if (!word.compareAndSet(PROCESS_TOKEN, UNLOCKED))
+        {
+            throw new IllegalMonitorStateException("lock taken over by another process: " + file);
+        }
+    }
+
+    /** Release the local lock after a failed acquisition of the word */
+    private boolean failed()
+    {
+        local.unlock();
+        return false;
+    }
+
+    @Override
+    public void lock()
+    {
+        local.lock();
+        if (local.getHoldCount() == 1)
+        {
+            acquireShared(false, 0L, false);
+        }
+    }
+
+    @Override
+    public void lockInterruptibly() throws InterruptedException
+    {
+        local.lockInterruptibly();
+        if (local.getHoldCount() == 1 && !acquireShared(false, 0L, true))
+        {
+            failed();
+            Thread.interrupted(); // clear
+            throw new InterruptedException();
+        }
+    }
+
+    @Override
+    public boolean tryLock()
+    {
+        if (!local.tryLock())
+        {
+            return false;
+        }
+        return local.getHoldCount() > 1 || tryAcquireShared(true) || failed();
+    }
+
+    @Override
+    public boolean tryLock(final long time, final TimeUnit unit) throws InterruptedException
+    {
+        final long deadline = System.nanoTime() + unit.toNanos(time);
+        if (!local.tryLock(time, unit))
+        {
+            return false;
+        }
+        if (local.getHoldCount() > 1 || acquireShared(true, deadline, true))
+        {
+            return true;
+        }
+        failed();
+        if (Thread.interrupted())
+        {
+            throw new InterruptedException();
+        }
+        return false;
+    }
+
+    @Override
+    public void unlock()
+    {
+        try
+        {
+            if (local.getHoldCount() == 1)
+            {
+                releaseShared();
+            }
+        }
+        finally
+        {
+            local.unlock(); // also if the lock has been taken over
+        }
+    }
+
+    @Override
+    public Condition newCondition()
+    {
+        return new ParkingCondition(this);
+    }
+
+    @Override
+    public boolean isHeldByCurrentThread()
+    {
+        return local.isHeldByCurrentThread();
+    }
+
+    @Override
+    public int fullyRelease()
+    {
+        final int holds = local.getHoldCount();
+        if (holds == 0)
+        {
+            throw new IllegalMonitorStateException();
+        }
+        try
+        {
+            releaseShared();
+        }
+        finally
+        {
+            for (int i = 0; i < holds; i++)
+            {
+                local.unlock(); // also if the lock has been taken over
+            }
+        }
+        return holds;
+    }
+
+    @Override
+    public void reacquire(final int holds)
+    {
+        lock();
+        for (int i = 1; i < holds; i++)
+        {
+            local.lock();
+        }
+    }
+
+    /**
+     *  @return true if the lock is held by any process
+     */
+    public boolean isLocked()
+    {
+        return word.get() != UNLOCKED;
+    }
+
+    /**
+     *  @return process id of the owner; 0 if not locked
+     */
+    public long getOwnerProcessId()
+    {
+        return word.get() >>> 32;
+    }
+
+    /**
+     *  @return number of holds on this lock by the current thread
+     */
+    public int getHoldCount()
+    {
+        return local.getHoldCount();
+    }
+
+    @Override
+    public String toString()
+    {
+        final long owner = getOwnerProcessId();
+        return super.toString() + (owner == 0L? "[Unlocked]": "[Locked by process " + owner + "]");
+    }
+
+    //- Process identity
+
+    /** @return process id of this process */
+    private static long processId()
+    {
+        try
+        {
+            return Long.parseLong(Paths.get("/proc/self").toRealPath().getFileName().toString());
+        }
+        catch (IOException | NumberFormatException x)
+        {
+            final String name = ManagementFactory.getRuntimeMXBean().getName(); // pid@host
+            return Long.parseLong(name.substring(0, name.indexOf('@')));
+        }
+    }
+
+    /** @return inode of the pid namespace of this process; {@link #MIXED_NAMESPACES} if unknown */
+    private static long pidNamespace()
+    {
+        try
+        {
+            final String link = Files.readSymbolicLink(Paths.get("/proc/self/ns/pid")).toString(); // pid:[4026531836]
+            return Long.parseLong(link.substring(link.indexOf('[') + 1, link.indexOf(']')));
+        }
+        catch (IOException | NumberFormatException | IndexOutOfBoundsException | UnsupportedOperationException x)
+        {
+            return MIXED_NAMESPACES;
+        }
+    }
+
+    /** @return pid in the upper 32 bits, start time in the lower 32 bits (0 if unknown) */
+    private static long processToken(final long pid)
+    {
+        final String[] stat = stat(pid);
+        return pid << 32 | (stat == null? 0L: Long.parseLong(stat[STAT_START_TIME]) & 0xFFFF_FFFFL);
+    }
+
+    /**
+     *  @return fields of {@code /proc/<pid>/stat} after the command;
+     *          {@code null} if the process does not exist
+     */
+    private static String[] stat(final long pid)
+    {
+        try
+        {
+            final String stat = new String(Files.readAllBytes(Paths.get("/proc", Long.toString(pid), "stat")),
+                                           StandardCharsets.US_ASCII);
+            return stat.substring(stat.lastIndexOf(')') + 2).split(" "); // the command may contain spaces
+        }
+        catch (IOException x)
+        {
+            return null;
+        }
+    }
+
+    /**
+     *  @param  token   value of the lock word
+     *
+     *  @return false if the owner process is dead; true if alive or unknown
+     */
+    private static boolean isAlive(final long token)
+    {
+        if (!Files.isDirectory(Paths.get("/proc")))
+        {
+            return true; // cannot detect
+        }
+        final String[] stat = stat(token >>> 32);
+        if (stat == null)
+        {
+            return false;
+        }
+        final char state = stat[STAT_STATE].charAt(0);
+        if (state == 'Z' || state == 'X')
+        {
+            return false; // zombie or dead
+        }
+        final long startTime = token & 0xFFFF_FFFFL;
+        return startTime == 0L || startTime == (Long.parseLong(stat[STAT_START_TIME]) & 0xFFFF_FFFFL);
+    }
+}
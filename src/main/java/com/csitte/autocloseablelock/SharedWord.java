@@ -0,0 +1,137 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+import java.lang.reflect.Field;
+import java.nio.Buffer;
+import java.nio.MappedByteBuffer;
+
+/**
+ *  A {@code long} in a memory-mapped file with volatile and CAS access,
+ *  which is atomic across processes that map the same file.
+ *
+ *  This Java 8 version uses method handles of {@code sun.misc.Unsafe} on the address of the mapping
+ *  (it is not visible when compiling for release 8).
+ *  The Java 11 version in the multi-release jar uses a byte buffer view {@code VarHandle}.
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.AvoidCatchingThrowable", "PMD.AvoidAccessibilityAlteration"})
+final class SharedWord
+{
+    /** {@code Unsafe.getLongVolatile(Object, long)} */
+    private static final MethodHandle GET_VOLATILE;
+
+    /** {@code Unsafe.putLongVolatile(Object, long, long)} */
+    private static final MethodHandle PUT_VOLATILE;
+
+    /** {@code Unsafe.compareAndSwapLong(Object, long, long, long)} */
+    private static final MethodHandle COMPARE_AND_SWAP;
+
+    /** Offset of the field {@code Buffer.address} */
+    private static final long ADDRESS_OFFSET;
+
+    static
+    {
+        try
+        {
+            final Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+            final Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+            theUnsafe.setAccessible(true);
+            final Object unsafe = theUnsafe.get(null);
+            final MethodHandles.Lookup lookup = MethodHandles.lookup();
+            GET_VOLATILE = lookup.findVirtual(unsafeClass, "getLongVolatile",
+                            MethodType.methodType(long.class, Object.class, long.class)).bindTo(unsafe);
+            PUT_VOLATILE = lookup.findVirtual(unsafeClass, "putLongVolatile",
+                            MethodType.methodType(void.class, Object.class, long.class, long.class)).bindTo(unsafe);
+            COMPARE_AND_SWAP = lookup.findVirtual(unsafeClass, "compareAndSwapLong",
+                            MethodType.methodType(boolean.class, Object.class, long.class, long.class, long.class))
+                            .bindTo(unsafe);
+            ADDRESS_OFFSET = (long) lookup.findVirtual(unsafeClass, "objectFieldOffset",
+                            MethodType.methodType(long.class, Field.class))
+                            .invoke(unsafe, Buffer.class.getDeclaredField("address"));
+        }
+        catch (Throwable x)
+        {
+            throw new ExceptionInInitializerError(x);
+        }
+    }
+
+    /** The mapping (keeps it from being unmapped) */
+    private final MappedByteBuffer buffer;
+
+    /** Address of the word */
+    private final long address;
+
+
+    /**
+     *  Constructor.
+     *
+     *  @param  buffer  direct buffer of the mapping
+     *  @param  offset  offset of the word, a multiple of 8
+     */
+    SharedWord(final MappedByteBuffer buffer, final int offset)
+    {
+        if ((offset & 7) != 0 || offset + Long.BYTES > buffer.capacity())
+        {
+            throw new IllegalArgumentException("invalid offset: " + offset);
+        }
+        this.buffer = buffer;
+        try
+        {
+            this.address = (long) GET_VOLATILE.invokeExact((Object) buffer, ADDRESS_OFFSET) + offset;
+        }
+        catch (Throwable x)
+        {
+            throw new IllegalStateException(x); // not thrown by Unsafe
+        }
+    }
+
+    /** @return current value (volatile read) */
+    long get()
+    {
+        try
+        {
+            return (long) GET_VOLATILE.invokeExact((Object) null, address);
+        }
+        catch (Throwable x)
+        {
+            throw new IllegalStateException(x); // not thrown by Unsafe
+        }
+    }
+
+    /** @param value new value (volatile write) */
+    void set(final long value)
+    {
+        try
+        {
+            PUT_VOLATILE.invokeExact((Object) null, address, value);
+        }
+        catch (Throwable x)
+        {
+            throw new IllegalStateException(x); // not thrown by Unsafe
+        }
+    }
+
+    /** @return true if the value was {@code expect} and has been set to {@code update} */
+    boolean compareAndSet(final long expect, final long update)
+    {
+        try
+        {
+            return (boolean) COMPARE_AND_SWAP.invokeExact((Object) null, address, expect, update);
+        }
+        catch (Throwable x)
+        {
+            throw new IllegalStateException(x); // not thrown by Unsafe
+        }
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SharedWord[" + buffer + "]";
+    }
+}
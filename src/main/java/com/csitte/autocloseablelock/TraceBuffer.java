@@ -0,0 +1,199 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ *  Off-heap ring of the lock events of one thread, written by {@link TraceListener}.
+ *
+ *  A record has 16 bytes: {@code nanoTime} (long), lock id (int), event type (byte), padding.
+ *  The lock id is unique per {@link CloseableLock}; it is assigned on the first event of the lock.
+ *  Only the owner thread writes; a record is published by an ordered write of the record count,
+ *  so the ring can be copied by another thread without locking: the copy is validated
+ *  by re-reading the count after a load fence.
+ *  When the ring is full, the oldest records are overwritten.
+ */
+@SuppressWarnings("PMD.CommentSize")
+final class TraceBuffer
+{
+    /** Magic number of a dump: "LTRC" */
+    static final int MAGIC = 0x4C545243;
+
+    /** Version of the dump format */
+    static final int VERSION = 1;
+
+    /** Size of a record in bytes */
+    static final int RECORD_SIZE = 16;
+
+    /** Event type: before the lock is acquired */
+    static final byte ACQUIRE = 0;
+    /** Event type: lock acquired */
+    static final byte ACQUIRED = 1;
+    /** Event type: before the lock is released */
+    static final byte RELEASE = 2;
+    /** Event type: lock not acquired within the timeout */
+    static final byte TIMEOUT = 3;
+    /** Event type: before waiting for a condition */
+    static final byte WAIT = 4;
+    /** Event type: condition signalled */
+    static final byte SIGNAL = 5;
+
+    /** Maximum number of lock names recorded per thread */
+    private static final int MAX_NAMES = 256;
+
+    /** Last assigned lock id */
+    private static final AtomicInteger LAST_LOCK_ID = new AtomicInteger();
+
+    /** Updater of the lock id */
+    private static final AtomicIntegerFieldUpdater<CloseableLock> LOCK_ID =
+                    AtomicIntegerFieldUpdater.newUpdater(CloseableLock.class, "traceId");
+
+    /** Thread id */
+    private final long threadId;
+
+    /** Thread name (when the buffer was created) */
+    private final String threadName;
+
+    /** The writing thread */
+    private final Thread thread;
+
+    /** The records (off-heap) */
+    private final ByteBuffer records;
+
+    /** Capacity - 1 (capacity is a power of two) */
+    private final int mask;
+
+    /** Number of records written */
+    private final AtomicLong count = new AtomicLong();
+
+    /** Open addressing set of the lock ids with a recorded name (only accessed by the owner thread) */
+    private final int[] namedIds = new int[MAX_NAMES * 2];
+
+    /** Number of ids in {@link #namedIds} */
+    private int namedCount;
+
+    /** Names of the named locks by lock id */
+    private final Map<Integer, String> names = new ConcurrentHashMap<>();
+
+
+    /**
+     *  Constructor.
+     *
+     *  @param  thread      the writing thread
+     *  @param  capacity    number of records, a power of two
+     */
+    TraceBuffer(final Thread thread, final int capacity)
+    {
+        this.thread = thread;
+        this.threadId = thread.getId();
+        this.threadName = thread.getName();
+        this.records = ByteBuffer.allocateDirect(capacity * RECORD_SIZE);
+        this.mask = capacity - 1;
+    }
+
+    /**
+     *  Append a record (owner thread only). Does not allocate, except once per named lock.
+     *
+     *  @param  lock    the lock
+     *  @param  type    event type
+     */
+    void record(final CloseableLock lock, final byte type)
+    {
+        final int lockId = lockId(lock);
+        final long n = count.get();
+        final int offset = (int) (n & mask) * RECORD_SIZE;
+        records.putLong(offset, System.nanoTime());
+        records.putInt(offset + 8, lockId);
+        records.put(offset + 12, type);
+        count.lazySet(n + 1);
+        if (type == ACQUIRE && lock.getName() != null)
+        {
+            rememberName(lockId, lock.getName());
+        }
+    }
+
+    /** @return id of the lock; assigned on first call */
+    private static int lockId(final CloseableLock lock)
+    {
+        final int id = lock.traceId;
+        if (id != 0)
+        {
+            return id;
+        }
+        LOCK_ID.compareAndSet(lock, 0, LAST_LOCK_ID.incrementAndGet()); // a competing thread may win
+        return lock.traceId;
+    }
+
+    /** Record the name of a lock on first sight */
+    private void rememberName(final int lockId, final String name)
+    {
+        int i = lockId & (namedIds.length - 1);
+        while (namedIds[i] != 0)
+        {
+            if (namedIds[i] == lockId)
+            {
+                return; // known
+            }
+            i = (i + 1) & (namedIds.length - 1);
+        }
+        if (namedCount < MAX_NAMES && lockId != 0)
+        {
+            namedIds[i] = lockId;
+            namedCount++;
+            names.put(lockId, name);
+        }
+    }
+
+    /** @return true if the writing thread has terminated */
+    boolean isTerminated()
+    {
+        return !thread.isAlive();
+    }
+
+    /**
+     *  Write the records in order (oldest first). Records which are overwritten
+     *  while copying are skipped.
+     *
+     *  @param  out     dump stream
+     *
+     *  @throws IOException on write error
+     */
+    void writeTo(final DataOutputStream out) throws IOException
+    {
+        final int capacity = mask + 1;
+        final boolean writing = thread.isAlive();
+        final long end = count.get();
+        final long start = Math.max(0L, end - capacity);
+        final byte[] copy = new byte[(int) (end - start) * RECORD_SIZE];
+        final ByteBuffer view = records.duplicate();
+        for (long n = start; n < end; n++)
+        {
+            view.position((int) (n & mask) * RECORD_SIZE);
+            view.get(copy, (int) (n - start) * RECORD_SIZE, RECORD_SIZE);
+        }
+        Fences.loadFence(); // the copy is complete before the count is read again
+        final long valid = writing? Math.max(start, count.get() + 1 - capacity): start; // the writer may be in the next slot
+        final int skip = (int) (Math.min(valid, end) - start);
+
+        out.writeLong(threadId);
+        out.writeUTF(threadName);
+        out.writeInt(names.size());
+        for (final Map.Entry<Integer, String> entry : names.entrySet())
+        {
+            out.writeInt(entry.getKey());
+            out.writeUTF(entry.getValue());
+        }
+        out.writeInt((int) (end - start) - skip);
+        out.write(copy, skip * RECORD_SIZE, copy.length - skip * RECORD_SIZE);
+    }
+}
@@ -0,0 +1,279 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedWriter;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ *  Converts a dump of the {@link TraceListener} to the Chrome trace event format (JSON),
+ *  which can be opened with {@code chrome://tracing} or Perfetto.
+ *
+ *  <pre>
+ *  java -cp autocloseablelock.jar com.csitte.autocloseablelock.TraceExporter locks.trace locks.json
+ *  </pre>
+ *
+ *  Each thread is a track with slices for the time waiting for a lock ({@code acquire})
+ *  and holding it ({@code hold}), and instant events for timeouts, condition waits and signals.
+ */
+@SuppressWarnings("PMD.CommentSize")
+public final class TraceExporter
+{
+    /** Utility class */
+    private TraceExporter()
+    {
+        // not used
+    }
+
+    /**
+     *  @param  args    dump file and JSON file
+     *
+     *  @throws IOException on read or write error
+     */
+    public static void main(final String[] args) throws IOException
+    {
+        if (args.length != 2)
+        {
+            throw new IllegalArgumentException("usage: TraceExporter <dump file> <json file>");
+        }
+        try (InputStream in = Files.newInputStream(Paths.get(args[0]));
+             Writer out = new BufferedWriter(new OutputStreamWriter(Files.newOutputStream(Paths.get(args[1])),
+                                                                    StandardCharsets.UTF_8)))
+        {
+            export(in, out);
+        }
+    }
+
+    /**
+     *  Convert a dump.
+     *
+     *  @param  dump    dump written by {@link TraceListener#dump(java.io.OutputStream)}
+     *  @param  json    output (not closed)
+     *
+     *  @throws IOException on read or write error, or if the dump is invalid
+     */
+    public static void export(final InputStream dump, final Writer json) throws IOException
+    {
+        final DataInputStream in = new DataInputStream(new BufferedInputStream(dump));
+        if (in.readInt() != TraceBuffer.MAGIC || in.readInt() != TraceBuffer.VERSION)
+        {
+            throw new IOException("not a lock trace dump");
+        }
+        final int threadCount = in.readInt();
+        final List<ThreadTrace> threads = new ArrayList<>(threadCount);
+        final Map<Integer, String> names = new HashMap<>();
+        long origin = Long.MAX_VALUE;
+        for (int t = 0; t < threadCount; t++)
+        {
+            final ThreadTrace thread = new ThreadTrace(in, names);
+            if (thread.nanos.length > 0)
+            {
+                origin = Math.min(origin, thread.nanos[0]);
+            }
+            threads.add(thread);
+        }
+
+        json.write("{\"displayTimeUnit\":\"ns\",\"traceEvents\":[");
+        final EventWriter events = new EventWriter(json, origin, names);
+        for (final ThreadTrace thread : threads)
+        {
+            events.thread(thread);
+        }
+        json.write("\n]}\n");
+        json.flush();
+    }
+
+    /** Records of one thread */
+    private static final class ThreadTrace
+    {
+        /** thread id */
+        final long threadId;
+        /** thread name */
+        final String threadName;
+        /** time of the records */
+        final long[] nanos;
+        /** lock id of the records */
+        final int[] lockIds;
+        /** event type of the records */
+        final byte[] types;
+
+        /** Read the records of one thread */
+        ThreadTrace(final DataInputStream in, final Map<Integer, String> names) throws IOException
+        {
+            threadId = in.readLong();
+            threadName = in.readUTF();
+            final int nameCount = in.readInt();
+            for (int i = 0; i < nameCount; i++)
+            {
+                names.put(in.readInt(), in.readUTF());
+            }
+            final int count = in.readInt();
+            nanos = new long[count];
+            lockIds = new int[count];
+            types = new byte[count];
+            for (int i = 0; i < count; i++)
+            {
+                nanos[i] = in.readLong();
+                lockIds[i] = in.readInt();
+                types[i] = in.readByte();
+                in.skipBytes(TraceBuffer.RECORD_SIZE - 13); // padding
+            }
+        }
+    }
+
+    /** Writes the trace events */
+    private static final class EventWriter
+    {
+        /** output */
+        private final Writer json;
+        /** time of the first record */
+        private final long origin;
+        /** lock names by lock id */
+        private final Map<Integer, String> names;
+        /** true before the first event */
+        private boolean first = true;
+
+        /** Constructor */
+        EventWriter(final Writer json, final long origin, final Map<Integer, String> names)
+        {
+            this.json = json;
+            this.origin = origin;
+            this.names = names;
+        }
+
+        /** Write the events of one thread */
+        void thread(final ThreadTrace thread) throws IOException
+        {
+            begin("thread_name", "M", thread.threadId);
+            json.write(",\"args\":{\"name\":\"" + escape(thread.threadName) + "\"}}");
+
+            // start times by lock id; a stack per lock for reentrant acquisitions
+            final Map<Integer, Deque<Long>> acquiring = new HashMap<>();
+            final Map<Integer, Deque<Long>> holding = new HashMap<>();
+            for (int i = 0; i < thread.nanos.length; i++)
+            {
+                final int lockId = thread.lockIds[i];
+                final long nanos = thread.nanos[i];
+                switch (thread.types[i])
+                {
+                    case TraceBuffer.ACQUIRE:
+                        push(acquiring, lockId, nanos);
+                        break;
+                    case TraceBuffer.ACQUIRED:
+                        slice("acquire", lockId, thread.threadId, pop(acquiring, lockId), nanos);
+                        push(holding, lockId, nanos);
+                        break;
+                    case TraceBuffer.RELEASE:
+                        slice("hold", lockId, thread.threadId, pop(holding, lockId), nanos);
+                        break;
+                    case TraceBuffer.TIMEOUT:
+                        slice("acquire", lockId, thread.threadId, pop(acquiring, lockId), nanos);
+                        instant("timeout", lockId, thread.threadId, nanos);
+                        break;
+                    case TraceBuffer.WAIT:
+                        instant("wait", lockId, thread.threadId, nanos);
+                        break;
+                    case TraceBuffer.SIGNAL:
+                        instant("signal", lockId, thread.threadId, nanos);
+                        break;
+                    default:
+                        throw new IOException("invalid event type: " + thread.types[i]);
+                }
+            }
+        }
+
+        /** Complete event; skipped if the start has been overwritten in the ring */
+        private void slice(final String category, final int lockId, final long threadId,
+                           final Long start, final long end) throws IOException
+        {
+            if (start != null)
+            {
+                begin(category + ' ' + lockName(lockId), "X", threadId);
+                json.write(",\"cat\":\"" + category + "\",\"ts\":" + micros(start)
+                           + ",\"dur\":" + micros(origin + end - start) + '}');
+            }
+        }
+
+        /** Instant event */
+        private void instant(final String category, final int lockId, final long threadId,
+                             final long nanos) throws IOException
+        {
+            begin(category + ' ' + lockName(lockId), "i", threadId);
+            json.write(",\"cat\":\"" + category + "\",\"s\":\"t\",\"ts\":" + micros(nanos) + '}');
+        }
+
+        /** Start of an event */
+        private void begin(final String name, final String phase, final long threadId) throws IOException
+        {
+            json.write(first? "\n": ",\n");
+            first = false;
+            json.write("{\"name\":\"" + escape(name) + "\",\"ph\":\"" + phase + "\",\"pid\":1,\"tid\":" + threadId);
+        }
+
+        /** @return time in microseconds since the origin, with nanosecond precision */
+        private String micros(final long nanos)
+        {
+            final long relative = nanos - origin;
+            return relative / 1000 + "." + String.format("%03d", relative % 1000);
+        }
+
+        /** @return name of the lock */
+        private String lockName(final int lockId)
+        {
+            final String name = names.get(lockId);
+            return name == null? "lock@" + Integer.toHexString(lockId): name;
+        }
+
+        /** Push a start time */
+        private static void push(final Map<Integer, Deque<Long>> starts, final int lockId, final long nanos)
+        {
+            starts.computeIfAbsent(lockId, id -> new ArrayDeque<>()).push(nanos);
+        }
+
+        /** @return the last start time; {@code null} if none */
+        private static Long pop(final Map<Integer, Deque<Long>> starts, final int lockId)
+        {
+            final Deque<Long> stack = starts.get(lockId);
+            return stack == null? null: stack.pollFirst();
+        }
+
+        /** @return JSON string content */
+        private static String escape(final String text)
+        {
+            final StringBuilder escaped = new StringBuilder(text.length());
+            for (int i = 0; i < text.length(); i++)
+            {
+                final char c = text.charAt(i);
+                if (c == '"' || c == '\\')
+                {
+                    escaped.append('\\').append(c);
+                }
+                else if (c < ' ')
+                {
+                    escaped.append(String.format("\\u%04x", (int) c));
+                }
+                else
+                {
+                    escaped.append(c);
+                }
+            }
+            return escaped.toString();
+        }
+    }
+}
@@ -0,0 +1,200 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ *  {@link LockListener} which writes compact binary records of the lock events into
+ *  a per-thread off-heap ring buffer, for deep contention investigations.
+ *
+ *  Install it with
+ *  {@code -Dcom.csitte.autocloseablelock.LockListener=com.csitte.autocloseablelock.TraceListener},
+ *  write the buffers with {@link #dump(Path)}, and convert the dump with {@link TraceExporter}
+ *  to the Chrome trace format (for {@code chrome://tracing} or Perfetto).
+ *
+ *  Recording does not allocate and does not lock (after the first event of a thread),
+ *  so tracing does not perturb the contention being measured.
+ *  Each thread keeps the last {@value #DEFAULT_RECORDS} records (16 bytes each),
+ *  or the number set by the system property {@value #RECORDS_PROPERTY}.
+ *  At most {@value #DEFAULT_THREADS} threads are traced at a time (or the number set by the system property
+ *  {@value #THREADS_PROPERTY}); the buffers of terminated threads are kept until the next dump,
+ *  or until their slots are needed for new threads. Threads beyond the limit are not traced.
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.DoNotUseThreads"})
+public class TraceListener implements LockListener
+{
+    /** System property with the number of records per thread */
+    public static final String RECORDS_PROPERTY = "com.csitte.autocloseablelock.TraceListener.records";
+
+    /** Default number of records per thread */
+    public static final int DEFAULT_RECORDS = 8192;
+
+    /** System property with the maximum number of traced threads */
+    public static final String THREADS_PROPERTY = "com.csitte.autocloseablelock.TraceListener.threads";
+
+    /** Default maximum number of traced threads */
+    public static final int DEFAULT_THREADS = 256;
+
+    /** Number of records per thread (a power of two) */
+    private static final int CAPACITY = capacity(Integer.getInteger(RECORDS_PROPERTY, DEFAULT_RECORDS));
+
+    /** Maximum number of buffers */
+    private static final int MAX_BUFFERS = Integer.getInteger(THREADS_PROPERTY, DEFAULT_THREADS);
+
+    /** All buffers */
+    private static final Queue<TraceBuffer> BUFFERS = new ConcurrentLinkedQueue<>();
+
+    /** Number of buffers in {@link #BUFFERS} */
+    private static final AtomicInteger BUFFER_COUNT = new AtomicInteger();
+
+    /** Buffer of the current thread; {@code null} if the thread is not traced */
+    private static final ThreadLocal<TraceBuffer> BUFFER = ThreadLocal.withInitial(TraceListener::register);
+
+
+    /** Default constructor, called by {@link LockListeners} */
+    public TraceListener()
+    {
+        super();
+    }
+
+    /** @return the value rounded up to a power of two (at least 2) */
+    private static int capacity(final int records)
+    {
+        return Math.max(2, Integer.highestOneBit(Math.max(records, 2) - 1) << 1);
+    }
+
+    /**
+     *  @return new buffer of the current thread; {@code null} if the maximum number of threads is traced.
+     *          Buffers of terminated threads are dropped to make room.
+     */
+    private static TraceBuffer register()
+    {
+        if (BUFFER_COUNT.get() >= MAX_BUFFERS)
+        {
+            for (final TraceBuffer buffer : BUFFERS)
+            {
+                if (buffer.isTerminated())
+                {
+                    remove(buffer);
+                }
+            }
+        }
+        if (BUFFER_COUNT.incrementAndGet() > MAX_BUFFERS)
+        {
+            BUFFER_COUNT.decrementAndGet();
+            return null;
+        }
+        final TraceBuffer buffer = new TraceBuffer(Thread.currentThread(), CAPACITY);
+        BUFFERS.add(buffer);
+        return buffer;
+    }
+
+    /** Remove a buffer */
+    private static void remove(final TraceBuffer buffer)
+    {
+        if (BUFFERS.remove(buffer))
+        {
+            BUFFER_COUNT.decrementAndGet();
+        }
+    }
+
+    /** Record an event in the buffer of the current thread, if traced */
+    private static void record(final CloseableLock lock, final byte type)
+    {
+        final TraceBuffer buffer = BUFFER.get();
+        if (buffer != null)
+        {
+            buffer.record(lock, type);
+        }
+    }
+
+    @Override
+    public void onAcquire(final CloseableLock lock)
+    {
+        record(lock, TraceBuffer.ACQUIRE);
+    }
+
+    @Override
+    public void onAcquired(final CloseableLock lock)
+    {
+        record(lock, TraceBuffer.ACQUIRED);
+    }
+
+    @Override
+    public void onRelease(final CloseableLock lock)
+    {
+        record(lock, TraceBuffer.RELEASE);
+    }
+
+    @Override
+    public void onTimeout(final CloseableLock lock, final Duration timeout)
+    {
+        record(lock, TraceBuffer.TIMEOUT);
+    }
+
+    @Override
+    public void onWait(final CloseableLock lock)
+    {
+        record(lock, TraceBuffer.WAIT);
+    }
+
+    @Override
+    public void onSignal(final CloseableLock lock, final boolean all)
+    {
+        record(lock, TraceBuffer.SIGNAL);
+    }
+
+    /**
+     *  Write the buffers of all threads to a file.
+     *
+     *  @param  file    dump file
+     *
+     *  @throws IOException on write error
+     */
+    public static void dump(final Path file) throws IOException
+    {
+        try (OutputStream out = Files.newOutputStream(file))
+        {
+            dump(out);
+        }
+    }
+
+    /**
+     *  Write the buffers of all threads. The recording threads are not stopped.
+     *
+     *  @param  stream  output stream (not closed)
+     *
+     *  @throws IOException on write error
+     */
+    public static void dump(final OutputStream stream) throws IOException
+    {
+        final List<TraceBuffer> buffers = new ArrayList<>(BUFFERS);
+        final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(stream));
+        out.writeInt(TraceBuffer.MAGIC);
+        out.writeInt(TraceBuffer.VERSION);
+        out.writeInt(buffers.size());
+        for (final TraceBuffer buffer : buffers)
+        {
+            buffer.writeTo(out);
+            if (buffer.isTerminated())
+            {
+                remove(buffer);
+            }
+        }
+        out.flush();
+    }
+}
@@ -0,0 +1,75 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
+
+/**
+ *  Support for virtual threads.
+ *
+ *  A condition wait polls the condition once per second, in case it is changed without a signal.
+ *  Virtual threads do not poll: with many waiting virtual threads the periodic wakeups
+ *  would keep the carrier threads busy. They rely on {@link CloseableLock#signalAll()},
+ *  so a condition which is changed without a signal is not noticed before the timeout.
+ *
+ *  Virtual threads are detected with a method handle of {@code Thread.isVirtual()},
+ *  so the library still runs on Java 8.
+ */
+@SuppressWarnings({"PMD.CommentSize", "PMD.AvoidCatchingThrowable"})
+final class VirtualThreads
+{
+    /** Interval to re-test a condition without a signal */
+    private static final long POLL_INTERVAL_NANOS = 1_000_000_000L;
+
+    /** {@code Thread.isVirtual()}; {@code null} before Java 21 */
+    private static final MethodHandle IS_VIRTUAL = isVirtualHandle();
+
+    /** Utility class */
+    private VirtualThreads()
+    {
+        // not used
+    }
+
+    /**
+     *  @return interval in nanoseconds to re-test a condition of the current thread;
+     *          {@link Long#MAX_VALUE} if the condition is only re-tested on a signal
+     */
+    static long pollIntervalNanos()
+    {
+        return isVirtual(Thread.currentThread())? Long.MAX_VALUE: POLL_INTERVAL_NANOS;
+    }
+
+    /** @return true if the thread is a virtual thread */
+    private static boolean isVirtual(final Thread thread)
+    {
+        if (IS_VIRTUAL == null)
+        {
+            return false;
+        }
+        try
+        {
+            return (boolean) IS_VIRTUAL.invokeExact(thread);
+        }
+        catch (Throwable x)
+        {
+            throw new IllegalStateException(x); // not thrown by Thread.isVirtual()
+        }
+    }
+
+    /** @return method handle of {@code Thread.isVirtual()}; {@code null} if not available */
+    private static MethodHandle isVirtualHandle()
+    {
+        try
+        {
+            return MethodHandles.publicLookup().findVirtual(Thread.class, "isVirtual", MethodType.methodType(boolean.class));
+        }
+        catch (ReflectiveOperationException x)
+        {
+            return null; // before Java 21
+        }
+    }
+}
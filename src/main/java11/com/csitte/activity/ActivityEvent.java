@@ -0,0 +1,29 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.activity;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event: an activity from start to close */
+@Name("com.csitte.activity.Activity")
+@Label("Activity")
+@Category("AutoCloseableLock")
+@Description("An activity from start to close")
+@StackTrace(false)
+final class ActivityEvent extends Event
+{
+    /** class of the activity */
+    @Label("Activity Class")
+    Class<?> activityClass;
+
+    /** status at close */
+    @Label("Status")
+    String status;
+}
@@ -0,0 +1,57 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.activity;
+
+/**
+ *  Hooks for activity events.
+ *
+ *  This Java 11 version emits JDK Flight Recorder events.
+ */
+final class ActivityEvents
+{
+    /** Utility class */
+    private ActivityEvents()
+    {
+        // not used
+    }
+
+    /**
+     *  Called when an activity is started.
+     *
+     *  @return handle of the activity event; {@code null} if disabled
+     */
+    static Object begin()
+    {
+        final ActivityEvent event = new ActivityEvent();
+        if (!event.isEnabled())
+        {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     *  Called when an activity is closed.
+     *
+     *  @param  event       handle returned by {@link #begin()}
+     *  @param  activity    the activity
+     *  @param  status      the activity status
+     */
+    static void end(final Object event, final Activity<?> activity, final Object status)
+    {
+        if (event != null)
+        {
+            final ActivityEvent activityEvent = (ActivityEvent) event;
+            activityEvent.end();
+            if (activityEvent.shouldCommit())
+            {
+                activityEvent.activityClass = activity.getClass();
+                activityEvent.status = String.valueOf(status);
+                activityEvent.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event: the state of a lock condition was changed and waiting threads were signalled */
+@Name("com.csitte.autocloseablelock.ConditionState")
+@Label("Condition State")
+@Category("AutoCloseableLock")
+@Description("The state of a LockCondition was changed and waiting threads were signalled")
+@StackTrace(false)
+final class ConditionStateEvent extends LockEvent
+{
+    /** the new state */
+    @Label("State")
+    String state;
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+
+/** JFR event: a wait for a condition has completed */
+@Name("com.csitte.autocloseablelock.ConditionWait")
+@Label("Condition Wait")
+@Category("AutoCloseableLock")
+@Description("A wait for a condition has completed")
+@StackTrace(true)
+final class ConditionWaitEvent extends LockEvent
+{
+    /** false on timeout */
+    @Label("Satisfied")
+    boolean satisfied;
+}
@@ -0,0 +1,28 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.lang.invoke.VarHandle;
+
+/**
+ *  Memory fences for plain accesses which are validated by a later volatile read.
+ *
+ *  This Java 11 version uses {@code VarHandle.acquireFence()}.
+ */
+@SuppressWarnings("PMD.CommentSize")
+final class Fences
+{
+    /** Utility class */
+    private Fences()
+    {
+        // not used
+    }
+
+    /** Loads before the fence are not reordered with loads and stores after the fence */
+    static void loadFence()
+    {
+        VarHandle.acquireFence();
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** JFR event: a thread waited for a lock */
+@Name("com.csitte.autocloseablelock.LockAcquire")
+@Label("Lock Acquire")
+@Category("AutoCloseableLock")
+@Description("A thread waited to acquire a lock")
+@StackTrace(true)
+@Threshold("10 ms")
+final class LockAcquireEvent extends LockEvent
+{
+    /** name of the acquire operation */
+    @Label("Operation")
+    String operation;
+}
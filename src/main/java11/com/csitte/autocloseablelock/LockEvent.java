@@ -0,0 +1,27 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+
+/** Base class of the JFR lock events */
+abstract class LockEvent extends Event
+{
+    /** class of the underlying lock */
+    @Label("Lock Class")
+    Class<?> lockClass;
+
+    /** identity hash code of the {@link CloseableLock} */
+    @Label("Lock Id")
+    int lockId;
+
+    /** Set the lock fields */
+    final void setLock(final CloseableLock lock)
+    {
+        lockClass = lock.getLockClass();
+        lockId = System.identityHashCode(lock);
+    }
+}
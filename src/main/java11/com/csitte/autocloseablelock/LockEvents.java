@@ -0,0 +1,152 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+/**
+ *  Hooks for lock events.
+ *
+ *  This Java 11 version emits JDK Flight Recorder events.
+ *  If an event is not enabled in a recording, the event object is not used
+ *  and its allocation is removed by escape analysis.
+ *
+ *  An event handle is {@code null} if the event is not enabled.
+ */
+@SuppressWarnings("PMD.CommentSize")
+final class LockEvents
+{
+    /** Utility class */
+    private LockEvents()
+    {
+        // not used
+    }
+
+    /**
+     *  Called before the lock is acquired.
+     *
+     *  @return handle of the acquire event; {@code null} if disabled
+     */
+    static Object beginAcquire()
+    {
+        final LockAcquireEvent event = new LockAcquireEvent();
+        if (!event.isEnabled())
+        {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     *  Called after the lock has been acquired.
+     *
+     *  @param  event       handle returned by {@link #beginAcquire()}
+     *  @param  lock        the acquired lock
+     *  @param  operation   name of the acquire operation
+     *
+     *  @return handle that releases the lock
+     */
+    static AutoCloseableLock acquired(final Object event, final CloseableLock lock, final String operation)
+    {
+        if (event != null)
+        {
+            final LockAcquireEvent acquireEvent = (LockAcquireEvent) event;
+            acquireEvent.end();
+            if (acquireEvent.shouldCommit())
+            {
+                acquireEvent.setLock(lock);
+                acquireEvent.operation = operation;
+                acquireEvent.commit();
+            }
+        }
+        final LockHoldEvent holdEvent = new LockHoldEvent();
+        if (!holdEvent.isEnabled())
+        {
+            return lock::close;
+        }
+        holdEvent.begin();
+        return () ->
+        {
+            holdEvent.end();
+            lock.close();
+            if (holdEvent.shouldCommit())
+            {
+                holdEvent.setLock(lock);
+                holdEvent.commit();
+            }
+        };
+    }
+
+    /**
+     *  Called when the lock was not acquired within the timeout.
+     *
+     *  @param  lock        the lock
+     *  @param  timeoutNanos the timeout in nanoseconds
+     */
+    static void timeout(final CloseableLock lock, final long timeoutNanos)
+    {
+        final LockTimeoutEvent event = new LockTimeoutEvent();
+        if (event.shouldCommit())
+        {
+            event.setLock(lock);
+            event.timeout = timeoutNanos;
+            event.commit();
+        }
+    }
+
+    /**
+     *  Called before waiting for a condition.
+     *
+     *  @return handle of the condition-wait event; {@code null} if disabled
+     */
+    static Object beginConditionWait()
+    {
+        final ConditionWaitEvent event = new ConditionWaitEvent();
+        if (!event.isEnabled())
+        {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    /**
+     *  Called when the wait for a condition has completed.
+     *
+     *  @param  event       handle returned by {@link #beginConditionWait()}
+     *  @param  lock        the lock
+     *  @param  satisfied   true if the condition is met; false on timeout
+     */
+    static void conditionWaited(final Object event, final CloseableLock lock, final boolean satisfied)
+    {
+        if (event != null)
+        {
+            final ConditionWaitEvent waitEvent = (ConditionWaitEvent) event;
+            waitEvent.end();
+            if (waitEvent.shouldCommit())
+            {
+                waitEvent.setLock(lock);
+                waitEvent.satisfied = satisfied;
+                waitEvent.commit();
+            }
+        }
+    }
+
+    /**
+     *  Called when the state of a {@link LockCondition} is changed.
+     *
+     *  @param  lock        the lock of the condition
+     *  @param  state       the new state
+     */
+    static void stateChanged(final CloseableLock lock, final Object state)
+    {
+        final ConditionStateEvent event = new ConditionStateEvent();
+        if (event.shouldCommit())
+        {
+            event.setLock(lock);
+            event.state = String.valueOf(state);
+            event.commit();
+        }
+    }
+}
@@ -0,0 +1,24 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Threshold;
+
+/** JFR event: a lock was held for a long time */
+@Name("com.csitte.autocloseablelock.LockHold")
+@Label("Lock Hold")
+@Category("AutoCloseableLock")
+@Description("A lock was held for a long time; the stack trace shows where it was released")
+@StackTrace(true)
+@Threshold("100 ms")
+final class LockHoldEvent extends LockEvent
+{
+    // no additional fields
+}
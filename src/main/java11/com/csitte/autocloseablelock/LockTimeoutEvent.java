@@ -0,0 +1,26 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import jdk.jfr.Timespan;
+
+/** JFR event: a lock was not acquired within the timeout */
+@Name("com.csitte.autocloseablelock.LockTimeout")
+@Label("Lock Timeout")
+@Category("AutoCloseableLock")
+@Description("A lock was not acquired within the timeout")
+@StackTrace(true)
+final class LockTimeoutEvent extends LockEvent
+{
+    /** the timeout */
+    @Label("Timeout")
+    @Timespan(Timespan.NANOSECONDS)
+    long timeout;
+}
@@ -0,0 +1,71 @@
+/*
+ * Copyright 2022-2025 C.Sitte Softwaretechnik
+ * SPDX-License-Identifier: MIT
+ */
+package com.csitte.autocloseablelock;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+
+/**
+ *  A {@code long} in a memory-mapped file with volatile and CAS access,
+ *  which is atomic across processes that map the same file.
+ *
+ *  This Java 11 version uses a byte buffer view {@code VarHandle},
+ *  which supports atomic access to aligned words of a direct buffer.
+ */
+@SuppressWarnings("PMD.CommentSize")
+final class SharedWord
+{
+    /** Access to a {@code long} of a byte buffer */
+    private static final VarHandle LONG = MethodHandles.byteBufferViewVarHandle(long[].class, ByteOrder.nativeOrder());
+
+    /** The mapping */
+    private final MappedByteBuffer buffer;
+
+    /** Offset of the word */
+    private final int offset;
+
+
+    /**
+     *  Constructor.
+     *
+     *  @param  buffer  direct buffer of the mapping
+     *  @param  offset  offset of the word, a multiple of 8
+     */
+    SharedWord(final MappedByteBuffer buffer, final int offset)
+    {
+        if ((offset & 7) != 0 || offset + Long.BYTES > buffer.capacity())
+        {
+            throw new IllegalArgumentException("invalid offset: " + offset);
+        }
+        this.buffer = buffer;
+        this.offset = offset;
+    }
+
+    /** @return current value (volatile read) */
+    long get()
+    {
+        return (long) LONG.getVolatile(buffer, offset);
+    }
+
+    /** @param value new value (volatile write) */
+    void set(final long value)
+    {
+        LONG.setVolatile(buffer, offset, value);
+    }
+
+    /** @return true if the value was {@code expect} and has been set to {@code update} */
+    boolean compareAndSet(final long expect, final long update)
+    {
+        return LONG.compareAndSet(buffer, offset, expect, update);
+    }
+
+    @Override
+    public String toString()
+    {
+        return "SharedWord[" + buffer + "]";
+    }
+}
@@ -0,0 +1,132 @@
+package test.com.csitte.activity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.time.Instant;
+
+import org.junit.jupiter.api.Test;
+
+import com.csitte.activity.ActivityImpl;
+import com.csitte.activity.ActivityRuntimeException;
+
+@SuppressWarnings("PMD")
+public class ActivityHierarchyTest
+{
+    @Test
+    void testAggregates()
+    {
+        final ActivityImpl<String> job = new ActivityImpl<>();
+        final ActivityImpl<String> task1 = new ActivityImpl<>();
+        final ActivityImpl<String> task2 = new ActivityImpl<>();
+        assertNull(job.getLastChildActivity());
+        assertFalse(job.isChildrenCompleted());
+
+        job.addChild(task1);
+        task2.startActivity();
+        job.addChild(task2);
+        assertSame(job, task1.getParent());
+        assertEquals(2, job.getChildCount());
+        assertEquals(1, job.getActiveChildCount());
+        assertEquals(task2.getLastActivity(), job.getLastChildActivity());
+
+        task1.startActivity();
+        assertEquals(2, job.getActiveChildCount());
+        final Instant touched = task1.touch();
+        assertEquals(touched, job.getLastChildActivity());
+        task2.updateStatus("running");
+        assertEquals(task2.getLastActivity(), job.getLastChildActivity());
+
+        task1.close();
+        assertEquals(1, job.getActiveChildCount());
+        assertEquals(1, job.getCompletedChildCount());
+        assertFalse(job.isChildrenCompleted());
+        task2.close();
+        assertEquals(0, job.getActiveChildCount());
+        assertTrue(job.isChildrenCompleted());
+        assertEquals(task2.getEndOfActivity(), job.getLastChildActivity());
+
+        task1.startActivity(); // restart
+        assertEquals(1, job.getActiveChildCount());
+        assertEquals(1, job.getCompletedChildCount());
+        task1.close();
+    }
+
+    @Test
+    void testGrandChildren()
+    {
+        final ActivityImpl<String> job = new ActivityImpl<>();
+        final ActivityImpl<String> stage = new ActivityImpl<>();
+        final ActivityImpl<String> task = new ActivityImpl<>();
+        stage.addChild(task);
+        task.startActivity();
+        job.addChild(stage);
+        assertEquals(task.getLastActivity(), job.getLastChildActivity());
+        assertEquals(0, job.getActiveChildCount()); // direct children only
+
+        final Instant touched = task.touch();
+        assertEquals(touched, stage.getLastChildActivity());
+        assertEquals(touched, job.getLastChildActivity());
+        task.close();
+    }
+
+    @Test
+    void testInvalidHierarchy()
+    {
+        final ActivityImpl<String> job = new ActivityImpl<>();
+        final ActivityImpl<String> task = new ActivityImpl<>();
+        job.addChild(task);
+        assertThrows(ActivityRuntimeException.class, () -> job.addChild(task));
+        assertThrows(ActivityRuntimeException.class, () -> new ActivityImpl<String>().addChild(task));
+        assertThrows(ActivityRuntimeException.class, () -> task.addChild(job));
+        assertThrows(ActivityRuntimeException.class, () -> job.addChild(job));
+    }
+
+    @Test
+    void testWaitForChildren()
+    {
+        final ActivityImpl<String> job = new ActivityImpl<>();
+        final ActivityImpl<String> task = new ActivityImpl<>();
+        job.addChild(task);
+        task.startActivity();
+        final Thread worker = new Thread(() ->
+        {
+            task.updateStatus("done");
+            task.close();
+        });
+        worker.start();
+        assertTrue(job.getLock().waitForCondition(job::isChildrenCompleted, Duration.ofSeconds(5)));
+    }
+
+    @Test
+    void testWaitForChildActivity() throws InterruptedException
+    {
+        final ActivityImpl<String> job = new ActivityImpl<>();
+        final ActivityImpl<String> task = new ActivityImpl<>();
+        job.addChild(task);
+        task.startActivity();
+        final Instant started = job.getLastChildActivity();
+        final Thread worker = new Thread(() ->
+        {
+            try
+            {
+                Thread.sleep(50);
+            }
+            catch (InterruptedException x)
+            {
+                Thread.currentThread().interrupt();
+            }
+            task.touch();
+        });
+        worker.start();
+        final long start = System.nanoTime();
+        assertTrue(job.getLock().waitForCondition(() -> job.getLastChildActivity().isAfter(started), Duration.ofSeconds(5)));
+        assertTrue(System.nanoTime() - start < 900_000_000L); // signalled, not polled
+        worker.join();
+    }
+}
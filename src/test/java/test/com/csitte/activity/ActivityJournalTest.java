@@ -0,0 +1,253 @@
+package test.com.csitte.activity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.io.RandomAccessFile;
+import java.nio.ByteBuffer;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import com.csitte.activity.ActivityImpl;
+import com.csitte.activity.ActivityJournal;
+import com.csitte.activity.ActivityRuntimeException;
+import com.csitte.activity.CloseableActivity;
+import com.csitte.activity.StatusCodec;
+
+@SuppressWarnings("PMD")
+public class ActivityJournalTest
+{
+    enum Phase { QUEUED, RUNNING, DONE }
+
+    @TempDir
+    Path dir;
+
+    @Test
+    void testRecover() throws Exception
+    {
+        final StatusCodec<String> codec = StatusCodec.utf8(32);
+        final ActivityImpl<String> activity1 = new ActivityImpl<>();
+        final ActivityImpl<String> activity2 = new ActivityImpl<>();
+        final Instant last;
+        try (ActivityJournal<String> journal = new ActivityJournal<>(dir, codec))
+        {
+            activity1.setJournal(journal, 1L);
+            activity2.setJournal(journal, 2L);
+            try (CloseableActivity ca = activity1.startActivity())
+            {
+                activity1.updateStatus("copying");
+                activity1.touch();
+                activity1.updateStatus("done");
+            }
+            activity2.startActivity();
+            last = activity2.touch();
+            journal.commit();
+            assertEquals(7L, journal.getAppendedSequence());
+            assertEquals(7L, journal.getCommittedSequence());
+        }
+
+        final Map<Long, ActivityImpl<String>> activities = ActivityJournal.recover(dir, codec);
+        assertEquals(2, activities.size());
+        final ActivityImpl<String> recovered1 = activities.get(1L);
+        assertFalse(recovered1.isActive());
+        assertEquals(activity1.getStartOfActivity(), recovered1.getStartOfActivity());
+        assertEquals(activity1.getEndOfActivity(), recovered1.getEndOfActivity());
+        assertEquals(activity1.getLastActivity(), recovered1.getLastActivity());
+        assertEquals("done", recovered1.getStatus());
+
+        final ActivityImpl<String> recovered2 = activities.get(2L);
+        assertTrue(recovered2.isActive()); // not closed before the journal ended
+        assertEquals(last, recovered2.getLastActivity());
+        assertNull(recovered2.getStatus());
+        recovered2.close();
+    }
+
+    @Test
+    void testContinue() throws Exception
+    {
+        final StatusCodec<Phase> codec = StatusCodec.ofEnum(Phase.class);
+        final ActivityImpl<Phase> activity = new ActivityImpl<>();
+        try (ActivityJournal<Phase> journal = new ActivityJournal<>(dir, codec))
+        {
+            activity.setJournal(journal, 7L);
+            activity.startActivity();
+            activity.updateStatus(Phase.RUNNING);
+        }
+        final Map<Long, ActivityImpl<Phase>> activities = ActivityJournal.recover(dir, codec);
+        final ActivityImpl<Phase> recovered = activities.get(7L);
+        assertEquals(Phase.RUNNING, recovered.getStatus());
+        try (ActivityJournal<Phase> journal = new ActivityJournal<>(dir, codec))
+        {
+            assertEquals(2L, journal.getAppendedSequence());
+            recovered.setJournal(journal, 7L);
+            recovered.updateStatus(Phase.DONE);
+            recovered.close();
+            assertEquals(4L, journal.getAppendedSequence());
+        }
+        assertEquals(2, segments().size());
+
+        final ActivityImpl<Phase> result = ActivityJournal.recover(dir, codec).get(7L);
+        assertFalse(result.isActive());
+        assertEquals(Phase.DONE, result.getStatus());
+    }
+
+    @Test
+    void testReopenEmpty() throws Exception
+    {
+        final StatusCodec<String> codec = StatusCodec.utf8(16);
+        new ActivityJournal<>(dir, codec).close();
+        new ActivityJournal<>(dir, codec).close(); // reuses the empty segment
+        assertEquals(1, segments().size());
+
+        final ActivityImpl<String> activity = new ActivityImpl<>();
+        try (ActivityJournal<String> journal = new ActivityJournal<>(dir, codec))
+        {
+            activity.setJournal(journal, 1L);
+            activity.startActivity();
+            activity.updateStatus("running");
+        }
+        new ActivityJournal<>(dir, codec).close(); // empty last segment after a segment with records
+        try (ActivityJournal<String> journal = new ActivityJournal<>(dir, codec))
+        {
+            assertEquals(2L, journal.getAppendedSequence());
+            activity.setJournal(journal, 1L);
+            activity.close();
+        }
+        assertEquals(2, segments().size());
+        final ActivityImpl<String> recovered = ActivityJournal.recover(dir, codec).get(1L);
+        assertFalse(recovered.isActive());
+        assertEquals("running", recovered.getStatus());
+    }
+
+    @Test
+    void testSegmentRollover() throws Exception
+    {
+        final StatusCodec<String> codec = StatusCodec.utf8(16);
+        final ActivityImpl<String> activity = new ActivityImpl<>();
+        try (ActivityJournal<String> journal = new ActivityJournal<>(dir, codec, 1024, Duration.ofMillis(1)))
+        {
+            activity.setJournal(journal, 1L);
+            try (CloseableActivity ca = activity.startActivity())
+            {
+                for (int i = 0; i < 100; i++)
+                {
+                    activity.updateStatus("step " + i);
+                }
+            }
+        }
+        assertTrue(segments().size() > 1);
+        final ActivityImpl<String> recovered = ActivityJournal.recover(dir, codec).get(1L);
+        assertEquals("step 99", recovered.getStatus());
+        assertEquals(activity.getEndOfActivity(), recovered.getEndOfActivity());
+    }
+
+    @Test
+    void testTornTail() throws Exception
+    {
+        final StatusCodec<String> codec = StatusCodec.utf8(16);
+        final ActivityImpl<String> activity = new ActivityImpl<>();
+        try (ActivityJournal<String> journal = new ActivityJournal<>(dir, codec))
+        {
+            activity.setJournal(journal, 1L);
+            activity.startActivity();
+            activity.updateStatus("first");
+            activity.updateStatus("second");
+        }
+        // damage the status of the last record (header: 16 bytes, record: 56 bytes)
+        try (RandomAccessFile file = new RandomAccessFile(segments().get(0).toFile(), "rw"))
+        {
+            file.seek(16 + 2 * 56 + 36);
+            file.write('x');
+        }
+        final ActivityImpl<String> recovered = ActivityJournal.recover(dir, codec).get(1L);
+        assertEquals("first", recovered.getStatus());
+
+        try (ActivityJournal<String> journal = new ActivityJournal<>(dir, codec))
+        {
+            assertEquals(2L, journal.getAppendedSequence()); // continues after the last valid record
+        }
+    }
+
+    @Test
+    void testTruncatedStatus() throws Exception
+    {
+        final StatusCodec<String> codec = StatusCodec.utf8(4);
+        final ByteBuffer buffer = ByteBuffer.allocate(codec.getMaxSize());
+        codec.encode("abäö", buffer); // 'ö' does not fit
+        buffer.flip();
+        assertEquals("abä", codec.decode(buffer));
+    }
+
+    @Test
+    void testGroupCommit() throws Exception
+    {
+        final StatusCodec<String> codec = StatusCodec.utf8(8);
+        try (ActivityJournal<String> journal = new ActivityJournal<>(dir, codec, ActivityJournal.DEFAULT_SEGMENT_SIZE,
+                                                                     Duration.ofSeconds(60)))
+        {
+            final Thread[] threads = new Thread[4];
+            for (int t = 0; t < threads.length; t++)
+            {
+                final long id = t;
+                threads[t] = new Thread(() ->
+                {
+                    final ActivityImpl<String> activity = new ActivityImpl<>();
+                    activity.setJournal(journal, id);
+                    for (int i = 0; i < 100; i++)
+                    {
+                        try (CloseableActivity ca = activity.startActivity())
+                        {
+                            activity.touch();
+                        }
+                        journal.commit(); // does not wait for the commit interval
+                    }
+                });
+                threads[t].start();
+            }
+            for (final Thread thread : threads)
+            {
+                thread.join();
+            }
+            assertEquals(1200L, journal.getCommittedSequence());
+        }
+        assertEquals(4, ActivityJournal.recover(dir, codec).size());
+    }
+
+    @Test
+    void testClosed() throws Exception
+    {
+        final ActivityJournal<String> journal = new ActivityJournal<>(dir, StatusCodec.utf8(8));
+        final ActivityImpl<String> activity = new ActivityImpl<>();
+        activity.setJournal(journal, 1L);
+        journal.close();
+        journal.commit();
+        assertThrows(ActivityRuntimeException.class, activity::startActivity);
+        assertFalse(activity.isActive());
+        assertThrows(IOException.class, () -> ActivityJournal.recover(dir, StatusCodec.utf8(64)));
+    }
+
+    private List<Path> segments() throws IOException
+    {
+        final List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(dir))
+        {
+            stream.forEach(files::add);
+        }
+        Collections.sort(files);
+        return files;
+    }
+}
@@ -0,0 +1,120 @@
+package test.com.csitte.activity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.csitte.activity.ActivityImpl;
+import com.csitte.activity.ActivityRuntimeException;
+import com.csitte.activity.ActivityStats;
+import com.csitte.activity.CloseableActivity;
+import com.csitte.activity.DurationHistogram;
+
+@SuppressWarnings("PMD")
+public class ActivityStatsTest
+{
+    @Test
+    void testLifecycle() throws Exception
+    {
+        final ActivityStats stats = new ActivityStats("download");
+        final ActivityImpl<String> activity1 = new ActivityImpl<>();
+        final ActivityImpl<String> activity2 = new ActivityImpl<>();
+        activity1.setStatistics(stats);
+        activity2.setStatistics(stats);
+        assertSame(stats, activity1.getStatistics());
+
+        try (CloseableActivity ca1 = activity1.startActivity())
+        {
+            try (CloseableActivity ca2 = activity2.startActivity())
+            {
+                assertEquals(2L, stats.getActiveCount());
+                assertThrows(ActivityRuntimeException.class, () -> activity2.setStatistics(null));
+                Thread.sleep(20);
+                activity2.touch();
+                activity2.updateStatus("done");
+            }
+            assertEquals(1L, stats.getActiveCount());
+            assertEquals(1L, stats.getCompletedCount());
+        }
+        assertEquals(0L, stats.getActiveCount());
+        assertEquals(2L, stats.getStartedCount());
+        assertEquals(2L, stats.getCompletedCount());
+
+        final DurationHistogram durations = stats.getDurations();
+        assertEquals(2L, durations.getCount());
+        assertTrue(durations.getMaxNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertTrue(durations.getPercentileNanos(100) >= TimeUnit.MILLISECONDS.toNanos(20));
+        assertEquals(2L, stats.getTouchIntervals().getCount());
+        assertTrue(stats.getTouchIntervals().getMaxNanos() >= TimeUnit.MILLISECONDS.toNanos(20));
+
+        activity1.updateStatus("inactive"); // not counted when inactive
+        assertEquals(2L, stats.getTouchIntervals().getCount());
+    }
+
+    @Test
+    void testWithoutStatistics()
+    {
+        final ActivityImpl<String> activity = new ActivityImpl<>();
+        assertNull(activity.getStatistics());
+        try (CloseableActivity ca = activity.startActivity())
+        {
+            activity.touch();
+        }
+    }
+
+    @Test
+    void testSharedTypes()
+    {
+        final ActivityStats stats = ActivityStats.of("stats-test-type");
+        assertSame(stats, ActivityStats.of("stats-test-type"));
+        assertEquals("stats-test-type", stats.getType());
+        assertTrue(ActivityStats.getAll().contains(stats));
+    }
+
+    @Test
+    void testConcurrentChurn() throws Exception
+    {
+        final ActivityStats stats = new ActivityStats("churn");
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++)
+        {
+            threads[t] = new Thread(() ->
+            {
+                final ActivityImpl<Integer> activity = new ActivityImpl<>();
+                activity.setStatistics(stats);
+                for (int i = 0; i < 1000; i++)
+                {
+                    try (CloseableActivity ca = activity.startActivity())
+                    {
+                        activity.touch();
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals(0L, stats.getActiveCount());
+        assertEquals(4000L, stats.getCompletedCount());
+        assertEquals(4000L, stats.getDurations().getCount());
+        assertEquals(4000L, stats.getTouchIntervals().getCount());
+    }
+
+    @Test
+    void testHistogramBuckets()
+    {
+        assertEquals(0L, DurationHistogram.getBucketUpperBoundNanos(0));
+        assertEquals(1L, DurationHistogram.getBucketUpperBoundNanos(1));
+        assertEquals(1023L, DurationHistogram.getBucketUpperBoundNanos(10));
+        assertEquals(Long.MAX_VALUE, DurationHistogram.getBucketUpperBoundNanos(DurationHistogram.BUCKETS - 1));
+        assertEquals(0L, new ActivityStats("empty").getDurations().getPercentileNanos(50));
+    }
+}
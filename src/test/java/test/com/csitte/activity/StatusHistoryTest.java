@@ -0,0 +1,126 @@
+package test.com.csitte.activity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import com.csitte.activity.ActivityImpl;
+import com.csitte.activity.StatusHistory;
+import com.csitte.activity.StatusHistory.Transition;
+import com.csitte.autocloseablelock.AutoCloseableLock;
+
+@SuppressWarnings("PMD")
+public class StatusHistoryTest
+{
+    @Test
+    void testDisabled()
+    {
+        final ActivityImpl<String> activity = new ActivityImpl<>();
+        activity.updateStatus("a");
+        assertTrue(activity.getStatusHistory().isEmpty());
+    }
+
+    @Test
+    void testInvalidCapacity()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new StatusHistory<String>(0));
+        assertThrows(IllegalArgumentException.class, () -> new ActivityImpl<String>(-1));
+    }
+
+    @Test
+    void testWrapAround()
+    {
+        final ActivityImpl<Integer> activity = new ActivityImpl<>(4);
+        assertTrue(activity.getStatusHistory().isEmpty());
+        activity.updateStatus(1);
+        activity.updateStatus(2);
+        assertEquals(2, activity.getStatusHistory().size());
+        for (int i = 3; i <= 6; i++)
+        {
+            activity.updateStatus(i);
+        }
+        final List<Transition<Integer>> history = activity.getStatusHistory();
+        assertEquals(4, history.size());
+        for (int i = 0; i < 4; i++)
+        {
+            assertEquals(i + 3, history.get(i).getStatus());
+        }
+        for (int i = 1; i < 4; i++)
+        {
+            assertFalse(history.get(i).getTimestamp().isBefore(history.get(i - 1).getTimestamp()));
+        }
+        assertEquals(activity.getLastActivity(), history.get(3).getTimestamp());
+    }
+
+    @Test
+    void testSnapshotDoesNotLock() throws Exception
+    {
+        final ActivityImpl<String> activity = new ActivityImpl<>(2);
+        activity.updateStatus("a");
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread holder = new Thread(() ->
+        {
+            try (AutoCloseableLock lock = activity.getLock().lock())
+            {
+                locked.countDown();
+                release.await();
+            }
+            catch (InterruptedException x)
+            {
+                Thread.currentThread().interrupt();
+            }
+        });
+        holder.start();
+        assertTrue(locked.await(5, TimeUnit.SECONDS));
+        try
+        {
+            assertEquals("a", activity.getStatusHistory().get(0).getStatus());
+        }
+        finally
+        {
+            release.countDown();
+            holder.join();
+        }
+    }
+
+    @Test
+    void testConcurrentSnapshots() throws Exception
+    {
+        final ActivityImpl<Integer> activity = new ActivityImpl<>(8);
+        final AtomicBoolean running = new AtomicBoolean(true);
+        final Thread writer = new Thread(() ->
+        {
+            for (int i = 0; running.get(); i++)
+            {
+                activity.updateStatus(i);
+            }
+        });
+        writer.start();
+        try
+        {
+            for (int n = 0; n < 10_000; n++)
+            {
+                final List<Transition<Integer>> history = activity.getStatusHistory();
+                assertTrue(history.size() <= 8);
+                for (int i = 1; i < history.size(); i++)
+                {
+                    assertTrue(history.get(i - 1).getStatus() < history.get(i).getStatus());
+                }
+            }
+        }
+        finally
+        {
+            running.set(false);
+            writer.join();
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package test.com.csitte.activity;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import com.csitte.activity.ActivityImpl;
+import com.csitte.activity.StatusPublisher;
+import com.csitte.activity.StatusPublisher.Subscription;
+
+@SuppressWarnings("PMD")
+public class StatusPublisherTest
+{
+    /** Records the signals */
+    static class Recorder<T> implements StatusPublisher.Subscriber<T>
+    {
+        final List<T> values = new CopyOnWriteArrayList<>();
+        volatile Subscription subscription;
+        volatile Throwable error;
+        volatile boolean completed;
+        final long initialRequest;
+
+        Recorder(final long initialRequest)
+        {
+            this.initialRequest = initialRequest;
+        }
+
+        @Override
+        public void onSubscribe(final Subscription subscription)
+        {
+            this.subscription = subscription;
+            if (initialRequest > 0)
+            {
+                subscription.request(initialRequest);
+            }
+        }
+
+        @Override
+        public void onNext(final T status)
+        {
+            values.add(status);
+        }
+
+        @Override
+        public void onError(final Throwable throwable)
+        {
+            error = throwable;
+        }
+
+        @Override
+        public void onComplete()
+        {
+            completed = true;
+        }
+    }
+
+    @Test
+    void testDemandAndConflation()
+    {
+        final StatusPublisher<Integer> publisher = new StatusPublisher<>(Runnable::run);
+        final Recorder<Integer> recorder = new Recorder<>(0);
+        publisher.subscribe(recorder);
+        assertNotNull(recorder.subscription);
+
+        publisher.submit(1);
+        publisher.submit(2);
+        publisher.submit(3);
+        assertTrue(recorder.values.isEmpty());
+
+        recorder.subscription.request(1);
+        assertEquals(Arrays.asList(3), recorder.values);
+
+        publisher.submit(4);
+        publisher.submit(5);
+        recorder.subscription.request(2);
+        assertEquals(Arrays.asList(3, 5), recorder.values);
+
+        publisher.submit(6);
+        assertEquals(Arrays.asList(3, 5, 6), recorder.values);
+        publisher.submit(7);
+        assertEquals(Arrays.asList(3, 5, 6), recorder.values);
+    }
+
+    @Test
+    void testLatestOnSubscribe()
+    {
+        final StatusPublisher<String> publisher = new StatusPublisher<>(Runnable::run);
+        publisher.submit("a");
+        publisher.submit("b");
+        final Recorder<String> recorder = new Recorder<>(10);
+        publisher.subscribe(recorder);
+        assertEquals(Arrays.asList("b"), recorder.values);
+        assertEquals(1, publisher.getSubscriberCount());
+    }
+
+    @Test
+    void testClose()
+    {
+        final StatusPublisher<String> publisher = new StatusPublisher<>(Runnable::run);
+        final Recorder<String> slow = new Recorder<>(0);
+        final Recorder<String> fast = new Recorder<>(10);
+        publisher.subscribe(slow);
+        publisher.subscribe(fast);
+        publisher.submit("a");
+        publisher.close();
+        assertTrue(fast.completed);
+        assertEquals(Arrays.asList("a"), fast.values);
+        assertTrue(slow.completed); // without demand: completed, the pending status is dropped
+        assertTrue(slow.values.isEmpty());
+        assertEquals(0, publisher.getSubscriberCount());
+        assertThrows(IllegalStateException.class, () -> publisher.submit("b"));
+
+        final Recorder<String> late = new Recorder<>(1);
+        publisher.subscribe(late);
+        assertEquals(Arrays.asList("a"), late.values);
+        assertTrue(late.completed);
+    }
+
+    @Test
+    void testCancel()
+    {
+        final StatusPublisher<String> publisher = new StatusPublisher<>(Runnable::run);
+        final Recorder<String> recorder = new Recorder<>(10);
+        publisher.subscribe(recorder);
+        publisher.submit("a");
+        recorder.subscription.cancel();
+        publisher.submit("b");
+        assertEquals(Arrays.asList("a"), recorder.values);
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    void testErrors()
+    {
+        final StatusPublisher<String> publisher = new StatusPublisher<>(Runnable::run);
+        final Recorder<String> recorder = new Recorder<>(0);
+        publisher.subscribe(recorder);
+        recorder.subscription.request(0);
+        assertTrue(recorder.error instanceof IllegalArgumentException);
+        assertEquals(0, publisher.getSubscriberCount());
+
+        final Recorder<String> failing = new Recorder<String>(10)
+        {
+            @Override
+            public void onNext(final String status)
+            {
+                throw new IllegalStateException(status);
+            }
+        };
+        publisher.subscribe(failing);
+        publisher.submit("x");
+        assertTrue(failing.error instanceof IllegalStateException);
+        assertEquals(0, publisher.getSubscriberCount());
+    }
+
+    @Test
+    void testRejectedExecution()
+    {
+        final AtomicBoolean reject = new AtomicBoolean();
+        final StatusPublisher<String> publisher = new StatusPublisher<>(task ->
+        {
+            if (reject.get())
+            {
+                throw new RejectedExecutionException("shut down");
+            }
+            task.run();
+        });
+        final Recorder<String> recorder = new Recorder<>(10);
+        publisher.subscribe(recorder);
+        reject.set(true);
+        publisher.submit("a"); // does not throw
+        assertTrue(recorder.error instanceof RejectedExecutionException);
+        assertEquals(0, publisher.getSubscriberCount());
+        publisher.submit("b");
+        assertTrue(recorder.values.isEmpty());
+    }
+
+    @Test
+    void testActivitySubscription() throws Exception
+    {
+        final ActivityImpl<Integer> activity = new ActivityImpl<>();
+        activity.startActivity();
+        activity.updateStatus(0);
+        final CountDownLatch last = new CountDownLatch(1);
+        final Recorder<Integer> recorder = new Recorder<Integer>(Long.MAX_VALUE)
+        {
+            @Override
+            public void onNext(final Integer status)
+            {
+                super.onNext(status);
+                if (status == 1000)
+                {
+                    last.countDown();
+                }
+            }
+        };
+        activity.subscribe(recorder);
+        for (int i = 1; i <= 1000; i++)
+        {
+            activity.updateStatus(i);
+        }
+        assertTrue(last.await(5, TimeUnit.SECONDS));
+        final List<Integer> values = recorder.values;
+        for (int i = 1; i < values.size(); i++)
+        {
+            assertTrue(values.get(i - 1) < values.get(i));
+        }
+        assertEquals(1000, values.get(values.size() - 1));
+
+        //- completed when the activity ends
+        activity.close();
+        final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!recorder.completed && System.nanoTime() < deadline)
+        {
+            Thread.sleep(1);
+        }
+        assertTrue(recorder.completed);
+        assertEquals(1000, values.get(values.size() - 1));
+    }
+}
@@ -0,0 +1,191 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.jupiter.api.Test;
+
+import com.csitte.autocloseablelock.AdmissionControlledCloseableLock;
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.LockException;
+import com.csitte.autocloseablelock.LockNotAcquiredException;
+import com.csitte.autocloseablelock.LockRejectedException;
+
+
+/**
+ * Tests for AdmissionControlledCloseableLock class
+ */
+@SuppressWarnings("PMD")
+public class AdmissionControlledCloseableLockTest
+{
+    private static final Duration SEC10 = Duration.ofSeconds(10);
+
+    /** @return exception thrown by tryLock in another thread; null if acquired */
+    private static LockException tryLockInThread(AdmissionControlledCloseableLock lock, Duration timeout)
+        throws InterruptedException
+    {
+        AtomicReference<LockException> exception = new AtomicReference<>();
+        Thread thread = new Thread(() -> {
+            try (AutoCloseableLock acl = lock.tryLock(timeout))
+            {
+                assert acl != null; // ignored on runtime
+            }
+            catch (LockException x)
+            {
+                exception.set(x);
+            }
+        });
+        thread.start();
+        thread.join();
+        return exception.get();
+    }
+
+    @Test
+    public void testMaxQueueLength() throws InterruptedException
+    {
+        AdmissionControlledCloseableLock lock = new AdmissionControlledCloseableLock(2);
+        List<Thread> waiting = new ArrayList<>();
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            for (int i = 0; i < 2; i++)
+            {
+                Thread thread = new Thread(() -> {
+                    try (AutoCloseableLock acl2 = lock.lock())
+                    {
+                        assert acl2 != null; // ignored on runtime
+                    }
+                });
+                thread.start();
+                waiting.add(thread);
+            }
+            while (lock.getQueueLength() < 2)
+            {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+            long start = System.nanoTime();
+            LockException rejected = tryLockInThread(lock, SEC10);
+            assertTrue(System.nanoTime() - start < TimeUnit.SECONDS.toNanos(5)); // no wait
+            assertTrue(rejected instanceof LockRejectedException);
+            assertEquals(0, rejected.getStackTrace().length);
+            assertSame(rejected, tryLockInThread(lock, SEC10)); // preallocated
+            assertEquals(2, lock.getRejectedCount());
+        }
+        for (Thread thread : waiting)
+        {
+            thread.join();
+        }
+        assertEquals(0, lock.getQueueLength());
+        assertEquals(null, tryLockInThread(lock, SEC10));
+    }
+
+    @Test
+    public void testEstimatedWait() throws InterruptedException
+    {
+        AdmissionControlledCloseableLock lock = new AdmissionControlledCloseableLock(new ReentrantLock(), 10, Duration.ofSeconds(5));
+        for (int i = 0; i < 8; i++)
+        {
+            try (AutoCloseableLock acl = lock.lock())
+            {
+                TimeUnit.MILLISECONDS.sleep(50);
+            }
+        }
+        assertTrue(lock.getAverageHoldTime().toMillis() >= 20, lock.getAverageHoldTime().toString());
+
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            //- owner is expected to hold the lock for more than 1 ms
+            assertTrue(tryLockInThread(lock, Duration.ofMillis(1)) instanceof LockRejectedException);
+            //- a try without wait is not load shedding
+            assertTrue(tryLockInThread(lock, Duration.ZERO) instanceof LockNotAcquiredException);
+            //- reentrant request is always admitted
+            try (AutoCloseableLock acl2 = lock.tryLock(Duration.ZERO))
+            {
+                assert acl2 != null; // ignored on runtime
+            }
+        }
+        assertEquals(1, lock.getRejectedCount());
+    }
+
+    @Test
+    public void testAdmittedRequestWaits() throws InterruptedException
+    {
+        AdmissionControlledCloseableLock lock = new AdmissionControlledCloseableLock(1);
+        AtomicReference<LockException> exception = new AtomicReference<>(new LockException("not run"));
+        Thread thread;
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            thread = new Thread(() -> exception.set(tryLock(lock)));
+            thread.start();
+            TimeUnit.MILLISECONDS.sleep(50);
+        }
+        thread.join();
+        assertEquals(null, exception.get());
+    }
+
+    @Test
+    public void testConditionWait() throws InterruptedException
+    {
+        ReentrantLock reentrantLock = new ReentrantLock();
+        AdmissionControlledCloseableLock lock = new AdmissionControlledCloseableLock(reentrantLock, 10,
+                                                                                     Duration.ofSeconds(Long.MAX_VALUE));
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            TimeUnit.MILLISECONDS.sleep(50); // average hold time > 5 ms
+        }
+        AtomicReference<LockException> exception = new AtomicReference<>(new LockException("not run"));
+        AtomicBoolean testing = new AtomicBoolean();
+        AtomicBoolean done = new AtomicBoolean();
+        Thread thread = new Thread(() ->
+        {
+            while (!testing.get())
+            {
+                Thread.yield(); // until the owner tests the condition
+            }
+            while (reentrantLock.isLocked())
+            {
+                Thread.yield(); // until the owner waits for the condition
+            }
+            exception.set(tryLock(lock, Duration.ofMillis(5))); // the lock is not held: admitted
+            done.set(true);
+            lock.signalAll();
+        });
+        thread.start();
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            assertTrue(lock.waitForCondition(() ->
+            {
+                testing.set(true);
+                return done.get();
+            }, SEC10));
+        }
+        thread.join();
+        assertEquals(null, exception.get());
+        assertEquals(0, lock.getRejectedCount());
+    }
+
+    private static LockException tryLock(AdmissionControlledCloseableLock lock)
+    {
+        return tryLock(lock, SEC10);
+    }
+
+    private static LockException tryLock(AdmissionControlledCloseableLock lock, Duration timeout)
+    {
+        try (AutoCloseableLock acl = lock.tryLock(timeout))
+        {
+            return null;
+        }
+        catch (LockException x)
+        {
+            return x;
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.BiasedLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.LockException;
+
+
+/**
+ * Tests for BiasedLock class
+ */
+@SuppressWarnings("PMD")
+public class BiasedLockTest
+{
+    @Test
+    public void testBiasAndRevocation() throws InterruptedException
+    {
+        BiasedLock biasedLock = new BiasedLock();
+        CloseableLock lock = new CloseableLock(biasedLock);
+        assertNull(biasedLock.getBiasOwner());
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            assertSame(Thread.currentThread(), biasedLock.getBiasOwner());
+        }
+        assertFalse(biasedLock.isRevoked());
+
+        //- other thread revokes the bias
+        Thread thread = new Thread(() -> {
+            try (AutoCloseableLock acl = lock.lock())
+            {
+                assertTrue(biasedLock.isRevoked());
+            }
+        });
+        thread.start();
+        thread.join();
+        assertTrue(biasedLock.isRevoked());
+
+        //- bias owner restores bias when uncontended
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            assertSame(Thread.currentThread(), biasedLock.getBiasOwner());
+        }
+        assertFalse(biasedLock.isRevoked());
+    }
+
+    @Test
+    public void testRevocationWaitsForBiasOwner() throws InterruptedException
+    {
+        CloseableLock lock = new CloseableLock(new BiasedLock());
+        AtomicBoolean acquired = new AtomicBoolean();
+        CountDownLatch started = new CountDownLatch(1);
+        Thread thread;
+        try (AutoCloseableLock acl = lock.lock()) // biased
+        {
+            thread = new Thread(() -> {
+                started.countDown();
+                try (AutoCloseableLock acl2 = lock.lock())
+                {
+                    acquired.set(true);
+                }
+            });
+            thread.start();
+            started.await();
+            Thread.sleep(100);
+            assertFalse(acquired.get());
+        }
+        thread.join();
+        assertTrue(acquired.get());
+    }
+
+    @Test
+    public void testTryLockDuringBias() throws InterruptedException
+    {
+        CloseableLock lock = new CloseableLock(new BiasedLock());
+        AtomicBoolean timeout = new AtomicBoolean();
+        try (AutoCloseableLock acl = lock.lock()) // biased
+        {
+            Thread thread = new Thread(() -> {
+                try (AutoCloseableLock acl2 = lock.tryLock(Duration.ofMillis(50)))
+                {
+                    // not expected
+                }
+                catch (LockException x)
+                {
+                    timeout.set(true);
+                }
+            });
+            thread.start();
+            thread.join();
+        }
+        assertTrue(timeout.get());
+        try (AutoCloseableLock acl = lock.tryLock(Duration.ofSeconds(10)))
+        {
+            // still usable
+        }
+    }
+
+    @Test
+    public void testConditionWhileBiased() throws InterruptedException
+    {
+        CloseableLock lock = new CloseableLock(new BiasedLock());
+        int[] value = new int[1];
+        Thread thread = new Thread(() -> {
+            for (int i = 0; i < 10; i++)
+            {
+                try (AutoCloseableLock acl = lock.lock())
+                {
+                    value[0]++;
+                }
+                lock.signalAll();
+            }
+        });
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            thread.start();
+            assertTrue(lock.waitForCondition(() -> value[0] == 10, Duration.ofSeconds(10)));
+        }
+        thread.join();
+        assertEquals(10, value[0]);
+    }
+}
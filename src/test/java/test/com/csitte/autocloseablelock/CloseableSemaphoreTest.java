@@ -0,0 +1,184 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.csitte.autocloseablelock.AutoCloseablePermits;
+import com.csitte.autocloseablelock.CloseableSemaphore;
+import com.csitte.autocloseablelock.LockException;
+import com.csitte.autocloseablelock.LockTimeoutException;
+
+
+/**
+ * Tests for CloseableSemaphore class
+ */
+@SuppressWarnings("PMD")
+public class CloseableSemaphoreTest
+{
+    @Test
+    public void testWeightedPermits()
+    {
+        CloseableSemaphore semaphore = new CloseableSemaphore(5);
+        try (AutoCloseablePermits permits = semaphore.acquire(3))
+        {
+            assertEquals(3, permits.getPermits());
+            assertEquals(2, semaphore.availablePermits());
+            try (AutoCloseablePermits permit = semaphore.acquire())
+            {
+                assertEquals(1, semaphore.availablePermits());
+            }
+            assertThrows(LockException.class, () -> semaphore.tryAcquire(3, Duration.ZERO));
+        }
+        assertEquals(5, semaphore.availablePermits());
+        assertThrows(IllegalArgumentException.class, () -> semaphore.acquire(0));
+    }
+
+    @Test
+    public void testReleaseOnException()
+    {
+        CloseableSemaphore semaphore = new CloseableSemaphore(4);
+        assertThrows(IllegalStateException.class, () -> {
+            try (AutoCloseablePermits permits = semaphore.tryAcquire(4, null))
+            {
+                throw new IllegalStateException("job failed");
+            }
+        });
+        assertEquals(4, semaphore.availablePermits());
+    }
+
+    @Test
+    public void testHandlesAreCached()
+    {
+        CloseableSemaphore semaphore = new CloseableSemaphore(100);
+        AutoCloseablePermits first = semaphore.acquire(2);
+        first.close();
+        AutoCloseablePermits second = semaphore.tryAcquire(2, Duration.ofSeconds(1));
+        second.close();
+        assertSame(first, second);
+        try (AutoCloseablePermits permits = semaphore.acquire(100))
+        {
+            assertEquals(100, permits.getPermits());
+        }
+        assertEquals(100, semaphore.availablePermits());
+    }
+
+    @Test
+    public void testRepeatedClose()
+    {
+        CloseableSemaphore semaphore = new CloseableSemaphore(4);
+        AutoCloseablePermits permits = semaphore.acquire(2);
+        permits.close();
+        permits.close(); // no effect
+        assertEquals(4, semaphore.availablePermits());
+
+        //- each acquisition has its own handle: the repeated close does not release the other acquisition
+        AutoCloseablePermits first = semaphore.acquire(1);
+        AutoCloseablePermits second = semaphore.acquire(1);
+        assertNotSame(first, second);
+        first.close();
+        first.close();
+        assertEquals(3, semaphore.availablePermits());
+        second.close();
+        assertEquals(4, semaphore.availablePermits());
+    }
+
+    @Test
+    public void testCloseByOtherThread() throws InterruptedException
+    {
+        CloseableSemaphore semaphore = new CloseableSemaphore(4);
+        AutoCloseablePermits permits = semaphore.acquire(2);
+        Thread thread = new Thread(() ->
+        {
+            permits.close(); // released by another thread: not pooled
+            try (AutoCloseablePermits other = semaphore.acquire(2))
+            {
+                assertNotSame(permits, other); // pooled per thread
+            }
+        });
+        thread.start();
+        thread.join();
+        assertEquals(4, semaphore.availablePermits());
+        try (AutoCloseablePermits again = semaphore.acquire(2))
+        {
+            assertNotSame(permits, again);
+            permits.close(); // stale handle: no effect
+            assertEquals(2, semaphore.availablePermits());
+        }
+        assertEquals(4, semaphore.availablePermits());
+    }
+
+    @Test
+    public void testTimeout() throws InterruptedException
+    {
+        CloseableSemaphore semaphore = new CloseableSemaphore(2);
+        AtomicReference<Exception> exception = new AtomicReference<>();
+        try (AutoCloseablePermits permits = semaphore.acquire(2))
+        {
+            Thread thread = new Thread(() -> {
+                try (AutoCloseablePermits permit = semaphore.tryAcquire(1, Duration.ofMillis(50)))
+                {
+                    // not reached
+                }
+                catch (LockException x)
+                {
+                    exception.set(x);
+                }
+            });
+            thread.start();
+            thread.join();
+        }
+        assertTrue(exception.get() instanceof LockTimeoutException);
+        assertEquals(2, semaphore.availablePermits());
+    }
+
+    @Test
+    public void testFairMode() throws InterruptedException
+    {
+        CloseableSemaphore semaphore = new CloseableSemaphore(2, true);
+        assertTrue(semaphore.isFair());
+        Thread waiter;
+        try (AutoCloseablePermits permit = semaphore.acquire())
+        {
+            //- waiter for 2 permits is queued; 1 permit is still available
+            waiter = new Thread(() -> {
+                try (AutoCloseablePermits permits = semaphore.acquire(2))
+                {
+                    assertEquals(2, permits.getPermits());
+                }
+            });
+            waiter.start();
+            while (waiter.getState() != Thread.State.WAITING)
+            {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+            //- FIFO: no barging past the queued waiter
+            assertThrows(LockException.class, () -> semaphore.tryAcquire(1, Duration.ZERO));
+            assertEquals(1, semaphore.availablePermits());
+        }
+        waiter.join();
+        assertEquals(2, semaphore.availablePermits());
+
+        //- non-fair mode: barging
+        CloseableSemaphore barging = new CloseableSemaphore(2);
+        assertFalse(barging.isFair());
+    }
+
+    @Test
+    public void testAcquireInterruptibly()
+    {
+        CloseableSemaphore semaphore = new CloseableSemaphore(0);
+        Thread.currentThread().interrupt();
+        assertThrows(LockException.class, () -> semaphore.acquireInterruptibly(1));
+        assertTrue(Thread.interrupted());
+    }
+}
@@ -0,0 +1,182 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.ClusterMapper;
+import com.csitte.autocloseablelock.CohortLock;
+
+
+/**
+ * Tests for CohortLock class; clusters are simulated by thread groups
+ */
+@SuppressWarnings("PMD")
+public class CohortLockTest
+{
+    private final ThreadGroup socket0 = new ThreadGroup("socket0");
+    private final ThreadGroup socket1 = new ThreadGroup("socket1");
+
+    @Test
+    public void testClusterMapper() throws InterruptedException
+    {
+        ClusterMapper mapper = ClusterMapper.byThreadGroup(socket0, socket1);
+        ThreadGroup pool = new ThreadGroup(socket1, "pool");
+        int[] cluster = new int[1];
+        Thread thread = new Thread(pool, () -> cluster[0] = mapper.getCluster(Thread.currentThread()));
+        thread.start();
+        thread.join();
+        assertEquals(1, cluster[0]);
+        assertEquals(0, mapper.getCluster(Thread.currentThread())); // not in any group
+    }
+
+    @Test
+    public void testInvalidArguments()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new CohortLock(0, thread -> 0));
+        assertThrows(IllegalArgumentException.class, () -> new CohortLock(1, null));
+        assertThrows(IllegalArgumentException.class, () -> new CohortLock(1, thread -> 0, -1));
+    }
+
+    @Test
+    public void testMutualExclusion() throws InterruptedException
+    {
+        CohortLock cohortLock = new CohortLock(2, ClusterMapper.byThreadGroup(socket0, socket1));
+        CloseableLock lock = new CloseableLock(cohortLock);
+        int[] counter = new int[1];
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++)
+        {
+            threads.add(new Thread(t % 2 == 0 ? socket0 : socket1, () -> {
+                for (int i = 0; i < 20_000; i++)
+                {
+                    try (AutoCloseableLock acl = lock.lock())
+                    {
+                        counter[0]++;
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals(8 * 20_000, counter[0]);
+        assertEquals(8 * 20_000, cohortLock.getLocalHandoffCount() + cohortLock.getGlobalAcquireCount());
+    }
+
+    @Test
+    public void testLocalHandoffPreferred() throws InterruptedException
+    {
+        //- waiter of the same cluster gets the lock before the waiter of the other cluster
+        assertEquals(Arrays.asList("local", "remote"), handoffOrder(CohortLock.DEFAULT_MAX_LOCAL_HANDOFFS));
+    }
+
+    @Test
+    public void testFairnessBound() throws InterruptedException
+    {
+        //- no local handoff allowed: the global lock goes to the other cluster
+        assertEquals(Arrays.asList("remote", "local"), handoffOrder(0));
+    }
+
+    private List<String> handoffOrder(int maxLocalHandoffs) throws InterruptedException
+    {
+        CohortLock cohortLock = new CohortLock(2, ClusterMapper.byThreadGroup(socket0, socket1), maxLocalHandoffs);
+        CloseableLock lock = new CloseableLock(cohortLock);
+        List<String> order = Collections.synchronizedList(new ArrayList<>());
+        Thread local = new Thread(socket0, () -> {
+            try (AutoCloseableLock acl = lock.lock())
+            {
+                order.add("local");
+            }
+        });
+        Thread remote = new Thread(socket1, () -> {
+            try (AutoCloseableLock acl = lock.lock())
+            {
+                order.add("remote");
+            }
+        });
+        Thread holder = new Thread(socket0, () -> {
+            try (AutoCloseableLock acl = lock.lock())
+            {
+                remote.start();
+                awaitBlocked(remote);
+                local.start();
+                awaitBlocked(local);
+            }
+        });
+        holder.start();
+        holder.join();
+        local.join();
+        remote.join();
+        return order;
+    }
+
+    private static void awaitBlocked(Thread thread)
+    {
+        while (thread.getState() != Thread.State.WAITING)
+        {
+            try
+            {
+                TimeUnit.MILLISECONDS.sleep(1);
+            }
+            catch (InterruptedException x)
+            {
+                Thread.currentThread().interrupt();
+                return;
+            }
+        }
+    }
+
+    @Test
+    public void testTryLockAcrossClusters() throws InterruptedException
+    {
+        CohortLock cohortLock = new CohortLock(2, ClusterMapper.byThreadGroup(socket0, socket1));
+        boolean[] acquired = new boolean[2];
+        cohortLock.lock();
+        try
+        {
+            Thread remote = new Thread(socket1, () -> {
+                acquired[0] = cohortLock.tryLock();
+                try
+                {
+                    acquired[1] = cohortLock.tryLock(50, TimeUnit.MILLISECONDS);
+                }
+                catch (InterruptedException x)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            remote.start();
+            remote.join();
+        }
+        finally
+        {
+            cohortLock.unlock();
+        }
+        assertEquals(false, acquired[0]);
+        assertEquals(false, acquired[1]);
+        //- global lock has been released: a thread of the other cluster gets it
+        Thread remote = new Thread(socket1, () -> {
+            acquired[0] = cohortLock.tryLock();
+            if (acquired[0])
+            {
+                cohortLock.unlock();
+            }
+        });
+        remote.start();
+        remote.join();
+        assertTrue(acquired[0]);
+    }
+}
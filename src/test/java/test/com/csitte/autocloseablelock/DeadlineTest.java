@@ -0,0 +1,144 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.jupiter.api.Test;
+
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.AutoCloseableWriteLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.CloseableReadWriteLock;
+import com.csitte.autocloseablelock.Deadline;
+import com.csitte.autocloseablelock.LockCondition;
+import com.csitte.autocloseablelock.LockTimeoutException;
+
+
+/**
+ * Tests for Deadline class and the deadline variants of the locks
+ */
+@SuppressWarnings("PMD")
+public class DeadlineTest
+{
+    @Test
+    public void testDeadline()
+    {
+        Deadline deadline = Deadline.after(Duration.ofSeconds(10));
+        assertFalse(deadline.isExpired());
+        assertFalse(deadline.isInfinite());
+        assertTrue(deadline.remainingNanos() > 0 && deadline.remainingNanos() <= TimeUnit.SECONDS.toNanos(10));
+        assertTrue(Deadline.after(Duration.ZERO).isExpired());
+        assertTrue(Deadline.after(Duration.ofSeconds(-1)).isExpired());
+        assertEquals(Duration.ZERO, Deadline.afterNanos(-5).remaining());
+        assertTrue(Deadline.after(Duration.ofSeconds(Long.MAX_VALUE)).isInfinite());
+        assertTrue(Deadline.after(null).isInfinite()); // null means: no timeout, like everywhere else
+        assertFalse(Deadline.NONE.isExpired());
+        assertEquals(Long.MAX_VALUE, Deadline.NONE.remainingNanos());
+    }
+
+    /** hold the locks in another thread until released */
+    private static Thread holdLocks(CountDownLatch locked, CountDownLatch release, CloseableLock... locks)
+    {
+        Thread thread = new Thread(() -> {
+            for (CloseableLock lock : locks)
+            {
+                lock.lock();
+            }
+            locked.countDown();
+            try
+            {
+                release.await();
+            }
+            catch (InterruptedException x)
+            {
+                Thread.currentThread().interrupt();
+            }
+            for (CloseableLock lock : locks)
+            {
+                lock.close();
+            }
+        });
+        thread.start();
+        return thread;
+    }
+
+    @Test
+    public void testBudgetAcrossLocks() throws InterruptedException
+    {
+        CloseableLock lock1 = new CloseableLock();
+        CloseableLock lock2 = new CloseableLock();
+        CountDownLatch locked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Thread holder = holdLocks(locked, release, lock1, lock2);
+        locked.await();
+        try
+        {
+            long start = System.nanoTime();
+            Deadline deadline = Deadline.after(Duration.ofMillis(200));
+            assertThrows(LockTimeoutException.class, () -> lock1.tryLockUntil(deadline));
+            assertThrows(LockTimeoutException.class, () -> lock2.tryLockUntil(deadline)); // budget used up
+            long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start);
+            assertTrue(elapsedMillis >= 200 && elapsedMillis < 390, "elapsed " + elapsedMillis);
+            assertThrows(LockTimeoutException.class, () -> lock2.tryLockUntil(Deadline.after(Duration.ZERO)));
+        }
+        finally
+        {
+            release.countDown();
+            holder.join();
+        }
+        try (AutoCloseableLock acl1 = lock1.tryLockUntil(Deadline.after(Duration.ofSeconds(10)));
+             AutoCloseableLock acl2 = lock2.tryLockUntil(Deadline.NONE))
+        {
+            assert acl1 != null && acl2 != null; // ignored on runtime
+        }
+        try (AutoCloseableLock acl = lock1.tryLockUntil(null)) // null: no timeout
+        {
+            assert acl != null; // ignored on runtime
+        }
+    }
+
+    @Test
+    public void testWaitForCondition()
+    {
+        CloseableLock lock = new CloseableLock();
+        Deadline deadline = Deadline.after(Duration.ofMillis(100));
+        long start = System.nanoTime();
+        assertFalse(lock.waitForConditionUntil(() -> false, deadline));
+        assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(100));
+        assertFalse(lock.waitForConditionUntil(() -> false, deadline)); // expired
+        assertTrue(lock.waitForConditionUntil(() -> true, deadline));
+
+        LockCondition<Integer> counter = new LockCondition<>(lock, 0);
+        Thread thread = new Thread(() -> {
+            lock.wait(Duration.ofMillis(50));
+            counter.setState(3);
+        });
+        thread.start();
+        assertTrue(counter.waitForStateUntil(value -> value == 3, Deadline.after(Duration.ofSeconds(10))));
+        assertFalse(counter.waitForState(value -> value == 4, Duration.ofMillis(50)));
+    }
+
+    @Test
+    public void testReadWriteLock() throws InterruptedException
+    {
+        CloseableReadWriteLock lock = new CloseableReadWriteLock();
+        Deadline deadline = Deadline.after(Duration.ofMillis(100));
+        try (AutoCloseableLock readLock = lock.tryReadLockUntil(deadline))
+        {
+            Thread thread = new Thread(() ->
+                assertThrows(LockTimeoutException.class, () -> lock.tryWriteLockUntil(deadline)));
+            thread.start();
+            thread.join();
+        }
+        try (AutoCloseableWriteLock writeLock = lock.tryWriteLockUntil(Deadline.after(Duration.ofSeconds(10))))
+        {
+            assertFalse(writeLock.waitForConditionUntil(() -> false, deadline));
+        }
+    }
+}
@@ -0,0 +1,112 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.jupiter.api.Test;
+
+import com.csitte.autocloseablelock.Deadline;
+import com.csitte.autocloseablelock.EventCount;
+import com.csitte.autocloseablelock.LockException;
+
+
+/**
+ * Tests for EventCount class
+ */
+@SuppressWarnings("PMD")
+public class EventCountTest
+{
+    private static final Duration SEC10 = Duration.ofSeconds(10);
+
+    @Test
+    public void testEpoch()
+    {
+        EventCount eventCount = new EventCount();
+        eventCount.signalAll(); // no waiters: epoch unchanged
+        long epoch = eventCount.prepareWait();
+        assertEquals(1, eventCount.getWaiterCount());
+        eventCount.cancelWait();
+        assertEquals(0, eventCount.getWaiterCount());
+        assertEquals(epoch, eventCount.prepareWait());
+        eventCount.signalAll();
+        assertTrue(eventCount.await(epoch, SEC10)); // epoch has changed
+        assertEquals(0, eventCount.getWaiterCount());
+        assertEquals(epoch + 1, eventCount.prepareWait());
+        assertFalse(eventCount.awaitUntil(epoch + 1, Deadline.after(Duration.ofMillis(20)))); // timeout
+        assertEquals(0, eventCount.getWaiterCount());
+    }
+
+    @Test
+    public void testProducerConsumer() throws InterruptedException
+    {
+        EventCount eventCount = new EventCount();
+        Queue<Integer> queue = new ConcurrentLinkedQueue<>();
+        int items = 10_000;
+        AtomicInteger consumed = new AtomicInteger();
+        List<Thread> consumers = new ArrayList<>();
+        for (int c = 0; c < 3; c++)
+        {
+            consumers.add(new Thread(() -> {
+                while (consumed.get() < items)
+                {
+                    if (queue.poll() != null)
+                    {
+                        consumed.incrementAndGet();
+                    }
+                    else
+                    {
+                        eventCount.waitForCondition(() -> !queue.isEmpty() || consumed.get() >= items, SEC10);
+                    }
+                }
+            }));
+        }
+        consumers.forEach(Thread::start);
+        for (int i = 0; i < items; i++)
+        {
+            queue.offer(i);
+            eventCount.signalAll();
+        }
+        while (consumed.get() < items)
+        {
+            Thread.sleep(1);
+        }
+        eventCount.signalAll(); // wake consumers to see the end
+        for (Thread consumer : consumers)
+        {
+            consumer.join(SEC10.toMillis());
+            assertFalse(consumer.isAlive());
+        }
+        assertEquals(items, consumed.get());
+        assertEquals(0, eventCount.getWaiterCount());
+    }
+
+    @Test
+    public void testWaitForConditionTimeout()
+    {
+        EventCount eventCount = new EventCount();
+        long start = System.nanoTime();
+        assertFalse(eventCount.waitForCondition(() -> false, Duration.ofMillis(50)));
+        assertTrue(System.nanoTime() - start >= Duration.ofMillis(50).toNanos());
+        assertTrue(eventCount.waitForCondition(() -> true, Duration.ofMillis(50)));
+    }
+
+    @Test
+    public void testInterrupt()
+    {
+        EventCount eventCount = new EventCount();
+        long epoch = eventCount.prepareWait();
+        Thread.currentThread().interrupt();
+        assertThrows(LockException.class, () -> eventCount.await(epoch, SEC10));
+        assertTrue(Thread.interrupted());
+        assertEquals(0, eventCount.getWaiterCount());
+    }
+}
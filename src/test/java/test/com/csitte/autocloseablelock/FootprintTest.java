@@ -0,0 +1,76 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.function.Supplier;
+
+import org.apache.logging.log4j.LogManager;
+import org.apache.logging.log4j.Logger;
+import org.junit.jupiter.api.Test;
+import org.openjdk.jol.info.GraphLayout;
+
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.ClhLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.CloseableReadWriteLock;
+import com.csitte.autocloseablelock.CompactLock;
+import com.csitte.autocloseablelock.McsLock;
+
+
+/**
+ * Footprint report (retained size per instance) of the lock variants
+ */
+@SuppressWarnings("PMD")
+public class FootprintTest
+{
+    private static final Logger LOG = LogManager.getLogger(FootprintTest.class);
+
+    private static long sizeOf(Object object)
+    {
+        return GraphLayout.parseInstance(object).totalSize();
+    }
+
+    @Test
+    public void testFootprintReport()
+    {
+        Map<String, Supplier<Object>> variants = new LinkedHashMap<>();
+        variants.put("CloseableLock(ReentrantLock)", CloseableLock::new);
+        variants.put("CloseableLock(CompactLock)", () -> new CloseableLock(new CompactLock()));
+        variants.put("CloseableLock(McsLock)", () -> new CloseableLock(new McsLock()));
+        variants.put("CloseableLock(ClhLock)", () -> new CloseableLock(new ClhLock()));
+        variants.put("CloseableReadWriteLock", CloseableReadWriteLock::new);
+
+        StringBuilder report = new StringBuilder("Footprint per instance (bytes):");
+        for (Map.Entry<String, Supplier<Object>> variant : variants.entrySet())
+        {
+            report.append(String.format("%n  %-30s %6d", variant.getKey(), sizeOf(variant.getValue().get())));
+        }
+        LOG.info(report);
+
+        assertTrue(sizeOf(new CloseableLock(new CompactLock())) < sizeOf(new CloseableLock()));
+    }
+
+    @Test
+    public void testInflation()
+    {
+        CompactLock compactLock = new CompactLock();
+        CloseableLock lock = new CloseableLock(compactLock);
+        long size = sizeOf(compactLock);
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            assertTrue(compactLock.isLocked());
+            assertTrue(compactLock.isHeldByCurrentThread());
+        }
+        assertFalse(compactLock.isInflated()); // uncontended: no waiter queue
+        assertTrue(size == sizeOf(compactLock));
+
+        lock.signalAll(); // no condition yet
+        assertFalse(compactLock.isInflated());
+        compactLock.newCondition();
+        assertTrue(compactLock.isInflated());
+        assertTrue(size < sizeOf(compactLock));
+    }
+}
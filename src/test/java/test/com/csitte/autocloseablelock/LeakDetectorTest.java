@@ -0,0 +1,173 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.csitte.activity.ActivityImpl;
+import com.csitte.activity.CloseableActivity;
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.AutoCloseableWriteLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.CloseableReadWriteLock;
+import com.csitte.autocloseablelock.LeakDetector;
+
+
+/**
+ * Tests for LeakDetector class
+ */
+@SuppressWarnings("PMD")
+public class LeakDetectorTest
+{
+    private static final Duration THRESHOLD = Duration.ofMillis(50);
+
+    private final Logger logger = Logger.getLogger(LeakDetector.class.getName());
+
+    private final List<LogRecord> reports = Collections.synchronizedList(new ArrayList<>());
+
+    private final Handler handler = new Handler()
+    {
+        @Override
+        public void publish(LogRecord record)
+        {
+            reports.add(record);
+        }
+
+        @Override
+        public void flush()
+        {
+        }
+
+        @Override
+        public void close()
+        {
+        }
+    };
+
+    @BeforeEach
+    public void setup()
+    {
+        logger.addHandler(handler);
+        logger.setUseParentHandlers(false);
+        LeakDetector.configure(1, THRESHOLD);
+    }
+
+    @AfterEach
+    public void teardown()
+    {
+        LeakDetector.configure(0, Duration.ofSeconds(60));
+        logger.removeHandler(handler);
+        logger.setUseParentHandlers(true);
+    }
+
+    private List<String> messages(String text)
+    {
+        List<String> result = new ArrayList<>();
+        synchronized (reports)
+        {
+            for (LogRecord record : reports)
+            {
+                if (record.getMessage().contains(text))
+                {
+                    result.add(record.getMessage());
+                }
+            }
+        }
+        return result;
+    }
+
+    @Test
+    public void testInvalidArguments()
+    {
+        assertThrows(IllegalArgumentException.class, () -> LeakDetector.configure(-1, THRESHOLD));
+        assertThrows(IllegalArgumentException.class, () -> LeakDetector.configure(1, Duration.ZERO));
+    }
+
+    @Test
+    public void testHeldTooLong() throws InterruptedException
+    {
+        CloseableLock lock = new CloseableLock();
+        long reportCount = LeakDetector.getReportCount();
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            Thread.sleep(THRESHOLD.toMillis() * 4);
+        }
+        List<String> held = messages("held for");
+        assertEquals(1, held.size(), held.toString()); // reported once
+        assertTrue(held.get(0).contains(CloseableLock.class.getName()));
+        assertEquals(reportCount + 1, LeakDetector.getReportCount());
+        LogRecord record = reports.get(0);
+        assertNotNull(record.getThrown()); // acquisition site
+        assertTrue(Arrays.stream(record.getThrown().getStackTrace())
+                        .anyMatch(element -> element.getMethodName().equals("testHeldTooLong")));
+
+        Thread.sleep(THRESHOLD.toMillis() * 3); // released: no further report
+        assertEquals(1, reports.size());
+    }
+
+    @Test
+    public void testConditionWaitNotCounted()
+    {
+        CloseableLock lock = new CloseableLock();
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            lock.waitForCondition(() -> false, THRESHOLD.multipliedBy(4));
+        }
+        assertEquals(0, reports.size(), () -> messages("").toString());
+    }
+
+    @Test
+    public void testAbandoned() throws InterruptedException
+    {
+        CloseableReadWriteLock lock = new CloseableReadWriteLock();
+        Thread thread = new Thread(() -> {
+            AutoCloseableWriteLock writeLock = lock.writeLock(); // never closed
+            assertNotNull(writeLock);
+        }, "leaking-thread");
+        thread.start();
+        thread.join();
+        long deadline = System.currentTimeMillis() + 5_000;
+        while (messages("abandoned").isEmpty() && System.currentTimeMillis() < deadline)
+        {
+            Thread.sleep(10);
+        }
+        assertEquals(1, messages("abandoned by terminated thread leaking-thread").size());
+    }
+
+    @Test
+    public void testActivity() throws InterruptedException
+    {
+        ActivityImpl<String> activity = new ActivityImpl<>();
+        try (CloseableActivity closeableActivity = activity.startActivity())
+        {
+            Thread.sleep(THRESHOLD.toMillis() * 4);
+        }
+        assertEquals(1, messages(ActivityImpl.class.getName()).size());
+    }
+
+    @Test
+    public void testDisabled() throws InterruptedException
+    {
+        LeakDetector.configure(0, THRESHOLD);
+        CloseableLock lock = new CloseableLock();
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            Thread.sleep(THRESHOLD.toMillis() * 4);
+        }
+        assertEquals(0, reports.size());
+    }
+}
@@ -0,0 +1,169 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.CloseableReadWriteLock;
+import com.csitte.autocloseablelock.LockException;
+import com.csitte.autocloseablelock.LockListener;
+
+
+/**
+ * Tests for LockListener; the listener is installed by the system property in a separate
+ * surefire execution (see pom.xml), so the other tests run without a listener
+ */
+@SuppressWarnings("PMD")
+public class LockListenerTest
+{
+    /** Records the callbacks of observed locks */
+    public static class RecordingListener implements LockListener
+    {
+        static final Set<CloseableLock> observed = ConcurrentHashMap.newKeySet();
+        static final List<String> events = Collections.synchronizedList(new ArrayList<>());
+
+        private static void record(CloseableLock lock, String event)
+        {
+            if (observed.contains(lock))
+            {
+                events.add(event);
+            }
+        }
+
+        @Override
+        public void onAcquire(CloseableLock lock)
+        {
+            record(lock, "acquire");
+        }
+
+        @Override
+        public void onAcquired(CloseableLock lock)
+        {
+            record(lock, "acquired");
+        }
+
+        @Override
+        public void onRelease(CloseableLock lock)
+        {
+            record(lock, "release");
+        }
+
+        @Override
+        public void onTimeout(CloseableLock lock, Duration timeout)
+        {
+            record(lock, "timeout " + timeout.toMillis());
+        }
+
+        @Override
+        public void onWait(CloseableLock lock)
+        {
+            record(lock, "wait");
+        }
+
+        @Override
+        public void onSignal(CloseableLock lock, boolean all)
+        {
+            record(lock, all ? "signalAll" : "signal");
+        }
+    }
+
+    @BeforeAll
+    static void installed()
+    {
+        assumeTrue(RecordingListener.class.getName().equals(System.getProperty(LockListener.LISTENER_PROPERTY)),
+                   "listener not installed");
+    }
+
+    @AfterEach
+    public void tearDown()
+    {
+        RecordingListener.observed.clear();
+        RecordingListener.events.clear();
+    }
+
+    private static <T> T observe(T lock)
+    {
+        if (lock instanceof CloseableLock)
+        {
+            RecordingListener.observed.add((CloseableLock) lock);
+        }
+        return lock;
+    }
+
+    @Test
+    public void testLockAndClose()
+    {
+        CloseableLock lock = observe(new CloseableLock());
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            assert acl != null; // ignored on runtime
+        }
+        try (AutoCloseableLock acl = lock.tryLock(Duration.ofSeconds(1)))
+        {
+            assert acl != null; // ignored on runtime
+        }
+        assertEquals(Arrays.asList("acquire", "acquired", "release", "acquire", "acquired", "release"),
+                     RecordingListener.events);
+    }
+
+    @Test
+    public void testTimeout() throws InterruptedException
+    {
+        CloseableLock lock = observe(new CloseableLock());
+        Thread thread = new Thread(() -> {
+            assertThrows(LockException.class, () -> lock.tryLock(Duration.ZERO));
+            assertThrows(LockException.class, () -> lock.tryLock(Duration.ofMillis(20)));
+        });
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            RecordingListener.events.clear();
+            thread.start();
+            thread.join();
+        }
+        assertEquals(Arrays.asList("acquire", "timeout 0", "acquire", "timeout 20", "release"),
+                     RecordingListener.events);
+    }
+
+    @Test
+    public void testWaitAndSignal()
+    {
+        CloseableLock lock = observe(new CloseableLock());
+        lock.waitForCondition(() -> false, Duration.ofMillis(10));
+        lock.signal();
+        lock.signalAll();
+        assertEquals(Arrays.asList("acquire", "acquired", "wait", "release",
+                                   "acquire", "acquired", "signal", "release",
+                                   "acquire", "acquired", "signalAll", "release"),
+                     RecordingListener.events);
+    }
+
+    @Test
+    public void testReadWriteLock()
+    {
+        CloseableReadWriteLock lock = new CloseableReadWriteLock();
+        observe(lock.getReadLock());
+        try (AutoCloseableLock acl = lock.readLock())
+        {
+            assert acl != null; // ignored on runtime
+        }
+        try (AutoCloseableLock acl = lock.writeLock())
+        {
+            assert acl != null; // ignored on runtime
+        }
+        assertEquals(Arrays.asList("acquire", "acquired", "release"), RecordingListener.events);
+    }
+}
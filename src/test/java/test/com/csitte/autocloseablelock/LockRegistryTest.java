@@ -0,0 +1,225 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import javax.management.JMX;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.junit.jupiter.api.Test;
+
+import com.csitte.activity.ActivityImpl;
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.AutoCloseableWriteLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.CloseableReadWriteLock;
+import com.csitte.autocloseablelock.LockMXBean;
+import com.csitte.autocloseablelock.LockRegistry;
+import com.csitte.autocloseablelock.LockTimeoutException;
+
+@SuppressWarnings("PMD")
+public class LockRegistryTest
+{
+    private static final MBeanServer SERVER = ManagementFactory.getPlatformMBeanServer();
+
+    @Test
+    void testRegister() throws Exception
+    {
+        final CloseableLock lock = new CloseableLock("registry-test", new ReentrantLock());
+        final ObjectName objectName = LockRegistry.register(lock);
+        try
+        {
+            assertEquals(LockRegistry.objectName("registry-test"), objectName);
+            assertTrue(SERVER.isRegistered(objectName));
+            final LockMXBean bean = JMX.newMXBeanProxy(SERVER, objectName, LockMXBean.class);
+            assertEquals("registry-test", bean.getName());
+            assertEquals(0L, bean.getAcquisitionCount());
+
+            for (int i = 0; i < 10; i++)
+            {
+                try (AutoCloseableLock acl = lock.lock())
+                {
+                    assertEquals(Thread.currentThread().getName() + " (" + Thread.currentThread().getId() + ")", bean.getOwnerThread());
+                }
+            }
+            assertEquals(10L, SERVER.getAttribute(objectName, "AcquisitionCount"));
+            assertEquals("", bean.getOwnerThread());
+            assertTrue(bean.getContentionRatio() >= 0.0 && bean.getContentionRatio() <= 1.0);
+        }
+        finally
+        {
+            assertTrue(LockRegistry.unregister(lock));
+        }
+        assertFalse(SERVER.isRegistered(objectName));
+        assertFalse(LockRegistry.unregister(lock));
+    }
+
+    @Test
+    void testAcquisitionRate() throws Exception
+    {
+        final CloseableLock lock = new CloseableLock("registry-rate", new ReentrantLock());
+        final ObjectName objectName = LockRegistry.register(lock);
+        try
+        {
+            final LockMXBean bean = JMX.newMXBeanProxy(SERVER, objectName, LockMXBean.class);
+            for (int i = 0; i < 100; i++)
+            {
+                try (AutoCloseableLock acl = lock.lock())
+                {
+                    assert acl != null; // ignored on runtime
+                }
+            }
+            assertTrue(bean.getAcquisitionsPerSecond() > 0.0);
+            Thread.sleep(1100);
+            // two readers of the same window see the same rate
+            final double rate = bean.getAcquisitionsPerSecond();
+            assertTrue(rate > 0.0 && rate <= 100.0 / 1.1, String.valueOf(rate));
+            assertEquals(rate, bean.getAcquisitionsPerSecond());
+            assertEquals(rate, (Double) SERVER.getAttribute(objectName, "AcquisitionsPerSecond"));
+        }
+        finally
+        {
+            assertTrue(LockRegistry.unregister(lock));
+        }
+    }
+
+    @Test
+    void testContentionAndTimeout() throws Exception
+    {
+        final CloseableLock lock = new CloseableLock("registry-contention", new ReentrantLock());
+        final ObjectName objectName = LockRegistry.register(lock);
+        try
+        {
+            final LockMXBean bean = JMX.newMXBeanProxy(SERVER, objectName, LockMXBean.class);
+            final CountDownLatch locked = new CountDownLatch(1);
+            final CountDownLatch release = new CountDownLatch(1);
+            final Thread owner = new Thread(() ->
+            {
+                try (AutoCloseableLock acl = lock.lock())
+                {
+                    locked.countDown();
+                    release.await();
+                }
+                catch (InterruptedException x)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            owner.start();
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+            assertThrows(LockTimeoutException.class, () -> lock.tryLock(Duration.ofMillis(10)));
+            assertEquals(1L, bean.getTimeoutCount());
+            final Thread waiter = new Thread(() ->
+            {
+                try (AutoCloseableLock acl = lock.lock())
+                {
+                    // contended
+                }
+            });
+            waiter.start();
+            Thread.sleep(50);
+            release.countDown();
+            owner.join();
+            waiter.join();
+            assertEquals(2L, bean.getAcquisitionCount());
+            assertTrue(bean.getContendedCount() >= 1L);
+            assertTrue(bean.getMaxWaitNanos() >= TimeUnit.MILLISECONDS.toNanos(10));
+            bean.resetMaxWait();
+            assertEquals(0L, bean.getMaxWaitNanos());
+        }
+        finally
+        {
+            LockRegistry.unregister(lock);
+        }
+    }
+
+    @Test
+    void testReadWriteLock() throws Exception
+    {
+        final CloseableReadWriteLock lock = new CloseableReadWriteLock("registry-rw", new ReentrantReadWriteLock());
+        final ObjectName objectName = LockRegistry.register(lock);
+        try
+        {
+            final LockMXBean bean = JMX.newMXBeanProxy(SERVER, objectName, LockMXBean.class);
+            try (AutoCloseableLock read1 = lock.readLock(); AutoCloseableLock read2 = lock.readLock())
+            {
+                assertEquals(2, bean.getReadHolderCount());
+            }
+            try (AutoCloseableWriteLock write = lock.writeLock())
+            {
+                assertEquals(Thread.currentThread().getName() + " (" + Thread.currentThread().getId() + ")", bean.getOwnerThread());
+            }
+            assertEquals(3L, bean.getAcquisitionCount());
+        }
+        finally
+        {
+            assertTrue(LockRegistry.unregister(lock));
+        }
+    }
+
+    @Test
+    void testActivityLock() throws Exception
+    {
+        final ActivityImpl<String> activity = new ActivityImpl<>("registry-activity");
+        assertEquals("registry-activity", activity.getLock().getName());
+        final ObjectName objectName = LockRegistry.register(activity.getLock());
+        try
+        {
+            activity.updateStatus("running");
+            assertTrue((Long) SERVER.getAttribute(objectName, "AcquisitionCount") > 0L);
+        }
+        finally
+        {
+            LockRegistry.unregister(activity.getLock());
+        }
+    }
+
+    @Test
+    void testUnregisterOther() throws Exception
+    {
+        final CloseableLock lock = new CloseableLock("registry-other", new ReentrantLock());
+        final ObjectName objectName = LockRegistry.register(lock);
+        try
+        {
+            final CloseableLock other = new CloseableLock("registry-other", new ReentrantLock());
+            assertFalse(LockRegistry.unregister(other));
+            assertTrue(SERVER.isRegistered(objectName));
+            try (AutoCloseableLock acl = lock.lock())
+            {
+                assert acl != null; // ignored on runtime
+            }
+            assertEquals(1L, SERVER.getAttribute(objectName, "AcquisitionCount"));
+        }
+        finally
+        {
+            assertTrue(LockRegistry.unregister(lock));
+        }
+    }
+
+    @Test
+    void testInvalidRegistration()
+    {
+        assertThrows(IllegalArgumentException.class, () -> LockRegistry.register(new CloseableLock()));
+        final CloseableLock lock = new CloseableLock("registry-duplicate", new ReentrantLock());
+        LockRegistry.register(lock);
+        try
+        {
+            final CloseableLock other = new CloseableLock("registry-duplicate", new ReentrantLock());
+            assertThrows(IllegalArgumentException.class, () -> LockRegistry.register(other));
+        }
+        finally
+        {
+            LockRegistry.unregister(lock);
+        }
+    }
+}
@@ -0,0 +1,250 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.ReentrantLock;
+
+import org.junit.jupiter.api.Test;
+
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.AutoCloseableWriteLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.CloseableReadWriteLock;
+import com.csitte.autocloseablelock.CompactLock;
+import com.csitte.autocloseablelock.LockSnapshot;
+import com.csitte.autocloseablelock.LockTimeoutException;
+
+@SuppressWarnings("PMD")
+public class LockSnapshotTest
+{
+    @Test
+    void testOwner()
+    {
+        final CloseableLock lock = new CloseableLock();
+        lock.setOwnerTracking(true);
+        LockSnapshot snapshot = lock.getSnapshot();
+        assertFalse(snapshot.isOwned());
+        assertEquals(0L, snapshot.getOwnerThreadId());
+        assertEquals(0L, snapshot.getHeldNanos());
+        assertEquals(0, snapshot.getQueueLength());
+        assertEquals(0, snapshot.getReadHolderCount());
+
+        final long before = System.nanoTime();
+        try (AutoCloseableLock outer = lock.lock())
+        {
+            try (AutoCloseableLock inner = lock.lock())
+            {
+                snapshot = lock.getSnapshot();
+                assertEquals(Thread.currentThread().getId(), snapshot.getOwnerThreadId());
+                assertEquals(Thread.currentThread().getName(), snapshot.getOwnerThreadName());
+                assertTrue(snapshot.getHeldSinceNanos() - before >= 0L);
+            }
+            assertTrue(lock.getSnapshot().isOwned()); // still held (reentrant)
+        }
+        assertFalse(lock.getSnapshot().isOwned());
+    }
+
+    @Test
+    void testUntracked()
+    {
+        final CloseableLock lock = new CloseableLock();
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            assertFalse(lock.getSnapshot().isOwned()); // tracking is disabled by default
+            lock.setOwnerTracking(true);
+            assertFalse(lock.getSnapshot().isOwned()); // hold started before tracking
+        }
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            assertTrue(lock.getSnapshot().isOwned());
+            lock.setOwnerTracking(false);
+            assertFalse(lock.getSnapshot().isOwned());
+        }
+    }
+
+    @Test
+    void testQueueLength() throws Exception
+    {
+        final CloseableLock lock = new CloseableLock();
+        lock.setOwnerTracking(true);
+        final CountDownLatch done = new CountDownLatch(1);
+        final Thread waiter;
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            waiter = new Thread(() ->
+            {
+                try (AutoCloseableLock acl2 = lock.lock())
+                {
+                    done.countDown();
+                }
+            });
+            waiter.start();
+            final long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (lock.getSnapshot().getQueueLength() == 0 && System.nanoTime() < deadline)
+            {
+                Thread.sleep(1);
+            }
+            final LockSnapshot snapshot = lock.getSnapshot();
+            assertEquals(1, snapshot.getQueueLength());
+            assertEquals(Thread.currentThread().getId(), snapshot.getOwnerThreadId());
+        }
+        assertTrue(done.await(5, TimeUnit.SECONDS));
+        waiter.join();
+        assertFalse(lock.getSnapshot().isOwned());
+    }
+
+    @Test
+    void testUnsupportedQueueLength()
+    {
+        final CloseableLock lock = new CloseableLock(new CompactLock());
+        lock.setOwnerTracking(true);
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            final LockSnapshot snapshot = lock.getSnapshot();
+            assertTrue(snapshot.isOwned());
+            assertEquals(LockSnapshot.UNKNOWN, snapshot.getQueueLength());
+        }
+    }
+
+    @Test
+    void testConditionWaitReleasesOwner() throws Exception
+    {
+        final CloseableLock lock = new CloseableLock();
+        lock.setOwnerTracking(true);
+        final CountDownLatch waiting = new CountDownLatch(1);
+        final Thread waiter = new Thread(() ->
+        {
+            try (AutoCloseableLock acl = lock.lock())
+            {
+                waiting.countDown();
+                lock.waitForCondition(() -> false, Duration.ofMillis(300));
+                assertEquals(Thread.currentThread().getId(), lock.getSnapshot().getOwnerThreadId());
+            }
+        });
+        waiter.start();
+        assertTrue(waiting.await(5, TimeUnit.SECONDS));
+        try (AutoCloseableLock acl = lock.lock()) // acquired while the waiter waits
+        {
+            assertEquals(Thread.currentThread().getId(), lock.getSnapshot().getOwnerThreadId());
+        }
+        waiter.join();
+        assertFalse(lock.getSnapshot().isOwned());
+    }
+
+    @Test
+    void testReadWriteLock()
+    {
+        final CloseableReadWriteLock lock = new CloseableReadWriteLock();
+        lock.setOwnerTracking(true);
+        try (AutoCloseableLock read1 = lock.readLock(); AutoCloseableLock read2 = lock.readLock())
+        {
+            final LockSnapshot snapshot = lock.getSnapshot();
+            assertFalse(snapshot.isOwned());
+            assertEquals(2, snapshot.getReadHolderCount());
+            assertEquals(0, snapshot.getQueueLength());
+            assertEquals(LockSnapshot.UNKNOWN, lock.getReadLock().getSnapshot().getReadHolderCount());
+        }
+        try (AutoCloseableWriteLock write = lock.writeLock())
+        {
+            final LockSnapshot snapshot = lock.getSnapshot();
+            assertEquals(Thread.currentThread().getId(), snapshot.getOwnerThreadId());
+            assertEquals(0, snapshot.getReadHolderCount());
+        }
+        assertFalse(lock.getSnapshot().isOwned());
+    }
+
+    @Test
+    void testTimeoutContention() throws Exception
+    {
+        final CloseableLock lock = new CloseableLock("contention", new ReentrantLock());
+        lock.setOwnerTracking(true);
+        final CountDownLatch locked = new CountDownLatch(1);
+        final CountDownLatch release = new CountDownLatch(1);
+        final Thread holder = new Thread(() ->
+        {
+            try (AutoCloseableLock acl = lock.lock())
+            {
+                locked.countDown();
+                release.await();
+            }
+            catch (InterruptedException x)
+            {
+                Thread.currentThread().interrupt();
+            }
+        }, "holder");
+        holder.start();
+        try
+        {
+            assertTrue(locked.await(5, TimeUnit.SECONDS));
+            Thread.sleep(20);
+            final LockTimeoutException x = assertThrows(LockTimeoutException.class,
+                                                        () -> lock.tryLock(Duration.ofMillis(10)));
+            final LockSnapshot contention = x.getContention();
+            assertEquals(holder.getId(), contention.getOwnerThreadId());
+            assertEquals("holder", contention.getOwnerThreadName());
+            assertTrue(contention.getHeldNanos() >= TimeUnit.MILLISECONDS.toNanos(30));
+            assertEquals(0, contention.getQueueLength()); // the waiter has left the queue
+            assertTrue(x.getMessage().startsWith("contention - timeout after "), x.getMessage());
+            assertTrue(x.getMessage().contains("held by holder (" + holder.getId() + ") for "), x.getMessage());
+
+            //- serializable with the exception
+            final ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+            try (ObjectOutputStream out = new ObjectOutputStream(bytes))
+            {
+                out.writeObject(x);
+            }
+            try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray())))
+            {
+                final LockTimeoutException copy = (LockTimeoutException) in.readObject();
+                assertEquals("holder", copy.getContention().getOwnerThreadName());
+                assertEquals(x.getMessage(), copy.getMessage());
+            }
+        }
+        finally
+        {
+            release.countDown();
+            holder.join();
+        }
+        assertNull(new LockTimeoutException(Duration.ofMillis(5)).getContention());
+    }
+
+    @Test
+    void testReadWriteTimeoutContention() throws Exception
+    {
+        final CloseableReadWriteLock lock = new CloseableReadWriteLock();
+        lock.setOwnerTracking(true);
+        final AtomicReference<LockTimeoutException> timeout = new AtomicReference<>();
+        try (AutoCloseableLock read1 = lock.readLock(); AutoCloseableLock read2 = lock.readLock())
+        {
+            final Thread writer = new Thread(() -> timeout.set(
+                assertThrows(LockTimeoutException.class, () -> lock.tryWriteLock(Duration.ofMillis(10)))));
+            writer.start();
+            writer.join();
+        }
+        assertFalse(timeout.get().getContention().isOwned());
+        assertEquals(2, timeout.get().getContention().getReadHolderCount());
+
+        timeout.set(null);
+        try (AutoCloseableWriteLock write = lock.writeLock())
+        {
+            final Thread reader = new Thread(() -> timeout.set(
+                assertThrows(LockTimeoutException.class, () -> lock.tryReadLock(Duration.ofMillis(10)))));
+            reader.start();
+            reader.join();
+        }
+        assertEquals(Thread.currentThread().getId(), timeout.get().getContention().getOwnerThreadId());
+        assertEquals(0, timeout.get().getContention().getReadHolderCount());
+    }
+}
@@ -0,0 +1,171 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import org.junit.jupiter.api.Test;
+
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.AutoCloseableWriteLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.CloseableReadWriteLock;
+import com.csitte.autocloseablelock.PriorityLock;
+import com.csitte.autocloseablelock.PriorityReadWriteLock;
+
+
+/**
+ * Tests for PriorityLock and PriorityReadWriteLock classes
+ */
+@SuppressWarnings("PMD")
+public class PriorityLockTest
+{
+    private final List<String> order = Collections.synchronizedList(new ArrayList<>());
+
+    /** start thread which records its name while holding the lock */
+    private Thread start(String name, Supplier<AutoCloseableLock> locker)
+    {
+        Thread thread = new Thread(() -> {
+            try (AutoCloseableLock acl = locker.get())
+            {
+                order.add(name);
+            }
+        }, name);
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitTrue(BooleanSupplier condition) throws InterruptedException
+    {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!condition.getAsBoolean())
+        {
+            assertTrue(System.nanoTime() < deadline, "timeout");
+            Thread.sleep(1);
+        }
+    }
+
+    @Test
+    public void testInvalidArguments()
+    {
+        assertThrows(IllegalArgumentException.class, () -> new PriorityLock(0));
+        assertThrows(IllegalArgumentException.class, () -> new PriorityLock(257));
+        assertThrows(IllegalArgumentException.class, () -> new PriorityLock(2, Duration.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> new PriorityReadWriteLock(2, null));
+        CloseableLock lock = new CloseableLock(new PriorityLock(2));
+        assertThrows(IllegalArgumentException.class, () -> lock.lock(2));
+        assertThrows(IllegalArgumentException.class, () -> lock.tryLock(-1, Duration.ZERO));
+        try (AutoCloseableLock acl = new CloseableLock().lock(5)) // ignored without PriorityLock
+        {
+            assert acl != null; // ignored on runtime
+        }
+    }
+
+    @Test
+    public void testHighPriorityFirst() throws InterruptedException
+    {
+        PriorityLock priorityLock = new PriorityLock(3, Duration.ofSeconds(60));
+        CloseableLock lock = new CloseableLock(priorityLock);
+        List<Thread> threads = new ArrayList<>();
+        try (AutoCloseableLock acl = lock.lock(0))
+        {
+            threads.add(start("low", () -> lock.lock(0)));
+            awaitTrue(() -> priorityLock.getQueueLength() == 1);
+            threads.add(start("middle", () -> lock.tryLock(1, Duration.ofSeconds(10))));
+            awaitTrue(() -> priorityLock.getQueueLength() == 2);
+            threads.add(start("high", () -> lock.lock(2)));
+            awaitTrue(() -> priorityLock.getQueueLength() == 3);
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals(Arrays.asList("high", "middle", "low"), order);
+    }
+
+    @Test
+    public void testAging() throws InterruptedException
+    {
+        PriorityLock priorityLock = new PriorityLock(3, Duration.ofMillis(20));
+        CloseableLock lock = new CloseableLock(priorityLock);
+        List<Thread> threads = new ArrayList<>();
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            threads.add(start("low", () -> lock.lock(0)));
+            awaitTrue(() -> priorityLock.getQueueLength() == 1);
+            Thread.sleep(100); // promoted to the highest class
+            threads.add(start("high", () -> lock.lock(2)));
+            awaitTrue(() -> priorityLock.getQueueLength() == 2);
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals(Arrays.asList("low", "high"), order);
+    }
+
+    @Test
+    public void testConditionKeepsPriority() throws InterruptedException
+    {
+        PriorityLock priorityLock = new PriorityLock(2);
+        CloseableLock lock = new CloseableLock(priorityLock);
+        boolean[] ready = new boolean[1];
+        Thread waiter = new Thread(() -> {
+            try (AutoCloseableLock acl = lock.lock(1))
+            {
+                lock.waitForCondition(() -> ready[0], Duration.ofSeconds(10));
+                assertEquals(1, priorityLock.getHoldCount());
+            }
+        });
+        waiter.start();
+        awaitTrue(() -> !priorityLock.isLocked());
+        try (AutoCloseableLock acl = lock.tryLock(0, Duration.ofSeconds(10)))
+        {
+            ready[0] = true;
+            lock.signalAll();
+        }
+        waiter.join();
+        assertFalse(priorityLock.isLocked());
+    }
+
+    @Test
+    public void testReadWriteLock() throws InterruptedException
+    {
+        PriorityReadWriteLock priorityLock = new PriorityReadWriteLock(3, Duration.ofSeconds(60));
+        CloseableReadWriteLock lock = new CloseableReadWriteLock(priorityLock);
+        List<Thread> threads = new ArrayList<>();
+        try (AutoCloseableLock readLock = lock.readLock(0))
+        {
+            threads.add(start("writer", () -> lock.writeLock(1)));
+            awaitTrue(() -> priorityLock.writeLock().getQueueLength() == 1);
+            threads.add(start("lowReader", () -> lock.readLock(1))); // queued behind the writer
+            threads.add(start("highReader", () -> lock.tryReadLock(2, Duration.ofSeconds(10))));
+            threads.get(2).join(); // joins the current reader
+            awaitTrue(() -> priorityLock.writeLock().getQueueLength() == 2);
+        }
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals(Arrays.asList("highReader", "writer", "lowReader"), order);
+
+        try (AutoCloseableWriteLock writeLock = lock.tryWriteLock(2, Duration.ofSeconds(10)))
+        {
+            writeLock.downgradeToReadLock();
+            Thread reader = start("reader", () -> lock.readLock(0));
+            reader.join();
+        }
+        assertThrows(UnsupportedOperationException.class, () -> priorityLock.readLock().newCondition());
+        assertThrows(IllegalMonitorStateException.class, () -> priorityLock.readLock().unlock());
+    }
+}
@@ -0,0 +1,216 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
+import java.util.function.Supplier;
+import java.util.stream.Stream;
+
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.Arguments;
+import org.junit.jupiter.params.provider.MethodSource;
+
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.BiasedLock;
+import com.csitte.autocloseablelock.ClhLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.CohortLock;
+import com.csitte.autocloseablelock.CompactLock;
+import com.csitte.autocloseablelock.LockCondition.BooleanLockCondition;
+import com.csitte.autocloseablelock.LockException;
+import com.csitte.autocloseablelock.McsLock;
+import com.csitte.autocloseablelock.PriorityLock;
+
+
+/**
+ * Tests for the queue lock implementations
+ */
+@SuppressWarnings("PMD")
+public class QueueLockTest
+{
+    private static final Duration SEC10 = Duration.ofSeconds(10);
+
+    static Stream<Arguments> locks()
+    {
+        return Stream.of(
+            Arguments.of("MCS", (Supplier<Lock>) McsLock::new),
+            Arguments.of("CLH", (Supplier<Lock>) ClhLock::new),
+            Arguments.of("Compact", (Supplier<Lock>) CompactLock::new),
+            Arguments.of("Biased", (Supplier<Lock>) BiasedLock::new),
+            Arguments.of("Cohort", (Supplier<Lock>) () -> new CohortLock(2, thread -> (int) thread.getId())),
+            Arguments.of("Priority", (Supplier<Lock>) () -> new PriorityLock(3)));
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("locks")
+    public void testMutualExclusion(String name, Supplier<Lock> factory) throws InterruptedException
+    {
+        CloseableLock lock = new CloseableLock(factory.get());
+        int[] counter = new int[1];
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++)
+        {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 20_000; i++)
+                {
+                    try (AutoCloseableLock acl = lock.lock())
+                    {
+                        counter[0]++;
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertEquals(8 * 20_000, counter[0]);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("locks")
+    public void testTimeouts(String name, Supplier<Lock> factory) throws InterruptedException
+    {
+        CloseableLock lock = new CloseableLock(factory.get());
+        int[] counter = new int[1];
+        List<Thread> threads = new ArrayList<>();
+        for (int t = 0; t < 8; t++)
+        {
+            threads.add(new Thread(() -> {
+                for (int i = 0; i < 5_000; i++)
+                {
+                    try (AutoCloseableLock acl = lock.tryLock(Duration.ofNanos(i % 3 == 0 ? 1 : 100_000)))
+                    {
+                        counter[0]++;
+                    }
+                    catch (LockException x)
+                    {
+                        // timeout: abandoned queue node
+                    }
+                }
+            }));
+        }
+        threads.forEach(Thread::start);
+        for (Thread thread : threads)
+        {
+            thread.join();
+        }
+        //- lock must still be usable after abandoned nodes
+        try (AutoCloseableLock acl = lock.tryLock(SEC10))
+        {
+            counter[0]++;
+        }
+        assertTrue(counter[0] > 0);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("locks")
+    public void testReentrancy(String name, Supplier<Lock> factory)
+    {
+        Lock baseLock = factory.get();
+        CloseableLock lock = new CloseableLock(baseLock);
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            try (AutoCloseableLock acl2 = lock.tryLock(null))
+            {
+                assertTrue(baseLock.tryLock());
+                baseLock.unlock();
+            }
+        }
+        assertThrows(IllegalMonitorStateException.class, lock::close);
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("locks")
+    public void testTryLock(String name, Supplier<Lock> factory) throws InterruptedException
+    {
+        Lock baseLock = factory.get();
+        AtomicBoolean acquired = new AtomicBoolean(true);
+        AtomicBoolean timedAcquired = new AtomicBoolean(true);
+        baseLock.lock();
+        try
+        {
+            Thread thread = new Thread(() -> {
+                acquired.set(baseLock.tryLock());
+                try
+                {
+                    timedAcquired.set(baseLock.tryLock(50, TimeUnit.MILLISECONDS));
+                }
+                catch (InterruptedException x)
+                {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            thread.start();
+            thread.join();
+        }
+        finally
+        {
+            baseLock.unlock();
+        }
+        assertFalse(acquired.get());
+        assertFalse(timedAcquired.get());
+        assertTrue(baseLock.tryLock());
+        baseLock.unlock();
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("locks")
+    public void testLockInterruptibly(String name, Supplier<Lock> factory) throws InterruptedException
+    {
+        CloseableLock lock = new CloseableLock(factory.get());
+        AtomicReference<Exception> exception = new AtomicReference<>();
+        Thread thread;
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            thread = new Thread(() -> {
+                try (AutoCloseableLock acl2 = lock.lockInterruptibly())
+                {
+                    // not reached
+                }
+                catch (LockException x)
+                {
+                    exception.set(x);
+                }
+            });
+            thread.start();
+            TimeUnit.MILLISECONDS.sleep(100);
+            thread.interrupt();
+            thread.join();
+        }
+        assertTrue(exception.get() instanceof LockException);
+        try (AutoCloseableLock acl = lock.tryLock(SEC10))
+        {
+            // lock is still usable
+        }
+    }
+
+    @ParameterizedTest(name = "{0}")
+    @MethodSource("locks")
+    public void testCondition(String name, Supplier<Lock> factory) throws InterruptedException
+    {
+        CloseableLock lock = new CloseableLock(factory.get());
+        BooleanLockCondition ready = new BooleanLockCondition(lock);
+        Thread thread = new Thread(() -> {
+            lock.wait(Duration.ofMillis(100));
+            ready.setState(true);
+        });
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            thread.start();
+            assertTrue(lock.waitForCondition(ready::isTrue, SEC10));
+            assertFalse(lock.waitForCondition(() -> false, Duration.ofMillis(50)));
+        }
+        thread.join();
+    }
+}
@@ -0,0 +1,221 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.InputStreamReader;
+import java.lang.management.ManagementFactory;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.LockTimeoutException;
+import com.csitte.autocloseablelock.SharedMemoryLock;
+
+@SuppressWarnings("PMD")
+public class SharedMemoryLockTest
+{
+    private Path file;
+
+    @BeforeEach
+    void setup() throws Exception
+    {
+        file = Files.createTempFile("shared", ".lock");
+    }
+
+    @AfterEach
+    void cleanup() throws Exception
+    {
+        Files.deleteIfExists(file);
+    }
+
+    @Test
+    void testReentrant()
+    {
+        final SharedMemoryLock sharedLock = new SharedMemoryLock(file);
+        final CloseableLock lock = new CloseableLock(sharedLock);
+        assertFalse(sharedLock.isLocked());
+        try (AutoCloseableLock outer = lock.lock())
+        {
+            try (AutoCloseableLock inner = lock.lock())
+            {
+                assertEquals(2, sharedLock.getHoldCount());
+            }
+            assertTrue(sharedLock.isLocked());
+            assertEquals(currentPid(), sharedLock.getOwnerProcessId());
+        }
+        assertFalse(sharedLock.isLocked());
+        assertEquals(0L, sharedLock.getOwnerProcessId());
+    }
+
+    @Test
+    void testMutualExclusion() throws Exception
+    {
+        // two mappings of the same file exclude each other like two processes
+        final CloseableLock lock1 = new CloseableLock(new SharedMemoryLock(file));
+        final CloseableLock lock2 = new CloseableLock(new SharedMemoryLock(file));
+        final int[] counter = {0};
+        final AtomicBoolean inside = new AtomicBoolean();
+        final AtomicBoolean overlap = new AtomicBoolean();
+        final Thread[] threads = new Thread[4];
+        for (int t = 0; t < threads.length; t++)
+        {
+            final CloseableLock lock = t % 2 == 0? lock1: lock2;
+            threads[t] = new Thread(() ->
+            {
+                for (int i = 0; i < 10_000; i++)
+                {
+                    try (AutoCloseableLock acl = lock.lock())
+                    {
+                        if (!inside.compareAndSet(false, true))
+                        {
+                            overlap.set(true);
+                        }
+                        counter[0]++;
+                        inside.set(false);
+                    }
+                }
+            });
+            threads[t].start();
+        }
+        for (final Thread thread : threads)
+        {
+            thread.join();
+        }
+        assertFalse(overlap.get());
+        try (AutoCloseableLock acl = lock1.lock())
+        {
+            assertEquals(40_000, counter[0]);
+        }
+    }
+
+    @Test
+    void testTimeout()
+    {
+        final CloseableLock lock1 = new CloseableLock(new SharedMemoryLock(file));
+        final CloseableLock lock2 = new CloseableLock(new SharedMemoryLock(file));
+        try (AutoCloseableLock acl = lock1.lock())
+        {
+            final long start = System.nanoTime();
+            assertThrows(LockTimeoutException.class, () -> lock2.tryLock(Duration.ofMillis(50)));
+            assertTrue(System.nanoTime() - start >= TimeUnit.MILLISECONDS.toNanos(50));
+            assertEquals(null, lock2.tryLockOrNull());
+        }
+        try (AutoCloseableLock acl = lock2.tryLock(Duration.ofMillis(50)))
+        {
+            assertTrue(acl != null);
+        }
+    }
+
+    @Test
+    void testDeadOwner() throws Exception
+    {
+        final String java = Paths.get(System.getProperty("java.home"), "bin", "java").toString();
+        final long childPid;
+        final Process child = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+                                                 SharedMemoryLockTest.class.getName(), file.toString())
+                        .redirectErrorStream(true).start();
+        try (BufferedReader out = new BufferedReader(new InputStreamReader(child.getInputStream(), StandardCharsets.UTF_8)))
+        {
+            final String line = out.readLine();
+            assertTrue(line != null && line.startsWith("locked "), line);
+            childPid = Long.parseLong(line.substring(7));
+        }
+        final SharedMemoryLock sharedLock = new SharedMemoryLock(file);
+        final CloseableLock lock = new CloseableLock(sharedLock);
+        assertEquals(childPid, sharedLock.getOwnerProcessId());
+        assertThrows(LockTimeoutException.class, () -> lock.tryLock(Duration.ofMillis(50))); // owner alive
+
+        child.getOutputStream().close(); // child dies without releasing the lock
+        assertTrue(child.waitFor(30, TimeUnit.SECONDS));
+        assertTrue(sharedLock.isLocked());
+        try (AutoCloseableLock acl = lock.tryLock(Duration.ofSeconds(5)))
+        {
+            assertEquals(currentPid(), sharedLock.getOwnerProcessId());
+        }
+        assertFalse(sharedLock.isLocked());
+    }
+
+    @Test
+    void testTakenOver() throws Exception
+    {
+        final SharedMemoryLock sharedLock = new SharedMemoryLock(file);
+        sharedLock.lock();
+        writeWord(0, DEAD_OWNER); // another process took the lock over (and died)
+        assertThrows(IllegalMonitorStateException.class, sharedLock::unlock);
+        assertFalse(sharedLock.isHeldByCurrentThread()); // the local lock is released
+
+        final AtomicBoolean acquired = new AtomicBoolean();
+        final Thread thread = new Thread(() ->
+        {
+            try (AutoCloseableLock acl = new CloseableLock(sharedLock).tryLock(Duration.ofSeconds(5)))
+            {
+                acquired.set(true);
+            }
+        });
+        thread.start();
+        thread.join();
+        assertTrue(acquired.get());
+    }
+
+    @Test
+    void testMixedNamespaces() throws Exception
+    {
+        final SharedMemoryLock sharedLock = new SharedMemoryLock(file);
+        writeWord(8, -1L); // a process of another pid namespace opened the file
+        writeWord(0, DEAD_OWNER);
+        final CloseableLock lock = new CloseableLock(sharedLock);
+        assertThrows(LockTimeoutException.class, () -> lock.tryLock(Duration.ofMillis(100))); // no takeover
+        assertEquals(DEAD_OWNER >>> 32, sharedLock.getOwnerProcessId());
+    }
+
+    /** Token of a process which does not exist (pid above the maximum pid) */
+    private static final long DEAD_OWNER = 0x7FFF_FFFEL << 32;
+
+    private void writeWord(final int offset, final long value) throws Exception
+    {
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ, StandardOpenOption.WRITE))
+        {
+            channel.map(FileChannel.MapMode.READ_WRITE, 0L, 64L).order(ByteOrder.nativeOrder()).putLong(offset, value);
+        }
+    }
+
+    private static long currentPid()
+    {
+        final String name = ManagementFactory.getRuntimeMXBean().getName(); // pid@host
+        return Long.parseLong(name.substring(0, name.indexOf('@')));
+    }
+
+    /**
+     * Child process of {@link #testDeadOwner()}: acquire the lock and halt when stdin is closed.
+     */
+    public static void main(final String[] args) throws Exception
+    {
+        final SharedMemoryLock lock = new SharedMemoryLock(new File(args[0]).toPath());
+        lock.lock();
+        System.out.println("locked " + currentPid());
+        System.out.flush();
+        while (System.in.read() >= 0)
+        {
+            // wait for EOF
+        }
+        Runtime.getRuntime().halt(1);
+    }
+}
@@ -0,0 +1,185 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.StringWriter;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+import org.junit.jupiter.api.Test;
+
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.TraceExporter;
+import com.csitte.autocloseablelock.TraceListener;
+
+/**
+ * Tests for TraceListener and TraceExporter; the callbacks are called directly
+ */
+@SuppressWarnings("PMD")
+public class TraceListenerTest
+{
+    private final TraceListener listener = new TraceListener();
+
+    private static String export() throws IOException
+    {
+        final ByteArrayOutputStream dump = new ByteArrayOutputStream();
+        TraceListener.dump(dump);
+        final StringWriter json = new StringWriter();
+        TraceExporter.export(new ByteArrayInputStream(dump.toByteArray()), json);
+        return json.toString();
+    }
+
+    private static int count(final String json, final String regex)
+    {
+        final Matcher matcher = Pattern.compile(regex).matcher(json);
+        int count = 0;
+        while (matcher.find())
+        {
+            count++;
+        }
+        return count;
+    }
+
+    @Test
+    void testExport() throws Exception
+    {
+        final CloseableLock lock = new CloseableLock("trace-\"orders\"", new ReentrantLock());
+        final Thread thread = new Thread(() ->
+        {
+            listener.onAcquire(lock);
+            listener.onAcquired(lock);
+            listener.onAcquire(lock); // reentrant
+            listener.onAcquired(lock);
+            listener.onWait(lock);
+            listener.onSignal(lock, true);
+            listener.onRelease(lock);
+            listener.onRelease(lock);
+            listener.onAcquire(lock);
+            listener.onTimeout(lock, Duration.ofMillis(5));
+        }, "trace-thread");
+        thread.start();
+        thread.join();
+
+        final String json = export();
+        assertTrue(json.startsWith("{\"displayTimeUnit\":\"ns\",\"traceEvents\":["), json);
+        assertTrue(json.contains("\"ph\":\"M\",\"pid\":1,\"tid\":" + thread.getId() + ",\"args\":{\"name\":\"trace-thread\"}"), json);
+        assertEquals(3, count(json, "\"name\":\"acquire trace-\\\\\"orders\\\\\"\",\"ph\":\"X\""), json);
+        assertEquals(2, count(json, "\"name\":\"hold trace-\\\\\"orders\\\\\"\",\"ph\":\"X\""), json);
+        assertEquals(1, count(json, "\"name\":\"wait trace-\\\\\"orders\\\\\"\",\"ph\":\"i\""), json);
+        assertEquals(1, count(json, "\"name\":\"signal trace-\\\\\"orders\\\\\"\",\"ph\":\"i\""), json);
+        assertEquals(1, count(json, "\"name\":\"timeout trace-\\\\\"orders\\\\\"\",\"ph\":\"i\""), json);
+
+        // the buffer of the terminated thread is removed after the dump
+        assertTrue(!export().contains("trace-thread"));
+    }
+
+    @Test
+    void testRingOverflow() throws Exception
+    {
+        final CloseableLock lock = new CloseableLock("trace-overflow-lock", new ReentrantLock());
+        final Thread thread = new Thread(() ->
+        {
+            listener.onAcquire(lock); // records the name; overwritten in the ring
+            for (int i = 0; i < TraceListener.DEFAULT_RECORDS; i++)
+            {
+                listener.onAcquired(lock);
+                listener.onRelease(lock);
+            }
+        }, "trace-overflow");
+        thread.start();
+        thread.join();
+
+        final String json = export();
+        assertEquals(TraceListener.DEFAULT_RECORDS / 2, count(json, "\"name\":\"hold trace-overflow-lock\""));
+    }
+
+    @Test
+    void testUniqueLockIds() throws Exception
+    {
+        final Thread thread = new Thread(() ->
+        {
+            for (int i = 0; i < 1000; i++)
+            {
+                final CloseableLock lock = new CloseableLock(); // unnamed
+                listener.onAcquire(lock);
+                listener.onAcquired(lock);
+                listener.onRelease(lock);
+            }
+        }, "trace-ids");
+        thread.start();
+        thread.join();
+
+        final Matcher matcher = Pattern.compile("\"name\":\"hold (lock@[0-9a-f]+)\",\"ph\":\"X\",\"pid\":1,\"tid\":"
+                                                + thread.getId() + ",").matcher(export());
+        final Set<String> names = new HashSet<>();
+        while (matcher.find())
+        {
+            names.add(matcher.group(1));
+        }
+        assertEquals(1000, names.size()); // one track per lock
+    }
+
+    @Test
+    void testThreadLimit() throws Exception
+    {
+        final CloseableLock lock = new CloseableLock();
+        for (int i = 0; i <= TraceListener.DEFAULT_THREADS; i++)
+        {
+            final Thread thread = new Thread(() ->
+            {
+                listener.onAcquire(lock);
+                listener.onAcquired(lock);
+                listener.onRelease(lock);
+            }, "trace-churn-" + i);
+            thread.start();
+            thread.join();
+        }
+        final String json = export();
+        assertTrue(count(json, "\"ph\":\"M\"") <= TraceListener.DEFAULT_THREADS, "too many buffers");
+        assertTrue(json.contains("trace-churn-" + TraceListener.DEFAULT_THREADS), "terminated buffers are dropped for new threads");
+    }
+
+    @Test
+    void testNoAllocation()
+    {
+        assumeTrue(ManagementFactory.getThreadMXBean() instanceof com.sun.management.ThreadMXBean);
+        final com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        final CloseableLock lock = new CloseableLock("trace-allocation", new ReentrantLock());
+        final long threadId = Thread.currentThread().getId();
+        for (int i = 0; i < 20_000; i++) // warm up; first event creates the buffer
+        {
+            listener.onAcquire(lock);
+            listener.onAcquired(lock);
+            listener.onRelease(lock);
+        }
+        final long before = threads.getThreadAllocatedBytes(threadId);
+        final int iterations = 1_000_000;
+        for (int i = 0; i < iterations; i++)
+        {
+            listener.onAcquire(lock);
+            listener.onAcquired(lock);
+            listener.onRelease(lock);
+        }
+        final long allocated = threads.getThreadAllocatedBytes(threadId) - before;
+        final double perEvent = (double) allocated / (3L * iterations); // excludes constant overhead of the measurement
+        assertTrue(perEvent < 0.01, "allocated " + allocated + " bytes, " + perEvent + " per event");
+    }
+
+    @Test
+    void testInvalidDump()
+    {
+        assertThrows(IOException.class,
+                     () -> TraceExporter.export(new ByteArrayInputStream(new byte[8]), new StringWriter()));
+    }
+}
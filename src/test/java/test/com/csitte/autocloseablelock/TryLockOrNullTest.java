@@ -0,0 +1,113 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.jupiter.api.Test;
+
+import com.csitte.autocloseablelock.AdmissionControlledCloseableLock;
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.AutoCloseableWriteLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.CloseableReadWriteLock;
+import com.csitte.autocloseablelock.LockNotAcquiredException;
+import com.csitte.autocloseablelock.LockTimeoutException;
+
+
+/**
+ * Tests for the exception-free tryLockOrNull variants and the preallocated exceptions
+ */
+@SuppressWarnings("PMD")
+public class TryLockOrNullTest
+{
+    /** run in another thread and return the result */
+    private static <T> T inOtherThread(java.util.function.Supplier<T> supplier) throws InterruptedException
+    {
+        AtomicReference<T> result = new AtomicReference<>();
+        Thread thread = new Thread(() -> result.set(supplier.get()));
+        thread.start();
+        thread.join();
+        return result.get();
+    }
+
+    @Test
+    public void testTryLockOrNull() throws InterruptedException
+    {
+        CloseableLock lock = new CloseableLock();
+        try (AutoCloseableLock acl = lock.tryLockOrNull())
+        {
+            assertNotNull(acl);
+            assertNull(inOtherThread(() -> lock.tryLockOrNull()));
+        }
+        AutoCloseableLock acl = inOtherThread(() -> lock.tryLockOrNull());
+        assertNotNull(acl); // acquired by other thread, which has terminated
+    }
+
+    @Test
+    public void testReadWriteLockOrNull() throws InterruptedException
+    {
+        CloseableReadWriteLock lock = new CloseableReadWriteLock();
+        try (AutoCloseableLock readLock = lock.tryReadLockOrNull())
+        {
+            assertNotNull(readLock);
+            assertNull(inOtherThread(() -> lock.tryWriteLockOrNull()));
+            assertEquals(Boolean.TRUE, inOtherThread(() -> {
+                try (AutoCloseableLock readLock2 = lock.tryReadLockOrNull())
+                {
+                    return readLock2 != null;
+                }
+            }));
+        }
+        try (AutoCloseableWriteLock writeLock = lock.tryWriteLockOrNull())
+        {
+            assertNotNull(writeLock);
+            assertNull(inOtherThread(() -> lock.tryReadLockOrNull()));
+            writeLock.downgradeToReadLock();
+            assertNotNull(inOtherThread(() -> lock.tryReadLockOrNull()));
+        }
+    }
+
+    @Test
+    public void testPreallocatedException() throws InterruptedException
+    {
+        CloseableLock lock = new CloseableLock();
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            LockNotAcquiredException x1 = inOtherThread(() ->
+                assertThrows(LockNotAcquiredException.class, () -> lock.tryLock(Duration.ZERO)));
+            LockNotAcquiredException x2 = inOtherThread(() ->
+                assertThrows(LockNotAcquiredException.class, () -> lock.tryLock(null)));
+            assertSame(x1, x2);
+            assertEquals(0, x1.getStackTrace().length);
+            assertEquals("not acquired", x1.getMessage());
+        }
+    }
+
+    @Test
+    public void testTimeoutMessage()
+    {
+        LockTimeoutException x = new LockTimeoutException(Duration.ofMillis(5));
+        assertEquals("timeout after PT0.005S", x.getMessage());
+        assertEquals("lock - timeout after PT0.005S", new LockTimeoutException("lock", Duration.ofMillis(5)).getMessage());
+        assertEquals(LockTimeoutException.class.getName() + ": timeout after PT0.005S", x.toString());
+    }
+
+    @Test
+    public void testAdmissionControlled() throws InterruptedException
+    {
+        AdmissionControlledCloseableLock lock = new AdmissionControlledCloseableLock(10);
+        try (AutoCloseableLock acl = lock.tryLockOrNull())
+        {
+            assertNotNull(acl);
+            assertNull(inOtherThread(() -> lock.tryLockOrNull()));
+            inOtherThread(() -> assertThrows(LockNotAcquiredException.class, () -> lock.tryLock(Duration.ZERO)));
+        }
+        assertEquals(0, lock.getRejectedCount()); // a try without wait is not rejected
+    }
+}
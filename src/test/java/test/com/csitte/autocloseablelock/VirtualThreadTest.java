@@ -0,0 +1,129 @@
+package test.com.csitte.autocloseablelock;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assumptions.assumeTrue;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.csitte.autocloseablelock.AutoCloseableLock;
+import com.csitte.autocloseablelock.CloseableLock;
+import com.csitte.autocloseablelock.LockCondition.BooleanLockCondition;
+
+/**
+ * 100k virtual threads on one lock (skipped before Java 21)
+ */
+@SuppressWarnings("PMD")
+public class VirtualThreadTest
+{
+    private static final int THREADS = 100_000;
+
+    private ExecutorService executor;
+
+    @BeforeEach
+    void setup()
+    {
+        try
+        {
+            // Executors.newVirtualThreadPerTaskExecutor(), by reflection to compile for Java 8
+            executor = (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        }
+        catch (ReflectiveOperationException x)
+        {
+            executor = null;
+        }
+        assumeTrue(executor != null, "virtual threads require Java 21");
+    }
+
+    @AfterEach
+    void shutdown() throws InterruptedException
+    {
+        if (executor != null)
+        {
+            executor.shutdownNow();
+            assertTrue(executor.awaitTermination(60, TimeUnit.SECONDS));
+        }
+    }
+
+    @Test
+    void testLockContention() throws Exception
+    {
+        final CloseableLock lock = new CloseableLock();
+        final int[] counter = {0};
+        final CountDownLatch done = new CountDownLatch(THREADS);
+        final AtomicLong heartbeats = new AtomicLong();
+        executor.execute(() ->
+        {
+            // needs a carrier thread while the lock is contended
+            while (done.getCount() > 0)
+            {
+                heartbeats.incrementAndGet();
+                try
+                {
+                    Thread.sleep(10);
+                }
+                catch (InterruptedException x)
+                {
+                    return;
+                }
+            }
+        });
+        for (int i = 0; i < THREADS; i++)
+        {
+            executor.execute(() ->
+            {
+                try (AutoCloseableLock acl = lock.lock())
+                {
+                    counter[0]++;
+                    Thread.yield();
+                }
+                done.countDown();
+            });
+        }
+        assertTrue(done.await(60, TimeUnit.SECONDS));
+        try (AutoCloseableLock acl = lock.lock())
+        {
+            assertEquals(THREADS, counter[0]);
+        }
+        assertTrue(heartbeats.get() > 0);
+    }
+
+    @Test
+    void testConditionWithoutPolling() throws Exception
+    {
+        final CloseableLock lock = new CloseableLock();
+        final BooleanLockCondition ready = new BooleanLockCondition(lock);
+        final AtomicLong evaluations = new AtomicLong();
+        final CountDownLatch started = new CountDownLatch(THREADS);
+        final CountDownLatch finished = new CountDownLatch(THREADS);
+        for (int i = 0; i < THREADS; i++)
+        {
+            executor.execute(() ->
+            {
+                started.countDown();
+                lock.waitForCondition(() ->
+                {
+                    evaluations.incrementAndGet();
+                    return ready.isTrue();
+                }, (Duration) null);
+                finished.countDown();
+            });
+        }
+        assertTrue(started.await(60, TimeUnit.SECONDS));
+        Thread.sleep(2500); // polling once per second would re-test each condition twice
+        final long beforeSignal = evaluations.get();
+        ready.setState(true);
+        assertTrue(finished.await(60, TimeUnit.SECONDS));
+        // each condition is tested twice before the wait: without and with the lock
+        assertTrue(beforeSignal < 2 * THREADS + THREADS / 10, "condition re-tested without signal: " + beforeSignal);
+    }
+}